@@ -0,0 +1,520 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Tablas de análisis de una {@link GLC}: no terminales anulables, conjuntos
+ * PRIMEROS y SIGUIENTES, longitud mínima de la cadena terminal que deriva cada
+ * no terminal (con una cadena de esa longitud como testigo), y si el lenguaje es
+ * vacío o finito. Se calculan una sola vez por versión de la gramática
+ * ({@link GLC#getAnalisis()}).
+ *
+ * Los conjuntos son arreglos de bits (long[]) sobre los terminales; en SIGUIENTES
+ * el bit {@code fin} representa el fin de la cadena ($). Cada conjunto se calcula
+ * como un punto fijo con una cola de trabajo sobre el grafo de dependencias
+ * (B ↦ A si PRIMEROS(B) ⊆ PRIMEROS(A)), de modo que un no terminal solo se vuelve
+ * a procesar cuando alguno de los conjuntos de los que depende creció.
+ */
+public final class AnalisisGramatica {
+
+    /** Carácter con el que se muestra el fin de cadena en SIGUIENTES. */
+    public static final char FIN = '$';
+
+    /** Longitud mínima de un no terminal que no deriva ninguna cadena terminal. */
+    static final int INFINITA = Integer.MAX_VALUE;
+
+    /** Longitud máxima de los testigos que se construyen como texto. */
+    public static final int MAX_TESTIGO = 1_000_000;
+
+    final GramaticaCompilada g;
+    final int palabras;              // longs por conjunto (terminales + fin)
+    final int fin;                   // Bit del fin de cadena: numTerminales
+    final boolean[] anulable;
+    final long[][] primeros;         // primeros[A]
+    final long[][] siguientes;       // siguientes[A]
+    final boolean[] productivo;      // A deriva alguna cadena terminal
+    final int[] longitudMinima;      // longitudMinima[A], INFINITA si A es improductivo
+    final int[] produccionMinima;    // Producción de A que alcanza longitudMinima[A], -1 si es improductivo
+    final int[] pasosMinimos;        // Producciones mínimas para que A derive una cadena terminal
+    final boolean finito;            // El lenguaje del inicial es finito
+
+    AnalisisGramatica(GramaticaCompilada g) {
+        this.g = g;
+        int n = g.numNoTerminales;
+        this.fin = g.numTerminales();
+        this.palabras = (fin + 1 + 63) >>> 6;
+        this.anulable = AnalizadorEarley.calcularAnulables(g);
+        this.primeros = new long[n][palabras];
+        this.siguientes = new long[n][palabras];
+        this.longitudMinima = new int[n];
+        this.produccionMinima = new int[n];
+        this.pasosMinimos = new int[n];
+        this.productivo = calcularProductivos();
+        calcularPrimeros();
+        calcularSiguientes();
+        calcularLongitudMinima();
+        this.finito = calcularFinito();
+    }
+
+    /**
+     * Productivos en tiempo lineal: cada producción lleva la cuenta de las
+     * apariciones de no terminales que aún no se saben productivos; cuando llega
+     * a 0, su lado izquierdo es productivo y se descuenta de las producciones
+     * donde aparece.
+     */
+    private boolean[] calcularProductivos() {
+        int n = g.numNoTerminales;
+        boolean[] resultado = new boolean[n];
+        int[] pendientes = new int[g.numProducciones()];
+        List<List<Integer>> apariciones = apariciones();
+        Deque<Integer> cola = new ArrayDeque<>();
+        for (int p = 0; p < g.numProducciones(); p++) {
+            for (int s : g.derecha[p]) if (g.esNoTerminal(s)) pendientes[p]++;
+            if (pendientes[p] == 0 && !resultado[g.izquierda[p]]) {
+                resultado[g.izquierda[p]] = true;
+                cola.add(g.izquierda[p]);
+            }
+        }
+        while (!cola.isEmpty()) {
+            for (int p : apariciones.get(cola.poll())) {
+                int a = g.izquierda[p];
+                if (--pendientes[p] == 0 && !resultado[a]) {
+                    resultado[a] = true;
+                    cola.add(a);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    // apariciones[B] = producciones con B en el lado derecho, una vez por aparición.
+    private List<List<Integer>> apariciones() {
+        List<List<Integer>> apariciones = new ArrayList<>();
+        for (int i = 0; i < g.numNoTerminales; i++) apariciones.add(new ArrayList<>());
+        for (int p = 0; p < g.numProducciones(); p++) {
+            for (int s : g.derecha[p]) if (g.esNoTerminal(s)) apariciones.get(s).add(p);
+        }
+        return apariciones;
+    }
+
+    /** PRIMEROS(A) ⊇ {a} por cada A → γ a ... y ⊇ PRIMEROS(B) por cada A → γ B ... con γ anulable. */
+    private void calcularPrimeros() {
+        int n = g.numNoTerminales;
+        List<Set<Integer>> dependientes = listas(n);
+        for (int p = 0; p < g.numProducciones(); p++) {
+            int a = g.izquierda[p];
+            for (int s : g.derecha[p]) {
+                if (!g.esNoTerminal(s)) {
+                    agregarBit(primeros[a], s - n);
+                    break;
+                }
+                if (s != a) dependientes.get(s).add(a);
+                if (!anulable[s]) break;
+            }
+        }
+        propagar(primeros, dependientes);
+    }
+
+    /**
+     * Para cada A → α B β: SIGUIENTES(B) ⊇ PRIMEROS(β) y, si β es anulable,
+     * SIGUIENTES(B) ⊇ SIGUIENTES(A). β se recorre de derecha a izquierda
+     * acumulando sus PRIMEROS.
+     */
+    private void calcularSiguientes() {
+        int n = g.numNoTerminales;
+        if (g.inicial >= 0) agregarBit(siguientes[g.inicial], fin);
+        List<Set<Integer>> dependientes = listas(n);
+        long[] acumulado = new long[palabras];
+        for (int p = 0; p < g.numProducciones(); p++) {
+            int a = g.izquierda[p];
+            int[] der = g.derecha[p];
+            Arrays.fill(acumulado, 0);
+            boolean restoAnulable = true;
+            for (int i = der.length - 1; i >= 0; i--) {
+                int s = der[i];
+                if (!g.esNoTerminal(s)) {
+                    Arrays.fill(acumulado, 0);
+                    agregarBit(acumulado, s - n);
+                    restoAnulable = false;
+                    continue;
+                }
+                unir(siguientes[s], acumulado);
+                if (restoAnulable && s != a) dependientes.get(a).add(s);
+                if (anulable[s]) {
+                    unir(acumulado, primeros[s]);
+                } else {
+                    System.arraycopy(primeros[s], 0, acumulado, 0, palabras);
+                    restoAnulable = false;
+                }
+            }
+        }
+        propagar(siguientes, dependientes);
+    }
+
+    // Cola de trabajo: cuando el conjunto de B crece, se une a los de sus dependientes.
+    private void propagar(long[][] conjuntos, List<Set<Integer>> dependientes) {
+        Deque<Integer> cola = new ArrayDeque<>();
+        boolean[] enCola = new boolean[conjuntos.length];
+        for (int b = 0; b < conjuntos.length; b++) {
+            cola.add(b);
+            enCola[b] = true;
+        }
+        while (!cola.isEmpty()) {
+            int b = cola.poll();
+            enCola[b] = false;
+            for (int a : dependientes.get(b)) {
+                if (unir(conjuntos[a], conjuntos[b]) && !enCola[a]) {
+                    enCola[a] = true;
+                    cola.add(a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Longitud mínima: min sobre A → X1..Xk de la suma de las longitudes mínimas
+     * de los Xi (1 para un terminal). Se usa el algoritmo de Knuth (Dijkstra
+     * generalizado a gramáticas): los no terminales se fijan en orden creciente y
+     * una producción se evalúa una sola vez, cuando todos los no terminales de su
+     * lado derecho ya están fijos. Así la producción que alcanza el mínimo solo usa
+     * no terminales fijados antes, y expandirla repetidamente termina en un testigo.
+     * Los pasos mínimos se calculan igual, contando 1 por producción y 0 por terminal.
+     */
+    private void calcularLongitudMinima() {
+        minimos(longitudMinima, produccionMinima, 1, 0);
+        minimos(pasosMinimos, new int[g.numNoTerminales], 0, 1);
+    }
+
+    private void minimos(int[] minimo, int[] mejor, int costoTerminal, int costoProduccion) {
+        Arrays.fill(minimo, INFINITA);
+        Arrays.fill(mejor, -1);
+        List<List<Integer>> apariciones = apariciones();
+        int[] pendientes = new int[g.numProducciones()];
+        boolean[] fijo = new boolean[g.numNoTerminales];
+        PriorityQueue<long[]> cola = new PriorityQueue<>((x, y) -> Long.compare(x[0], y[0]));   // {valor, A}
+        for (int p = 0; p < g.numProducciones(); p++) {
+            for (int s : g.derecha[p]) if (g.esNoTerminal(s)) pendientes[p]++;
+            if (pendientes[p] == 0) evaluar(p, minimo, mejor, costoTerminal, costoProduccion, cola);
+        }
+        while (!cola.isEmpty()) {
+            long[] e = cola.poll();
+            int a = (int) e[1];
+            if (fijo[a] || e[0] > minimo[a]) continue;
+            fijo[a] = true;
+            for (int p : apariciones.get(a)) {
+                if (--pendientes[p] == 0) evaluar(p, minimo, mejor, costoTerminal, costoProduccion, cola);
+            }
+        }
+    }
+
+    // Valor de la producción con su lado derecho ya fijo; las sumas que no caben se saturan.
+    private void evaluar(int p, int[] minimo, int[] mejor, int costoTerminal, int costoProduccion,
+                         PriorityQueue<long[]> cola) {
+        long suma = costoProduccion;
+        for (int s : g.derecha[p]) suma += g.esNoTerminal(s) ? minimo[s] : costoTerminal;
+        suma = Math.min(suma, INFINITA - 1);
+        int a = g.izquierda[p];
+        if (suma < minimo[a]) {
+            minimo[a] = (int) suma;
+            mejor[a] = p;
+            cola.add(new long[]{suma, a});
+        }
+    }
+
+    /**
+     * El lenguaje es infinito si y solo si, entre los no terminales útiles
+     * (productivos y alcanzables por producciones productivas), algún ciclo
+     * A ⇒ αBβ ⇒* ... ⇒ A usa una producción cuyo contexto αβ puede derivar una
+     * cadena no vacía: ese ciclo se bombea. Los ciclos que solo pasan por
+     * producciones unitarias o cuyo contexto solo deriva ε no agregan cadenas.
+     * Se buscan las componentes fuertemente conexas (Tarjan, con pila explícita) y
+     * se revisa si alguna arista que crece queda dentro de una componente.
+     */
+    private boolean calcularFinito() {
+        int n = g.numNoTerminales;
+        if (g.inicial < 0 || !productivo[g.inicial]) return true;
+        boolean[] productiva = new boolean[g.numProducciones()];
+        for (int p = 0; p < g.numProducciones(); p++) {
+            productiva[p] = true;
+            for (int s : g.derecha[p]) if (g.esNoTerminal(s) && !productivo[s]) productiva[p] = false;
+        }
+
+        // No terminales que derivan alguna cadena no vacía.
+        boolean[] noVacio = new boolean[n];
+        List<List<Integer>> apariciones = apariciones();
+        Deque<Integer> cola = new ArrayDeque<>();
+        for (int p = 0; p < g.numProducciones(); p++) {
+            if (!productiva[p] || noVacio[g.izquierda[p]]) continue;
+            for (int s : g.derecha[p]) {
+                if (!g.esNoTerminal(s)) {
+                    noVacio[g.izquierda[p]] = true;
+                    cola.add(g.izquierda[p]);
+                    break;
+                }
+            }
+        }
+        while (!cola.isEmpty()) {
+            for (int p : apariciones.get(cola.poll())) {
+                int a = g.izquierda[p];
+                if (productiva[p] && !noVacio[a]) {
+                    noVacio[a] = true;
+                    cola.add(a);
+                }
+            }
+        }
+
+        // Tarjan desde el inicial sobre las producciones productivas.
+        int[] indice = new int[n];
+        int[] bajo = new int[n];
+        int[] componente = new int[n];
+        Arrays.fill(indice, -1);
+        Arrays.fill(componente, -1);
+        boolean[] enPila = new boolean[n];
+        Deque<Integer> pilaTarjan = new ArrayDeque<>();
+        Deque<int[]> llamadas = new ArrayDeque<>();   // {A, producción actual, posición actual}
+        int siguiente = 0;
+        int componentes = 0;
+        indice[g.inicial] = bajo[g.inicial] = siguiente++;
+        pilaTarjan.push(g.inicial);
+        enPila[g.inicial] = true;
+        llamadas.push(new int[]{g.inicial, 0, 0});
+        while (!llamadas.isEmpty()) {
+            int[] marco = llamadas.peek();
+            int a = marco[0];
+            int[] prods = g.produccionesDe[a];
+            int b = -1;
+            while (marco[1] < prods.length && b < 0) {
+                int p = prods[marco[1]];
+                int[] der = g.derecha[p];
+                if (!productiva[p] || marco[2] >= der.length) {
+                    marco[1]++;
+                    marco[2] = 0;
+                    continue;
+                }
+                int s = der[marco[2]++];
+                if (!g.esNoTerminal(s)) continue;
+                if (indice[s] < 0) {
+                    b = s;
+                } else if (enPila[s]) {
+                    bajo[a] = Math.min(bajo[a], indice[s]);
+                }
+            }
+            if (b >= 0) {
+                indice[b] = bajo[b] = siguiente++;
+                pilaTarjan.push(b);
+                enPila[b] = true;
+                llamadas.push(new int[]{b, 0, 0});
+                continue;
+            }
+            llamadas.pop();
+            if (!llamadas.isEmpty()) {
+                int padre = llamadas.peek()[0];
+                bajo[padre] = Math.min(bajo[padre], bajo[a]);
+            }
+            if (bajo[a] == indice[a]) {
+                int c;
+                do {
+                    c = pilaTarjan.pop();
+                    enPila[c] = false;
+                    componente[c] = componentes;
+                } while (c != a);
+                componentes++;
+            }
+        }
+
+        for (int p = 0; p < g.numProducciones(); p++) {
+            int a = g.izquierda[p];
+            if (!productiva[p] || componente[a] < 0) continue;
+            int[] der = g.derecha[p];
+            int crecen = 0;   // Símbolos del lado derecho que pueden derivar algo no vacío
+            for (int s : der) if (!g.esNoTerminal(s) || noVacio[s]) crecen++;
+            for (int s : der) {
+                if (!g.esNoTerminal(s) || componente[s] != componente[a]) continue;
+                if (crecen - (noVacio[s] ? 1 : 0) > 0) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica si la forma sentencial todavía puede derivar el objetivo. Se descarta si:
+     * - los terminales antes del primer no terminal no son prefijo del objetivo, o los
+     *   posteriores al último no son sufijo (en derivaciones izquierdas y derechas
+     *   esos terminales ya no cambian; en una gramática en FNG cada paso izquierdo
+     *   alarga el prefijo, así que la búsqueda tiene a lo sumo |w| niveles);
+     * - la suma de las longitudes mínimas de sus símbolos supera |w|, o alguno es improductivo;
+     * - el siguiente carácter del objetivo no está en PRIMEROS del resto de la forma.
+     * Una forma sin no terminales solo se acepta si es igual al objetivo.
+     */
+    boolean puedeDerivar(int[] forma, int[] objetivo) {
+        int n = forma.length;
+        int primero = -1, ultimo = -1;
+        long minimo = 0;
+        for (int i = 0; i < n; i++) {
+            int s = forma[i];
+            if (g.esNoTerminal(s)) {
+                if (primero < 0) primero = i;
+                ultimo = i;
+                int l = longitudMinima[s];
+                if (l == INFINITA) return false;
+                minimo += l;
+            } else {
+                minimo++;
+            }
+        }
+        if (primero < 0) return Arrays.equals(forma, objetivo);
+        if (minimo > objetivo.length) return false;
+
+        int sufijo = n - ultimo - 1;
+        if (!Arrays.equals(forma, 0, primero, objetivo, 0, primero)
+                || !Arrays.equals(forma, ultimo + 1, n, objetivo, objetivo.length - sufijo, objetivo.length)) {
+            return false;
+        }
+
+        // Con la longitud mínima ya verificada, si el objetivo se agotó el resto es anulable.
+        if (primero == objetivo.length) return true;
+        int siguiente = objetivo[primero];
+        for (int i = primero; i < n; i++) {
+            int s = forma[i];
+            if (!g.esNoTerminal(s)) return s == siguiente;
+            if (enPrimeros(s, siguiente - g.numNoTerminales)) return true;
+            if (!anulable[s]) return false;
+        }
+        return false;
+    }
+
+    /**
+     * Agrega a {@code destino} PRIMEROS(simbolos[desde..]) y devuelve true si esa
+     * secuencia es anulable.
+     */
+    boolean primerosDeForma(int[] simbolos, int desde, long[] destino) {
+        for (int i = desde; i < simbolos.length; i++) {
+            int s = simbolos[i];
+            if (!g.esNoTerminal(s)) {
+                agregarBit(destino, s - g.numNoTerminales);
+                return false;
+            }
+            unir(destino, primeros[s]);
+            if (!anulable[s]) return false;
+        }
+        return true;
+    }
+
+    /** Indica si el terminal t (índice 0..numTerminales-1) está en PRIMEROS(A). */
+    boolean enPrimeros(int a, int t) {
+        return (primeros[a][t >>> 6] & (1L << t)) != 0;
+    }
+
+    private static List<Set<Integer>> listas(int n) {
+        List<Set<Integer>> l = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) l.add(new HashSet<>());
+        return l;
+    }
+
+    static void agregarBit(long[] conjunto, int bit) {
+        conjunto[bit >>> 6] |= 1L << bit;
+    }
+
+    // destino ∪= origen; devuelve true si destino cambió.
+    static boolean unir(long[] destino, long[] origen) {
+        boolean cambio = false;
+        for (int w = 0; w < destino.length; w++) {
+            long nuevo = destino[w] | origen[w];
+            if (nuevo != destino[w]) {
+                destino[w] = nuevo;
+                cambio = true;
+            }
+        }
+        return cambio;
+    }
+
+    // --- Consultas por nombre ---
+
+    private int indice(String noTerminal) {
+        for (int a = 0; a < g.numNoTerminales; a++) {
+            if (g.nombres[a].equals(noTerminal)) return a;
+        }
+        throw new IllegalArgumentException("No terminal no existe: " + noTerminal);
+    }
+
+    public boolean esAnulable(String noTerminal) {
+        return anulable[indice(noTerminal)];
+    }
+
+    /** PRIMEROS(A), sin ε (la anulabilidad se consulta con {@link #esAnulable(String)}). */
+    public Set<Character> getPrimeros(String noTerminal) {
+        return aCaracteres(primeros[indice(noTerminal)]);
+    }
+
+    /** SIGUIENTES(A); el fin de cadena aparece como {@link #FIN}. */
+    public Set<Character> getSiguientes(String noTerminal) {
+        return aCaracteres(siguientes[indice(noTerminal)]);
+    }
+
+    /** Longitud de la cadena terminal más corta que deriva A, o -1 si A no deriva ninguna. */
+    public int getLongitudMinima(String noTerminal) {
+        int l = longitudMinima[indice(noTerminal)];
+        return l == INFINITA ? -1 : l;
+    }
+
+    /** Indica si la gramática no genera ninguna cadena (o no tiene símbolo inicial). */
+    public boolean esVacio() {
+        return g.inicial < 0 || !productivo[g.inicial];
+    }
+
+    /** Indica si la gramática genera una cantidad finita de cadenas (vale también si es vacía). */
+    public boolean esFinito() {
+        return finito;
+    }
+
+    /**
+     * Una de las cadenas más cortas que deriva A.
+     * @return la cadena, o null si A no deriva ninguna o si su longitud mínima
+     *         supera {@link #MAX_TESTIGO}.
+     */
+    public String getTestigo(String noTerminal) {
+        return testigo(indice(noTerminal));
+    }
+
+    // Expande la producción mínima de cada no terminal con una pila explícita.
+    String testigo(int a) {
+        if (longitudMinima[a] == INFINITA || longitudMinima[a] > MAX_TESTIGO) return null;
+        StringBuilder sb = new StringBuilder(longitudMinima[a]);
+        Deque<Integer> pila = new ArrayDeque<>();
+        pila.push(a);
+        while (!pila.isEmpty()) {
+            int s = pila.pop();
+            if (!g.esNoTerminal(s)) {
+                sb.append(g.nombres[s]);
+                continue;
+            }
+            int[] der = g.derecha[produccionMinima[s]];
+            for (int i = der.length - 1; i >= 0; i--) pila.push(der[i]);
+        }
+        return sb.toString();
+    }
+
+    Set<Character> aCaracteres(long[] conjunto) {
+        Set<Character> r = new TreeSet<>();
+        for (int t = 0; t <= fin; t++) {
+            if ((conjunto[t >>> 6] & (1L << t)) != 0) {
+                r.add(t == fin ? FIN : g.nombres[g.numNoTerminales + t].charAt(0));
+            }
+        }
+        return r;
+    }
+
+    /** Tabla legible con anulable, PRIMEROS, SIGUIENTES y longitud mínima de cada no terminal. */
+    public String getTexto() {
+        StringBuilder sb = new StringBuilder();
+        for (int a = 0; a < g.numNoTerminales; a++) {
+            String nt = g.nombres[a];
+            sb.append(nt).append(": anulable=").append(anulable[a] ? "sí" : "no")
+                    .append("  PRIMEROS=").append(aCaracteres(primeros[a]))
+                    .append("  SIGUIENTES=").append(aCaracteres(siguientes[a]))
+                    .append("  mín=").append(longitudMinima[a] == INFINITA ? "∞" : String.valueOf(longitudMinima[a]))
+                    .append("\n");
+        }
+        return sb.toString();
+    }
+}
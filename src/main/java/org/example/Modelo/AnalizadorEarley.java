@@ -0,0 +1,484 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Analizador de Earley para cualquier {@link GLC}, sin necesidad de convertirla
+ * a una forma normal.
+ *
+ * Las producciones ε se manejan con la técnica de Aycock y Horspool: al predecir
+ * un no terminal anulable, el ítem que lo espera se avanza de inmediato. Cada
+ * ítem se codifica como (ranura, origen), donde la ranura identifica la
+ * producción y la posición del punto.
+ *
+ * Las cadenas de completados deterministas (recursión por la derecha) se
+ * resuelven con la optimización de Joop Leo: en lugar de completar uno a uno
+ * los ítems de la cadena, se agrega directamente el ítem superior. Así el costo
+ * es O(n³) en el peor caso, O(n²) para gramáticas no ambiguas y lineal para las
+ * gramáticas LR-regulares. Si la cadena es aceptada, el bosque de análisis
+ * compartido ({@link BosqueSPPF}) se construye a partir de la tabla.
+ */
+public class AnalizadorEarley {
+
+    private final GramaticaCompilada g;
+    private final boolean[] anulable;
+
+    // Ranuras: una por cada (producción, posición del punto)
+    private final int[] baseRanura;        // baseRanura[p] = ranura de (p, 0)
+    private final int[] produccionDeRanura;
+    private final int[] puntoDeRanura;
+    private final int[] simboloTras;       // símbolo después del punto, -1 si el ítem está completo
+
+    public AnalizadorEarley(GLC glc) {
+        this(glc.getGramaticaUtil());
+    }
+
+    AnalizadorEarley(GramaticaCompilada g) {
+        this.g = g;
+        this.anulable = calcularAnulables(g);
+
+        int total = 0;
+        baseRanura = new int[g.numProducciones()];
+        for (int p = 0; p < g.numProducciones(); p++) {
+            baseRanura[p] = total;
+            total += g.derecha[p].length + 1;
+        }
+        produccionDeRanura = new int[total];
+        puntoDeRanura = new int[total];
+        simboloTras = new int[total];
+        for (int p = 0; p < g.numProducciones(); p++) {
+            int[] der = g.derecha[p];
+            for (int d = 0; d <= der.length; d++) {
+                int r = baseRanura[p] + d;
+                produccionDeRanura[r] = p;
+                puntoDeRanura[r] = d;
+                simboloTras[r] = d < der.length ? der[d] : -1;
+            }
+        }
+    }
+
+    // Punto fijo de anulables con un contador de no terminales pendientes por producción.
+    static boolean[] calcularAnulables(GramaticaCompilada g) {
+        boolean[] anulable = new boolean[g.numNoTerminales];
+        int[] pendientes = new int[g.numProducciones()];
+        List<List<Integer>> apariciones = new ArrayList<>();
+        for (int i = 0; i < g.numNoTerminales; i++) apariciones.add(new ArrayList<>());
+        Deque<Integer> cola = new ArrayDeque<>();
+        for (int p = 0; p < g.numProducciones(); p++) {
+            boolean conTerminal = false;
+            for (int s : g.derecha[p]) conTerminal |= !g.esNoTerminal(s);
+            if (conTerminal) continue; // Nunca deriva ε.
+            for (int s : g.derecha[p]) apariciones.get(s).add(p);
+            pendientes[p] = g.derecha[p].length;
+            if (pendientes[p] == 0) cola.add(p);
+        }
+        while (!cola.isEmpty()) {
+            int a = g.izquierda[cola.poll()];
+            if (anulable[a]) continue;
+            anulable[a] = true;
+            for (int p : apariciones.get(a)) {
+                if (--pendientes[p] == 0) cola.add(p);
+            }
+        }
+        return anulable;
+    }
+
+    /** Conjunto de Earley S(j): ítems (ranura, origen) con índices para el completado. */
+    static final class Conjunto {
+        int tam = 0;
+        int[] ranuras = new int[8];
+        int[] origenes = new int[8];
+        final Set<Long> presentes = new HashSet<>();
+        final Map<Integer, List<Integer>> esperando = new HashMap<>();   // A → ítems con A tras el punto
+        final Map<Integer, BitSet> completados = new HashMap<>();        // A → orígenes de A completo
+        final Map<Integer, Long> leo = new HashMap<>();                  // A → ítem superior de Leo (-1 si no hay)
+        final List<int[]> disparosLeo = new ArrayList<>();               // (A, i) completados vía Leo
+        boolean expandido = false;
+
+        boolean agregar(int ranura, int origen) {
+            if (!presentes.add(clave(ranura, origen))) return false;
+            if (tam == ranuras.length) {
+                ranuras = Arrays.copyOf(ranuras, tam * 2);
+                origenes = Arrays.copyOf(origenes, tam * 2);
+            }
+            ranuras[tam] = ranura;
+            origenes[tam] = origen;
+            tam++;
+            return true;
+        }
+
+        boolean contiene(int ranura, int origen) {
+            return presentes.contains(clave(ranura, origen));
+        }
+
+        static long clave(int ranura, int origen) {
+            return ((long) ranura << 32) | (origen & 0xffffffffL);
+        }
+    }
+
+    /** Tabla de Earley de una entrada: un conjunto por posición. */
+    final class Tabla {
+        final int[] entrada;
+        final List<Conjunto> conjuntos = new ArrayList<>();
+        int reutilizados;     // Conjuntos tomados de la tabla de otra entrada (ver actualizar)
+
+        Tabla(int[] entrada) {
+            this.entrada = entrada;
+        }
+
+        boolean acepta() {
+            if (conjuntos.size() != entrada.length + 1 || g.inicial < 0) return false;
+            BitSet origenes = conjuntos.get(entrada.length).completados.get(g.inicial);
+            return origenes != null && origenes.get(0);
+        }
+    }
+
+    /** Determina si la cadena pertenece al lenguaje de la gramática. */
+    public boolean reconoce(String cadena) {
+        int[] entrada = g.codificar(cadena);
+        return entrada != null && llenar(entrada).acepta();
+    }
+
+    /**
+     * Analiza la cadena y construye el bosque de análisis compartido.
+     * @return el bosque, o null si la cadena no pertenece al lenguaje.
+     */
+    public BosqueSPPF analizar(String cadena) {
+        int[] entrada = g.codificar(cadena);
+        if (entrada == null) return null;
+        return bosque(llenar(entrada));
+    }
+
+    /** Bosque de una tabla ya llena, o null si la tabla no acepta su entrada. */
+    BosqueSPPF bosque(Tabla tabla) {
+        if (!tabla.acepta()) return null;
+        return new ConstructorBosque(tabla).construir();
+    }
+
+    Tabla llenar(int[] entrada) {
+        Tabla tabla = new Tabla(entrada);
+        if (g.inicial < 0) return tabla;
+        Conjunto s0 = new Conjunto();
+        for (int p : g.produccionesDe[g.inicial]) s0.agregar(baseRanura[p], 0);
+        tabla.conjuntos.add(s0);
+        continuar(tabla, 0);
+        return tabla;
+    }
+
+    /**
+     * Tabla de una entrada a partir de la tabla de otra. Cada S(j) depende solo de
+     * los primeros j símbolos, así que los conjuntos S(0..c), con c la longitud del
+     * prefijo común, se comparten tal cual (también lo que Leo y el bosque agregan
+     * después, que solo depende de ese prefijo). S(c) ya está procesado: basta
+     * avanzarlo sobre el primer símbolo distinto y continuar desde S(c+1).
+     */
+    Tabla actualizar(Tabla anterior, int[] entrada) {
+        if (anterior == null || g.inicial < 0) return llenar(entrada);
+        int comun = 0;
+        int limite = Math.min(anterior.entrada.length, entrada.length);
+        while (comun < limite && anterior.entrada[comun] == entrada[comun]) comun++;
+
+        Tabla tabla = new Tabla(entrada);
+        int vivos = Math.min(comun + 1, anterior.conjuntos.size());
+        tabla.conjuntos.addAll(anterior.conjuntos.subList(0, vivos));
+        tabla.reutilizados = vivos;
+        // Si la tabla anterior se cortó dentro del prefijo común, esta se corta igual.
+        if (vivos <= comun || comun == entrada.length) return tabla;
+
+        Conjunto actual = tabla.conjuntos.get(comun);
+        Conjunto siguiente = new Conjunto();
+        int x = entrada[comun];
+        for (int k = 0; k < actual.tam; k++) {
+            if (simboloTras[actual.ranuras[k]] == x) siguiente.agregar(actual.ranuras[k] + 1, actual.origenes[k]);
+        }
+        if (siguiente.tam == 0) return tabla;
+        tabla.conjuntos.add(siguiente);
+        continuar(tabla, comun + 1);
+        return tabla;
+    }
+
+    /** Reconocedor que reutiliza la tabla de la cadena anterior (ver {@link Incremental}). */
+    public Incremental incremental() {
+        return new Incremental();
+    }
+
+    /**
+     * Reconocimiento incremental de una cadena que se edita: conserva la tabla de
+     * la última cadena y recalcula solo los conjuntos desde la primera posición
+     * que cambió. Al editar el final de una cadena larga solo se procesan los
+     * últimos conjuntos. Los métodos están sincronizados para usarlo desde un hilo
+     * de fondo.
+     */
+    public final class Incremental {
+        private Tabla tabla;
+        private boolean acepta;
+        private int prefijoViable;
+
+        private Incremental() {}
+
+        /** Determina si la cadena pertenece al lenguaje, reutilizando la tabla de la anterior. */
+        public synchronized boolean reconocer(String cadena) {
+            int[] entrada = g.codificar(cadena);
+            int invalido = -1;
+            if (entrada == null) {
+                // Se analiza el prefijo hasta el primer carácter que no es terminal.
+                invalido = 0;
+                while (g.codificar(cadena.substring(invalido, invalido + 1)) != null) invalido++;
+                entrada = g.codificar(cadena.substring(0, invalido));
+            }
+            tabla = actualizar(tabla, entrada);
+            acepta = invalido < 0 && tabla.acepta();
+            prefijoViable = Math.max(0, tabla.conjuntos.size() - 1);
+            return acepta;
+        }
+
+        /** Resultado de la última cadena. */
+        public synchronized boolean acepta() { return acepta; }
+
+        /**
+         * Símbolos de la última cadena que se leyeron sin que un conjunto quedara
+         * vacío. Como las producciones inútiles se quitan antes de construir el
+         * analizador, ese prefijo se puede completar a una cadena del lenguaje.
+         */
+        public synchronized int getPrefijoViable() { return prefijoViable; }
+
+        /** Conjuntos de la última tabla que se reutilizaron de la anterior. */
+        public synchronized int getConjuntosReutilizados() {
+            return tabla == null ? 0 : tabla.reutilizados;
+        }
+
+        /** Conjuntos de la última tabla que hubo que calcular. */
+        public synchronized int getConjuntosCalculados() {
+            return tabla == null ? 0 : tabla.conjuntos.size() - tabla.reutilizados;
+        }
+    }
+
+    /**
+     * Procesa los conjuntos a partir de {@code desde} (que ya debe existir en la
+     * tabla) hasta el final de la entrada o hasta que un conjunto quede vacío.
+     */
+    void continuar(Tabla tabla, int desde) {
+        int[] entrada = tabla.entrada;
+        int n = entrada.length;
+        for (int j = desde; j <= n; j++) {
+            Conjunto actual = tabla.conjuntos.get(j);
+            Conjunto siguiente = j < n ? new Conjunto() : null;
+
+            for (int k = 0; k < actual.tam; k++) {
+                int ranura = actual.ranuras[k];
+                int origen = actual.origenes[k];
+                int x = simboloTras[ranura];
+
+                if (x < 0) {
+                    // Completar: A → α· desde origen
+                    int a = g.izquierda[produccionDeRanura[ranura]];
+                    actual.completados.computeIfAbsent(a, key -> new BitSet()).set(origen);
+                    if (origen == j) continue; // Los anulables se avanzaron al predecir.
+                    Conjunto previo = tabla.conjuntos.get(origen);
+                    long superior = itemLeo(tabla, origen, a);
+                    if (superior >= 0) {
+                        // Cadena determinista: se salta directamente al ítem superior.
+                        actual.agregar((int) (superior >>> 32), (int) superior);
+                        actual.disparosLeo.add(new int[]{a, origen});
+                        continue;
+                    }
+                    List<Integer> espera = previo.esperando.get(a);
+                    if (espera == null) continue;
+                    for (int idx : espera) {
+                        actual.agregar(previo.ranuras[idx] + 1, previo.origenes[idx]);
+                    }
+                } else if (g.esNoTerminal(x)) {
+                    // Predecir
+                    actual.esperando.computeIfAbsent(x, key -> new ArrayList<>()).add(k);
+                    for (int p : g.produccionesDe[x]) actual.agregar(baseRanura[p], j);
+                    if (anulable[x]) actual.agregar(ranura + 1, origen);
+                } else if (siguiente != null && entrada[j] == x) {
+                    // Avanzar sobre el terminal
+                    siguiente.agregar(ranura + 1, origen);
+                }
+            }
+
+            if (siguiente == null) break;
+            if (siguiente.tam == 0) return; // Ningún ítem sobrevive: la cadena se rechaza.
+            tabla.conjuntos.add(siguiente);
+        }
+    }
+
+    /**
+     * Ítem de Leo para el no terminal A en el conjunto S(i): si S(i) tiene un
+     * único ítem que espera a A y A es su último símbolo (B → β·A, k), completar A
+     * completa también a B desde k; el ítem superior de esa cadena es el que se
+     * agrega. Devuelve la clave (ranura, origen) del ítem superior, o -1.
+     * La recursión siempre baja a conjuntos anteriores (k < i), así que termina.
+     */
+    private long itemLeo(Tabla tabla, int i, int a) {
+        Conjunto conjunto = tabla.conjuntos.get(i);
+        Long memo = conjunto.leo.get(a);
+        if (memo != null) return memo;
+        long resultado = -1;
+        List<Integer> espera = conjunto.esperando.get(a);
+        if (espera != null && espera.size() == 1 && !esperaAceptacion(i, a)) {
+            int idx = espera.get(0);
+            int completa = conjunto.ranuras[idx] + 1;
+            int k = conjunto.origenes[idx];
+            if (simboloTras[completa] < 0) {
+                long arriba = k < i ? itemLeo(tabla, k, g.izquierda[produccionDeRanura[completa]]) : -1;
+                resultado = arriba >= 0 ? arriba : Conjunto.clave(completa, k);
+            }
+        }
+        conjunto.leo.put(a, resultado);
+        return resultado;
+    }
+
+    // En S(0) el símbolo inicial también lo "espera" la aceptación, así que su completado nunca es determinista.
+    private boolean esperaAceptacion(int i, int a) {
+        return i == 0 && a == g.inicial;
+    }
+
+    /**
+     * Agrega a S(j) los ítems completos que la optimización de Leo omitió, para
+     * que el bosque pueda construirse. Solo se hace en los conjuntos que la
+     * construcción del bosque consulta.
+     */
+    private void expandirLeo(Tabla tabla, int j) {
+        Conjunto actual = tabla.conjuntos.get(j);
+        if (actual.expandido) return;
+        actual.expandido = true;
+        for (int[] disparo : actual.disparosLeo) {
+            int a = disparo[0];
+            int i = disparo[1];
+            while (true) {
+                Conjunto previo = tabla.conjuntos.get(i);
+                List<Integer> espera = previo.esperando.get(a);
+                if (espera == null || espera.size() != 1 || esperaAceptacion(i, a)) break;
+                int idx = espera.get(0);
+                int completa = previo.ranuras[idx] + 1;
+                int k = previo.origenes[idx];
+                if (simboloTras[completa] >= 0) break;
+                int b = g.izquierda[produccionDeRanura[completa]];
+                boolean nuevo = actual.presentes.add(Conjunto.clave(completa, k));
+                actual.completados.computeIfAbsent(b, key -> new BitSet()).set(k);
+                if (!nuevo || k >= i) break;
+                a = b;
+                i = k;
+            }
+        }
+    }
+
+    /**
+     * Construye el SPPF binarizado a partir de una tabla que acepta la entrada.
+     * Nodos de símbolo (A, i, j) y nodos intermedios (ranura, i, j) se comparten
+     * mediante memorización; cada forma distinta de partir un nodo es una
+     * alternativa empaquetada. El recorrido usa una pila explícita, así que la
+     * profundidad del árbol no está limitada por la pila de Java.
+     */
+    private final class ConstructorBosque {
+        private final Tabla tabla;
+        private final BosqueSPPF bosque;
+        private final Map<List<Integer>, BosqueSPPF.Nodo> memo = new HashMap<>();
+        // Índice inverso: (ranura, origen) → posiciones m cuyo conjunto contiene el ítem.
+        private final Map<Long, List<Integer>> conjuntosDeItem = new HashMap<>();
+        // Nodos creados cuyas alternativas aún no se calculan (o que esperan a sus hijos)
+        private final Deque<BosqueSPPF.Nodo> pila = new ArrayDeque<>();
+        private final Set<BosqueSPPF.Nodo> expandidos = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        ConstructorBosque(Tabla tabla) {
+            this.tabla = tabla;
+            this.bosque = new BosqueSPPF(g);
+            for (int m = 0; m < tabla.conjuntos.size(); m++) {
+                Conjunto c = tabla.conjuntos.get(m);
+                for (int k = 0; k < c.tam; k++) {
+                    if (simboloTras[c.ranuras[k]] < 0) continue; // Solo se consultan ítems incompletos.
+                    conjuntosDeItem.computeIfAbsent(Conjunto.clave(c.ranuras[k], c.origenes[k]),
+                            key -> new ArrayList<>()).add(m);
+                }
+            }
+        }
+
+        BosqueSPPF construir() {
+            bosque.raiz = nodoSimbolo(g.inicial, 0, tabla.entrada.length);
+            // Post-orden: un nodo se registra cuando todos los hijos que creó ya se registraron.
+            while (!pila.isEmpty()) {
+                BosqueSPPF.Nodo nodo = pila.peek();
+                if (expandidos.add(nodo)) {
+                    expandir(nodo);
+                } else {
+                    pila.pop();
+                    bosque.registrar(nodo);
+                }
+            }
+            bosque.finalizar();
+            return bosque;
+        }
+
+        // Calcula las alternativas del nodo; los hijos nuevos quedan en la pila.
+        private void expandir(BosqueSPPF.Nodo nodo) {
+            int i = nodo.inicio;
+            int j = nodo.fin;
+            if (nodo.esIntermedio()) {
+                partir(nodo, produccionDeRanura[nodo.ranura], nodo.ranura, i, j);
+                return;
+            }
+            expandirLeo(tabla, j);
+            Conjunto cj = tabla.conjuntos.get(j);
+            for (int p : g.produccionesDe[nodo.simbolo]) {
+                int k = g.derecha[p].length;
+                if (!cj.contiene(baseRanura[p] + k, i)) continue;
+                if (k == 0) {
+                    nodo.agregarAlternativa(p, null, null);
+                } else {
+                    partir(nodo, p, baseRanura[p] + k, i, j);
+                }
+            }
+        }
+
+        private BosqueSPPF.Nodo nodoSimbolo(int a, int i, int j) {
+            if (!g.esNoTerminal(a)) return bosque.terminal(a, i);
+            return obtener(Arrays.asList(0, a, i, j), a, -1, i, j);
+        }
+
+        private BosqueSPPF.Nodo nodoIntermedio(int ranura, int i, int j) {
+            return obtener(Arrays.asList(1, ranura, i, j), -1, ranura, i, j);
+        }
+
+        private BosqueSPPF.Nodo obtener(List<Integer> clave, int simbolo, int ranura, int i, int j) {
+            BosqueSPPF.Nodo nodo = memo.get(clave);
+            if (nodo == null) {
+                nodo = bosque.nuevoNodo(simbolo, ranura, i, j);
+                memo.put(clave, nodo);
+                pila.push(nodo);
+            }
+            return nodo;
+        }
+
+        /**
+         * Agrega a {@code nodo} una alternativa por cada punto de corte m tal que
+         * el ítem con el punto una posición antes está en S(m) y el último
+         * símbolo X deriva la subcadena (m, j).
+         */
+        private void partir(BosqueSPPF.Nodo nodo, int p, int ranura, int i, int j) {
+            int d = puntoDeRanura[ranura];
+            int x = g.derecha[p][d - 1];
+            List<Integer> cortes = conjuntosDeItem.get(Conjunto.clave(ranura - 1, i));
+            if (cortes == null) return;
+            for (int m : cortes) {
+                if (m > j || !deriva(x, m, j)) continue;
+                BosqueSPPF.Nodo derecho = nodoSimbolo(x, m, j);
+                if (d == 1) {
+                    nodo.agregarAlternativa(p, null, derecho);
+                } else if (d == 2) {
+                    nodo.agregarAlternativa(p, nodoSimbolo(g.derecha[p][0], i, m), derecho);
+                } else {
+                    nodo.agregarAlternativa(p, nodoIntermedio(ranura - 1, i, m), derecho);
+                }
+            }
+        }
+
+        private boolean deriva(int x, int m, int j) {
+            if (!g.esNoTerminal(x)) return m + 1 == j && tabla.entrada[m] == x;
+            expandirLeo(tabla, j);
+            BitSet origenes = tabla.conjuntos.get(j).completados.get(x);
+            return origenes != null && origenes.get(m);
+        }
+    }
+}
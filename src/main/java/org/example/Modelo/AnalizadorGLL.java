@@ -0,0 +1,345 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Analizador LL generalizado (GLL, Scott y Johnstone) para cualquier {@link GLC}:
+ * admite ambigüedad, recursión izquierda, producciones ε y ciclos (A ⇒+ A).
+ *
+ * Funciona como un descendente recursivo en el que cada llamada a un no terminal
+ * se representa en una pila estructurada como grafo (GSS): los nodos son
+ * (ranura de retorno, posición), de modo que todas las llamadas iguales se
+ * comparten y un nodo que ya retornó reutiliza sus resultados para los nuevos
+ * llamadores (así termina con recursión izquierda). El trabajo pendiente son
+ * descriptores (ranura, nodo GSS, posición, nodo SPPF), cada uno procesado una
+ * sola vez.
+ *
+ * Mientras analiza construye el mismo {@link BosqueSPPF} binarizado que
+ * {@link AnalizadorEarley}, con todos los árboles de la cadena. El costo es
+ * O(n³) en el peor caso y O(n) para gramáticas LL(1).
+ */
+public class AnalizadorGLL {
+
+    private final GramaticaCompilada g;
+    private final int[] baseRanura;         // Misma numeración de ranuras que AnalizadorEarley
+    private final int[] produccionDeRanura;
+    private final int[] puntoDeRanura;
+    private final int[] simboloTras;        // -1 si el ítem está completo
+    private final long[][] seleccion;       // Terminales (y fin) con los que vale la pena intentar p
+
+    public AnalizadorGLL(GLC glc) {
+        this(glc.getAnalisisUtil());
+    }
+
+    AnalizadorGLL(AnalisisGramatica analisis) {
+        this.g = analisis.g;
+        int total = 0;
+        baseRanura = new int[g.numProducciones()];
+        for (int p = 0; p < g.numProducciones(); p++) {
+            baseRanura[p] = total;
+            total += g.derecha[p].length + 1;
+        }
+        produccionDeRanura = new int[total];
+        puntoDeRanura = new int[total];
+        simboloTras = new int[total];
+        seleccion = new long[g.numProducciones()][analisis.palabras];
+        for (int p = 0; p < g.numProducciones(); p++) {
+            int[] der = g.derecha[p];
+            for (int d = 0; d <= der.length; d++) {
+                int r = baseRanura[p] + d;
+                produccionDeRanura[r] = p;
+                puntoDeRanura[r] = d;
+                simboloTras[r] = d < der.length ? der[d] : -1;
+            }
+            // PRIMEROS(α), más SIGUIENTES(A) si α es anulable: fuera de ese conjunto A → α no puede empezar.
+            if (analisis.primerosDeForma(der, 0, seleccion[p])) {
+                AnalisisGramatica.unir(seleccion[p], analisis.siguientes[g.izquierda[p]]);
+            }
+        }
+    }
+
+    /** Determina si la cadena pertenece al lenguaje de la gramática. */
+    public boolean reconoce(String cadena) {
+        return analizar(cadena) != null;
+    }
+
+    /**
+     * Analiza la cadena y devuelve el bosque compartido de todos sus árboles.
+     * @return el bosque, o null si la cadena no pertenece al lenguaje.
+     */
+    public BosqueSPPF analizar(String cadena) {
+        int[] entrada = g.codificar(cadena);
+        if (entrada == null || g.inicial < 0) return null;
+        return new Analisis(entrada).ejecutar();
+    }
+
+    /** Nodo de la GSS: una llamada que al terminar continúa en la ranura {@code retorno}. */
+    private static final class NodoGSS {
+        final int retorno;       // -1 en la base de la pila
+        final int posicion;
+        final int id;
+        final List<NodoGSS> destinos = new ArrayList<>();              // Aristas hacia los llamadores
+        final List<BosqueSPPF.Nodo> etiquetas = new ArrayList<>();     // Nodo SPPF de cada arista
+        final Set<Long> aristas = new HashSet<>();
+        final List<BosqueSPPF.Nodo> retornados = new ArrayList<>();    // Resultados ya devueltos (conjunto P)
+
+        NodoGSS(int retorno, int posicion, int id) {
+            this.retorno = retorno;
+            this.posicion = posicion;
+            this.id = id;
+        }
+    }
+
+    /** Estado de un análisis: GSS, descriptores y bosque en construcción. */
+    private final class Analisis {
+        private final int[] entrada;
+        private final int n;
+        private final BosqueSPPF bosque = new BosqueSPPF(g);
+        private final Map<Long, BosqueSPPF.Nodo> nodos = new HashMap<>();
+        private final Map<BosqueSPPF.Nodo, Integer> ids = new IdentityHashMap<>();
+        private final ConjuntoTuplas empaquetados = new ConjuntoTuplas();  // (nodo, producción, corte)
+        private final Map<Long, NodoGSS> gss = new HashMap<>();
+        private final NodoGSS base;
+
+        // Descriptores pendientes (arreglos paralelos usados como pila) y ya vistos.
+        private int[] ranuras = new int[64];
+        private NodoGSS[] llamadas = new NodoGSS[64];
+        private int[] posiciones = new int[64];
+        private BosqueSPPF.Nodo[] arboles = new BosqueSPPF.Nodo[64];
+        private int pendientes;
+        private final ConjuntoTuplas vistos = new ConjuntoTuplas();
+
+        Analisis(int[] entrada) {
+            this.entrada = entrada;
+            this.n = entrada.length;
+            this.base = new NodoGSS(-1, 0, 0);
+        }
+
+        BosqueSPPF ejecutar() {
+            for (int p : g.produccionesDe[g.inicial]) agregar(baseRanura[p], base, 0, null);
+            while (pendientes > 0) {
+                pendientes--;
+                BosqueSPPF.Nodo w = arboles[pendientes];
+                arboles[pendientes] = null;
+                procesar(ranuras[pendientes], llamadas[pendientes], posiciones[pendientes], w);
+            }
+            BosqueSPPF.Nodo raiz = nodos.get(claveNodo(g.inicial, 0, n));
+            if (raiz == null) return null;
+            bosque.raiz = raiz;
+            registrarEnPostOrden(raiz);
+            bosque.finalizar();
+            return bosque;
+        }
+
+        /** Ejecuta un descriptor: avanza sobre terminales hasta llamar a un no terminal o completar. */
+        private void procesar(int r, NodoGSS u, int i, BosqueSPPF.Nodo w) {
+            int p = produccionDeRanura[r];
+            if (g.derecha[p].length == 0) {
+                BosqueSPPF.Nodo nodo = nodo(g.izquierda[p], -1, i, i);
+                empaquetar(nodo, p, i, null, null);
+                retornar(u, i, nodo);
+                return;
+            }
+            while (true) {
+                int x = simboloTras[r];
+                if (x < 0) {
+                    retornar(u, i, w);
+                    return;
+                }
+                if (g.esNoTerminal(x)) {
+                    NodoGSS v = llamar(r + 1, u, i, w);
+                    int t = i < n ? entrada[i] - g.numNoTerminales : g.numTerminales();
+                    for (int q : g.produccionesDe[x]) {
+                        if ((seleccion[q][t >>> 6] & (1L << t)) != 0) agregar(baseRanura[q], v, i, null);
+                    }
+                    return;
+                }
+                if (i >= n || entrada[i] != x) return;
+                w = nodoP(r + 1, w, bosque.terminal(x, i));
+                i++;
+                r++;
+            }
+        }
+
+        private void agregar(int r, NodoGSS u, int i, BosqueSPPF.Nodo w) {
+            if (!vistos.agregar(r, u.id, i, id(w))) return;
+            if (pendientes == ranuras.length) {
+                int nuevo = pendientes * 2;
+                ranuras = Arrays.copyOf(ranuras, nuevo);
+                llamadas = Arrays.copyOf(llamadas, nuevo);
+                posiciones = Arrays.copyOf(posiciones, nuevo);
+                arboles = Arrays.copyOf(arboles, nuevo);
+            }
+            ranuras[pendientes] = r;
+            llamadas[pendientes] = u;
+            posiciones[pendientes] = i;
+            arboles[pendientes] = w;
+            pendientes++;
+        }
+
+        /**
+         * Llamada desde el nodo u con retorno en la ranura r: crea (o reutiliza) el
+         * nodo (r, i) y la arista hacia u. Si el nodo ya había retornado, la nueva
+         * arista recibe esos resultados de inmediato.
+         */
+        private NodoGSS llamar(int r, NodoGSS u, int i, BosqueSPPF.Nodo w) {
+            long clave = (long) r * (n + 1) + i;
+            NodoGSS v = gss.get(clave);
+            if (v == null) {
+                v = new NodoGSS(r, i, gss.size() + 1);
+                gss.put(clave, v);
+            }
+            long arista = ((long) u.id << 32) | (id(w) & 0xFFFFFFFFL);
+            if (v.aristas.add(arista)) {
+                v.destinos.add(u);
+                v.etiquetas.add(w);
+                for (int k = 0; k < v.retornados.size(); k++) {
+                    BosqueSPPF.Nodo z = v.retornados.get(k);
+                    agregar(r, u, z.fin, nodoP(r, w, z));
+                }
+            }
+            return v;
+        }
+
+        /** El no terminal llamado en u terminó en la posición i con el nodo z. */
+        private void retornar(NodoGSS u, int i, BosqueSPPF.Nodo z) {
+            if (u == base) return;
+            u.retornados.add(z);
+            for (int k = 0; k < u.destinos.size(); k++) {
+                agregar(u.retorno, u.destinos.get(k), i, nodoP(u.retorno, u.etiquetas.get(k), z));
+            }
+        }
+
+        /**
+         * Nodo del bosque para la ranura r = A → α·β, dado el nodo w de α sin su
+         * último símbolo y el nodo z de ese último símbolo. Tras el primer símbolo
+         * de una producción larga no se crea nodo intermedio (basta z); con β vacío
+         * el resultado es el nodo de A.
+         */
+        private BosqueSPPF.Nodo nodoP(int r, BosqueSPPF.Nodo w, BosqueSPPF.Nodo z) {
+            int p = produccionDeRanura[r];
+            int d = puntoDeRanura[r];
+            boolean completo = simboloTras[r] < 0;
+            if (d == 1 && !completo) return z;
+            int inicio = w == null ? z.inicio : w.inicio;
+            BosqueSPPF.Nodo y = completo
+                    ? nodo(g.izquierda[p], -1, inicio, z.fin)
+                    : nodo(-1, r, inicio, z.fin);
+            empaquetar(y, p, z.inicio, w, z);
+            return y;
+        }
+
+        private BosqueSPPF.Nodo nodo(int simbolo, int ranura, int i, int j) {
+            long clave = claveNodo(simbolo >= 0 ? simbolo : g.numSimbolos + ranura, i, j);
+            BosqueSPPF.Nodo nodo = nodos.get(clave);
+            if (nodo == null) {
+                nodo = bosque.nuevoNodo(simbolo, ranura, i, j);
+                nodos.put(clave, nodo);
+            }
+            return nodo;
+        }
+
+        // Número de un nodo del bosque (incluidas las hojas terminales); -1 para "sin nodo".
+        private int id(BosqueSPPF.Nodo nodo) {
+            if (nodo == null) return -1;
+            Integer id = ids.get(nodo);
+            if (id == null) {
+                id = ids.size();
+                ids.put(nodo, id);
+            }
+            return id;
+        }
+
+        private long claveNodo(int x, int i, int j) {
+            return ((long) x * (n + 1) + i) * (n + 1) + j;
+        }
+
+        private void empaquetar(BosqueSPPF.Nodo y, int p, int corte, BosqueSPPF.Nodo izq, BosqueSPPF.Nodo der) {
+            if (empaquetados.agregar(id(y), p, corte, 0)) y.agregarAlternativa(p, izq, der);
+        }
+
+        // Las hojas terminales no se registran; el resto se registra hijos antes que padres.
+        private void registrarEnPostOrden(BosqueSPPF.Nodo raiz) {
+            Set<BosqueSPPF.Nodo> visitados = Collections.newSetFromMap(new IdentityHashMap<>());
+            Deque<BosqueSPPF.Nodo> pila = new ArrayDeque<>();
+            Deque<Integer> siguiente = new ArrayDeque<>();   // Índice del próximo hijo a visitar
+            visitados.add(raiz);
+            pila.push(raiz);
+            siguiente.push(0);
+            while (!pila.isEmpty()) {
+                BosqueSPPF.Nodo nodo = pila.peek();
+                int k = siguiente.pop();
+                if (k == 2 * nodo.alternativas.size()) {
+                    pila.pop();
+                    bosque.registrar(nodo);
+                    continue;
+                }
+                siguiente.push(k + 1);
+                BosqueSPPF.Alternativa alt = nodo.alternativas.get(k / 2);
+                BosqueSPPF.Nodo hijo = k % 2 == 0 ? alt.izquierdo : alt.derecho;
+                if (hijo != null && !hijo.esTerminal() && visitados.add(hijo)) {
+                    pila.push(hijo);
+                    siguiente.push(0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Conjunto de tuplas de cuatro enteros con direccionamiento abierto. Los
+     * descriptores y los nodos empaquetados son millones en entradas ambiguas, y
+     * guardarlos como objetos domina el tiempo del análisis.
+     */
+    private static final class ConjuntoTuplas {
+        private int[] tabla = new int[4 * 1024];
+        private boolean[] ocupada = new boolean[1024];
+        private int tam;
+
+        boolean agregar(int a, int b, int c, int d) {
+            if (2 * (tam + 1) > ocupada.length) crecer();
+            int mascara = ocupada.length - 1;
+            int k = dispersion(a, b, c, d) & mascara;
+            while (ocupada[k]) {
+                int base = 4 * k;
+                if (tabla[base] == a && tabla[base + 1] == b && tabla[base + 2] == c && tabla[base + 3] == d) return false;
+                k = (k + 1) & mascara;
+            }
+            poner(k, a, b, c, d);
+            tam++;
+            return true;
+        }
+
+        private void poner(int k, int a, int b, int c, int d) {
+            ocupada[k] = true;
+            int base = 4 * k;
+            tabla[base] = a;
+            tabla[base + 1] = b;
+            tabla[base + 2] = c;
+            tabla[base + 3] = d;
+        }
+
+        private void crecer() {
+            int[] viejaTabla = tabla;
+            boolean[] viejaOcupada = ocupada;
+            tabla = new int[viejaTabla.length * 2];
+            ocupada = new boolean[viejaOcupada.length * 2];
+            int mascara = ocupada.length - 1;
+            for (int j = 0; j < viejaOcupada.length; j++) {
+                if (!viejaOcupada[j]) continue;
+                int base = 4 * j;
+                int a = viejaTabla[base], b = viejaTabla[base + 1], c = viejaTabla[base + 2], d = viejaTabla[base + 3];
+                int k = dispersion(a, b, c, d) & mascara;
+                while (ocupada[k]) k = (k + 1) & mascara;
+                poner(k, a, b, c, d);
+            }
+        }
+
+        private static int dispersion(int a, int b, int c, int d) {
+            int h = a * 0x9E3779B1;
+            h = (h ^ b) * 0x85EBCA6B;
+            h = (h ^ c) * 0xC2B2AE35;
+            h = (h ^ d) * 0x27D4EB2F;
+            return h ^ (h >>> 15);
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Analizador ascendente LALR(1) (desplazamiento-reducción) para una {@link GLC}.
+ *
+ * La construcción sigue a DeRemer y Pennello (1982):
+ *  1. Se construye el autómata LR(0) de la gramática aumentada S' → S.
+ *  2. Para cada transición por no terminal (p, A) se calcula
+ *     DR(p, A) = terminales que se leen justo después de ir de p por A,
+ *     Read = DR cerrado por la relación "reads" (saltando no terminales anulables), y
+ *     Follow = Read cerrado por "includes" (A al final de B → βAγ con γ anulable).
+ *  3. Los símbolos de preanálisis de la reducción por A → ω en el estado q son la
+ *     unión de Follow(p, A) sobre las transiciones con q "lookback" (p, A).
+ * Ambos cierres se resuelven con el algoritmo Digraph (componentes fuertemente
+ * conexas de Tarjan), que recorre cada relación una sola vez.
+ *
+ * Si la tabla tiene conflictos (desplazar/reducir o reducir/reducir) se reportan
+ * y el analizador no se puede usar. Las reducciones del análisis, leídas al revés,
+ * son la derivación por la derecha de la cadena.
+ */
+public class AnalizadorLALR {
+
+    private static final int ACEPTAR = Integer.MAX_VALUE;
+
+    private final GramaticaCompilada g;
+    private final AnalisisGramatica analisis;
+    private final int producciones;       // La producción número 'producciones' es S' → S
+    private final int[] izquierda;
+    private final int[][] derecha;
+    private final int[] baseRanura;        // Ítem (p, punto) = baseRanura[p] + punto
+    private final int[] produccionDeRanura;
+    private final int[] puntoDeRanura;
+
+    private final List<int[]> nucleos = new ArrayList<>();   // Ítems núcleo de cada estado LR(0)
+    private final List<int[]> ir = new ArrayList<>();        // ir[q][X] = estado destino o -1
+    private final int columnas;                              // numTerminales + 1 (fin de cadena)
+    private int[][] accion;                                  // >0 desplazar a s-1, <0 reducir -(p+1), 0 error
+    private final List<String> conflictos = new ArrayList<>();
+
+    public AnalizadorLALR(GLC glc) {
+        this(glc.getAnalisis());
+    }
+
+    AnalizadorLALR(AnalisisGramatica analisis) {
+        this.analisis = analisis;
+        this.g = analisis.g;
+        this.producciones = g.numProducciones();
+        this.columnas = g.numTerminales() + 1;
+
+        // Gramática aumentada: se agrega S' → S como última producción.
+        izquierda = Arrays.copyOf(g.izquierda, producciones + 1);
+        derecha = Arrays.copyOf(g.derecha, producciones + 1);
+        izquierda[producciones] = -1;
+        derecha[producciones] = g.inicial >= 0 ? new int[]{g.inicial} : new int[0];
+
+        baseRanura = new int[producciones + 1];
+        int total = 0;
+        for (int p = 0; p <= producciones; p++) {
+            baseRanura[p] = total;
+            total += derecha[p].length + 1;
+        }
+        produccionDeRanura = new int[total];
+        puntoDeRanura = new int[total];
+        for (int p = 0; p <= producciones; p++) {
+            for (int d = 0; d <= derecha[p].length; d++) {
+                produccionDeRanura[baseRanura[p] + d] = p;
+                puntoDeRanura[baseRanura[p] + d] = d;
+            }
+        }
+
+        construirLR0();
+        construirTabla(calcularPreanalisis());
+    }
+
+    private int simboloTras(int ranura) {
+        int[] der = derecha[produccionDeRanura[ranura]];
+        int punto = puntoDeRanura[ranura];
+        return punto < der.length ? der[punto] : -1;
+    }
+
+    // --- Autómata LR(0) ---
+
+    private void construirLR0() {
+        Map<List<Integer>, Integer> estadoPorNucleo = new HashMap<>();
+        int[] inicio = {baseRanura[producciones]};
+        nucleos.add(inicio);
+        estadoPorNucleo.put(aLista(inicio), 0);
+
+        int[] marca = new int[g.numNoTerminales];
+        for (int q = 0; q < nucleos.size(); q++) {
+            int[] cierre = cierre(nucleos.get(q), marca, q + 1);
+            // Agrupa los ítems por el símbolo que sigue al punto (en orden de aparición).
+            Map<Integer, List<Integer>> porSimbolo = new LinkedHashMap<>();
+            for (int r : cierre) {
+                int x = simboloTras(r);
+                if (x >= 0) porSimbolo.computeIfAbsent(x, k -> new ArrayList<>()).add(r + 1);
+            }
+            int[] destinos = new int[g.numSimbolos];
+            Arrays.fill(destinos, -1);
+            for (Map.Entry<Integer, List<Integer>> e : porSimbolo.entrySet()) {
+                int[] nucleo = e.getValue().stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+                List<Integer> clave = aLista(nucleo);
+                Integer destino = estadoPorNucleo.get(clave);
+                if (destino == null) {
+                    destino = nucleos.size();
+                    nucleos.add(nucleo);
+                    estadoPorNucleo.put(clave, destino);
+                }
+                destinos[e.getKey()] = destino;
+            }
+            ir.add(destinos);
+        }
+    }
+
+    /** Núcleo más los ítems B → ·γ de cada no terminal B que puede quedar tras el punto. */
+    private int[] cierre(int[] nucleo, int[] marca, int sello) {
+        List<Integer> items = new ArrayList<>();
+        for (int r : nucleo) items.add(r);
+        for (int i = 0; i < items.size(); i++) {
+            int x = simboloTras(items.get(i));
+            if (x < 0 || !g.esNoTerminal(x) || marca[x] == sello) continue;
+            marca[x] = sello;
+            for (int p : g.produccionesDe[x]) items.add(baseRanura[p]);
+        }
+        return items.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static List<Integer> aLista(int[] a) {
+        List<Integer> l = new ArrayList<>(a.length);
+        for (int x : a) l.add(x);
+        return l;
+    }
+
+    // --- Preanálisis de DeRemer y Pennello ---
+
+    /**
+     * Calcula el preanálisis de cada reducción.
+     * @return mapa (estado, producción) → conjunto de terminales (bits, fin de cadena incluido).
+     */
+    private Map<Long, long[]> calcularPreanalisis() {
+        int nt = g.numNoTerminales;
+        int palabras = analisis.palabras;
+        int fin = columnas - 1;
+
+        // Transiciones por no terminal (p, A), numeradas.
+        List<int[]> transiciones = new ArrayList<>();
+        Map<Long, Integer> idTransicion = new HashMap<>();
+        for (int p = 0; p < nucleos.size(); p++) {
+            int[] destinos = ir.get(p);
+            for (int a = 0; a < nt; a++) {
+                if (destinos[a] < 0) continue;
+                idTransicion.put(clave(p, a), transiciones.size());
+                transiciones.add(new int[]{p, a});
+            }
+        }
+        int m = transiciones.size();
+
+        // DR(p, A) y la relación reads.
+        long[][] conjuntos = new long[m][palabras];
+        List<List<Integer>> reads = new ArrayList<>(m);
+        for (int x = 0; x < m; x++) {
+            int p = transiciones.get(x)[0], a = transiciones.get(x)[1];
+            int r = ir.get(p)[a];
+            int[] desdeR = ir.get(r);
+            List<Integer> lee = new ArrayList<>();
+            for (int s = 0; s < g.numSimbolos; s++) {
+                if (desdeR[s] < 0) continue;
+                if (s >= nt) AnalisisGramatica.agregarBit(conjuntos[x], s - nt);
+                else if (analisis.anulable[s]) lee.add(idTransicion.get(clave(r, s)));
+            }
+            // Desde el estado inicial, tras leer S viene el fin de cadena (S' → S·).
+            if (p == 0 && a == g.inicial) AnalisisGramatica.agregarBit(conjuntos[x], fin);
+            reads.add(lee);
+        }
+        digraph(conjuntos, reads);   // conjuntos = Read
+
+        // includes y lookback: se recorre cada B → β desde cada transición (p', B).
+        List<List<Integer>> includes = new ArrayList<>(m);
+        for (int x = 0; x < m; x++) includes.add(new ArrayList<>());
+        Map<Long, List<Integer>> lookback = new HashMap<>();
+        for (int y = 0; y < m; y++) {
+            int pPrima = transiciones.get(y)[0], b = transiciones.get(y)[1];
+            for (int prod : g.produccionesDe[b]) {
+                int[] beta = derecha[prod];
+                int q = pPrima;
+                for (int i = 0; i < beta.length; i++) {
+                    int s = beta[i];
+                    if (g.esNoTerminal(s) && sufijoAnulable(beta, i + 1)) {
+                        includes.get(idTransicion.get(clave(q, s))).add(y);
+                    }
+                    q = ir.get(q)[s];
+                }
+                lookback.computeIfAbsent(clave(q, prod), k -> new ArrayList<>()).add(y);
+            }
+        }
+        digraph(conjuntos, includes);   // conjuntos = Follow
+
+        Map<Long, long[]> preanalisis = new HashMap<>();
+        for (Map.Entry<Long, List<Integer>> e : lookback.entrySet()) {
+            long[] la = new long[palabras];
+            for (int x : e.getValue()) AnalisisGramatica.unir(la, conjuntos[x]);
+            preanalisis.put(e.getKey(), la);
+        }
+        return preanalisis;
+    }
+
+    private boolean sufijoAnulable(int[] simbolos, int desde) {
+        for (int i = desde; i < simbolos.length; i++) {
+            int s = simbolos[i];
+            if (!g.esNoTerminal(s) || !analisis.anulable[s]) return false;
+        }
+        return true;
+    }
+
+    private static long clave(int estado, int valor) {
+        return ((long) estado << 32) | (valor & 0xffffffffL);
+    }
+
+    /**
+     * Algoritmo Digraph: F(x) = F'(x) ∪ ⋃ { F(y) | x R y }. Cada componente
+     * fuertemente conexa termina con el mismo conjunto. Versión iterativa (pila
+     * explícita) del recorrido de Tarjan.
+     */
+    private static void digraph(long[][] f, List<List<Integer>> relacion) {
+        int m = f.length;
+        int[] n = new int[m];                 // 0 = sin visitar, > 0 = profundidad, MAX = terminado
+        int[] propia = new int[m];            // Profundidad con la que cada nodo entró en la pila
+        int[] pila = new int[m];
+        int tope = 0;
+        int[] llamada = new int[m];            // Pila de recorrido: nodo
+        int[] siguienteArista = new int[m];    // ... y la siguiente arista a explorar
+        for (int inicio = 0; inicio < m; inicio++) {
+            if (n[inicio] != 0) continue;
+            int profundidadLlamada = 0;
+            llamada[profundidadLlamada++] = inicio;
+            pila[tope++] = inicio;
+            n[inicio] = propia[inicio] = tope;
+            siguienteArista[inicio] = 0;
+            while (profundidadLlamada > 0) {
+                int x = llamada[profundidadLlamada - 1];
+                List<Integer> aristas = relacion.get(x);
+                if (siguienteArista[x] < aristas.size()) {
+                    int y = aristas.get(siguienteArista[x]++);
+                    if (n[y] == 0) {
+                        pila[tope++] = y;
+                        n[y] = propia[y] = tope;
+                        siguienteArista[y] = 0;
+                        llamada[profundidadLlamada++] = y;
+                    } else {
+                        n[x] = Math.min(n[x], n[y]);
+                        AnalisisGramatica.unir(f[x], f[y]);
+                    }
+                    continue;
+                }
+                // x terminado: se cierra su componente si es la raíz.
+                profundidadLlamada--;
+                if (n[x] == propia[x]) {
+                    while (true) {
+                        int z = pila[--tope];
+                        n[z] = Integer.MAX_VALUE;
+                        if (z == x) break;
+                        System.arraycopy(f[x], 0, f[z], 0, f[x].length);
+                    }
+                }
+                if (profundidadLlamada > 0) {
+                    int padre = llamada[profundidadLlamada - 1];
+                    n[padre] = Math.min(n[padre], n[x]);
+                    AnalisisGramatica.unir(f[padre], f[x]);
+                }
+            }
+        }
+    }
+
+    // --- Tabla de acciones ---
+
+    private void construirTabla(Map<Long, long[]> preanalisis) {
+        int nt = g.numNoTerminales;
+        int fin = columnas - 1;
+        accion = new int[nucleos.size()][columnas];
+        int[] marca = new int[nt];
+        for (int q = 0; q < nucleos.size(); q++) {
+            int[] destinos = ir.get(q);
+            for (int t = 0; t < fin; t++) {
+                if (destinos[nt + t] >= 0) accion[q][t] = destinos[nt + t] + 1;
+            }
+            for (int r : cierre(nucleos.get(q), marca, q + 1)) {
+                if (simboloTras(r) >= 0) continue;
+                int p = produccionDeRanura[r];
+                if (p == producciones) {
+                    registrar(q, fin, ACEPTAR);
+                    continue;
+                }
+                long[] la = preanalisis.get(clave(q, p));
+                if (la == null) continue;
+                for (int t = 0; t < columnas; t++) {
+                    if ((la[t >>> 6] & (1L << t)) != 0) registrar(q, t, -(p + 1));
+                }
+            }
+        }
+    }
+
+    private void registrar(int q, int t, int nueva) {
+        int actual = accion[q][t];
+        if (actual == 0) {
+            accion[q][t] = nueva;
+            return;
+        }
+        if (actual == nueva) return;
+        String tipo;
+        if (actual == ACEPTAR || nueva == ACEPTAR) tipo = "aceptar/reducir";     // Solo en la columna $
+        else if (actual > 0) tipo = "desplazar/reducir";
+        else tipo = "reducir/reducir";
+        conflictos.add("Estado " + q + ", " + nombreColumna(t) + ": " + tipo + " ("
+                + describir(actual) + "  /  " + describir(nueva) + ")");
+    }
+
+    private String describir(int a) {
+        if (a == ACEPTAR) return "aceptar";
+        if (a > 0) return "desplazar a " + (a - 1);
+        return "reducir " + textoProduccion(-a - 1);
+    }
+
+    /** Indica si la gramática es LALR(1), es decir, si la tabla no tiene conflictos. */
+    public boolean esLALR1() { return conflictos.isEmpty(); }
+
+    /** Descripción de cada conflicto de la tabla. */
+    public List<String> getConflictos() { return Collections.unmodifiableList(conflictos); }
+
+    /** Número de estados del autómata LR(0) (y de filas de la tabla). */
+    public int getNumEstados() { return nucleos.size(); }
+
+    // --- Análisis ---
+
+    /**
+     * Reconoce la cadena sin construir el árbol.
+     * @throws IllegalArgumentException si la gramática no es LALR(1).
+     */
+    public boolean reconoce(String cadena) {
+        int[] entrada = g.codificar(cadena);
+        return entrada != null && g.inicial >= 0 && analizar(entrada, false) != null;
+    }
+
+    /**
+     * Genera el árbol sintáctico con el análisis por desplazamiento-reducción.
+     * @return la raíz, o null si la cadena es rechazada.
+     * @throws IllegalArgumentException si la gramática no es LALR(1).
+     */
+    public GLC.NodoArbol arbol(String cadena) {
+        int[] entrada = g.codificar(cadena);
+        if (entrada == null || g.inicial < 0) return null;
+        Object raiz = analizar(entrada, true);
+        return raiz instanceof GLC.NodoArbol ? (GLC.NodoArbol) raiz : null;
+    }
+
+    /** Derivación por la derecha de la cadena (vacía si es rechazada). */
+    public List<String> derivacionDerecha(String cadena) {
+        return GLC.derivacionDesdeArbol(arbol(cadena), false);
+    }
+
+    /**
+     * Bucle de desplazamiento-reducción con una pila de estados; con {@code conArbol}
+     * una pila paralela guarda los subárboles.
+     * @return la raíz del árbol (o un marcador si no se pidió árbol), o null si hay error.
+     */
+    private Object analizar(int[] entrada, boolean conArbol) {
+        if (!conflictos.isEmpty()) {
+            throw new IllegalArgumentException("La gramática no es LALR(1): " + conflictos.size() + " conflicto(s) en la tabla");
+        }
+        int nt = g.numNoTerminales;
+        int fin = columnas - 1;
+        int[] estados = new int[16];
+        GLC.NodoArbol[] nodos = conArbol ? new GLC.NodoArbol[16] : null;
+        int tope = 1;                       // estados[0] = 0
+        int i = 0;
+        while (true) {
+            int t = i < entrada.length ? entrada[i] - nt : fin;
+            int a = accion[estados[tope - 1]][t];
+            if (a == 0) return null;
+            if (a == ACEPTAR) return conArbol ? nodos[tope - 1] : Boolean.TRUE;
+            if (tope == estados.length) {
+                estados = Arrays.copyOf(estados, tope * 2);
+                if (conArbol) nodos = Arrays.copyOf(nodos, tope * 2);
+            }
+            if (a > 0) {
+                if (conArbol) nodos[tope] = new GLC.NodoArbol(g.nombres[entrada[i]]);
+                estados[tope++] = a - 1;
+                i++;
+                continue;
+            }
+            int p = -a - 1;
+            int largo = derecha[p].length;
+            tope -= largo;
+            if (conArbol) {
+                GLC.NodoArbol nodo = new GLC.NodoArbol(g.nombres[izquierda[p]]);
+                if (largo == 0) nodo.agregarHijo(new GLC.NodoArbol("ε"));
+                for (int k = 0; k < largo; k++) nodo.agregarHijo(nodos[tope + k]);
+                nodos[tope] = nodo;
+            }
+            estados[tope] = ir.get(estados[tope - 1])[izquierda[p]];
+            tope++;
+        }
+    }
+
+    // --- Presentación ---
+
+    private String nombreColumna(int t) {
+        return t == columnas - 1 ? String.valueOf(AnalisisGramatica.FIN) : g.nombres[g.numNoTerminales + t];
+    }
+
+    private String textoProduccion(int p) {
+        StringBuilder sb = new StringBuilder(g.nombres[izquierda[p]]).append(" → ");
+        if (derecha[p].length == 0) sb.append("ε");
+        for (int s : derecha[p]) sb.append(g.nombres[s]);
+        return sb.toString();
+    }
+
+    /** Tabla ACCIÓN en texto: una línea por estado con sus acciones no vacías. */
+    public String getTextoTabla() {
+        StringBuilder sb = new StringBuilder();
+        for (int q = 0; q < accion.length; q++) {
+            sb.append(q).append(":");
+            for (int t = 0; t < columnas; t++) {
+                int a = accion[q][t];
+                if (a == 0) continue;
+                sb.append("  ").append(nombreColumna(t)).append("=");
+                if (a == ACEPTAR) sb.append("acc");
+                else if (a > 0) sb.append("d").append(a - 1);
+                else sb.append("r").append(-a - 1);
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
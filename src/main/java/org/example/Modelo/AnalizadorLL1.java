@@ -0,0 +1,184 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Analizador predictivo LL(1) dirigido por tabla para una {@link GLC}.
+ *
+ * La tabla M[A, a] indica qué producción de A aplicar cuando el siguiente
+ * carácter es a: A → α va en M[A, a] para cada a ∈ PRIMEROS(α) y, si α es
+ * anulable, para cada a ∈ SIGUIENTES(A) (incluido el fin de cadena $). Si alguna
+ * celda recibe dos producciones la gramática no es LL(1): se reportan los
+ * conflictos y el analizador no se puede usar (con recursión izquierda, por
+ * ejemplo, nunca terminaría).
+ *
+ * El análisis es iterativo (pila de enteros, sin recursión) y hace una sola
+ * pasada sobre la entrada, así que es lineal en la longitud de la cadena. Las
+ * producciones que aplica son exactamente los pasos de la derivación por la
+ * izquierda.
+ */
+public class AnalizadorLL1 {
+
+    private final GramaticaCompilada g;
+    private final AnalisisGramatica analisis;
+    private final int columnas;          // numTerminales + 1 (fin de cadena)
+    private final int[] tabla;           // tabla[A * columnas + a] = producción, -1 si es error
+    private final List<String> conflictos = new ArrayList<>();
+
+    public AnalizadorLL1(GLC glc) {
+        this(glc.getAnalisis());
+    }
+
+    AnalizadorLL1(AnalisisGramatica analisis) {
+        this.analisis = analisis;
+        this.g = analisis.g;
+        this.columnas = g.numTerminales() + 1;
+        this.tabla = new int[g.numNoTerminales * columnas];
+        Arrays.fill(tabla, -1);
+
+        long[] conjunto = new long[analisis.palabras];
+        for (int p = 0; p < g.numProducciones(); p++) {
+            int a = g.izquierda[p];
+            Arrays.fill(conjunto, 0);
+            if (analisis.primerosDeForma(g.derecha[p], 0, conjunto)) {
+                AnalisisGramatica.unir(conjunto, analisis.siguientes[a]);
+            }
+            for (int t = 0; t < columnas; t++) {
+                if ((conjunto[t >>> 6] & (1L << t)) == 0) continue;
+                int celda = a * columnas + t;
+                if (tabla[celda] < 0) {
+                    tabla[celda] = p;
+                } else if (tabla[celda] != p) {
+                    conflictos.add("M[" + g.nombres[a] + ", " + nombreColumna(t) + "]: "
+                            + textoProduccion(tabla[celda]) + "  /  " + textoProduccion(p));
+                }
+            }
+        }
+    }
+
+    /** Indica si la gramática es LL(1), es decir, si la tabla no tiene conflictos. */
+    public boolean esLL1() { return conflictos.isEmpty(); }
+
+    /** Descripción de cada celda con más de una producción. */
+    public List<String> getConflictos() { return Collections.unmodifiableList(conflictos); }
+
+    /**
+     * Reconoce la cadena sin construir el árbol.
+     * @throws IllegalArgumentException si la gramática no es LL(1).
+     */
+    public boolean reconoce(String cadena) {
+        int[] entrada = g.codificar(cadena);
+        return entrada != null && g.inicial >= 0 && recorrer(entrada, null) != null;
+    }
+
+    /**
+     * Secuencia de producciones (índices de la gramática compilada) que aplica el
+     * análisis, o null si la cadena es rechazada.
+     */
+    int[] producciones(int[] entrada) {
+        if (g.inicial < 0) return null;
+        return recorrer(entrada, null);
+    }
+
+    /**
+     * Genera el árbol sintáctico de la cadena con el análisis predictivo.
+     * @return la raíz, o null si la cadena es rechazada.
+     * @throws IllegalArgumentException si la gramática no es LL(1).
+     */
+    public GLC.NodoArbol arbol(String cadena) {
+        int[] entrada = g.codificar(cadena);
+        if (entrada == null || g.inicial < 0) return null;
+        GLC.NodoArbol raiz = new GLC.NodoArbol(g.nombres[g.inicial]);
+        return recorrer(entrada, raiz) != null ? raiz : null;
+    }
+
+    /** Derivación por la izquierda de la cadena (vacía si es rechazada). */
+    public List<String> derivacionIzquierda(String cadena) {
+        return GLC.derivacionDesdeArbol(arbol(cadena), true);
+    }
+
+    /**
+     * Bucle del analizador predictivo. Con {@code raiz} != null construye además el
+     * árbol: la pila de nodos avanza en paralelo con la de símbolos.
+     * @return las producciones aplicadas, o null si hay un error de sintaxis.
+     */
+    private int[] recorrer(int[] entrada, GLC.NodoArbol raiz) {
+        if (!conflictos.isEmpty()) {
+            throw new IllegalArgumentException("La gramática no es LL(1): " + conflictos.size() + " conflicto(s) en la tabla");
+        }
+        int nt = g.numNoTerminales;
+        int fin = columnas - 1;
+        int[] pila = new int[16];
+        GLC.NodoArbol[] nodos = raiz != null ? new GLC.NodoArbol[16] : null;
+        int tope = 0;
+        pila[tope] = g.inicial;
+        if (nodos != null) nodos[tope] = raiz;
+        tope++;
+
+        int[] aplicadas = new int[16];
+        int numAplicadas = 0;
+        int i = 0;
+        while (tope > 0) {
+            int x = pila[--tope];
+            GLC.NodoArbol nodo = nodos != null ? nodos[tope] : null;
+            int a = i < entrada.length ? entrada[i] - nt : fin;
+            if (x >= nt) {
+                if (x - nt != a) return null;
+                i++;
+                continue;
+            }
+            int p = tabla[x * columnas + a];
+            if (p < 0) return null;
+            if (numAplicadas == aplicadas.length) aplicadas = Arrays.copyOf(aplicadas, numAplicadas * 2);
+            aplicadas[numAplicadas++] = p;
+
+            int[] der = g.derecha[p];
+            if (tope + der.length > pila.length) {
+                int nuevo = Math.max(pila.length * 2, tope + der.length);
+                pila = Arrays.copyOf(pila, nuevo);
+                if (nodos != null) nodos = Arrays.copyOf(nodos, nuevo);
+            }
+            if (nodos != null) {
+                if (der.length == 0) nodo.agregarHijo(new GLC.NodoArbol("ε"));
+                for (int s : der) nodo.agregarHijo(new GLC.NodoArbol(g.nombres[s]));
+            }
+            // Se apilan en orden inverso para expandir primero el símbolo de la izquierda.
+            for (int k = der.length - 1; k >= 0; k--) {
+                pila[tope] = der[k];
+                if (nodos != null) nodos[tope] = nodo.getHijos().get(k);
+                tope++;
+            }
+        }
+        return i == entrada.length ? Arrays.copyOf(aplicadas, numAplicadas) : null;
+    }
+
+    // --- Presentación ---
+
+    private String nombreColumna(int t) {
+        return t == columnas - 1 ? String.valueOf(AnalisisGramatica.FIN) : g.nombres[g.numNoTerminales + t];
+    }
+
+    private String textoProduccion(int p) {
+        StringBuilder sb = new StringBuilder(g.nombres[g.izquierda[p]]).append(" → ");
+        if (g.derecha[p].length == 0) sb.append("ε");
+        for (int s : g.derecha[p]) sb.append(g.nombres[s]);
+        return sb.toString();
+    }
+
+    /** Tabla LL(1) en texto: una línea por cada celda no vacía. */
+    public String getTextoTabla() {
+        StringBuilder sb = new StringBuilder();
+        for (int a = 0; a < g.numNoTerminales; a++) {
+            for (int t = 0; t < columnas; t++) {
+                int p = tabla[a * columnas + t];
+                if (p < 0) continue;
+                sb.append("M[").append(g.nombres[a]).append(", ").append(nombreColumna(t)).append("] = ")
+                        .append(textoProduccion(p)).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /** PRIMEROS y SIGUIENTES usados para construir la tabla. */
+    public AnalisisGramatica getAnalisis() { return analisis; }
+}
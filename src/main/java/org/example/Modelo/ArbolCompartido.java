@@ -0,0 +1,148 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Árbol sintáctico con los subárboles iguales compartidos (hash-consing): cada
+ * par (símbolo, hijos) distinto se guarda una sola vez y se identifica con un
+ * entero, así que el árbol queda como un grafo acíclico dirigido. En árboles de
+ * cadenas repetitivas (listas, expresiones con los mismos operandos) la cantidad
+ * de nodos distintos es mucho menor que la del árbol.
+ *
+ * Se construye en post-orden con una pila explícita: cuando se conocen los
+ * identificadores de los hijos, el nodo se busca en una tabla hash por su símbolo
+ * y la lista de hijos, de modo que comparar dos subárboles cuesta O(hijos) y no
+ * O(tamaño del subárbol).
+ */
+public final class ArbolCompartido {
+
+    private final List<String> simbolos = new ArrayList<>();     // Nombres internados
+    private int[] simbolo = new int[16];                         // simbolo[nodo] = índice en simbolos
+    private int[][] hijos = new int[16][];                       // hijos[nodo] = nodos hijos, en orden
+    private long[] tamanio = new long[16];                       // Nodos del subárbol expandido
+    private long[] usos = new long[16];                          // Apariciones del nodo en el árbol
+    private int numNodos;
+    private final int raiz;
+
+    /** Clave de la tabla: símbolo e hijos, con el hash calculado una vez. */
+    private static final class Clave {
+        final int simbolo;
+        final int[] hijos;
+        final int hash;
+
+        Clave(int simbolo, int[] hijos) {
+            this.simbolo = simbolo;
+            this.hijos = hijos;
+            this.hash = 31 * simbolo + Arrays.hashCode(hijos);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Clave)) return false;
+            Clave c = (Clave) o;
+            return hash == c.hash && simbolo == c.simbolo && Arrays.equals(hijos, c.hijos);
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+    }
+
+    /**
+     * @throws IllegalArgumentException si la raíz es null.
+     */
+    public ArbolCompartido(GLC.NodoArbol raizArbol) {
+        if (raizArbol == null) {
+            throw new IllegalArgumentException("No hay árbol que compartir");
+        }
+        Map<String, Integer> indiceSimbolo = new HashMap<>();
+        Map<Clave, Integer> tabla = new HashMap<>();
+
+        // Marco: nodo del árbol y los identificadores de los hijos ya resueltos.
+        Deque<GLC.NodoArbol> nodos = new ArrayDeque<>();
+        Deque<int[]> resueltos = new ArrayDeque<>();
+        Deque<Integer> siguientes = new ArrayDeque<>();
+        nodos.push(raizArbol);
+        resueltos.push(new int[raizArbol.getHijos().size()]);
+        siguientes.push(0);
+        int ultimo = -1;
+        while (!nodos.isEmpty()) {
+            GLC.NodoArbol nodo = nodos.peek();
+            int[] ids = resueltos.peek();
+            int k = siguientes.pop();
+            if (k > 0) ids[k - 1] = ultimo;
+            if (k < ids.length) {
+                siguientes.push(k + 1);
+                GLC.NodoArbol hijo = nodo.getHijos().get(k);
+                nodos.push(hijo);
+                resueltos.push(new int[hijo.getHijos().size()]);
+                siguientes.push(0);
+                continue;
+            }
+            nodos.pop();
+            resueltos.pop();
+            int s = indiceSimbolo.computeIfAbsent(nodo.getSimbolo(), nombre -> {
+                simbolos.add(nombre);
+                return simbolos.size() - 1;
+            });
+            Clave clave = new Clave(s, ids);
+            Integer existente = tabla.get(clave);
+            if (existente == null) {
+                existente = agregar(s, ids);
+                tabla.put(clave, existente);
+            }
+            ultimo = existente;
+        }
+        raiz = ultimo;
+
+        // Usos: cada nodo aparece tantas veces como la suma de los usos de sus padres.
+        // Los hijos siempre tienen un identificador menor que el padre.
+        usos[raiz] = 1;
+        for (int v = numNodos - 1; v >= 0; v--) {
+            for (int h : hijos[v]) usos[h] += usos[v];
+        }
+    }
+
+    private int agregar(int s, int[] ids) {
+        if (numNodos == simbolo.length) {
+            int nuevo = numNodos * 2;
+            simbolo = Arrays.copyOf(simbolo, nuevo);
+            hijos = Arrays.copyOf(hijos, nuevo);
+            tamanio = Arrays.copyOf(tamanio, nuevo);
+            usos = Arrays.copyOf(usos, nuevo);
+        }
+        long t = 1;
+        for (int h : ids) t += tamanio[h];
+        simbolo[numNodos] = s;
+        hijos[numNodos] = ids;
+        tamanio[numNodos] = t;
+        return numNodos++;
+    }
+
+    /** Nodo raíz. */
+    public int getRaiz() { return raiz; }
+
+    /** Nodos distintos (del grafo compartido). */
+    public int getNumUnicos() { return numNodos; }
+
+    /** Nodos del árbol expandido. */
+    public long getNumNodos() { return tamanio[raiz]; }
+
+    public String getSimbolo(int nodo) { return simbolos.get(simbolo[nodo]); }
+
+    public int getNumHijos(int nodo) { return hijos[nodo].length; }
+
+    public int getHijo(int nodo, int k) { return hijos[nodo][k]; }
+
+    /** Nodos del subárbol con raíz en el nodo. */
+    public long getTamanio(int nodo) { return tamanio[nodo]; }
+
+    /** Veces que el subárbol aparece en el árbol expandido. */
+    public long getUsos(int nodo) { return usos[nodo]; }
+
+    /** Subárboles de más de un nodo que aparecen más de una vez. */
+    public int getNumCompartidos() {
+        int n = 0;
+        for (int v = 0; v < numNodos; v++) if (usos[v] > 1 && hijos[v].length > 0) n++;
+        return n;
+    }
+}
@@ -15,6 +15,15 @@ import java.util.*;
  */
 public class AutomataDePila {
 
+    /** Altura máxima de la pila en la búsqueda, si no se indica otra. */
+    public static final int ALTURA_MAXIMA_PILA = 1_000;
+
+    /** Configuraciones que visita como máximo la búsqueda, si no se indica otro límite. */
+    public static final long MAX_CONFIGURACIONES = 1_000_000;
+
+    /** Ciclos ε que se describen como máximo en {@link #getCiclosEpsilon()}. */
+    public static final int MAX_CICLOS_REPORTADOS = 20;
+
     /* ------------- ATRIBUTOS ---------------- */
 
     /** Conjunto de estados del AP */
@@ -54,6 +63,17 @@ public class AutomataDePila {
     /** Cadena que se procesa actualmente */
     private String cadenaOriginal;
 
+    /** Límites de la búsqueda */
+    private int alturaMaximaPila = ALTURA_MAXIMA_PILA;
+    private long maxConfiguraciones = MAX_CONFIGURACIONES;
+
+    /** Resultado de la última búsqueda */
+    private long configuracionesVisitadas;
+    private boolean busquedaAgotada;
+    private boolean pilaRecortada;
+    private int numCiclosEpsilon;
+    private final List<String> ciclosEpsilon = new ArrayList<>();
+
 
     /* ----------- CLASES INTERNAS --------------- */
 
@@ -113,26 +133,23 @@ public class AutomataDePila {
     /**
      * Representa una configuración del AP:
      * (estado actual, entrada restante, contenido de pila).
+     * La pila es inmutable, así que las configuraciones del historial la
+     * comparten en lugar de copiarla.
      */
     public static class ConfiguracionAP {
         public final String estado;
         public final String cadenaRestante;
-        public final Stack<Character> pila;
+        public final PilaPersistente pila;
 
-        public ConfiguracionAP(String e, String cr, Stack<Character> p) {
+        public ConfiguracionAP(String e, String cr, PilaPersistente p) {
             this.estado = e;
             this.cadenaRestante = cr;
-            this.pila = new Stack<>();
-            this.pila.addAll(p);
+            this.pila = p;
         }
 
         /** Representación de la pila con el tope a la izquierda */
         public String getPilaString() {
-            if (pila.isEmpty()) return "ε";
-            StringBuilder sb = new StringBuilder();
-            for (int i = pila.size() - 1; i >= 0; i--)
-                sb.append(pila.get(i));
-            return sb.toString();
+            return pila.toString();
         }
 
         @Override public String toString() {
@@ -149,6 +166,23 @@ public class AutomataDePila {
     public void agregarSimboloPila(char c)            { alfabetoPila.add(c); }
     public void setAceptarPorPilaVacia(boolean b)     { aceptarPorPilaVacia = b; }
 
+    /**
+     * Define la altura máxima de la pila durante la búsqueda: las ramas que la
+     * superarían se descartan.
+     */
+    public void setAlturaMaximaPila(int altura) {
+        if (altura < 0)
+            throw new IllegalArgumentException("La altura máxima de la pila no puede ser negativa");
+        alturaMaximaPila = altura;
+    }
+
+    /** Define cuántas configuraciones visita como máximo la búsqueda */
+    public void setMaxConfiguraciones(long max) {
+        if (max <= 0)
+            throw new IllegalArgumentException("El límite de configuraciones debe ser positivo");
+        maxConfiguraciones = max;
+    }
+
     /** Define el estado inicial */
     public void setEstadoInicial(String e) {
         if (!estados.contains(e))
@@ -194,122 +228,189 @@ public class AutomataDePila {
     /* -------- PROCESAMIENTO ---------- */
 
     /**
-     * Procesa una cadena usando backtracking.
+     * Procesa una cadena buscando en el grafo de configuraciones.
      * Inicia desde estadoInicial y pila vacía.
+     *
+     * La búsqueda es en anchura: visita las configuraciones por cantidad de
+     * pasos desde la inicial, así que encuentra la aceptación más corta aunque
+     * haya ramas ε que crecen sin fin. Los sucesores de cada configuración se
+     * encolan en el mismo orden que antes (primero los que consumen, y en cada
+     * caso primero los que desapilan el tope); cada configuración
+     * (estado, posición, pila) se visita una sola vez. Las transiciones que
+     * dejarían la pila más alta que {@link #getAlturaMaximaPila()} se descartan,
+     * así que hay finitas configuraciones y la búsqueda siempre termina; además
+     * se detiene tras {@link #getMaxConfiguraciones()} configuraciones.
+     *
+     * El historial queda con el camino hasta la configuración que acepta o, si
+     * se rechaza, hasta la que más entrada consumió.
      */
     public boolean procesar(String cadena) {
         historial.clear();
         transicionesAplicadas.clear();
+        ciclosEpsilon.clear();
+        numCiclosEpsilon = 0;
+        busquedaAgotada = false;
+        pilaRecortada = false;
         cadenaOriginal = cadena;
-        Stack<Character> pila = new Stack<>();
-        return procesarRecursivo(estadoInicial, 0, pila, "");
+
+        Set<String> ciclosVistos = new HashSet<>();
+        Set<Nodo> visitados = new HashSet<>();
+        Deque<Nodo> pendientes = new ArrayDeque<>();
+        Nodo inicial = new Nodo(estadoInicial, 0, PilaPersistente.VACIA, null, null, null);
+        visitados.add(inicial);
+        pendientes.add(inicial);
+        Nodo masLejano = inicial;
+        Nodo aceptado = null;
+        busqueda:
+        while (!pendientes.isEmpty()) {
+            Nodo nodo = pendientes.poll();
+            if (nodo.pos > masLejano.pos) masLejano = nodo;
+            if (esAceptacion(nodo.estado, nodo.pos, nodo.pila)) {
+                aceptado = nodo;
+                break;
+            }
+            for (Nodo sucesor : sucesores(nodo, ciclosVistos)) {
+                if (visitados.contains(sucesor)) continue;
+                if (visitados.size() >= maxConfiguraciones) {
+                    busquedaAgotada = true;
+                    break busqueda;
+                }
+                visitados.add(sucesor);
+                pendientes.add(sucesor);
+            }
+        }
+        configuracionesVisitadas = visitados.size();
+
+        // Camino desde la configuración inicial.
+        List<Nodo> camino = new ArrayList<>();
+        for (Nodo n = aceptado != null ? aceptado : masLejano; n != null; n = n.padre) camino.add(n);
+        Collections.reverse(camino);
+        for (Nodo n : camino) {
+            String restante = n.pos < cadena.length() ? cadena.substring(n.pos) : "";
+            historial.add(new ConfiguracionAP(n.estado, restante, n.pila));
+            transicionesAplicadas.add(n.clave == null ? "" : n.clave + " → " + n.valor);
+        }
+        return aceptado != null;
     }
 
     /**
-     * Método recursivo central del AP.
-     * Maneja:
-     *   - consumo de símbolos
-     *   - ε-transiciones
-     *   - no determinismo
+     * Configuración del grafo de búsqueda con la transición por la que se llegó.
+     * Dos nodos son iguales si representan la misma configuración.
      */
-    private boolean procesarRecursivo(String estadoActual, int pos,
-                                      Stack<Character> pila, String transPrev) {
-
-        // Guardar configuración actual para visualización
-        String restante = pos < cadenaOriginal.length()
-                ? cadenaOriginal.substring(pos) : "";
-        historial.add(new ConfiguracionAP(estadoActual, restante, pila));
-        transicionesAplicadas.add(transPrev);
-
-        // Verificar condiciones de aceptación
-        if (pos == cadenaOriginal.length()) {
-            boolean enEstadoFinal = estadosFinales.contains(estadoActual);
-            boolean pilaVacia = pila.isEmpty();
-
-            if (enEstadoFinal && (!aceptarPorPilaVacia || pilaVacia)) return true;
-            if (aceptarPorPilaVacia && pilaVacia) return true;
+    private static final class Nodo {
+        final String estado;
+        final int pos;
+        final PilaPersistente pila;
+        final Nodo padre;
+        final TransicionKey clave;
+        final TransicionValor valor;
+        private final int hash;
+
+        Nodo(String estado, int pos, PilaPersistente pila, Nodo padre, TransicionKey clave, TransicionValor valor) {
+            this.estado = estado;
+            this.pos = pos;
+            this.pila = pila;
+            this.padre = padre;
+            this.clave = clave;
+            this.valor = valor;
+            this.hash = (Objects.hashCode(estado) * 31 + pos) * 31 + pila.hashCode();
         }
 
-        // Transiciones que consumen símbolo
-        if (pos < cadenaOriginal.length()) {
-            char sim = cadenaOriginal.charAt(pos);
-            if (intentarTransiciones(estadoActual, sim, topePila(pila),
-                    pos + 1, pila))
-                return true;
+        @Override public boolean equals(Object o) {
+            if (!(o instanceof Nodo)) return false;
+            Nodo n = (Nodo) o;
+            return hash == n.hash && pos == n.pos && Objects.equals(estado, n.estado) && pila.equals(n.pila);
         }
 
-        // Transiciones ε
-        if (intentarTransiciones(estadoActual, null, topePila(pila),
-                pos, pila))
-            return true;
-
-        return false; // backtracking completo
+        @Override public int hashCode() { return hash; }
     }
 
-    /* ---------- AUXILIARES ---------- */
-
-    private Character topePila(Stack<Character> p) {
-        return p.isEmpty() ? null : p.peek();
+    private boolean esAceptacion(String estado, int pos, PilaPersistente pila) {
+        if (pos != cadenaOriginal.length()) return false;
+        return aceptarPorPilaVacia ? pila.isEmpty() : estadosFinales.contains(estado);
     }
 
     /**
-     * Intenta aplicar transiciones para:
-     *   - (entrada, topePila)
-     *   - (entrada, ε)
+     * Sucesores de una configuración, en el orden en que se prueban:
+     *   - consumiendo el símbolo actual, con (entrada, topePila) y (entrada, ε)
+     *   - sin consumir, con (ε, topePila) y (ε, ε)
      */
-    private boolean intentarTransiciones(String estadoActual, Character entrada,
-                                         Character topePila, int nuevoPos,
-                                         Stack<Character> pilaOriginal) {
-
-        TransicionKey keyNormal = new TransicionKey(estadoActual, entrada, topePila);
-        if (aplicarTransicion(keyNormal, nuevoPos, pilaOriginal)) return true;
-
-        if (topePila != null) {
-            TransicionKey keyEpsilonPila = new TransicionKey(estadoActual, entrada, null);
-            if (aplicarTransicion(keyEpsilonPila, nuevoPos, pilaOriginal)) return true;
+    private List<Nodo> sucesores(Nodo nodo, Set<String> ciclosVistos) {
+        List<Nodo> resultado = new ArrayList<>();
+        Character tope = nodo.pila.tope();
+        if (nodo.pos < cadenaOriginal.length()) {
+            char sim = cadenaOriginal.charAt(nodo.pos);
+            aplicarTransicion(nodo, new TransicionKey(nodo.estado, sim, tope), nodo.pos + 1, resultado);
+            if (tope != null) aplicarTransicion(nodo, new TransicionKey(nodo.estado, sim, null), nodo.pos + 1, resultado);
         }
-        return false;
+        int primeraEpsilon = resultado.size();
+        aplicarTransicion(nodo, new TransicionKey(nodo.estado, null, tope), nodo.pos, resultado);
+        if (tope != null) aplicarTransicion(nodo, new TransicionKey(nodo.estado, null, null), nodo.pos, resultado);
+        for (int i = primeraEpsilon; i < resultado.size(); i++) buscarCicloEpsilon(resultado.get(i), ciclosVistos);
+        return resultado;
     }
 
+    /* ---------- AUXILIARES ---------- */
+
     /**
-     * Aplica una transición específica y continúa la recursión.
+     * Aplica las transiciones de una clave y agrega las configuraciones a las
+     * que llevan, salvo las que superan la altura máxima de la pila. La pila
+     * nueva comparte con la anterior todo lo que queda debajo del tope, así que
+     * cada transición cuesta lo que apila.
      */
-    private boolean aplicarTransicion(TransicionKey key, int nuevoPos,
-                                      Stack<Character> pilaOriginal) {
+    private void aplicarTransicion(Nodo nodo, TransicionKey key, int nuevoPos, List<Nodo> resultado) {
 
-        if (!transiciones.containsKey(key)) return false;
+        List<TransicionValor> valores = transiciones.get(key);
+        if (valores == null) return;
 
-        for (TransicionValor val : transiciones.get(key)) {
-
-            // Clonar pila
-            Stack<Character> nuevaPila = new Stack<>();
-            nuevaPila.addAll(pilaOriginal);
+        // Pop si es necesario (la clave ya tiene el tope actual)
+        PilaPersistente base = nodo.pila;
+        if (key.simboloPila != null) {
+            if (base.isEmpty() || base.tope() != key.simboloPila.charValue()) return;
+            base = base.desapilar();
+        }
 
-            // Pop si es necesario
-            if (key.simboloPila != null) {
-                if (nuevaPila.isEmpty()) continue;
-                char sacado = nuevaPila.pop();
-                if (sacado != key.simboloPila) continue;
+        for (TransicionValor val : valores) {
+            if (base.size() + val.cadenaApilar.length() > alturaMaximaPila) {
+                pilaRecortada = true;
+                continue;
             }
+            resultado.add(new Nodo(val.estadoDestino, nuevoPos, base.apilar(val.cadenaApilar), nodo, key, val));
+        }
+    }
 
-            // Push si es necesario
-            if (!val.cadenaApilar.isEmpty()) {
-                for (int i = val.cadenaApilar.length() - 1; i >= 0; i--) {
-                    nuevaPila.push(val.cadenaApilar.charAt(i));
+    /**
+     * Un camino de transiciones ε que vuelve al mismo estado con el mismo tope,
+     * sin desapilar nada de lo que estaba debajo del tope del antecesor, solo lee
+     * lo que él mismo apila: se puede repetir sin fin desde la configuración a la
+     * que llega (con la pila igual o creciendo). Basta mirar los últimos
+     * |Q|·(|Γ| + 1) antecesores: un camino ε más largo repite estado y tope.
+     */
+    private void buscarCicloEpsilon(Nodo nuevo, Set<String> ciclosVistos) {
+        int limite = estados.size() * (alfabetoPila.size() + 1);
+        // Altura mínima desde la que se desapiló entre el antecesor y el nodo nuevo.
+        int minDesapilado = Integer.MAX_VALUE;
+        int pasos = 0;
+        for (Nodo hijo = nuevo, a = nuevo.padre; a != null && a.pos == nuevo.pos && pasos <= limite;
+             hijo = a, a = a.padre, pasos++) {
+            if (hijo.clave.simboloPila != null) minDesapilado = Math.min(minDesapilado, a.pila.size());
+            if (!a.estado.equals(nuevo.estado) || nuevo.pila.size() < a.pila.size()
+                    || minDesapilado < a.pila.size() || !Objects.equals(a.pila.tope(), nuevo.pila.tope())) continue;
+            if (ciclosVistos.add(nuevo.estado + " " + nuevo.pos)) {
+                numCiclosEpsilon++;
+                if (ciclosEpsilon.size() < MAX_CICLOS_REPORTADOS) {
+                    ciclosEpsilon.add("En " + nuevo.estado + " (posición " + nuevo.pos + ") la pila pasa de "
+                            + a.pila + " a " + nuevo.pila + " sin consumir entrada");
                 }
             }
-
-            String desc = key + " → " + val;
-            if (procesarRecursivo(val.estadoDestino, nuevoPos, nuevaPila, desc))
-                return true;
+            return;
         }
-        return false;
     }
 
 
     /* ------- MOTIVOS DE ACEPTAR / RECHAZAR -------- */
 
-    public String getMotivoAceptacion(String estadoActual, int pos, Stack<Character> pila) {
+    public String getMotivoAceptacion(String estadoActual, int pos, PilaPersistente pila) {
         if (pos == cadenaOriginal.length()) {
             boolean fin = estadosFinales.contains(estadoActual);
             boolean vac = pila.isEmpty();
@@ -319,13 +420,19 @@ public class AutomataDePila {
         return "Aceptada";
     }
 
-    public String getMotivoRechazo(String estadoActual, int pos, Stack<Character> pila) {
-        if (pos != cadenaOriginal.length()) return "No se consumió toda la entrada";
-        if (!estadosFinales.contains(estadoActual) && !(aceptarPorPilaVacia && pila.isEmpty()))
-            return "No se llegó a estado final ni pila vacía";
-        if (estadosFinales.contains(estadoActual) && aceptarPorPilaVacia && !pila.isEmpty())
-            return "Estado final pero pila NO vacía";
-        return "Rechazada";
+    public String getMotivoRechazo(String estadoActual, int pos, PilaPersistente pila) {
+        if (busquedaAgotada)
+            return "Se visitaron " + configuracionesVisitadas + " configuraciones sin aceptar (límite de la búsqueda)";
+        String motivo;
+        if (pos != cadenaOriginal.length()) motivo = "No se consumió toda la entrada";
+        else if (!estadosFinales.contains(estadoActual) && !(aceptarPorPilaVacia && pila.isEmpty()))
+            motivo = "No se llegó a estado final ni pila vacía";
+        else if (estadosFinales.contains(estadoActual) && aceptarPorPilaVacia && !pila.isEmpty())
+            motivo = "Estado final pero pila NO vacía";
+        else motivo = "Rechazada";
+        if (pilaRecortada)
+            motivo += " (se descartaron ramas que superaban la altura de pila " + alturaMaximaPila + ")";
+        return motivo;
     }
 
 
@@ -341,4 +448,21 @@ public class AutomataDePila {
     public boolean isAceptarPorPilaVacia() { return aceptarPorPilaVacia; }
     public List<ConfiguracionAP> getHistorial() { return historial; }
     public List<String> getTransicionesAplicadas() { return transicionesAplicadas; }
+    public int getAlturaMaximaPila() { return alturaMaximaPila; }
+    public long getMaxConfiguraciones() { return maxConfiguraciones; }
+
+    /** Configuraciones distintas que visitó la última búsqueda */
+    public long getConfiguracionesVisitadas() { return configuracionesVisitadas; }
+
+    /** Si la última búsqueda se detuvo por el límite de configuraciones (un rechazo no es concluyente) */
+    public boolean isBusquedaAgotada() { return busquedaAgotada; }
+
+    /** Si la última búsqueda descartó ramas por la altura máxima de la pila (un rechazo no es concluyente) */
+    public boolean isPilaRecortada() { return pilaRecortada; }
+
+    /** Cantidad de ciclos ε (estado y posición) que encontró la última búsqueda */
+    public int getNumCiclosEpsilon() { return numCiclosEpsilon; }
+
+    /** Descripción de los primeros ciclos ε encontrados */
+    public List<String> getCiclosEpsilon() { return Collections.unmodifiableList(ciclosEpsilon); }
 }
@@ -0,0 +1,304 @@
+package org.example.Modelo;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Bosque de análisis compartido y empaquetado (SPPF, "shared packed parse forest").
+ *
+ * Representa de forma compacta todos los árboles sintácticos de una cadena:
+ *  - Un nodo de símbolo (A, i, j) agrupa todas las formas en que A deriva la subcadena [i, j).
+ *  - Un nodo intermedio (A → α·β, i, j) representa el prefijo α de una producción;
+ *    gracias a ellos el bosque está binarizado y su tamaño es O(n³) en el peor caso.
+ *  - Cada {@link Alternativa} (nodo empaquetado) es una manera distinta de partir el nodo.
+ *
+ * Un mismo subárbol se comparte entre todos los árboles que lo contienen.
+ */
+public class BosqueSPPF {
+
+    /** Nodo del bosque: símbolo (o ranura intermedia) y el intervalo [inicio, fin). */
+    public static final class Nodo {
+        final int simbolo;      // No terminal o terminal; -1 si el nodo es intermedio
+        final int ranura;       // Ranura de Earley si es intermedio; -2 en hojas terminales; -1 en otro caso
+        final int inicio;
+        final int fin;
+        final List<Alternativa> alternativas = new ArrayList<>();
+        Alternativa elegida;    // Alternativa usada al extraer un árbol (evita ciclos)
+
+        Nodo(int simbolo, int ranura, int inicio, int fin) {
+            this.simbolo = simbolo;
+            this.ranura = ranura;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        void agregarAlternativa(int produccion, Nodo izquierdo, Nodo derecho) {
+            alternativas.add(new Alternativa(produccion, izquierdo, derecho));
+        }
+
+        public boolean esIntermedio() { return simbolo < 0; }
+        public boolean esTerminal() { return ranura == -2; }
+        public int getInicio() { return inicio; }
+        public int getFin() { return fin; }
+        public List<Alternativa> getAlternativas() { return alternativas; }
+    }
+
+    /** Nodo empaquetado: una forma de partir su nodo padre en (izquierdo, derecho). */
+    public static final class Alternativa {
+        final int produccion;
+        final Nodo izquierdo;   // null si no hay prefijo
+        final Nodo derecho;     // null para una producción ε
+
+        Alternativa(int produccion, Nodo izquierdo, Nodo derecho) {
+            this.produccion = produccion;
+            this.izquierdo = izquierdo;
+            this.derecho = derecho;
+        }
+
+        public Nodo getIzquierdo() { return izquierdo; }
+        public Nodo getDerecho() { return derecho; }
+    }
+
+    /** Valor de {@link #getNumArboles()} cuando la cadena tiene infinitos árboles (ciclos A ⇒+ A). */
+    public static final BigInteger INFINITOS = BigInteger.valueOf(-1);
+
+    private final GramaticaCompilada g;
+    private final Map<Integer, Nodo> terminales = new HashMap<>();
+    // Nodos no terminales e intermedios en el orden en que quedaron completos (post-orden).
+    private final List<Nodo> orden = new ArrayList<>();
+    Nodo raiz;
+
+    BosqueSPPF(GramaticaCompilada g) {
+        this.g = g;
+    }
+
+    Nodo nuevoNodo(int simbolo, int ranura, int inicio, int fin) {
+        return new Nodo(simbolo, ranura, inicio, fin);
+    }
+
+    /** Registra un nodo cuyas alternativas ya están todas agregadas. */
+    void registrar(Nodo nodo) {
+        orden.add(nodo);
+    }
+
+    /** Hoja del terminal a en la posición i (compartida). */
+    Nodo terminal(int a, int i) {
+        return terminales.computeIfAbsent(i, k -> new Nodo(a, -2, i, i + 1));
+    }
+
+    /**
+     * Elige para cada nodo una alternativa cuyos hijos tengan a su vez un árbol
+     * finito. Como los nodos se registran en post-orden, casi siempre basta una
+     * pasada; las demás solo son necesarias cuando la gramática tiene ciclos
+     * (A ⇒+ A).
+     */
+    void finalizar() {
+        boolean cambio = true;
+        while (cambio) {
+            cambio = false;
+            for (Nodo nodo : orden) {
+                if (nodo.elegida != null) continue;
+                for (Alternativa alt : nodo.alternativas) {
+                    if (esFinito(alt.izquierdo) && esFinito(alt.derecho)) {
+                        nodo.elegida = alt;
+                        cambio = true;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean esFinito(Nodo n) {
+        return n == null || n.ranura == -2 || n.elegida != null;
+    }
+
+    // --- Consultas ---
+
+    public Nodo getRaiz() { return raiz; }
+
+    /** Número de nodos de símbolo e intermedios del bosque (sin contar hojas terminales). */
+    public int getNumNodos() { return orden.size(); }
+
+    /** Número total de nodos empaquetados (alternativas). */
+    public int getNumAlternativas() {
+        int total = 0;
+        for (Nodo n : orden) total += n.alternativas.size();
+        return total;
+    }
+
+    /** Indica si algún nodo tiene más de una alternativa, es decir, si la cadena es ambigua. */
+    public boolean esAmbiguo() {
+        for (Nodo n : orden) if (n.alternativas.size() > 1) return true;
+        return false;
+    }
+
+    /** Nombre del símbolo de un nodo (o la producción con punto si es intermedio). */
+    public String etiqueta(Nodo n) {
+        if (!n.esIntermedio()) return g.nombres[n.simbolo] + "[" + n.inicio + "," + n.fin + "]";
+        return "•" + n.ranura + "[" + n.inicio + "," + n.fin + "]";
+    }
+
+    /**
+     * Número de árboles sintácticos distintos de la cadena. Cada nodo (celda
+     * (A, i, j) de la tabla) cuenta la suma, sobre sus alternativas, del producto
+     * de las cuentas de sus hijos; los nodos se recorren una sola vez en
+     * post-orden con una pila explícita. Si desde la raíz se alcanza un ciclo
+     * (A ⇒+ A) hay infinitos árboles y se devuelve {@link #INFINITOS}.
+     */
+    public BigInteger getNumArboles() {
+        if (raiz == null) return BigInteger.ZERO;
+        Map<Nodo, BigInteger> cuentas = new IdentityHashMap<>();
+        Set<Nodo> enCurso = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Nodo> pila = new ArrayDeque<>();
+        Deque<Integer> siguiente = new ArrayDeque<>();   // Próximo hijo (2 por alternativa) a visitar
+        pila.push(raiz);
+        siguiente.push(0);
+        enCurso.add(raiz);
+        while (!pila.isEmpty()) {
+            Nodo nodo = pila.peek();
+            int k = siguiente.pop();
+            if (k == 2 * nodo.alternativas.size()) {
+                BigInteger total = BigInteger.ZERO;
+                for (Alternativa alt : nodo.alternativas) {
+                    total = total.add(cuenta(cuentas, alt.izquierdo).multiply(cuenta(cuentas, alt.derecho)));
+                }
+                cuentas.put(nodo, total);
+                enCurso.remove(nodo);
+                pila.pop();
+                continue;
+            }
+            siguiente.push(k + 1);
+            Alternativa alt = nodo.alternativas.get(k / 2);
+            Nodo hijo = k % 2 == 0 ? alt.izquierdo : alt.derecho;
+            if (hijo == null || hijo.esTerminal() || cuentas.containsKey(hijo)) continue;
+            if (!enCurso.add(hijo)) return INFINITOS;
+            pila.push(hijo);
+            siguiente.push(0);
+        }
+        return cuentas.get(raiz);
+    }
+
+    private static BigInteger cuenta(Map<Nodo, BigInteger> cuentas, Nodo n) {
+        return n == null || n.esTerminal() ? BigInteger.ONE : cuentas.get(n);
+    }
+
+    /**
+     * Extrae un árbol sintáctico del bosque (el primero sin ciclos). Se construye
+     * con una pila explícita para admitir árboles muy profundos.
+     */
+    public GLC.NodoArbol arbol() {
+        return extraer(new Eleccion(null, null));
+    }
+
+    /**
+     * Dos árboles distintos de la cadena si es ambigua: el de {@link #arbol()} y
+     * otro que difiere en el primer nodo con más de una alternativa. Si no es
+     * ambigua la lista tiene un solo árbol (y ninguno si no hay raíz).
+     */
+    public List<GLC.NodoArbol> dosArboles() {
+        List<GLC.NodoArbol> arboles = new ArrayList<>();
+        if (raiz == null) return arboles;
+        arboles.add(arbol());
+        Nodo ambiguo = primerNodoAmbiguo();
+        if (ambiguo != null) {
+            for (Alternativa alt : ambiguo.alternativas) {
+                if (alt != ambiguo.elegida) {
+                    arboles.add(extraer(new Eleccion(ambiguo, alt)));
+                    break;
+                }
+            }
+        }
+        return arboles;
+    }
+
+    /**
+     * Alternativa con la que se expande cada nodo: la elegida, salvo en la primera
+     * aparición del nodo {@code cambiado}, que usa {@code otra}. Solo se cambia una
+     * vez para que el árbol siga siendo finito aunque haya ciclos.
+     */
+    private static final class Eleccion {
+        private final Nodo cambiado;
+        private Alternativa otra;
+
+        Eleccion(Nodo cambiado, Alternativa otra) {
+            this.cambiado = cambiado;
+            this.otra = otra;
+        }
+
+        Alternativa de(Nodo n) {
+            if (n != cambiado || otra == null) return n.elegida;
+            Alternativa alt = otra;
+            otra = null;
+            return alt;
+        }
+    }
+
+    private GLC.NodoArbol extraer(Eleccion eleccion) {
+        if (raiz == null) return null;
+        GLC.NodoArbol resultado = new GLC.NodoArbol(g.nombres[raiz.simbolo]);
+        Deque<Object[]> pendientes = new ArrayDeque<>();
+        pendientes.push(new Object[]{raiz, resultado});
+        while (!pendientes.isEmpty()) {
+            Object[] par = pendientes.pop();
+            Nodo nodo = (Nodo) par[0];
+            GLC.NodoArbol destino = (GLC.NodoArbol) par[1];
+            List<Nodo> hijos = hijosDe(eleccion.de(nodo), eleccion);
+            if (hijos.isEmpty()) destino.agregarHijo(new GLC.NodoArbol("ε"));
+            for (Nodo h : hijos) {
+                GLC.NodoArbol hijo = new GLC.NodoArbol(g.nombres[h.simbolo]);
+                destino.agregarHijo(hijo);
+                if (!h.esTerminal()) pendientes.push(new Object[]{h, hijo});
+            }
+        }
+        return resultado;
+    }
+
+    // Primer nodo con varias alternativas dentro del árbol de las elegidas (recorrido sin repetir nodos).
+    private Nodo primerNodoAmbiguo() {
+        Set<Nodo> vistos = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Nodo> pendientes = new ArrayDeque<>();
+        pendientes.push(raiz);
+        vistos.add(raiz);
+        while (!pendientes.isEmpty()) {
+            Nodo nodo = pendientes.pop();
+            if (nodo.alternativas.size() > 1) return nodo;
+            Alternativa alt = nodo.elegida;
+            for (Nodo h : new Nodo[]{alt.izquierdo, alt.derecho}) {
+                if (h != null && !h.esTerminal() && vistos.add(h)) pendientes.push(h);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hijos de símbolo de una alternativa, aplanando la cadena de nodos
+     * intermedios: (((X1 X2) X3) X4) se convierte en X1 X2 X3 X4.
+     */
+    private List<Nodo> hijosDe(Alternativa alt, Eleccion eleccion) {
+        List<Nodo> hijos = new ArrayList<>();
+        while (alt != null) {
+            if (alt.derecho != null) hijos.add(alt.derecho);
+            Nodo izq = alt.izquierdo;
+            if (izq == null) break;
+            if (izq.esIntermedio()) {
+                alt = eleccion.de(izq);
+            } else {
+                hijos.add(izq);
+                break;
+            }
+        }
+        Collections.reverse(hijos);
+        return hijos;
+    }
+
+    /** Derivación por la izquierda correspondiente a {@link #arbol()}. */
+    public List<String> derivacionIzquierda() {
+        return GLC.derivacionDesdeArbol(arbol(), true);
+    }
+
+    /** Derivación por la derecha correspondiente a {@link #arbol()}. */
+    public List<String> derivacionDerecha() {
+        return GLC.derivacionDesdeArbol(arbol(), false);
+    }
+}
@@ -0,0 +1,310 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Búsqueda A* de la derivación (por la izquierda o por la derecha) con menos
+ * pasos de una cadena.
+ *
+ * El costo de una forma sentencial es el número de producciones aplicadas y la
+ * heurística es la suma de los pasos mínimos con los que cada no terminal de la
+ * forma deriva una cadena terminal. Como aplicar A → α baja esa suma a lo sumo en
+ * 1, la heurística es consistente: la primera vez que se extrae el objetivo de la
+ * cola, la derivación es mínima. Las formas que ya no pueden derivar el objetivo
+ * (prefijo o sufijo fijo distinto, longitud mínima mayor que |w|, PRIMEROS) se
+ * descartan sin encolarlas, y antes de buscar se comprueba con Earley que la
+ * cadena pertenece al lenguaje, así que la búsqueda nunca recorre en vano todo el
+ * espacio de formas.
+ *
+ * Las formas son arreglos de enteros con un hash polinomial que se actualiza en
+ * O(1) al aplicar una producción: en una derivación por la izquierda todo lo
+ * anterior al no terminal expandido es un prefijo del objetivo, cuyo hash ya se
+ * conoce (y en una por la derecha, un sufijo). La tabla de transposición guarda,
+ * para cada hash, el menor número de pasos con que se llegó a la forma. Empieza
+ * con un tamaño proporcional a la cadena y a la gramática, se duplica cuando
+ * queda medio llena hasta la capacidad máxima, y a partir de ahí reemplaza
+ * entradas, lo que solo puede causar que una forma se vuelva a expandir. Dos
+ * formas distintas con el mismo hash de 64 bits se confundirían, algo
+ * despreciable en la práctica.
+ */
+public final class BusquedaDerivacion {
+
+    /** Formas que se expanden como máximo si no se indica otro límite. */
+    public static final int MAX_EXPANSIONES = 200_000;
+
+    /** Entradas máximas de la tabla de transposición si no se indica otra capacidad. */
+    public static final int CAPACIDAD_TABLA = 1 << 20;
+
+    // Entradas con que empieza la tabla como mínimo.
+    private static final int CAPACIDAD_INICIAL = 1 << 10;
+
+    /**
+     * Símbolos que pueden sumar las formas encoladas. Con no terminales anulables
+     * las formas pueden crecer sin límite, así que la memoria también se acota.
+     */
+    public static final long MAX_SIMBOLOS_EN_COLA = 16_000_000;
+
+    private static final long BASE = 0x9E3779B97F4A7C15L;      // Impar: invertible módulo 2^64
+    private static final int SONDEOS = 8;
+
+    private final AnalisisGramatica analisis;
+    private final GramaticaCompilada g;
+    private final AnalizadorEarley earley;
+    private final int maxExpansiones;
+    private final long[] hashDerecha;      // Hash de cada lado derecho
+    private final int[] cambioHeuristica;  // Pasos mínimos de α menos los de A, por producción A → α
+
+    private final int capacidadMaxima;
+    private long[] claves;                 // Tabla de transposición: hash (0 = libre) → pasos
+    private int[] pasosTabla;
+    private int ocupadas;
+    private long[] potencias = {1};
+    private long[] potenciasInversas = {1};
+    private final long inversa;
+
+    private int expansiones;
+    private boolean agotada;
+
+    public BusquedaDerivacion(GLC glc) {
+        this(glc, MAX_EXPANSIONES, CAPACIDAD_TABLA);
+    }
+
+    /**
+     * @param maxExpansiones formas que se expanden como máximo.
+     * @param capacidadTabla entradas máximas de la tabla de transposición (se redondea a potencia de 2).
+     */
+    public BusquedaDerivacion(GLC glc, int maxExpansiones, int capacidadTabla) {
+        if (maxExpansiones <= 0 || capacidadTabla <= 0) {
+            throw new IllegalArgumentException("Los límites de la búsqueda deben ser positivos");
+        }
+        this.analisis = glc.getAnalisisUtil();
+        this.g = analisis.g;
+        this.earley = glc.getAnalizadorEarley();
+        this.maxExpansiones = maxExpansiones;
+        this.capacidadMaxima = potenciaDeDos(Math.max(capacidadTabla, SONDEOS));
+
+        // Inversa de BASE módulo 2^64 por Newton: cada iteración duplica los bits correctos.
+        long inv = BASE;
+        for (int i = 0; i < 6; i++) inv *= 2 - BASE * inv;
+        this.inversa = inv;
+
+        hashDerecha = new long[g.numProducciones()];
+        cambioHeuristica = new int[g.numProducciones()];
+        for (int p = 0; p < g.numProducciones(); p++) {
+            hashDerecha[p] = hash(g.derecha[p], 0, g.derecha[p].length);
+            int cambio = -analisis.pasosMinimos[g.izquierda[p]];
+            for (int s : g.derecha[p]) {
+                if (g.esNoTerminal(s)) cambio += analisis.pasosMinimos[s];
+            }
+            cambioHeuristica[p] = cambio;
+        }
+    }
+
+    /** Forma sentencial encolada: símbolos, hash, pasos desde el inicio y estimación total. */
+    private static final class Estado {
+        final int[] forma;
+        final long hash;
+        final int pasos;
+        final int estimado;
+        final int heuristica;
+        final Estado padre;
+
+        Estado(int[] forma, long hash, int pasos, int heuristica, Estado padre) {
+            this.forma = forma;
+            this.hash = hash;
+            this.pasos = pasos;
+            this.heuristica = heuristica;
+            this.estimado = pasos + heuristica;
+            this.padre = padre;
+        }
+    }
+
+    /**
+     * Derivación con menos pasos de la cadena.
+     * @param izquierda true para expandir siempre el no terminal más a la izquierda.
+     * @return las formas sentenciales desde el símbolo inicial hasta la cadena, o una
+     *         lista vacía si no pertenece al lenguaje o se agotaron los límites
+     *         (ver {@link #esAgotada()}).
+     */
+    public List<String> derivar(String objetivo, boolean izquierda) {
+        expansiones = 0;
+        agotada = false;
+        int[] meta = g.codificar(objetivo);
+        if (meta == null || g.inicial < 0 || !earley.llenar(meta).acepta()) {
+            return new ArrayList<>();
+        }
+        // Cada paso reemplaza un no terminal, así que las formas visitadas crecen con |w| y |P|.
+        long estimadas = (long) (meta.length + 1) * g.numProducciones() * 4;
+        int capacidad = potenciaDeDos((int) Math.min(capacidadMaxima, Math.max(CAPACIDAD_INICIAL, estimadas)));
+        claves = new long[capacidad];
+        pasosTabla = new int[capacidad];
+        ocupadas = 0;
+        long[] prefijos = new long[meta.length + 1];
+        for (int i = 0; i < meta.length; i++) prefijos[i + 1] = prefijos[i] * BASE + (meta[i] + 1);
+
+        PriorityQueue<Estado> cola = new PriorityQueue<>((a, b) -> a.estimado != b.estimado
+                ? Integer.compare(a.estimado, b.estimado)
+                : Integer.compare(b.pasos, a.pasos));
+        int[] inicio = {g.inicial};
+        Estado primero = new Estado(inicio, hash(inicio, 0, 1), 0, analisis.pasosMinimos[g.inicial], null);
+        registrar(primero.hash, inicio.length, 0);
+        cola.add(primero);
+        long simbolosEnCola = 1;
+
+        while (!cola.isEmpty()) {
+            Estado e = cola.poll();
+            simbolosEnCola -= e.forma.length;
+            if (e.heuristica == 0 && Arrays.equals(e.forma, meta)) return camino(e);
+            if (!vigente(e)) continue;
+            if (++expansiones > maxExpansiones || simbolosEnCola > MAX_SIMBOLOS_EN_COLA) {
+                agotada = true;
+                break;
+            }
+
+            int[] forma = e.forma;
+            int n = forma.length;
+            int pos = -1;
+            if (izquierda) {
+                for (int i = 0; i < n && pos < 0; i++) if (g.esNoTerminal(forma[i])) pos = i;
+            } else {
+                for (int i = n - 1; i >= 0 && pos < 0; i--) if (g.esNoTerminal(forma[i])) pos = i;
+            }
+            int a = forma[pos];
+            int m = n - pos - 1;   // Símbolos después del no terminal
+
+            // Hash de lo anterior y lo posterior al no terminal; uno de los dos es parte del objetivo.
+            long antes, despues;
+            if (izquierda) {
+                antes = prefijos[pos];
+                despues = e.hash - antes * potencia(m + 1) - (long) (a + 1) * potencia(m);
+            } else {
+                despues = prefijos[meta.length] - prefijos[meta.length - m] * potencia(m);
+                antes = (e.hash - (long) (a + 1) * potencia(m) - despues) * potenciaInversa(m + 1);
+            }
+
+            for (int p : g.produccionesDe[a]) {
+                int[] der = g.derecha[p];
+                int[] nueva = new int[n - 1 + der.length];
+                System.arraycopy(forma, 0, nueva, 0, pos);
+                System.arraycopy(der, 0, nueva, pos, der.length);
+                System.arraycopy(forma, pos + 1, nueva, pos + der.length, m);
+                if (!analisis.puedeDerivar(nueva, meta)) continue;
+
+                long h = antes * potencia(m + der.length) + hashDerecha[p] * potencia(m) + despues;
+                int pasos = e.pasos + 1;
+                if (!registrar(h, nueva.length, pasos)) continue;
+                cola.add(new Estado(nueva, h, pasos, e.heuristica + cambioHeuristica[p], e));
+                simbolosEnCola += nueva.length;
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /** Formas expandidas en la última búsqueda. */
+    public int getExpansiones() { return expansiones; }
+
+    /** Indica si la última búsqueda se detuvo por el límite de expansiones o de memoria. */
+    public boolean esAgotada() { return agotada; }
+
+    private List<String> camino(Estado e) {
+        List<String> pasos = new ArrayList<>();
+        for (Estado x = e; x != null; x = x.padre) pasos.add(g.texto(x.forma));
+        Collections.reverse(pasos);
+        return pasos;
+    }
+
+    // --- Hash y tabla de transposición ---
+
+    private static long hash(int[] simbolos, int desde, int hasta) {
+        long h = 0;
+        for (int i = desde; i < hasta; i++) h = h * BASE + (simbolos[i] + 1);
+        return h;
+    }
+
+    private long potencia(int k) {
+        if (k >= potencias.length) potencias = extender(potencias, k, BASE);
+        return potencias[k];
+    }
+
+    private long potenciaInversa(int k) {
+        if (k >= potenciasInversas.length) potenciasInversas = extender(potenciasInversas, k, inversa);
+        return potenciasInversas[k];
+    }
+
+    private static long[] extender(long[] potencias, int k, long base) {
+        int viejo = potencias.length;
+        long[] r = Arrays.copyOf(potencias, Math.max(k + 1, viejo * 2));
+        for (int i = viejo; i < r.length; i++) r[i] = r[i - 1] * base;
+        return r;
+    }
+
+    private static int potenciaDeDos(int n) {
+        int p = Integer.highestOneBit(n);
+        return p < n ? p << 1 : p;
+    }
+
+    // La longitud se mezcla con el hash para separar formas de distinto tamaño.
+    private static long clave(long hash, int longitud) {
+        long c = hash ^ ((long) longitud * 0xC2B2AE3D27D4EB4FL);
+        return c == 0 ? 1 : c;
+    }
+
+    /**
+     * Registra que se llegó a la forma con {@code pasos}. Devuelve false si ya se
+     * había llegado con igual o menos pasos.
+     */
+    private boolean registrar(long hash, int longitud, int pasos) {
+        long c = clave(hash, longitud);
+        if (2 * ocupadas >= claves.length && claves.length < capacidadMaxima) agrandar();
+        return insertar(c, pasos);
+    }
+
+    private boolean insertar(long c, int pasos) {
+        int mascara = claves.length - 1;
+        int inicio = (int) (c ^ (c >>> 32)) & mascara;
+        int reemplazo = inicio;
+        for (int k = 0; k < SONDEOS; k++) {
+            int i = (inicio + k) & mascara;
+            if (claves[i] == c) {
+                if (pasosTabla[i] <= pasos) return false;
+                pasosTabla[i] = pasos;
+                return true;
+            }
+            if (claves[i] == 0) {
+                reemplazo = i;
+                ocupadas++;
+                break;
+            }
+            // Si no hay lugar se reemplaza la entrada más profunda (la menos útil para podar).
+            if (pasosTabla[i] > pasosTabla[reemplazo]) reemplazo = i;
+        }
+        claves[reemplazo] = c;
+        pasosTabla[reemplazo] = pasos;
+        return true;
+    }
+
+    // Duplica la tabla y vuelve a insertar las entradas.
+    private void agrandar() {
+        long[] viejasClaves = claves;
+        int[] viejosPasos = pasosTabla;
+        claves = new long[viejasClaves.length * 2];
+        pasosTabla = new int[claves.length];
+        ocupadas = 0;
+        for (int i = 0; i < viejasClaves.length; i++) {
+            if (viejasClaves[i] != 0) insertar(viejasClaves[i], viejosPasos[i]);
+        }
+    }
+
+    // Un estado quedó obsoleto si después se llegó a la misma forma con menos pasos.
+    private boolean vigente(Estado e) {
+        long c = clave(e.hash, e.forma.length);
+        int mascara = claves.length - 1;
+        int inicio = (int) (c ^ (c >>> 32)) & mascara;
+        for (int k = 0; k < SONDEOS; k++) {
+            int i = (inicio + k) & mascara;
+            if (claves[i] == c) return pasosTabla[i] >= e.pasos;
+            if (claves[i] == 0) break;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,259 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Clasifica una {@link GLC} para elegir el motor más rápido que la acepta en
+ * {@link GLC#pertenece(String)}, {@link GLC#derivarIzquierda(String)} y
+ * {@link GLC#derivarDerecha(String)}:
+ * - lineal por la derecha (sin contar las producciones inútiles): simulación de
+ *   un AFN cuyos estados son las posiciones de los lados derechos, con conjuntos
+ *   de bits; lineal en la longitud de la cadena y sin pila;
+ * - LL(1): el analizador predictivo (lineal);
+ * - LALR(1): el analizador por desplazamiento-reducción (lineal);
+ * - cualquier otra: Earley, cúbico en el peor caso pero lineal en muchas
+ *   gramáticas prácticas (y en las lineales por la derecha).
+ * Las derivaciones de una gramática regular se sacan del bosque de Earley, que
+ * en ese caso también es lineal.
+ *
+ * Las clases se prueban de la más barata a la más cara y cada tabla se construye
+ * solo si las anteriores no sirven: la linealidad se ve recorriendo las
+ * producciones, la tabla LL(1) se omite si la gramática es recursiva por la
+ * izquierda (nunca es LL(1)) y la LALR(1), la más costosa, se construye solo si
+ * la gramática no es LL(1).
+ *
+ * La ambigüedad es indecidible y no cambia el motor (Earley acepta cualquier
+ * gramática), así que solo se busca, acotada, cuando se pide la clase de una
+ * gramática que no es de ninguno de los tipos anteriores. Esa búsqueda usa solo
+ * la gramática compilada, no las cachés de la GLC, así que se puede hacer en un
+ * hilo de fondo.
+ */
+public final class ClasificadorGLC {
+
+    /** Clase de la gramática, de la más a la menos restringida. */
+    public enum Clase { REGULAR, LL1, LALR1, AMBIGUA, DESCONOCIDA }
+
+    /** Motor con el que se analizan las cadenas. */
+    public enum Motor { AFN, LL1, LALR1, EARLEY }
+
+    /** Longitud máxima de las cadenas en las que se busca ambigüedad para la clase. */
+    public static final int LONGITUD_AMBIGUEDAD = 6;
+
+    private final GramaticaCompilada g;
+    private final Motor motor;
+    private final Afn afn;               // Solo si la gramática es regular
+    private Clase clase;                 // Se completa al pedirla si hace falta buscar ambigüedad
+    private String cadenaAmbigua;
+
+    public ClasificadorGLC(GLC glc) {
+        this.g = glc.getGramaticaUtil();
+        if (esLinealDerecha(g)) {
+            afn = new Afn(g);
+            motor = Motor.AFN;
+            clase = Clase.REGULAR;
+        } else if (!recursivaIzquierda(g, glc.getAnalisis().anulable) && glc.getAnalizadorLL1().esLL1()) {
+            afn = null;
+            motor = Motor.LL1;
+            clase = Clase.LL1;
+        } else if (glc.getAnalizadorLALR().esLALR1()) {
+            afn = null;
+            motor = Motor.LALR1;
+            clase = Clase.LALR1;
+        } else {
+            afn = null;
+            motor = Motor.EARLEY;
+        }
+    }
+
+    /** Motor que usan pertenece y las derivaciones. */
+    public Motor getMotor() { return motor; }
+
+    /** Indica si la clase ya se conoce, es decir, si {@link #getClase()} no va a buscar ambigüedad. */
+    public synchronized boolean claseConocida() { return clase != null; }
+
+    /**
+     * Clase de la gramática. Si no es regular, LL(1) ni LALR(1), se buscan
+     * cadenas ambiguas de hasta {@link #LONGITUD_AMBIGUEDAD} símbolos: si no se
+     * encuentra ninguna la clase es DESCONOCIDA.
+     */
+    public synchronized Clase getClase() {
+        if (clase == null) {
+            DetectorAmbiguedad.Resultado r = new DetectorAmbiguedad(g).buscar(LONGITUD_AMBIGUEDAD);
+            cadenaAmbigua = r.getCadena();
+            clase = r.esAmbigua() ? Clase.AMBIGUA : Clase.DESCONOCIDA;
+        }
+        return clase;
+    }
+
+    /** Cadena con dos árboles si la clase es AMBIGUA, o null. */
+    public synchronized String getCadenaAmbigua() {
+        getClase();
+        return cadenaAmbigua;
+    }
+
+    /** Reconoce la cadena con el AFN; solo vale si el motor es {@link Motor#AFN}. */
+    boolean reconoceAfn(String cadena) {
+        if (afn == null) {
+            throw new IllegalArgumentException("La gramática no es lineal por la derecha");
+        }
+        return afn.reconoce(cadena);
+    }
+
+    // Cada no terminal aparece a lo sumo al final de su lado derecho: A → w o A → w B.
+    private static boolean esLinealDerecha(GramaticaCompilada g) {
+        for (int p = 0; p < g.numProducciones(); p++) {
+            int[] der = g.derecha[p];
+            for (int i = 0; i + 1 < der.length; i++) {
+                if (g.esNoTerminal(der[i])) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Algún no terminal deriva una forma que empieza por él mismo: hay un ciclo
+     * en el grafo A → B para cada A → β B γ con β anulable. Con la gramática sin
+     * producciones inútiles esto basta para que no sea LL(1).
+     */
+    private static boolean recursivaIzquierda(GramaticaCompilada g, boolean[] anulable) {
+        int n = g.numNoTerminales;
+        List<List<Integer>> esquinas = new ArrayList<>();
+        for (int a = 0; a < n; a++) esquinas.add(new ArrayList<>());
+        for (int p = 0; p < g.numProducciones(); p++) {
+            for (int s : g.derecha[p]) {
+                if (!g.esNoTerminal(s)) break;
+                esquinas.get(g.izquierda[p]).add(s);
+                if (!anulable[s]) break;
+            }
+        }
+        // Recorrido en profundidad iterativo: 1 = en el camino actual, 2 = terminado.
+        int[] estado = new int[n];
+        int[] siguiente = new int[n];
+        Deque<Integer> camino = new ArrayDeque<>();
+        for (int inicio = 0; inicio < n; inicio++) {
+            if (estado[inicio] != 0) continue;
+            estado[inicio] = 1;
+            camino.push(inicio);
+            while (!camino.isEmpty()) {
+                int a = camino.peek();
+                if (siguiente[a] == esquinas.get(a).size()) {
+                    estado[a] = 2;
+                    camino.pop();
+                    continue;
+                }
+                int b = esquinas.get(a).get(siguiente[a]++);
+                if (estado[b] == 1) return true;
+                if (estado[b] == 0) {
+                    estado[b] = 1;
+                    camino.push(b);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * AFN de una gramática lineal por la derecha. Cada ranura (producción, punto)
+     * es un estado; el punto antes de un terminal avanza con ese terminal y el
+     * punto antes del no terminal final pasa sin consumir a las ranuras iniciales
+     * de sus producciones. Acepta si al terminar la entrada alguna ranura activa
+     * tiene el punto al final. Las clausuras de cada ranura se calculan una vez.
+     */
+    private static final class Afn {
+        private final GramaticaCompilada g;
+        private final int palabras;
+        private final long[][] cierre;         // cierre[ranura] = ranuras alcanzables sin consumir
+        private final int[][] conTerminal;     // conTerminal[t] = ranuras con el punto antes de t
+        private final long[] finales;          // Ranuras con el punto al final
+        private final long[] inicio;
+
+        Afn(GramaticaCompilada g) {
+            this.g = g;
+            int total = 0;
+            int[] base = new int[g.numProducciones()];
+            for (int p = 0; p < g.numProducciones(); p++) {
+                base[p] = total;
+                total += g.derecha[p].length + 1;
+            }
+            palabras = (total + 63) >>> 6;
+            finales = new long[palabras];
+            int[] simboloTras = new int[total];
+            List<List<Integer>> porTerminal = new ArrayList<>();
+            for (int t = 0; t < g.numTerminales(); t++) porTerminal.add(new ArrayList<>());
+            for (int p = 0; p < g.numProducciones(); p++) {
+                int[] der = g.derecha[p];
+                for (int d = 0; d <= der.length; d++) {
+                    int r = base[p] + d;
+                    simboloTras[r] = d < der.length ? der[d] : -1;
+                    if (d == der.length) AnalisisGramatica.agregarBit(finales, r);
+                    else if (!g.esNoTerminal(der[d])) porTerminal.get(der[d] - g.numNoTerminales).add(r);
+                }
+            }
+            conTerminal = new int[g.numTerminales()][];
+            for (int t = 0; t < conTerminal.length; t++) {
+                conTerminal[t] = porTerminal.get(t).stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            // Clausura de cada ranura con una cola; las de los no terminales se comparten.
+            cierre = new long[total][];
+            long[][] cierreNT = new long[g.numNoTerminales][];
+            for (int r = 0; r < total; r++) {
+                int x = simboloTras[r];
+                if (x < 0 || !g.esNoTerminal(x)) {
+                    cierre[r] = new long[palabras];
+                    AnalisisGramatica.agregarBit(cierre[r], r);
+                    continue;
+                }
+                if (cierreNT[x] == null) {
+                    long[] c = new long[palabras];
+                    boolean[] visto = new boolean[g.numNoTerminales];
+                    Deque<Integer> cola = new ArrayDeque<>();
+                    visto[x] = true;
+                    cola.add(x);
+                    while (!cola.isEmpty()) {
+                        for (int p : g.produccionesDe[cola.poll()]) {
+                            AnalisisGramatica.agregarBit(c, base[p]);
+                            int y = simboloTras[base[p]];
+                            if (y >= 0 && g.esNoTerminal(y) && !visto[y]) {
+                                visto[y] = true;
+                                cola.add(y);
+                            }
+                        }
+                    }
+                    cierreNT[x] = c;
+                }
+                cierre[r] = cierreNT[x].clone();
+                AnalisisGramatica.agregarBit(cierre[r], r);
+            }
+            inicio = new long[palabras];
+            if (g.inicial >= 0) {
+                for (int p : g.produccionesDe[g.inicial]) AnalisisGramatica.unir(inicio, cierre[base[p]]);
+            }
+        }
+
+        boolean reconoce(String cadena) {
+            int[] entrada = g.codificar(cadena);
+            if (entrada == null || g.inicial < 0) return false;
+            long[] actual = inicio.clone();
+            long[] siguiente = new long[palabras];
+            for (int s : entrada) {
+                Arrays.fill(siguiente, 0);
+                boolean vivo = false;
+                for (int r : conTerminal[s - g.numNoTerminales]) {
+                    if ((actual[r >>> 6] & (1L << r)) != 0) {
+                        AnalisisGramatica.unir(siguiente, cierre[r + 1]);
+                        vivo = true;
+                    }
+                }
+                if (!vivo) return false;
+                long[] aux = actual;
+                actual = siguiente;
+                siguiente = aux;
+            }
+            for (int w = 0; w < palabras; w++) {
+                if ((actual[w] & finales[w]) != 0) return true;
+            }
+            return false;
+        }
+    }
+}
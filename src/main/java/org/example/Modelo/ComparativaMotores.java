@@ -0,0 +1,231 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Compara el rendimiento de los motores que reconocen el lenguaje de una
+ * {@link GLC} sobre las mismas entradas: los analizadores de la gramática
+ * (Earley, GLL, CYK y, si la gramática lo admite, LL(1), LALR(1) y el AFN), el
+ * motor que elige {@link GLC#pertenece(String)}, el {@link AutomataDePila} de
+ * {@link ConversionGLCAP} y la gramática que se obtiene de vuelta de ese
+ * autómata con {@link ConversionAPGLC}.
+ *
+ * El constructor obtiene de la GLC todos los motores y sus tablas, y
+ * {@link #ejecutar(List)} los mide sin volver a tocar la GLC: las cachés de la
+ * GLC no son seguras entre hilos, así que el constructor va en el hilo que usa
+ * la gramática y la medición puede ir en uno de fondo. Cada motor procesa
+ * primero una entrada sin medir. La respuesta de Earley es la de referencia:
+ * para cada motor se cuentan las entradas en que responde distinto. Un motor
+ * que supera {@link #PRESUPUESTO_NS} deja de procesar entradas. La búsqueda
+ * del autómata de pila se limita a {@link #CONFIGURACIONES_AUTOMATA}
+ * configuraciones por entrada: con recursión por la izquierda, antes de
+ * rechazar expande sin consumir hasta la altura máxima de la pila o hasta ese
+ * límite, y esos rechazos se informan como no concluyentes.
+ */
+public final class ComparativaMotores {
+
+    /** Tiempo que se mide como máximo por motor, en nanosegundos. */
+    public static final long PRESUPUESTO_NS = 3_000_000_000L;
+
+    /** Configuraciones que visita como máximo el autómata de pila por entrada. */
+    public static final long CONFIGURACIONES_AUTOMATA = 100_000;
+
+    /** Entradas que se comparan como máximo. */
+    public static final int MAX_ENTRADAS = 100_000;
+
+    /** Medición de un motor. */
+    public static final class Resultado {
+        private final String motor;
+        private int procesadas;
+        private int aceptadas;
+        private int discrepancias;
+        private long nanos;
+        private String nota;
+
+        private Resultado(String motor) {
+            this.motor = motor;
+        }
+
+        public String getMotor() { return motor; }
+
+        /** Entradas que procesó dentro del presupuesto. */
+        public int getProcesadas() { return procesadas; }
+
+        public int getAceptadas() { return aceptadas; }
+
+        /** Entradas en que la respuesta difiere de la de Earley. */
+        public int getDiscrepancias() { return discrepancias; }
+
+        public long getNanos() { return nanos; }
+
+        public double getCadenasPorSegundo() {
+            return nanos == 0 ? 0 : procesadas * 1e9 / nanos;
+        }
+
+        /** Motivo por el que no se midió o no se terminó, o null. */
+        public String getNota() { return nota; }
+    }
+
+    private interface Motor {
+        boolean reconoce(String cadena);
+    }
+
+    // Motores, obtenidos de la GLC en el constructor.
+    private final AnalizadorEarley earley;
+    private final AnalizadorGLL gll;
+    private final ReconocedorCYK cyk;
+    private final AnalizadorLL1 ll1;
+    private final AnalizadorLALR lalr;
+    private final ClasificadorGLC clasificador;
+    private final AutomataDePila ap;
+
+    private List<String> entradas = Collections.emptyList();
+    private final List<Resultado> resultados = new ArrayList<>();
+    private boolean[] referencia;
+    private int numReferencia;               // Entradas que Earley procesó
+
+    /**
+     * Obtiene los motores de la gramática (construye las tablas que falten).
+     * @throws IllegalArgumentException si la gramática no tiene símbolo inicial.
+     */
+    public ComparativaMotores(GLC glc) {
+        if (glc.getSimboloInicial() == null) {
+            throw new IllegalArgumentException("La gramática no tiene símbolo inicial");
+        }
+        earley = glc.getAnalizadorEarley();
+        gll = glc.getAnalizadorGLL();
+        cyk = glc.getReconocedorCYK();
+        ll1 = glc.getAnalizadorLL1();
+        lalr = glc.getAnalizadorLALR();
+        clasificador = glc.getClasificador();
+        ap = new ConversionGLCAP(glc).getAutomata();
+        ap.setMaxConfiguraciones(CONFIGURACIONES_AUTOMATA);
+    }
+
+    /**
+     * Mide los motores sobre las entradas; reemplaza los resultados anteriores.
+     * @throws IllegalArgumentException si no hay entradas o hay más de {@link #MAX_ENTRADAS}.
+     */
+    public void ejecutar(List<String> entradas) {
+        if (entradas.isEmpty() || entradas.size() > MAX_ENTRADAS) {
+            throw new IllegalArgumentException("Se comparan entre 1 y " + MAX_ENTRADAS + " entradas");
+        }
+        this.entradas = new ArrayList<>(entradas);
+        resultados.clear();
+        referencia = null;
+        numReferencia = 0;
+
+        medir("Earley", earley::reconoce);
+        medir("GLL", gll::reconoce);
+        medir("CYK", cyk::reconoce);
+        if (ll1.esLL1()) medir("LL(1)", ll1::reconoce);
+        else omitir("LL(1)", "la gramática no es LL(1)");
+        if (lalr.esLALR1()) medir("LALR(1)", lalr::reconoce);
+        else omitir("LALR(1)", "la gramática no es LALR(1)");
+        if (clasificador.getMotor() == ClasificadorGLC.Motor.AFN) medir("AFN", clasificador::reconoceAfn);
+        else omitir("AFN", "la gramática no es lineal por la derecha");
+        // El mismo motor que elige GLC.pertenece, sin pasar por la GLC.
+        Motor elegido;
+        switch (clasificador.getMotor()) {
+            case AFN: elegido = clasificador::reconoceAfn; break;
+            case LL1: elegido = ll1::reconoce; break;
+            case LALR1: elegido = lalr::reconoce; break;
+            default: elegido = earley::reconoce;
+        }
+        medir("pertenece (" + clasificador.getMotor() + ")", elegido);
+
+        int[] llamadas = new int[1];
+        int[] agotadas = new int[1];
+        Resultado automata = medir("Autómata de pila", cadena -> {
+            boolean aceptada = ap.procesar(cadena);
+            // La primera llamada es la que no se mide.
+            if (llamadas[0]++ > 0 && (ap.isBusquedaAgotada() || (!aceptada && ap.isPilaRecortada()))) agotadas[0]++;
+            return aceptada;
+        });
+        if (agotadas[0] > 0) {
+            String nota = agotadas[0] + " búsquedas llegaron a un límite (rechazo no concluyente)";
+            automata.nota = automata.nota == null ? nota : automata.nota + "; " + nota;
+        }
+        try {
+            GLC triples = new ConversionAPGLC(ap).getGramatica();
+            medir("GLC de triples (" + triples.getClasificador().getMotor() + ")", triples::pertenece);
+        } catch (IllegalArgumentException e) {
+            omitir("GLC de triples", e.getMessage());
+        }
+    }
+
+    /**
+     * Entradas de prueba de la longitud dada: la mitad son oraciones aleatorias de
+     * la gramática (si tiene de esa longitud) y el resto cadenas aleatorias sobre
+     * sus terminales, que en general no pertenecen al lenguaje.
+     */
+    public static List<String> entradas(GLC glc, int longitud, int cantidad, long semilla) {
+        return entradas(glc.getGeneradorOraciones(), glc.getTerminales(), longitud, cantidad, semilla);
+    }
+
+    /**
+     * Como {@link #entradas(GLC, int, int, long)}, con el generador y los
+     * terminales ya obtenidos de la gramática (para generar fuera de su hilo).
+     */
+    public static List<String> entradas(GeneradorOraciones generador, Collection<Character> terminalesGLC,
+                                        int longitud, int cantidad, long semilla) {
+        if (longitud < 0 || cantidad <= 0 || cantidad > MAX_ENTRADAS) {
+            throw new IllegalArgumentException("Se generan entre 1 y " + MAX_ENTRADAS
+                    + " entradas de longitud no negativa");
+        }
+        List<String> resultado = new ArrayList<>(generador.generar(longitud, cantidad / 2, semilla));
+        List<Character> terminales = new ArrayList<>(new TreeSet<>(terminalesGLC));
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        while (resultado.size() < cantidad) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < longitud && !terminales.isEmpty(); i++) {
+                sb.append(terminales.get(aleatorio.nextInt(terminales.size())));
+            }
+            resultado.add(sb.toString());
+        }
+        Collections.shuffle(resultado, new Random(semilla));
+        return resultado;
+    }
+
+    public List<Resultado> getResultados() {
+        return Collections.unmodifiableList(resultados);
+    }
+
+    public int getNumEntradas() { return entradas.size(); }
+
+    // La primera medición (Earley) fija la referencia.
+    private Resultado medir(String nombre, Motor motor) {
+        Resultado r = new Resultado(nombre);
+        resultados.add(r);
+        boolean[] respuestas = new boolean[entradas.size()];
+        try {
+            motor.reconoce(entradas.get(0));
+            long inicio = System.nanoTime();
+            for (int i = 0; i < entradas.size(); i++) {
+                respuestas[i] = motor.reconoce(entradas.get(i));
+                r.procesadas++;
+                if (respuestas[i]) r.aceptadas++;
+                if (i < numReferencia && respuestas[i] != referencia[i]) r.discrepancias++;
+                r.nanos = System.nanoTime() - inicio;
+                if (r.nanos > PRESUPUESTO_NS && i + 1 < entradas.size()) {
+                    r.nota = "se agotó el presupuesto de " + PRESUPUESTO_NS / 1_000_000 + " ms";
+                    break;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Un motor que no admite la entrada (p. ej. la tabla CYK de una cadena larga) deja de medirse.
+            r.nota = e.getMessage();
+        }
+        if (referencia == null) {
+            referencia = respuestas;
+            numReferencia = r.procesadas;
+        }
+        return r;
+    }
+
+    private void omitir(String nombre, String motivo) {
+        Resultado r = new Resultado(nombre);
+        r.nota = motivo;
+        resultados.add(r);
+    }
+}
@@ -0,0 +1,419 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Construcción del árbol sintáctico por particiones con pila explícita y memo
+ * (estilo packrat).
+ *
+ * Es la misma búsqueda que hacía la versión recursiva: para que A derive
+ * objetivo[desde, hasta) se prueba cada producción A → X1...Xm y cada forma de
+ * repartir el intervalo entre los Xi. Como que X derive un intervalo no depende
+ * del resto de la cadena, basta con el primer árbol que se encuentre para cada
+ * llamada, y la recursión se simula con marcos de dos tipos: CONSTRUIR (un no
+ * terminal sobre un intervalo, probando sus producciones) y COINCIDIR (la
+ * posición k de un lado derecho, probando los cortes). Los intervalos son pares
+ * de índices sobre la cadena codificada; nunca se copian subcadenas.
+ *
+ * Cada resultado se guarda en una memo: los éxitos por (símbolo, desde, hasta),
+ * con los hijos del nodo para reutilizar el subárbol, y los fracasos también por
+ * (ranura A → α·β, desde, hasta), de modo que cada subproblema se resuelve una
+ * vez y la construcción es O(|G| n³) en lugar de exponencial.
+ *
+ * La recursión izquierda y los ciclos de anulables (A ⇒+ A sobre el mismo
+ * intervalo) se cortan sin perder árboles: si A sobre [desde, hasta) ya está en
+ * curso en la pila, la llamada repetida falla, porque cualquier árbol que la use
+ * se puede acortar quitando el tramo repetido. Un fracaso que se debió a ese
+ * corte depende del contexto, así que se guarda junto con el marco en curso del
+ * que dependió (el más profundo) y solo se reutiliza mientras ese marco siga en
+ * la pila. En lugar de un límite de profundidad, la búsqueda se corta por número
+ * de marcos creados y por tamaño de la pila.
+ */
+final class ConstructorArbol {
+
+    private final GramaticaCompilada g;
+    private final AnalisisGramatica analisis;
+    private final long maxPasos;
+    private final long maxMemoria;
+    private final int[] baseRanuras;        // Ranura A → ·α de cada producción
+    private final boolean[] recursivoIzquierda;   // A ⇒+ A β
+
+    private int[] objetivo;
+    private long ancho;                     // Longitud de la cadena + 1, para empaquetar (x, desde, hasta)
+    private Deque<Marco> pila;
+    private Map<Long, Integer> enCurso;     // Clave de cada CONSTRUIR de la pila → su nivel
+    private long[] seriesVivas;             // Serie del CONSTRUIR de cada nivel de la pila
+    private int nivel;                      // CONSTRUIR que hay en la pila
+    private long series;
+    private Map<Long, Memo> memoSimbolos;
+    private Map<Long, Memo> memoRanuras;
+
+    private long pasos;
+    private long aciertos;
+    private boolean agotada;
+
+    ConstructorArbol(AnalisisGramatica analisis, long maxPasos, long maxMemoria) {
+        this.analisis = analisis;
+        this.g = analisis.g;
+        this.maxPasos = maxPasos;
+        this.maxMemoria = maxMemoria;
+        this.baseRanuras = new int[g.numProducciones()];
+        int ranuras = 0;
+        for (int p = 0; p < g.numProducciones(); p++) {
+            baseRanuras[p] = ranuras;
+            ranuras += g.derecha[p].length + 1;
+        }
+        this.recursivoIzquierda = recursivosIzquierda();
+    }
+
+    /**
+     * No terminales con recursión izquierda: A alcanza a A en el grafo de
+     * esquinas izquierdas (A → B si A → α B β con α anulable).
+     */
+    private boolean[] recursivosIzquierda() {
+        int n = g.numNoTerminales;
+        List<Set<Integer>> esquinas = new ArrayList<>(n);
+        for (int a = 0; a < n; a++) esquinas.add(new HashSet<>());
+        for (int p = 0; p < g.numProducciones(); p++) {
+            for (int s : g.derecha[p]) {
+                if (!g.esNoTerminal(s)) break;
+                esquinas.get(g.izquierda[p]).add(s);
+                if (!analisis.anulable[s]) break;
+            }
+        }
+        boolean[] recursivo = new boolean[n];
+        for (int a = 0; a < n; a++) {
+            boolean[] visto = new boolean[n];
+            Deque<Integer> pendientes = new ArrayDeque<>(esquinas.get(a));
+            while (!pendientes.isEmpty() && !recursivo[a]) {
+                int b = pendientes.pop();
+                if (visto[b]) continue;
+                visto[b] = true;
+                if (b == a) recursivo[a] = true;
+                pendientes.addAll(esquinas.get(b));
+            }
+        }
+        return recursivo;
+    }
+
+    /** Marco de la pila: un no terminal sobre un intervalo o una posición de un lado derecho. */
+    private static final class Marco {
+        final boolean construir;
+        final int desde;
+        final int hasta;
+        long clave;                    // Clave en la memo
+        int externa = -1;              // Nivel más profundo en curso, fuera del CONSTRUIR propio, del que dependió un fracaso
+        boolean dependePropia;         // COINCIDIR: un fracaso dependió del CONSTRUIR que lo contiene
+
+        // CONSTRUIR
+        int simbolo;
+        GLC.NodoArbol nodo;
+        int alternativa;               // Próxima producción a probar
+        List<GLC.NodoArbol> hijos;     // Nodos del lado derecho que se está probando
+        int nivel;
+        long serie;
+
+        // COINCIDIR
+        int[] der;
+        int base;                      // Ranura de der[0]
+        int k;
+        int inicio;                    // Inicio del intervalo de der[k] (después de los terminales)
+        int corte;                     // Fin del intervalo de der[k] que se está probando
+        int paso;                      // +1 o -1: orden en que se prueban los cortes
+        boolean iniciado;
+        boolean esperandoResto;        // Se llamó a COINCIDIR(k + 1) después de construir der[k]
+
+        Marco(boolean construir, int desde, int hasta) {
+            this.construir = construir;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+    }
+
+    /**
+     * Resultado guardado: los hijos del nodo si hubo éxito, o un fracaso. El
+     * fracaso vale siempre si {@code nivel} es -1 y, si no, mientras el CONSTRUIR
+     * de ese nivel con esa serie siga en la pila.
+     */
+    private static final class Memo {
+        final List<GLC.NodoArbol> hijos;
+        final int nivel;
+        final long serie;
+
+        Memo(List<GLC.NodoArbol> hijos, int nivel, long serie) {
+            this.hijos = hijos;
+            this.nivel = nivel;
+            this.serie = serie;
+        }
+    }
+
+    /**
+     * Hace que {@code raiz} (el símbolo inicial) derive toda la cadena.
+     * @return true si se encontró un árbol; sus nodos quedan colgados de la raíz.
+     */
+    boolean construir(GLC.NodoArbol raiz, int[] objetivo) {
+        this.objetivo = objetivo;
+        int n = objetivo.length;
+        ancho = n + 1L;
+        pila = new ArrayDeque<>();
+        enCurso = new HashMap<>();
+        seriesVivas = new long[16];
+        nivel = 0;
+        series = 0;
+        memoSimbolos = new HashMap<>();
+        memoRanuras = new HashMap<>();
+        pasos = 0;
+        aciertos = 0;
+        agotada = false;
+        if (g.inicial < 0 || !posible(g.inicial, 0, n)) return false;
+
+        if (!abrir(marcoConstruir(g.inicial, raiz, 0, n))) return false;
+        Boolean resultado = null;     // Valor devuelto por el último marco que terminó
+
+        while (!pila.isEmpty()) {
+            Marco m = pila.peek();
+            Marco llamada = null;
+
+            if (m.construir) {
+                if (resultado == Boolean.TRUE) {
+                    m.nodo.getHijos().addAll(m.hijos);
+                    resultado = terminar(m, true);
+                    continue;
+                }
+                boolean vacia = false;
+                int[] alternativas = g.produccionesDe[m.simbolo];
+                while (llamada == null && !vacia && m.alternativa < alternativas.length) {
+                    int p = alternativas[m.alternativa++];
+                    int[] der = g.derecha[p];
+                    if (der.length == 0) {
+                        vacia = m.desde == m.hasta;
+                        continue;
+                    }
+                    m.hijos = new ArrayList<>(der.length);
+                    for (int s : der) m.hijos.add(new GLC.NodoArbol(g.nombres[s]));
+                    llamada = marcoCoincidir(der, baseRanuras[p], 0, m.hijos, m.desde, m.hasta);
+                }
+                if (llamada == null) {
+                    if (vacia) m.nodo.agregarHijo(new GLC.NodoArbol("ε"));
+                    resultado = terminar(m, vacia);
+                    continue;
+                }
+            } else {
+                if (!m.iniciado) {
+                    // Primera entrada: se reconocen los terminales del principio.
+                    m.iniciado = true;
+                    int i = m.desde;
+                    while (m.k < m.der.length && !g.esNoTerminal(m.der[m.k])
+                            && i < m.hasta && objetivo[i] == m.der[m.k]) {
+                        i++;
+                        m.k++;
+                    }
+                    m.inicio = i;
+                    if (m.k == m.der.length || !g.esNoTerminal(m.der[m.k])) {
+                        resultado = terminar(m, m.k == m.der.length && i == m.hasta);
+                        continue;
+                    }
+                    // Si der[k] es el último símbolo, su intervalo tiene que llegar hasta el final.
+                    // Con recursión izquierda se prueban primero los cortes más largos: A → A x
+                    // encuentra entonces el árbol bajando por la cadena en lugar de probar cada prefijo.
+                    if (m.k + 1 == m.der.length) {
+                        m.corte = m.hasta - 1;
+                        m.paso = 1;
+                    } else if (recursivoIzquierda[m.der[m.k]]) {
+                        m.corte = m.hasta - longitudMinima(m.der, m.k + 1) + 1;
+                        m.paso = -1;
+                    } else {
+                        m.corte = i - 1;
+                        m.paso = 1;
+                    }
+                } else if (resultado == Boolean.TRUE) {
+                    if (m.esperandoResto) {
+                        resultado = terminar(m, true);
+                        continue;
+                    }
+                    // der[k] derivó su intervalo: falta repartir el resto entre der[k+1..].
+                    m.esperandoResto = true;
+                    llamada = marcoCoincidir(m.der, m.base, m.k + 1, m.hijos, m.corte, m.hasta);
+                }
+
+                if (llamada == null) {
+                    llamada = siguienteCorte(m);
+                    if (llamada == null) {
+                        m.hijos.get(m.k).getHijos().clear();
+                        resultado = terminar(m, false);
+                        continue;
+                    }
+                }
+            }
+
+            // Antes de abrir el subproblema se consulta la memo.
+            resultado = consultar(llamada, m);
+            if (resultado == null && !abrir(llamada)) return false;
+        }
+        return resultado == Boolean.TRUE;
+    }
+
+    /** Marcos creados en la última construcción (subproblemas que no estaban en la memo). */
+    long getPasos() { return pasos; }
+
+    /** Subproblemas de la última construcción que se resolvieron con la memo. */
+    long getAciertos() { return aciertos; }
+
+    /** Indica si la última construcción se cortó por el límite de pasos o de memoria. */
+    boolean esAgotada() { return agotada; }
+
+    // --- Marcos ---
+
+    private Marco marcoConstruir(int simbolo, GLC.NodoArbol nodo, int desde, int hasta) {
+        Marco m = new Marco(true, desde, hasta);
+        m.simbolo = simbolo;
+        m.nodo = nodo;
+        m.clave = clave(simbolo, desde, hasta);
+        return m;
+    }
+
+    private Marco marcoCoincidir(int[] der, int base, int k, List<GLC.NodoArbol> hijos, int desde, int hasta) {
+        Marco m = new Marco(false, desde, hasta);
+        m.der = der;
+        m.base = base;
+        m.k = k;
+        m.hijos = hijos;
+        m.clave = clave(base + k, desde, hasta);
+        return m;
+    }
+
+    /**
+     * Prueba el siguiente corte para der[k] y devuelve el CONSTRUIR del hijo, o
+     * null si no quedan cortes. Los cortes que caen en un subproblema en curso se
+     * saltan y el marco queda dependiendo de él.
+     */
+    private Marco siguienteCorte(Marco m) {
+        int cabeza = m.der[m.k];
+        int restoMinimo = longitudMinima(m.der, m.k + 1);
+        int siguiente = m.k + 1 < m.der.length ? m.der[m.k + 1] : -1;
+        GLC.NodoArbol hijo = m.hijos.get(m.k);
+        m.esperandoResto = false;
+        while (true) {
+            m.corte += m.paso;
+            if (m.corte < m.inicio || m.corte > m.hasta - restoMinimo) break;
+            if (!posible(cabeza, m.inicio, m.corte) || !puedeSeguir(siguiente, m.corte, m.hasta)) continue;
+            long clave = clave(cabeza, m.inicio, m.corte);
+            Integer nivelEnCurso = enCurso.get(clave);
+            if (nivelEnCurso != null) {
+                depender(m, nivelEnCurso);
+                continue;
+            }
+            hijo.getHijos().clear();
+            return marcoConstruir(cabeza, hijo, m.inicio, m.corte);
+        }
+        return null;
+    }
+
+    /** Apila el marco; devuelve false si se agotó el presupuesto. */
+    private boolean abrir(Marco m) {
+        if (++pasos > maxPasos || pila.size() >= maxMemoria) {
+            agotada = true;
+            return false;
+        }
+        if (m.construir) {
+            if (nivel == seriesVivas.length) seriesVivas = Arrays.copyOf(seriesVivas, nivel * 2);
+            m.nivel = nivel;
+            m.serie = ++series;
+            seriesVivas[nivel++] = m.serie;
+            enCurso.put(m.clave, m.nivel);
+        }
+        pila.push(m);
+        return true;
+    }
+
+    /** Desapila el marco, guarda su resultado en la memo y lo devuelve al marco de abajo. */
+    private Boolean terminar(Marco m, boolean exito) {
+        pila.pop();
+        if (m.construir) {
+            enCurso.remove(m.clave);
+            nivel--;
+        }
+        if (exito) {
+            if (m.construir) memoSimbolos.put(m.clave, new Memo(new ArrayList<>(m.nodo.getHijos()), -1, 0));
+            return Boolean.TRUE;
+        }
+        // Un CONSTRUIR no depende de sí mismo: cortar A ⇒+ A sobre el mismo intervalo no pierde árboles.
+        int propio = m.construir ? nivel : nivel - 1;
+        int d = m.dependePropia ? propio : m.externa;
+        Memo fracaso = new Memo(null, d, d >= 0 ? seriesVivas[d] : 0);
+        (m.construir ? memoSimbolos : memoRanuras).put(m.clave, fracaso);
+        if (!pila.isEmpty()) {
+            Marco padre = pila.peek();
+            if (m.externa >= 0) depender(padre, m.externa);
+            if (m.dependePropia) depender(padre, propio);
+        }
+        return Boolean.FALSE;
+    }
+
+    /**
+     * Registra que un fracaso del marco del tope dependió del CONSTRUIR en curso
+     * del nivel d. Para un CONSTRUIR solo cuentan los niveles anteriores al suyo;
+     * un COINCIDIR también depende del CONSTRUIR que lo contiene.
+     */
+    private void depender(Marco f, int d) {
+        int propio = nivel - 1;
+        if (d < propio) f.externa = Math.max(f.externa, d);
+        else if (d == propio && !f.construir) f.dependePropia = true;
+    }
+
+    /**
+     * Resultado de la llamada según la memo, o null si hay que resolverla. Un
+     * éxito cuelga del nodo los hijos guardados (el subárbol se comparte).
+     */
+    private Boolean consultar(Marco llamada, Marco llamador) {
+        Memo e = (llamada.construir ? memoSimbolos : memoRanuras).get(llamada.clave);
+        if (e == null) return null;
+        if (e.hijos != null) {
+            aciertos++;
+            llamada.nodo.getHijos().addAll(e.hijos);
+            return Boolean.TRUE;
+        }
+        if (e.nivel < 0) {
+            aciertos++;
+            return Boolean.FALSE;
+        }
+        if (e.nivel < nivel && seriesVivas[e.nivel] == e.serie) {
+            aciertos++;
+            depender(llamador, e.nivel);
+            return Boolean.FALSE;
+        }
+        return null;    // El fracaso dependía de un marco que ya terminó
+    }
+
+    // --- Poda ---
+
+    // (x, desde, hasta) en un long; x es un símbolo o una ranura.
+    private long clave(int x, int desde, int hasta) {
+        return ((long) x * ancho + desde) * ancho + hasta;
+    }
+
+    // El no terminal puede derivar objetivo[desde, hasta): longitud mínima y PRIMEROS.
+    private boolean posible(int a, int desde, int hasta) {
+        int l = analisis.longitudMinima[a];
+        if (l == AnalisisGramatica.INFINITA || l > hasta - desde) return false;
+        if (desde == hasta) return analisis.anulable[a];
+        return analisis.enPrimeros(a, objetivo[desde] - g.numNoTerminales);
+    }
+
+    // El símbolo que sigue a un corte (-1 si no hay) puede empezar en esa posición.
+    private boolean puedeSeguir(int s, int corte, int hasta) {
+        if (s < 0) return true;
+        if (!g.esNoTerminal(s)) return corte < hasta && objetivo[corte] == s;
+        if (analisis.anulable[s]) return true;
+        return corte < hasta && analisis.enPrimeros(s, objetivo[corte] - g.numNoTerminales);
+    }
+
+    private int longitudMinima(int[] der, int desde) {
+        long total = 0;
+        for (int i = desde; i < der.length; i++) {
+            int s = der[i];
+            total += g.esNoTerminal(s) ? analisis.longitudMinima[s] : 1;
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,281 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Conversión de un {@link AutomataDePila} a una {@link GLC} con la construcción
+ * de triples: el no terminal [p X q] genera las cadenas que llevan al autómata
+ * del estado p con X en el tope al estado q habiendo quitado X de la pila.
+ *
+ * La construcción pide que cada transición desapile exactamente un símbolo y
+ * que se acepte por pila vacía, así que primero se normaliza el autómata con la
+ * semántica de {@link AutomataDePila#procesar(String)}:
+ * - la pila empieza con un fondo nuevo ⊥ (procesar empieza con la pila vacía);
+ * - una transición que no desapila (pila = ε) se repite para cada tope posible,
+ *   incluido ⊥, volviendo a apilar el tope;
+ * - si se acepta por pila vacía, desde cualquier estado se puede quitar ⊥ y
+ *   pasar a un estado nuevo "fin" sin transiciones;
+ * - si se acepta por estado final, desde un estado final se pasa a "fin", que
+ *   vacía la pila sin consumir.
+ *
+ * Una transición p —a, X→ r que apila Y1…Yk daría |Q|^k producciones; en su
+ * lugar se encadenan no terminales intermedios [r, Y1…Yj, s] ("desde r, quitar
+ * Y1…Yj termina en s"), con lo que cada producción tiene a lo sumo dos no
+ * terminales y su cantidad crece con |Q|² por símbolo apilado. Al final se
+ * quitan los no terminales inútiles y los que quedan reciben nombres de un
+ * carácter (ver {@link #getCorrespondencia()}).
+ */
+public final class ConversionAPGLC {
+
+    /** Producciones que se generan como máximo antes de quitar las inútiles. */
+    public static final long MAX_PRODUCCIONES = 2_000_000;
+
+    private static final String FIN = "fin";
+    private static final String FONDO = "⊥";
+
+    private final GLC gramatica;
+    private final Map<String, String> correspondencia = new LinkedHashMap<>();
+
+    // Autómata normalizado: estados [0, numEstados) con el inicial en 0 y "fin" al final;
+    // símbolos de pila [0, numPila) con ⊥ al final.
+    private final String[] nombresEstados;
+    private final char[] simbolosPila;
+    private final int numEstados;
+    private final int numPila;
+
+    // Producciones sobre enteros: no terminales en [0, numNT), terminal c como -1 - c.
+    private final List<Integer> izquierda = new ArrayList<>();
+    private final List<int[]> derecha = new ArrayList<>();
+    private int numNT;
+
+    /**
+     * @throws IllegalArgumentException si el autómata no tiene estado inicial o
+     *         la gramática supera {@link #MAX_PRODUCCIONES}.
+     */
+    public ConversionAPGLC(AutomataDePila ap) {
+        if (ap.getEstadoInicial() == null) {
+            throw new IllegalArgumentException("El autómata no tiene estado inicial");
+        }
+
+        List<String> estados = new ArrayList<>();
+        estados.add(ap.getEstadoInicial());
+        for (String e : new TreeSet<>(ap.getEstados())) if (!e.equals(ap.getEstadoInicial())) estados.add(e);
+        estados.add(FIN);
+        numEstados = estados.size();
+        nombresEstados = estados.toArray(new String[0]);
+        Map<String, Integer> indiceEstado = new HashMap<>();
+        for (int i = 0; i < numEstados - 1; i++) indiceEstado.put(nombresEstados[i], i);
+        int fin = numEstados - 1;
+
+        // Símbolos de pila: el alfabeto y cualquier otro que aparezca en una transición.
+        TreeSet<Character> pila = new TreeSet<>(ap.getAlfabetoPila());
+        for (Map.Entry<AutomataDePila.TransicionKey, List<AutomataDePila.TransicionValor>> e
+                : ap.getTransiciones().entrySet()) {
+            if (e.getKey().simboloPila != null) pila.add(e.getKey().simboloPila);
+            for (AutomataDePila.TransicionValor v : e.getValue()) {
+                for (char c : v.cadenaApilar.toCharArray()) pila.add(c);
+            }
+        }
+        numPila = pila.size() + 1;
+        simbolosPila = new char[numPila];
+        Map<Character, Integer> indicePila = new HashMap<>();
+        int k = 0;
+        for (char c : pila) {
+            indicePila.put(c, k);
+            simbolosPila[k++] = c;
+        }
+        int fondo = numPila - 1;
+
+        // Transiciones normalizadas {origen, entrada (-1 = ε), tope, destino, apilados...}.
+        List<int[]> normalizadas = new ArrayList<>();
+        for (Map.Entry<AutomataDePila.TransicionKey, List<AutomataDePila.TransicionValor>> e
+                : ap.getTransiciones().entrySet()) {
+            AutomataDePila.TransicionKey clave = e.getKey();
+            int origen = indiceEstado.get(clave.estado);
+            int entrada = clave.simboloEntrada == null ? -1 : clave.simboloEntrada;
+            for (AutomataDePila.TransicionValor v : e.getValue()) {
+                int destino = indiceEstado.get(v.estadoDestino);
+                int[] apilar = new int[v.cadenaApilar.length()];
+                for (int i = 0; i < apilar.length; i++) apilar[i] = indicePila.get(v.cadenaApilar.charAt(i));
+                if (clave.simboloPila != null) {
+                    normalizadas.add(transicion(origen, entrada, indicePila.get(clave.simboloPila), destino, apilar));
+                } else {
+                    for (int x = 0; x < numPila; x++) {
+                        int[] conTope = Arrays.copyOf(apilar, apilar.length + 1);
+                        conTope[apilar.length] = x;
+                        normalizadas.add(transicion(origen, entrada, x, destino, conTope));
+                    }
+                }
+            }
+        }
+        if (ap.isAceptarPorPilaVacia()) {
+            for (int q = 0; q < fin; q++) normalizadas.add(transicion(q, -1, fondo, fin, new int[0]));
+        } else {
+            for (String f : ap.getEstadosFinales()) {
+                for (int x = 0; x < numPila; x++) {
+                    normalizadas.add(transicion(indiceEstado.get(f), -1, x, fin, new int[0]));
+                }
+            }
+            for (int x = 0; x < numPila; x++) normalizadas.add(transicion(fin, -1, x, fin, new int[0]));
+        }
+
+        // No terminales: los triples, después los intermedios de cada transición y el inicial.
+        int triples = numEstados * numPila * numEstados;
+        int[] baseIntermedios = new int[normalizadas.size()];
+        numNT = triples;
+        long estimadas = numEstados;
+        for (int t = 0; t < normalizadas.size(); t++) {
+            int apilados = normalizadas.get(t).length - 4;
+            baseIntermedios[t] = numNT;
+            if (apilados > 2) numNT += (apilados - 2) * numEstados;
+            estimadas += (long) numEstados * numEstados * Math.max(1, apilados);
+        }
+        if (estimadas > MAX_PRODUCCIONES) {
+            throw new IllegalArgumentException("La gramática tendría unas " + estimadas
+                    + " producciones; el límite es " + MAX_PRODUCCIONES);
+        }
+        int inicial = numNT++;
+
+        for (int s = 0; s < numEstados; s++) agregar(inicial, triple(0, fondo, s));
+        for (int t = 0; t < normalizadas.size(); t++) {
+            int[] tr = normalizadas.get(t);
+            int p = tr[0], a = tr[1], x = tr[2], r = tr[3];
+            int apilados = tr.length - 4;
+            int[] prefijo = a < 0 ? new int[0] : new int[]{-1 - a};
+            if (apilados == 0) {
+                agregar(triple(p, x, r), prefijo);
+                continue;
+            }
+            // medio[j][s]: no terminal de "desde r, quitar Y1…Yj termina en s" (j = 1 es un triple).
+            for (int j = 2; j < apilados; j++) {
+                for (int s = 0; s < numEstados; s++) {
+                    for (int m = 0; m < numEstados; m++) {
+                        agregar(intermedio(baseIntermedios[t], j, s),
+                                anterior(baseIntermedios[t], r, tr[4], j - 1, m), triple(m, tr[3 + j], s));
+                    }
+                }
+            }
+            for (int s = 0; s < numEstados; s++) {
+                if (apilados == 1) {
+                    agregar(triple(p, x, s), concatenar(prefijo, triple(r, tr[4], s)));
+                    continue;
+                }
+                for (int m = 0; m < numEstados; m++) {
+                    agregar(triple(p, x, s), concatenar(prefijo,
+                            anterior(baseIntermedios[t], r, tr[4], apilados - 1, m), triple(m, tr[3 + apilados], s)));
+                }
+            }
+        }
+
+        gramatica = construir(ap, inicial, baseIntermedios, normalizadas);
+    }
+
+    /** Gramática equivalente al autómata, sin símbolos inútiles. */
+    public GLC getGramatica() { return gramatica; }
+
+    /** Nombre de cada no terminal de la gramática ↦ el triple o intermedio que representa. */
+    public Map<String, String> getCorrespondencia() {
+        return Collections.unmodifiableMap(correspondencia);
+    }
+
+    // --- Construcción ---
+
+    private static int[] transicion(int origen, int entrada, int tope, int destino, int[] apilar) {
+        int[] t = new int[4 + apilar.length];
+        t[0] = origen;
+        t[1] = entrada;
+        t[2] = tope;
+        t[3] = destino;
+        System.arraycopy(apilar, 0, t, 4, apilar.length);
+        return t;
+    }
+
+    private int triple(int p, int x, int q) {
+        return (p * numPila + x) * numEstados + q;
+    }
+
+    private int intermedio(int base, int j, int s) {
+        return base + (j - 2) * numEstados + s;
+    }
+
+    // No terminal de "desde r, quitar Y1…Yj termina en m": el triple [r Y1 m] si j = 1.
+    private int anterior(int base, int r, int primero, int j, int m) {
+        return j == 1 ? triple(r, primero, m) : intermedio(base, j, m);
+    }
+
+    private static int[] concatenar(int[] prefijo, int... resto) {
+        int[] r = Arrays.copyOf(prefijo, prefijo.length + resto.length);
+        System.arraycopy(resto, 0, r, prefijo.length, resto.length);
+        return r;
+    }
+
+    private void agregar(int izq, int... der) {
+        izquierda.add(izq);
+        derecha.add(der);
+    }
+
+    private GLC construir(AutomataDePila ap, int inicial, int[] baseIntermedios, List<int[]> normalizadas) {
+        int total = izquierda.size();
+        int[] izq = new int[total];
+        int[][] der = derecha.toArray(new int[0][]);
+        for (int p = 0; p < total; p++) izq[p] = izquierda.get(p);
+        boolean[] conservar = SimplificacionGLC.utiles(numNT, inicial, izq, der).conservar;
+
+        Set<Character> terminales = new TreeSet<>(ap.getAlfabetoEntrada());
+        for (int[] tr : normalizadas) if (tr[1] >= 0) terminales.add((char) tr[1]);
+        List<String> ocupados = new ArrayList<>();
+        for (char c : terminales) ocupados.add(String.valueOf(c));
+        NombresLibres libres = new NombresLibres(ocupados);
+
+        // Nombres en el orden en que aparecen las producciones útiles, con el inicial primero.
+        String[] nombre = new String[numNT];
+        nombre[inicial] = libres.nuevo();
+        correspondencia.put(nombre[inicial], "inicial");
+        for (int p = 0; p < total; p++) {
+            if (!conservar[p]) continue;
+            for (int s : der[p]) {
+                if (s >= 0 && nombre[s] == null) {
+                    nombre[s] = libres.nuevo();
+                    correspondencia.put(nombre[s], descripcion(s, baseIntermedios, normalizadas));
+                }
+            }
+        }
+
+        GLC resultado = new GLC();
+        resultado.setSimboloInicial(nombre[inicial]);
+        resultado.agregarNoTerminal(nombre[inicial]);
+        for (char c : terminales) resultado.agregarTerminal(c);
+        for (String nt : correspondencia.keySet()) resultado.agregarNoTerminal(nt);
+        for (int p = 0; p < total; p++) {
+            if (!conservar[p]) continue;
+            StringBuilder cuerpo = new StringBuilder();
+            for (int s : der[p]) cuerpo.append(s >= 0 ? nombre[s] : String.valueOf((char) (-1 - s)));
+            resultado.agregarProduccion(nombre[izq[p]], cuerpo.length() == 0 ? "ε" : cuerpo.toString());
+        }
+        return resultado;
+    }
+
+    private String descripcion(int nt, int[] baseIntermedios, List<int[]> normalizadas) {
+        if (nt < numEstados * numPila * numEstados) {
+            int q = nt % numEstados;
+            int x = nt / numEstados % numPila;
+            int p = nt / numEstados / numPila;
+            return "[" + nombresEstados[p] + " " + simboloPila(x) + " " + nombresEstados[q] + "]";
+        }
+        // Intermedio: la transición es la última cuya base no lo supera.
+        int t = 0;
+        for (int i = 0; i < baseIntermedios.length; i++) {
+            if (baseIntermedios[i] <= nt && normalizadas.get(i).length - 4 > 2) t = i;
+        }
+        int[] tr = normalizadas.get(t);
+        int j = (nt - baseIntermedios[t]) / numEstados + 2;
+        int s = (nt - baseIntermedios[t]) % numEstados;
+        StringBuilder apilados = new StringBuilder();
+        for (int i = 0; i < j; i++) apilados.append(simboloPila(tr[4 + i]));
+        return "[" + nombresEstados[tr[3]] + " " + apilados + " " + nombresEstados[s] + "]";
+    }
+
+    private String simboloPila(int x) {
+        return x == numPila - 1 ? FONDO : String.valueOf(simbolosPila[x]);
+    }
+}
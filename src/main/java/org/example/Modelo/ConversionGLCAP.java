@@ -0,0 +1,92 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Conversión estándar de una {@link GLC} a un {@link AutomataDePila} que simula
+ * las derivaciones por la izquierda: en un único estado el autómata expande el
+ * no terminal del tope con una de sus producciones (transición ε) o empareja el
+ * terminal del tope con el símbolo de la entrada.
+ *
+ * {@link AutomataDePila#procesar(String)} empieza con la pila vacía y, si acepta
+ * por pila vacía, aceptaría la cadena vacía antes de moverse. Por eso hay además
+ * un estado de entrada que apila el símbolo inicial sobre un fondo, y uno final
+ * al que se pasa al desapilar ese fondo; el autómata acepta por estado final.
+ *
+ * Los símbolos de la pila son caracteres: los no terminales de varios caracteres
+ * (o que coinciden con un terminal) reciben un carácter libre (ver
+ * {@link #getCorrespondencia()}). Se usa la gramática sin producciones inútiles.
+ */
+public final class ConversionGLCAP {
+
+    public static final String ESTADO_INICIAL = "q0";
+    public static final String ESTADO_CICLO = "q";
+    public static final String ESTADO_FINAL = "qf";
+
+    private final AutomataDePila automata = new AutomataDePila();
+    private final Map<Character, String> correspondencia = new LinkedHashMap<>();
+    private final char fondo;
+
+    /**
+     * @throws IllegalArgumentException si la gramática no tiene símbolo inicial.
+     */
+    public ConversionGLCAP(GLC glc) {
+        if (glc.getSimboloInicial() == null) {
+            throw new IllegalArgumentException("La gramática no tiene símbolo inicial");
+        }
+        GramaticaCompilada g = glc.getGramaticaUtil();
+
+        // Carácter de cada símbolo en la pila.
+        Set<Character> terminales = new TreeSet<>(glc.getTerminales());
+        for (int t = g.numNoTerminales; t < g.numSimbolos; t++) terminales.add(g.nombres[t].charAt(0));
+        List<String> ocupados = new ArrayList<>();
+        for (char c : terminales) ocupados.add(String.valueOf(c));
+        for (int a = 0; a < g.numNoTerminales; a++) ocupados.add(g.nombres[a]);
+        NombresLibres libres = new NombresLibres(ocupados);
+        char[] caracter = new char[g.numSimbolos];
+        for (int a = 0; a < g.numNoTerminales; a++) {
+            String nombre = g.nombres[a];
+            boolean propio = nombre.length() == 1 && !terminales.contains(nombre.charAt(0));
+            caracter[a] = propio ? nombre.charAt(0) : libres.nuevo().charAt(0);
+            correspondencia.put(caracter[a], nombre);
+        }
+        for (int t = g.numNoTerminales; t < g.numSimbolos; t++) caracter[t] = g.nombres[t].charAt(0);
+        fondo = terminales.contains('⊥') || correspondencia.containsKey('⊥') ? libres.nuevo().charAt(0) : '⊥';
+
+        automata.agregarEstado(ESTADO_INICIAL);
+        automata.agregarEstado(ESTADO_CICLO);
+        automata.agregarEstado(ESTADO_FINAL);
+        automata.setEstadoInicial(ESTADO_INICIAL);
+        automata.agregarEstadoFinal(ESTADO_FINAL);
+        automata.setAceptarPorPilaVacia(false);
+        automata.setSimboloInicialPila(fondo);
+        for (char c : terminales) {
+            automata.agregarSimboloEntrada(c);
+            automata.agregarSimboloPila(c);
+        }
+        for (char c : correspondencia.keySet()) automata.agregarSimboloPila(c);
+        automata.agregarSimboloPila(fondo);
+
+        automata.agregarTransicion(ESTADO_INICIAL, null, null, ESTADO_CICLO,
+                String.valueOf(caracter[g.inicial]) + fondo);
+        // Expandir: (q, ε, A) → (q, α).
+        for (int p = 0; p < g.numProducciones(); p++) {
+            StringBuilder alfa = new StringBuilder();
+            for (int s : g.derecha[p]) alfa.append(caracter[s]);
+            automata.agregarTransicion(ESTADO_CICLO, null, caracter[g.izquierda[p]], ESTADO_CICLO, alfa.toString());
+        }
+        // Emparejar: (q, a, a) → (q, ε).
+        for (char c : terminales) automata.agregarTransicion(ESTADO_CICLO, c, c, ESTADO_CICLO, "");
+        automata.agregarTransicion(ESTADO_CICLO, null, fondo, ESTADO_FINAL, "");
+    }
+
+    public AutomataDePila getAutomata() { return automata; }
+
+    /** Símbolo de pila de cada no terminal ↦ nombre del no terminal en la gramática. */
+    public Map<Character, String> getCorrespondencia() {
+        return Collections.unmodifiableMap(correspondencia);
+    }
+
+    /** Símbolo que marca el fondo de la pila. */
+    public char getFondo() { return fondo; }
+}
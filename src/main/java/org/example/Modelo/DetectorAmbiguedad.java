@@ -0,0 +1,243 @@
+package org.example.Modelo;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Detección de ambigüedad de una {@link GLC} sobre cadenas concretas.
+ *
+ * El número de árboles de una cadena se cuenta sobre el bosque de Earley
+ * ({@link BosqueSPPF#getNumArboles()}). La búsqueda de oraciones ambiguas
+ * revisa los prefijos una longitud a la vez (profundización iterativa), así que
+ * la primera cadena ambigua que encuentra es la más corta y, si se agota el
+ * límite de prefijos, todas las longitudes anteriores quedaron revisadas por
+ * completo. Cada prefijo obtiene su tabla de Earley de la de su padre leyendo
+ * un símbolo más y se descarta en cuanto algún conjunto queda vacío, porque
+ * ninguna de sus extensiones pertenece al lenguaje. En cada ronda los
+ * subárboles de los prefijos iniciales se recorren en profundidad, en orden
+ * lexicográfico y repartidos entre los hilos del pool común; los niveles
+ * anteriores se vuelven a recorrer, pero solo se revisan (y se cuentan) los
+ * prefijos de la longitud nueva. Como la ambigüedad es indecidible, la búsqueda
+ * está acotada por la longitud y por un número máximo de prefijos analizados.
+ */
+public final class DetectorAmbiguedad {
+
+    /** Prefijos que se analizan como máximo en una búsqueda. */
+    public static final long MAX_CANDIDATOS = 2_000_000;
+
+    // Longitud de los prefijos que se reparten entre los hilos.
+    private static final int LONGITUD_SEMILLA = 2;
+
+    private final GramaticaCompilada g;
+    private final AnalizadorEarley earley;
+
+    public DetectorAmbiguedad(GLC glc) {
+        this(glc.getGramaticaUtil());
+    }
+
+    DetectorAmbiguedad(GramaticaCompilada g) {
+        this.g = g;
+        this.earley = new AnalizadorEarley(g);
+    }
+
+    /**
+     * Número de árboles sintácticos de la cadena: 0 si no pertenece al lenguaje y
+     * {@link BosqueSPPF#INFINITOS} si tiene infinitos.
+     */
+    public BigInteger contarArboles(String cadena) {
+        if (g.inicial < 0) return BigInteger.ZERO;
+        BosqueSPPF bosque = earley.analizar(cadena);
+        return bosque == null ? BigInteger.ZERO : bosque.getNumArboles();
+    }
+
+    /** Resultado de {@link #buscar(int)}. */
+    public static final class Resultado {
+        private final String cadena;
+        private final BigInteger numArboles;
+        private final List<GLC.NodoArbol> arboles;
+        private final int longitudRevisada;
+        private final boolean completa;
+        private final long candidatos;
+
+        Resultado(String cadena, BigInteger numArboles, List<GLC.NodoArbol> arboles,
+                  int longitudRevisada, boolean completa, long candidatos) {
+            this.cadena = cadena;
+            this.numArboles = numArboles;
+            this.arboles = arboles;
+            this.longitudRevisada = longitudRevisada;
+            this.completa = completa;
+            this.candidatos = candidatos;
+        }
+
+        /** Indica si se encontró una cadena ambigua. */
+        public boolean esAmbigua() { return cadena != null; }
+
+        /**
+         * La cadena ambigua más corta (y lexicográficamente menor), o null. Si la
+         * búsqueda no es completa, es la mejor de las revisadas.
+         */
+        public String getCadena() { return cadena; }
+
+        /** Número de árboles de la cadena encontrada ({@link BosqueSPPF#INFINITOS} si son infinitos). */
+        public BigInteger getNumArboles() { return numArboles; }
+
+        /** Dos árboles distintos de la cadena encontrada (vacía si no se encontró). */
+        public List<GLC.NodoArbol> getArboles() { return arboles; }
+
+        /** Mayor longitud revisada por completo. */
+        public int getLongitudRevisada() { return longitudRevisada; }
+
+        /** false si la búsqueda se cortó por {@link #MAX_CANDIDATOS}. */
+        public boolean esCompleta() { return completa; }
+
+        /** Prefijos analizados con Earley. */
+        public long getCandidatos() { return candidatos; }
+    }
+
+    /**
+     * Busca la cadena ambigua más corta de longitud a lo sumo {@code longitudMaxima}.
+     * @throws IllegalArgumentException si la longitud es negativa.
+     */
+    public Resultado buscar(int longitudMaxima) {
+        if (longitudMaxima < 0) {
+            throw new IllegalArgumentException("La longitud máxima no puede ser negativa: " + longitudMaxima);
+        }
+        if (g.inicial < 0) return new Resultado(null, BigInteger.ZERO, Collections.emptyList(), -1, true, 0);
+        AtomicLong candidatos = new AtomicLong();
+
+        // Prefijos cortos en anchura y en orden lexicográfico: la primera cadena ambigua es la buscada.
+        int largoSemilla = Math.min(longitudMaxima, LONGITUD_SEMILLA);
+        List<AnalizadorEarley.Tabla> semillas = new ArrayList<>();
+        semillas.add(earley.llenar(new int[0]));
+        for (int k = 0; ; k++) {
+            for (AnalizadorEarley.Tabla tabla : semillas) {
+                if (esAmbigua(tabla)) return encontrada(tabla.entrada, k, true, candidatos.get());
+            }
+            if (k == largoSemilla) break;
+            semillas = extender(semillas, candidatos);
+        }
+        if (largoSemilla == longitudMaxima) {
+            return new Resultado(null, BigInteger.ZERO, Collections.emptyList(), longitudMaxima, true, candidatos.get());
+        }
+
+        // Cada hilo rehace la tabla de su semilla: las tablas comparten conjuntos que
+        // Leo y el bosque completan después, así que no se pasan entre hilos.
+        List<int[]> vivas = new ArrayList<>();
+        for (AnalizadorEarley.Tabla tabla : semillas) vivas.add(tabla.entrada);
+        AtomicBoolean agotado = new AtomicBoolean();
+        for (int longitud = largoSemilla + 1; longitud <= longitudMaxima && !vivas.isEmpty(); longitud++) {
+            int nivel = longitud;
+            List<int[]> prefijos = vivas;
+            AtomicInteger primera = new AtomicInteger(prefijos.size());
+            List<Rama> ramas = IntStream.range(0, prefijos.size()).parallel()
+                    .mapToObj(i -> buscarNivel(i, prefijos.get(i), nivel, primera, candidatos, agotado))
+                    .collect(Collectors.toList());
+
+            // Las semillas están en orden lexicográfico: la primera con una cadena ambigua tiene la menor.
+            if (primera.get() < ramas.size()) {
+                boolean completa = !agotado.get();
+                return encontrada(ramas.get(primera.get()).cadena, completa ? nivel : nivel - 1, completa, candidatos.get());
+            }
+            if (agotado.get()) {
+                return new Resultado(null, BigInteger.ZERO, Collections.emptyList(), nivel - 1, false, candidatos.get());
+            }
+            vivas = new ArrayList<>();
+            for (int i = 0; i < ramas.size(); i++) {
+                if (ramas.get(i).viva) vivas.add(prefijos.get(i));
+            }
+        }
+        return new Resultado(null, BigInteger.ZERO, Collections.emptyList(), longitudMaxima, true, candidatos.get());
+    }
+
+    /** Lo que encontró una semilla en una ronda: su menor cadena ambigua y si le quedan prefijos viables. */
+    private static final class Rama {
+        final int[] cadena;
+        final boolean viva;
+
+        Rama(int[] cadena, boolean viva) {
+            this.cadena = cadena;
+            this.viva = viva;
+        }
+    }
+
+    private Resultado encontrada(int[] simbolos, int revisada, boolean completa, long candidatos) {
+        String cadena = decodificar(simbolos);
+        BosqueSPPF bosque = earley.analizar(cadena);
+        return new Resultado(cadena, bosque.getNumArboles(), bosque.dosArboles(), revisada, completa, candidatos);
+    }
+
+    // Extensiones viables de las tablas en un símbolo, en orden lexicográfico.
+    private List<AnalizadorEarley.Tabla> extender(List<AnalizadorEarley.Tabla> tablas, AtomicLong candidatos) {
+        List<AnalizadorEarley.Tabla> siguientes = new ArrayList<>();
+        for (AnalizadorEarley.Tabla tabla : tablas) {
+            for (int t = g.numNoTerminales; t < g.numSimbolos; t++) {
+                candidatos.incrementAndGet();
+                AnalizadorEarley.Tabla extendida = extension(tabla, t);
+                if (extendida != null) siguientes.add(extendida);
+            }
+        }
+        return siguientes;
+    }
+
+    /**
+     * Recorre en profundidad, en orden lexicográfico, las extensiones de la semilla
+     * hasta la longitud dada, y revisa solo las de esa longitud: la primera
+     * ambigua es la menor de la semilla. Cada tabla se obtiene de la de su padre
+     * leyendo un símbolo más ({@link AnalizadorEarley#actualizar}). Se detiene si
+     * se agota el límite de prefijos o si una semilla anterior ya encontró una.
+     */
+    private Rama buscarNivel(int indice, int[] semilla, int longitud, AtomicInteger primera,
+                             AtomicLong candidatos, AtomicBoolean agotado) {
+        boolean viva = false;
+        Deque<AnalizadorEarley.Tabla> pila = new ArrayDeque<>();
+        pila.push(earley.llenar(semilla));
+        while (!pila.isEmpty()) {
+            if (agotado.get() || primera.get() < indice) return new Rama(null, viva);
+            AnalizadorEarley.Tabla tabla = pila.pop();
+            boolean ultimo = tabla.entrada.length + 1 == longitud;
+            List<AnalizadorEarley.Tabla> hijos = new ArrayList<>();
+            for (int t = g.numNoTerminales; t < g.numSimbolos; t++) {
+                if (ultimo && candidatos.incrementAndGet() > MAX_CANDIDATOS) {
+                    agotado.set(true);
+                    return new Rama(null, viva);
+                }
+                AnalizadorEarley.Tabla hijo = extension(tabla, t);
+                if (hijo == null) continue;
+                if (!ultimo) {
+                    hijos.add(hijo);
+                    continue;
+                }
+                viva = true;
+                if (esAmbigua(hijo)) {
+                    primera.accumulateAndGet(indice, Math::min);
+                    return new Rama(hijo.entrada, true);
+                }
+            }
+            // Se apilan en orden inverso para visitar primero el terminal menor.
+            for (int k = hijos.size() - 1; k >= 0; k--) pila.push(hijos.get(k));
+        }
+        return new Rama(null, viva);
+    }
+
+    // Tabla del prefijo extendido con el terminal t, o null si algún conjunto de Earley quedó vacío.
+    private AnalizadorEarley.Tabla extension(AnalizadorEarley.Tabla tabla, int t) {
+        int[] extendido = Arrays.copyOf(tabla.entrada, tabla.entrada.length + 1);
+        extendido[tabla.entrada.length] = t;
+        AnalizadorEarley.Tabla extendida = earley.actualizar(tabla, extendido);
+        return extendida.conjuntos.size() == extendido.length + 1 ? extendida : null;
+    }
+
+    private boolean esAmbigua(AnalizadorEarley.Tabla tabla) {
+        BosqueSPPF bosque = earley.bosque(tabla);
+        return bosque != null && bosque.esAmbiguo();
+    }
+
+    private String decodificar(int[] simbolos) {
+        return Arrays.stream(simbolos).mapToObj(s -> g.nombres[s]).collect(Collectors.joining());
+    }
+}
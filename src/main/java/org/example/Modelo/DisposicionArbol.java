@@ -0,0 +1,285 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Disposición de un árbol para dibujarlo ("tidy tree" de Reingold–Tilford, en la
+ * versión de tiempo lineal de Buchheim, Jünger y Leipert del algoritmo de
+ * Walker): los nodos de un mismo nivel quedan en orden y separados, cada padre
+ * queda centrado sobre sus hijos y los subárboles iguales se dibujan iguales.
+ *
+ * El árbol de un {@link ArbolCompartido} se expande numerando los nodos por
+ * niveles (en anchura): así los hijos de un nodo son consecutivos y cada nivel
+ * es un rango de índices con la x creciente, lo que permite buscar con una
+ * búsqueda binaria los nodos que caen en una ventana (ver
+ * {@link #primeroDesde(int, double)}). Los dos recorridos del algoritmo son
+ * iterativos: el primero en post-orden con una pila de marcos (cada hijo se
+ * ajusta contra sus hermanos izquierdos en cuanto termina su subárbol) y el
+ * segundo en el orden de la numeración.
+ *
+ * Las coordenadas están en unidades de carácter: cada nodo mide el largo de su
+ * etiqueta más {@link #MARGEN}, y entre vecinos queda {@link #SEPARACION}. La y
+ * es el nivel.
+ */
+public final class DisposicionArbol {
+
+    /**
+     * Nodos que se disponen como máximo. El árbol compartido se expande entero y
+     * cada nodo ocupa unos 70 bytes entre los arreglos del resultado y los del
+     * algoritmo, así que el límite mantiene la disposición en unas decenas de MB.
+     */
+    public static final long MAX_NODOS = 500_000;
+
+    /** Ancho extra de cada nodo, en caracteres. */
+    public static final double MARGEN = 2;
+
+    /** Separación mínima entre nodos vecinos, en caracteres. */
+    public static final double SEPARACION = 1;
+
+    private final ArbolCompartido arbol;
+    private final int n;
+    private final int[] compartido;      // Nodo del grafo compartido
+    private final int[] padre;
+    private final int[] primerHijo;      // -1 si es hoja
+    private final int[] numHijos;
+    private final int[] inicioNivel;     // Nivel l = [inicioNivel[l], inicioNivel[l + 1])
+    private final double[] x;
+    private double minimo;
+    private double maximo;
+
+    // Estado del algoritmo (se liberan al terminar).
+    private double[] prelim, mod, cambio, desplazamiento;
+    private int[] hilo, ancestro;
+
+    /**
+     * @throws IllegalArgumentException si el árbol tiene más de {@link #MAX_NODOS} nodos.
+     */
+    public DisposicionArbol(ArbolCompartido arbol) {
+        if (arbol.getNumNodos() > MAX_NODOS) {
+            throw new IllegalArgumentException("El árbol tiene " + arbol.getNumNodos()
+                    + " nodos; se pueden disponer hasta " + MAX_NODOS);
+        }
+        this.arbol = arbol;
+        this.n = (int) arbol.getNumNodos();
+        compartido = new int[n];
+        padre = new int[n];
+        primerHijo = new int[n];
+        numHijos = new int[n];
+        x = new double[n];
+
+        // Expansión por niveles.
+        List<Integer> niveles = new ArrayList<>();
+        compartido[0] = arbol.getRaiz();
+        padre[0] = -1;
+        int siguiente = 1;
+        int finNivel = 1;
+        niveles.add(0);
+        for (int v = 0; v < n; v++) {
+            if (v == finNivel) {
+                niveles.add(v);
+                finNivel = siguiente;
+            }
+            int c = compartido[v];
+            numHijos[v] = arbol.getNumHijos(c);
+            primerHijo[v] = numHijos[v] > 0 ? siguiente : -1;
+            for (int k = 0; k < numHijos[v]; k++) {
+                compartido[siguiente] = arbol.getHijo(c, k);
+                padre[siguiente] = v;
+                siguiente++;
+            }
+        }
+        niveles.add(n);
+        inicioNivel = niveles.stream().mapToInt(Integer::intValue).toArray();
+
+        prelim = new double[n];
+        mod = new double[n];
+        cambio = new double[n];
+        desplazamiento = new double[n];
+        hilo = new int[n];
+        ancestro = new int[n];
+        Arrays.fill(hilo, -1);
+        for (int v = 0; v < n; v++) ancestro[v] = v;
+        primerRecorrido();
+        segundoRecorrido();
+        prelim = mod = cambio = desplazamiento = null;
+        hilo = ancestro = null;
+    }
+
+    // --- Consultas ---
+
+    public ArbolCompartido getArbol() { return arbol; }
+
+    public int getNumNodos() { return n; }
+
+    public int getNumNiveles() { return inicioNivel.length - 1; }
+
+    /** Primer nodo del nivel; los del nivel son los índices hasta {@link #finNivel(int)} (exclusivo). */
+    public int inicioNivel(int nivel) { return inicioNivel[nivel]; }
+
+    public int finNivel(int nivel) { return inicioNivel[nivel + 1]; }
+
+    public double getX(int nodo) { return x[nodo]; }
+
+    /** x mínima y máxima de los bordes de los nodos. */
+    public double getMinimo() { return minimo; }
+
+    public double getMaximo() { return maximo; }
+
+    public double ancho(int nodo) {
+        return arbol.getSimbolo(compartido[nodo]).length() + MARGEN;
+    }
+
+    public String getEtiqueta(int nodo) { return arbol.getSimbolo(compartido[nodo]); }
+
+    /** Nodo correspondiente en el {@link ArbolCompartido}. */
+    public int getCompartido(int nodo) { return compartido[nodo]; }
+
+    /** Padre del nodo, o -1 para la raíz. */
+    public int getPadre(int nodo) { return padre[nodo]; }
+
+    /** Primer nodo del nivel cuya x es al menos la dada (o el fin del nivel). */
+    public int primeroDesde(int nivel, double desde) {
+        int lo = inicioNivel[nivel];
+        int hi = inicioNivel[nivel + 1];
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            if (x[m] < desde) lo = m + 1;
+            else hi = m;
+        }
+        return lo;
+    }
+
+    // --- Primer recorrido: posiciones relativas ---
+
+    private boolean esHoja(int v) { return numHijos[v] == 0; }
+
+    private int ultimoHijo(int v) { return primerHijo[v] + numHijos[v] - 1; }
+
+    // Hermano izquierdo, o -1 si es el primero.
+    private int hermanoIzquierdo(int v) {
+        return v > 0 && v != primerHijo[padre[v]] ? v - 1 : -1;
+    }
+
+    private int siguienteIzquierda(int v) { return esHoja(v) ? hilo[v] : primerHijo[v]; }
+
+    private int siguienteDerecha(int v) { return esHoja(v) ? hilo[v] : ultimoHijo(v); }
+
+    private double distancia(int a, int b) {
+        return (ancho(a) + ancho(b)) / 2 + SEPARACION;
+    }
+
+    /**
+     * Post-orden con una pila de marcos {nodo, próximo hijo, ancestro por defecto}.
+     * Cuando termina el subárbol de un hijo se lo ajusta contra sus hermanos
+     * izquierdos (apportion), antes de bajar por el hijo siguiente.
+     */
+    private void primerRecorrido() {
+        Deque<int[]> pila = new ArrayDeque<>();
+        pila.push(new int[]{0, 0, primerHijo[0]});
+        while (!pila.isEmpty()) {
+            int[] marco = pila.peek();
+            int v = marco[0];
+            if (marco[1] < numHijos[v]) {
+                int w = primerHijo[v] + marco[1]++;
+                pila.push(new int[]{w, 0, primerHijo[w]});
+                continue;
+            }
+            pila.pop();
+            int izquierdo = hermanoIzquierdo(v);
+            if (esHoja(v)) {
+                prelim[v] = izquierdo >= 0 ? prelim[izquierdo] + distancia(izquierdo, v) : 0;
+            } else {
+                ejecutarDesplazamientos(v);
+                double medio = (prelim[primerHijo[v]] + prelim[ultimoHijo(v)]) / 2;
+                if (izquierdo >= 0) {
+                    prelim[v] = prelim[izquierdo] + distancia(izquierdo, v);
+                    mod[v] = prelim[v] - medio;
+                } else {
+                    prelim[v] = medio;
+                }
+            }
+            if (!pila.isEmpty()) {
+                int[] marcoPadre = pila.peek();
+                marcoPadre[2] = ajustar(v, marcoPadre[2]);
+            }
+        }
+    }
+
+    /**
+     * Recorre los contornos derecho del bosque a la izquierda de v e izquierdo
+     * del subárbol de v, nivel por nivel, y corre v lo necesario para que no se
+     * superpongan. El corrimiento se reparte entre los hermanos intermedios
+     * (cambio/desplazamiento) y se aplica al final en {@link #ejecutarDesplazamientos(int)}.
+     */
+    private int ajustar(int v, int porDefecto) {
+        int w = hermanoIzquierdo(v);
+        if (w < 0) return porDefecto;
+        int vip = v, vop = v;
+        int vim = w;
+        int vom = primerHijo[padre[v]];
+        double sip = mod[vip], sop = mod[vop], sim = mod[vim], som = mod[vom];
+        while (siguienteDerecha(vim) >= 0 && siguienteIzquierda(vip) >= 0) {
+            vim = siguienteDerecha(vim);
+            vip = siguienteIzquierda(vip);
+            vom = siguienteIzquierda(vom);
+            vop = siguienteDerecha(vop);
+            ancestro[vop] = v;
+            double corrimiento = (prelim[vim] + sim) - (prelim[vip] + sip) + distancia(vim, vip);
+            if (corrimiento > 0) {
+                int a = padre[ancestro[vim]] == padre[v] ? ancestro[vim] : porDefecto;
+                moverSubarbol(a, v, corrimiento);
+                sip += corrimiento;
+                sop += corrimiento;
+            }
+            sim += mod[vim];
+            sip += mod[vip];
+            som += mod[vom];
+            sop += mod[vop];
+        }
+        if (siguienteDerecha(vim) >= 0 && siguienteDerecha(vop) < 0) {
+            hilo[vop] = siguienteDerecha(vim);
+            mod[vop] += sim - sop;
+        }
+        if (siguienteIzquierda(vip) >= 0 && siguienteIzquierda(vom) < 0) {
+            hilo[vom] = siguienteIzquierda(vip);
+            mod[vom] += sip - som;
+            porDefecto = v;
+        }
+        return porDefecto;
+    }
+
+    // Los hermanos están numerados consecutivamente, así que la resta da cuántos subárboles hay entre ellos.
+    private void moverSubarbol(int wm, int wp, double corrimiento) {
+        int subarboles = wp - wm;
+        cambio[wp] -= corrimiento / subarboles;
+        desplazamiento[wp] += corrimiento;
+        cambio[wm] += corrimiento / subarboles;
+        prelim[wp] += corrimiento;
+        mod[wp] += corrimiento;
+    }
+
+    private void ejecutarDesplazamientos(int v) {
+        double d = 0, c = 0;
+        for (int w = ultimoHijo(v); w >= primerHijo[v]; w--) {
+            prelim[w] += d;
+            mod[w] += d;
+            c += cambio[w];
+            d += desplazamiento[w] + c;
+        }
+    }
+
+    // --- Segundo recorrido: posiciones absolutas ---
+
+    // En la numeración por niveles cada padre se procesa antes que sus hijos.
+    private void segundoRecorrido() {
+        double[] suma = new double[n];   // Suma de los mod de los ancestros
+        minimo = Double.MAX_VALUE;
+        maximo = -Double.MAX_VALUE;
+        for (int v = 0; v < n; v++) {
+            x[v] = prelim[v] + suma[v];
+            for (int k = 0; k < numHijos[v]; k++) suma[primerHijo[v] + k] = suma[v] + mod[v];
+            minimo = Math.min(minimo, x[v] - ancho(v) / 2);
+            maximo = Math.max(maximo, x[v] + ancho(v) / 2);
+        }
+    }
+}
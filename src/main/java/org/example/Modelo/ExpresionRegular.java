@@ -0,0 +1,280 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Expresión regular inmutable y "hash-consed": dos expresiones estructuralmente
+ * iguales creadas por la misma {@link Fabrica} son el mismo objeto, por lo que
+ * pueden compararse con == y usarse directamente como estados de un AFD.
+ *
+ * Sintaxis aceptada por {@link Fabrica#parsear(String)}:
+ *  - a        símbolo literal (cualquier carácter que no sea operador)
+ *  - \x       escapa un operador
+ *  - ε, ∅     cadena vacía y lenguaje vacío
+ *  - r|s      unión
+ *  - rs       concatenación
+ *  - r*, r+, r?  cerradura de Kleene, positiva y opcional
+ *  - (r)      agrupación
+ */
+public final class ExpresionRegular {
+
+    /** Tipos de nodo de la expresión. */
+    public enum Tipo { VACIO, EPSILON, SIMBOLO, CONCATENACION, UNION, ESTRELLA }
+
+    private final Tipo tipo;
+    private final char simbolo;
+    private final ExpresionRegular izq;
+    private final ExpresionRegular der;
+    private final int id;            // Identificador único dentro de la fábrica.
+    private final boolean anulable;  // ν(r): true si ε ∈ L(r).
+    private final Fabrica fabrica;
+
+    // Transiciones memorizadas: símbolo → derivada. Se llenan bajo demanda.
+    private final Map<Character, ExpresionRegular> derivadas = new HashMap<>();
+
+    private ExpresionRegular(Fabrica fabrica, int id, Tipo tipo, char simbolo,
+                             ExpresionRegular izq, ExpresionRegular der) {
+        this.fabrica = fabrica;
+        this.id = id;
+        this.tipo = tipo;
+        this.simbolo = simbolo;
+        this.izq = izq;
+        this.der = der;
+        switch (tipo) {
+            case EPSILON:
+            case ESTRELLA:
+                anulable = true;
+                break;
+            case CONCATENACION:
+                anulable = izq.anulable && der.anulable;
+                break;
+            case UNION:
+                anulable = izq.anulable || der.anulable;
+                break;
+            default:
+                anulable = false;
+        }
+    }
+
+    public Tipo getTipo() { return tipo; }
+    public int getId() { return id; }
+    public boolean esAnulable() { return anulable; }
+    public boolean esVacia() { return tipo == Tipo.VACIO; }
+
+    /**
+     * Derivada de Brzozowski respecto a un símbolo: ∂a(r) = { w | aw ∈ L(r) }.
+     * El resultado se memoriza en el propio nodo, así que cada transición del
+     * AFD implícito se calcula una sola vez.
+     */
+    public ExpresionRegular derivar(char a) {
+        ExpresionRegular d = derivadas.get(a);
+        if (d == null) {
+            d = calcularDerivada(a);
+            derivadas.put(a, d);
+        }
+        return d;
+    }
+
+    private ExpresionRegular calcularDerivada(char a) {
+        switch (tipo) {
+            case SIMBOLO:
+                return simbolo == a ? fabrica.epsilon() : fabrica.vacio();
+            case CONCATENACION: {
+                ExpresionRegular d = fabrica.concatenar(izq.derivar(a), der);
+                return izq.anulable ? fabrica.unir(d, der.derivar(a)) : d;
+            }
+            case UNION:
+                return fabrica.unir(izq.derivar(a), der.derivar(a));
+            case ESTRELLA:
+                return fabrica.concatenar(izq.derivar(a), this);
+            default:
+                return fabrica.vacio();
+        }
+    }
+
+    /** Agrega a {@code destino} los símbolos literales que aparecen en la expresión. */
+    public void recolectarSimbolos(Set<Character> destino) {
+        Deque<ExpresionRegular> pendientes = new ArrayDeque<>();
+        pendientes.push(this);
+        while (!pendientes.isEmpty()) {
+            ExpresionRegular r = pendientes.pop();
+            if (r.tipo == Tipo.SIMBOLO) destino.add(r.simbolo);
+            if (r.izq != null) pendientes.push(r.izq);
+            if (r.der != null) pendientes.push(r.der);
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (tipo) {
+            case VACIO: return "∅";
+            case EPSILON: return "ε";
+            case SIMBOLO: return "|()*+?\\ε∅".indexOf(simbolo) >= 0 ? "\\" + simbolo : String.valueOf(simbolo);
+            case CONCATENACION: return envolver(izq, Tipo.UNION) + envolver(der, Tipo.UNION);
+            case UNION: return izq + "|" + der;
+            default: return envolver(izq, null) + "*";
+        }
+    }
+
+    private static String envolver(ExpresionRegular r, Tipo hasta) {
+        boolean parentesis = hasta == null
+                ? (r.tipo == Tipo.UNION || r.tipo == Tipo.CONCATENACION)
+                : r.tipo == hasta;
+        return parentesis ? "(" + r + ")" : r.toString();
+    }
+
+    // equals/hashCode por identidad: el hash-consing garantiza unicidad estructural.
+
+    /**
+     * Tabla de hash-consing. Los constructores inteligentes normalizan las
+     * expresiones (asociatividad, conmutatividad e idempotencia de la unión,
+     * neutros y absorbentes) para que el número de derivadas distintas sea finito.
+     */
+    public static final class Fabrica {
+
+        private final Map<List<Object>, ExpresionRegular> tabla = new HashMap<>();
+        private int siguienteId = 0;
+
+        private final ExpresionRegular vacio;
+        private final ExpresionRegular epsilon;
+
+        public Fabrica() {
+            vacio = new ExpresionRegular(this, siguienteId++, Tipo.VACIO, '\0', null, null);
+            epsilon = new ExpresionRegular(this, siguienteId++, Tipo.EPSILON, '\0', null, null);
+        }
+
+        public ExpresionRegular vacio() { return vacio; }
+        public ExpresionRegular epsilon() { return epsilon; }
+
+        /** Número de expresiones distintas creadas (estados potenciales). */
+        public int tamano() { return siguienteId; }
+
+        private ExpresionRegular internar(Tipo tipo, char c, ExpresionRegular izq, ExpresionRegular der) {
+            List<Object> clave = Arrays.asList(tipo, c,
+                    izq == null ? -1 : izq.id, der == null ? -1 : der.id);
+            ExpresionRegular r = tabla.get(clave);
+            if (r == null) {
+                r = new ExpresionRegular(this, siguienteId++, tipo, c, izq, der);
+                tabla.put(clave, r);
+            }
+            return r;
+        }
+
+        public ExpresionRegular simbolo(char c) {
+            return internar(Tipo.SIMBOLO, c, null, null);
+        }
+
+        public ExpresionRegular concatenar(ExpresionRegular r, ExpresionRegular s) {
+            if (r == vacio || s == vacio) return vacio;
+            if (r == epsilon) return s;
+            if (s == epsilon) return r;
+            // Asociar a la derecha: (rs)t = r(st)
+            if (r.tipo == Tipo.CONCATENACION) return concatenar(r.izq, concatenar(r.der, s));
+            return internar(Tipo.CONCATENACION, '\0', r, s);
+        }
+
+        public ExpresionRegular unir(ExpresionRegular r, ExpresionRegular s) {
+            if (r == s) return r;
+            if (r == vacio) return s;
+            if (s == vacio) return r;
+            // Aplanar, ordenar por id y eliminar duplicados: forma canónica de la unión.
+            TreeMap<Integer, ExpresionRegular> operandos = new TreeMap<>();
+            aplanarUnion(r, operandos);
+            aplanarUnion(s, operandos);
+            ExpresionRegular resultado = null;
+            for (ExpresionRegular op : operandos.descendingMap().values()) {
+                resultado = resultado == null ? op : internar(Tipo.UNION, '\0', op, resultado);
+            }
+            return resultado;
+        }
+
+        private static void aplanarUnion(ExpresionRegular r, Map<Integer, ExpresionRegular> destino) {
+            while (r.tipo == Tipo.UNION) {
+                destino.put(r.izq.id, r.izq);
+                r = r.der;
+            }
+            destino.put(r.id, r);
+        }
+
+        public ExpresionRegular estrella(ExpresionRegular r) {
+            if (r == vacio || r == epsilon) return epsilon;
+            if (r.tipo == Tipo.ESTRELLA) return r;
+            return internar(Tipo.ESTRELLA, '\0', r, null);
+        }
+
+        /**
+         * Analiza una expresión regular en la sintaxis descrita en la clase.
+         * @throws IllegalArgumentException si la expresión está mal formada.
+         */
+        public ExpresionRegular parsear(String texto) {
+            int[] pos = {0};
+            ExpresionRegular r = parsearUnion(texto, pos);
+            if (pos[0] != texto.length()) {
+                throw new IllegalArgumentException("Carácter inesperado en la posición " + pos[0] + ": " + texto.charAt(pos[0]));
+            }
+            return r;
+        }
+
+        private ExpresionRegular parsearUnion(String t, int[] pos) {
+            ExpresionRegular r = parsearConcatenacion(t, pos);
+            while (pos[0] < t.length() && t.charAt(pos[0]) == '|') {
+                pos[0]++;
+                r = unir(r, parsearConcatenacion(t, pos));
+            }
+            return r;
+        }
+
+        private ExpresionRegular parsearConcatenacion(String t, int[] pos) {
+            // Se acumulan los factores y se concatenan de derecha a izquierda.
+            List<ExpresionRegular> factores = new ArrayList<>();
+            while (pos[0] < t.length() && t.charAt(pos[0]) != '|' && t.charAt(pos[0]) != ')') {
+                factores.add(parsearPostfijo(t, pos));
+            }
+            ExpresionRegular r = epsilon;
+            for (int i = factores.size() - 1; i >= 0; i--) {
+                r = concatenar(factores.get(i), r);
+            }
+            return r;
+        }
+
+        private ExpresionRegular parsearPostfijo(String t, int[] pos) {
+            ExpresionRegular r = parsearAtomo(t, pos);
+            while (pos[0] < t.length()) {
+                char c = t.charAt(pos[0]);
+                if (c == '*') r = estrella(r);
+                else if (c == '+') r = concatenar(r, estrella(r));
+                else if (c == '?') r = unir(epsilon, r);
+                else break;
+                pos[0]++;
+            }
+            return r;
+        }
+
+        private ExpresionRegular parsearAtomo(String t, int[] pos) {
+            char c = t.charAt(pos[0]++);
+            switch (c) {
+                case '(': {
+                    ExpresionRegular r = parsearUnion(t, pos);
+                    if (pos[0] >= t.length() || t.charAt(pos[0]) != ')') {
+                        throw new IllegalArgumentException("Falta ')' en la expresión: " + t);
+                    }
+                    pos[0]++;
+                    return r;
+                }
+                case '*':
+                case '+':
+                case '?':
+                    throw new IllegalArgumentException("Operador '" + c + "' sin operando en la posición " + (pos[0] - 1));
+                case 'ε':
+                    return epsilon;
+                case '∅':
+                    return vacio;
+                case '\\':
+                    if (pos[0] >= t.length()) throw new IllegalArgumentException("Escape incompleto al final de la expresión");
+                    return simbolo(t.charAt(pos[0]++));
+                default:
+                    return simbolo(c);
+            }
+        }
+    }
+}
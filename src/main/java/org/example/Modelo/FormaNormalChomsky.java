@@ -0,0 +1,524 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Conversión de una {@link GramaticaCompilada} a Forma Normal de Chomsky (FNC)
+ * mediante los pasos clásicos START, TERM, BIN, DEL y UNIT.
+ *
+ * Cada producción resultante conserva una "plantilla" ({@link Pieza}) que indica
+ * cómo se ve su aplicación en términos de la gramática original: qué nodos de
+ * no terminales originales hay que crear, dónde van los subárboles de sus
+ * símbolos derechos y qué subárboles ε se eliminaron en el paso DEL. Con ella
+ * los árboles obtenidos sobre la FNC se traducen de vuelta a árboles de la GLC.
+ *
+ * Los no terminales originales conservan su número; los auxiliares (S0, los
+ * que sustituyen terminales y los de binarización) se numeran a continuación y
+ * no generan nodo propio: sus hijos se insertan directamente en el padre.
+ *
+ * En las producciones resultantes, un terminal t (índice 0..numTerminales-1)
+ * se codifica en el lado derecho como ~t (un entero negativo).
+ *
+ * La FNC también se puede obtener como una {@link GLC} nueva ({@link #getGramatica()}),
+ * con nombres de un carácter para los auxiliares, y los árboles sobre esa GLC se
+ * traducen a la gramática original con {@link #desbinarizar(GLC.NodoArbol)}.
+ */
+public final class FormaNormalChomsky {
+
+    /**
+     * Fragmento de árbol de la gramática original. Si {@code hueco >= 0} la pieza
+     * representa el subárbol del símbolo derecho número {@code hueco}; si no,
+     * es un nodo del no terminal original {@code simbolo} con los hijos dados.
+     */
+    static final class Pieza {
+        final int hueco;
+        final int simbolo;
+        final Pieza[] hijos;
+        final boolean tieneHuecos;
+
+        private Pieza(int hueco, int simbolo, Pieza[] hijos) {
+            this.hueco = hueco;
+            this.simbolo = simbolo;
+            this.hijos = hijos;
+            boolean h = hueco >= 0;
+            for (Pieza p : hijos) h |= p.tieneHuecos;
+            this.tieneHuecos = h;
+        }
+
+        static Pieza hueco(int i) { return new Pieza(i, -1, new Pieza[0]); }
+        static Pieza nodo(int simbolo, Pieza[] hijos) { return new Pieza(-1, simbolo, hijos); }
+    }
+
+    // Producción de trabajo durante la conversión.
+    private static final class Regla {
+        final int izq;
+        final int[] der;
+        final Pieza[] piezas;
+        final int origen;
+
+        Regla(int izq, int[] der, Pieza[] piezas, int origen) {
+            this.izq = izq;
+            this.der = der;
+            this.piezas = piezas;
+            this.origen = origen;
+        }
+    }
+
+    final GramaticaCompilada original;
+    final int numNoTerminales;
+    final int numTerminales;
+    final int inicial;               // S0: nuevo símbolo inicial auxiliar
+    final boolean[] auxiliar;        // auxiliar[A] = A no existe en la gramática original
+    final int[] terminalDeAuxiliar;  // Para T_a: el terminal que sustituye (-1 en otro caso)
+
+    // Producciones finales: A → B C o A → ~t
+    final int[] izquierda;
+    final int[][] derecha;
+    final Pieza[][] piezas;
+    final int[] origen;              // Producción original de la que proviene (-1 si es auxiliar)
+
+    final boolean inicialAnulable;   // ε ∈ L(G): se representa aparte, como en S0 → ε
+    final Pieza[] piezasVacia;       // Árbol original de la derivación S ⇒* ε
+
+    // Vista como GLC, construida bajo demanda.
+    private String[] nombresFNC;
+    private GLC gramatica;
+    private Map<String, Integer> reglaPorClave;
+
+    private final List<Regla> reglas = new ArrayList<>();
+    private final List<Boolean> esAuxiliar = new ArrayList<>();
+    private final List<Integer> terminalAux = new ArrayList<>();
+
+    /** Convierte la gramática (sin sus producciones inútiles) a FNC. La GLC original no se modifica. */
+    public FormaNormalChomsky(GLC glc) {
+        this(glc.getGramaticaUtil());
+    }
+
+    FormaNormalChomsky(GramaticaCompilada g) {
+        this.original = g;
+        int n = g.numNoTerminales;
+        this.numTerminales = g.numTerminales();
+        for (int i = 0; i < n; i++) {
+            esAuxiliar.add(false);
+            terminalAux.add(-1);
+        }
+
+        // START: S0 → S, con S0 auxiliar para que no aparezca en ningún lado derecho.
+        inicial = nuevoNoTerminal(-1);
+        if (g.inicial >= 0) {
+            reglas.add(new Regla(inicial, new int[]{g.inicial}, new Pieza[]{Pieza.hueco(0)}, -1));
+        }
+        for (int p = 0; p < g.numProducciones(); p++) {
+            int[] der = new int[g.derecha[p].length];
+            Pieza[] identidad = new Pieza[der.length];
+            for (int i = 0; i < der.length; i++) {
+                int s = g.derecha[p][i];
+                der[i] = g.esNoTerminal(s) ? s : ~(s - n);
+                identidad[i] = Pieza.hueco(i);
+            }
+            reglas.add(new Regla(g.izquierda[p], der, identidad, p));
+        }
+
+        pasoTerm();
+        pasoBin();
+        Pieza[][] vacias = pasoDel();
+        pasoUnit();
+
+        inicialAnulable = vacias[inicial] != null;
+        piezasVacia = inicialAnulable ? vacias[inicial] : new Pieza[0];
+
+        numNoTerminales = esAuxiliar.size();
+        auxiliar = new boolean[numNoTerminales];
+        terminalDeAuxiliar = new int[numNoTerminales];
+        for (int i = 0; i < numNoTerminales; i++) {
+            auxiliar[i] = esAuxiliar.get(i);
+            terminalDeAuxiliar[i] = terminalAux.get(i);
+        }
+        izquierda = new int[reglas.size()];
+        derecha = new int[reglas.size()][];
+        piezas = new Pieza[reglas.size()][];
+        origen = new int[reglas.size()];
+        for (int i = 0; i < reglas.size(); i++) {
+            Regla r = reglas.get(i);
+            izquierda[i] = r.izq;
+            derecha[i] = r.der;
+            piezas[i] = r.piezas;
+            origen[i] = r.origen;
+        }
+        reglas.clear();
+    }
+
+    private int nuevoNoTerminal(int terminal) {
+        esAuxiliar.add(true);
+        terminalAux.add(terminal);
+        return esAuxiliar.size() - 1;
+    }
+
+    /** TERM: en lados derechos de longitud ≥ 2, cada terminal a se sustituye por T_a → a. */
+    private void pasoTerm() {
+        Map<Integer, Integer> auxDeTerminal = new HashMap<>();
+        int total = reglas.size();
+        for (int i = 0; i < total; i++) {
+            Regla r = reglas.get(i);
+            if (r.der.length < 2) continue;
+            for (int k = 0; k < r.der.length; k++) {
+                int s = r.der[k];
+                if (s >= 0) continue;
+                Integer t = auxDeTerminal.get(s);
+                if (t == null) {
+                    t = nuevoNoTerminal(~s);
+                    auxDeTerminal.put(s, t);
+                    reglas.add(new Regla(t, new int[]{s}, new Pieza[]{Pieza.hueco(0)}, -1));
+                }
+                r.der[k] = t;
+            }
+        }
+    }
+
+    /**
+     * BIN: A → X1 X2 ... Xk (k ≥ 3) se divide en A → X1 N1, N1 → X2 N2, ..., con
+     * Ni auxiliares. Tras START y TERM las plantillas son la identidad, así que
+     * basta con encadenar [hueco 0, hueco 1].
+     */
+    private void pasoBin() {
+        int total = reglas.size();
+        Pieza[] par = {Pieza.hueco(0), Pieza.hueco(1)};
+        for (int i = 0; i < total; i++) {
+            Regla r = reglas.get(i);
+            int k = r.der.length;
+            if (k < 3) continue;
+            int actual = nuevoNoTerminal(-1);
+            reglas.set(i, new Regla(r.izq, new int[]{r.der[0], actual}, par, r.origen));
+            for (int j = 1; j < k - 2; j++) {
+                int siguiente = nuevoNoTerminal(-1);
+                reglas.add(new Regla(actual, new int[]{r.der[j], siguiente}, par, r.origen));
+                actual = siguiente;
+            }
+            reglas.add(new Regla(actual, new int[]{r.der[k - 2], r.der[k - 1]}, par, r.origen));
+        }
+    }
+
+    /**
+     * DEL: calcula los anulables con un contador por regla (lineal en el tamaño
+     * de la gramática) y, para cada uno, un árbol testigo de su derivación ε.
+     * Después genera las variantes que omiten símbolos anulables y descarta las
+     * producciones ε.
+     * @return para cada no terminal anulable, las piezas de su árbol ε (null si no es anulable).
+     */
+    private Pieza[][] pasoDel() {
+        int m = esAuxiliar.size();
+        Pieza[][] vacias = new Pieza[m][];
+        int[] pendientes = new int[reglas.size()];
+        List<List<Integer>> apariciones = new ArrayList<>();
+        for (int i = 0; i < m; i++) apariciones.add(new ArrayList<>());
+
+        Deque<Integer> cola = new ArrayDeque<>();
+        for (int i = 0; i < reglas.size(); i++) {
+            Regla r = reglas.get(i);
+            int noAnulables = 0;
+            for (int s : r.der) {
+                if (s < 0) noAnulables += 1 << 20; // Un terminal nunca se anula.
+                else {
+                    noAnulables++;
+                    apariciones.get(s).add(i);
+                }
+            }
+            pendientes[i] = noAnulables;
+            if (noAnulables == 0) cola.add(i);
+        }
+        while (!cola.isEmpty()) {
+            Regla r = reglas.get(cola.poll());
+            if (vacias[r.izq] != null) continue;
+            Pieza[][] reemplazos = new Pieza[r.der.length][];
+            for (int k = 0; k < r.der.length; k++) reemplazos[k] = vacias[r.der[k]];
+            vacias[r.izq] = envolver(r.izq, sustituir(r.piezas, reemplazos));
+            // apariciones tiene una entrada por cada aparición del símbolo (A → XX cuenta dos veces).
+            for (int i : apariciones.get(r.izq)) {
+                if (--pendientes[i] == 0) cola.add(i);
+            }
+        }
+
+        List<Regla> resultado = new ArrayList<>();
+        for (Regla r : reglas) {
+            if (r.der.length == 0) continue;
+            resultado.add(r);
+            if (r.der.length == 2) {
+                int x = r.der[0], y = r.der[1];
+                if (x >= 0 && vacias[x] != null) {
+                    resultado.add(new Regla(r.izq, new int[]{y},
+                            sustituir(r.piezas, new Pieza[][]{vacias[x], {Pieza.hueco(0)}}), r.origen));
+                }
+                if (y >= 0 && vacias[y] != null) {
+                    resultado.add(new Regla(r.izq, new int[]{x},
+                            sustituir(r.piezas, new Pieza[][]{{Pieza.hueco(0)}, vacias[y]}), r.origen));
+                }
+            }
+        }
+        reglas.clear();
+        reglas.addAll(resultado);
+        return vacias;
+    }
+
+    /**
+     * UNIT: para cada A se recorren por anchura las cadenas A ⇒ B ⇒ ... ⇒ C de
+     * producciones unitarias, componiendo sus plantillas, y se agregan A → α por
+     * cada producción no unitaria C → α. Aquí mismo se eliminan los duplicados
+     * (misma izquierda y mismo lado derecho).
+     */
+    private void pasoUnit() {
+        int m = esAuxiliar.size();
+        List<List<Regla>> unitarias = new ArrayList<>();
+        List<List<Regla>> noUnitarias = new ArrayList<>();
+        for (int i = 0; i < m; i++) {
+            unitarias.add(new ArrayList<>());
+            noUnitarias.add(new ArrayList<>());
+        }
+        for (Regla r : reglas) {
+            if (r.der.length == 1 && r.der[0] >= 0) unitarias.get(r.izq).add(r);
+            else noUnitarias.get(r.izq).add(r);
+        }
+
+        List<Regla> resultado = new ArrayList<>();
+        int[] visitado = new int[m];       // visitado[B] == a + 1 si B ya se alcanzó desde a
+        for (int a = 0; a < m; a++) {
+            // Lados derechos que A ya tiene: se conserva la primera producción con cada
+            // lado derecho y a las copias no se les calcula plantilla.
+            Set<Long> derechas = new HashSet<>();
+            for (Regla r : noUnitarias.get(a)) {
+                if (derechas.add(claveDerecha(r.der))) resultado.add(r);
+            }
+            if (unitarias.get(a).isEmpty()) continue;
+
+            // Cada entrada: (B, plantilla de A con hueco 0 = expansión de B, origen)
+            Deque<Object[]> cola = new ArrayDeque<>();
+            visitado[a] = a + 1;
+            for (Regla u : unitarias.get(a)) {
+                if (visitado[u.der[0]] != a + 1) {
+                    visitado[u.der[0]] = a + 1;
+                    cola.add(new Object[]{u.der[0], u.piezas, u.origen});
+                }
+            }
+            while (!cola.isEmpty()) {
+                Object[] e = cola.poll();
+                int b = (Integer) e[0];
+                Pieza[] plantilla = (Pieza[]) e[1];
+                int org = (Integer) e[2];
+                for (Regla q : noUnitarias.get(b)) {
+                    if (!derechas.add(claveDerecha(q.der))) continue;
+                    resultado.add(new Regla(a, q.der,
+                            sustituir(plantilla, new Pieza[][]{envolver(b, q.piezas)}), org));
+                }
+                for (Regla u : unitarias.get(b)) {
+                    int c = u.der[0];
+                    if (visitado[c] == a + 1) continue;
+                    visitado[c] = a + 1;
+                    cola.add(new Object[]{c, sustituir(plantilla, new Pieza[][]{envolver(b, u.piezas)}), org});
+                }
+            }
+        }
+        reglas.clear();
+        reglas.addAll(resultado);
+    }
+
+    // Tras TERM y BIN un lado derecho es A → B C (B, C ≥ 0) o A → ~t, así que cabe en un long.
+    private static long claveDerecha(int[] der) {
+        return ((long) der[0] << 32) | (der.length == 2 ? der[1] : 0x80000000L);
+    }
+
+    /** Piezas que produce el no terminal A: un nodo propio si es original, sus hijos si es auxiliar. */
+    private Pieza[] envolver(int a, Pieza[] hijos) {
+        return esAuxiliar.get(a) ? hijos : new Pieza[]{Pieza.nodo(a, hijos)};
+    }
+
+    /** Sustituye cada hueco k de las piezas por la lista reemplazos[k]. */
+    private static Pieza[] sustituir(Pieza[] piezas, Pieza[][] reemplazos) {
+        List<Pieza> resultado = new ArrayList<>();
+        for (Pieza p : piezas) {
+            if (!p.tieneHuecos) resultado.add(p);
+            else if (p.hueco >= 0) resultado.addAll(Arrays.asList(reemplazos[p.hueco]));
+            else resultado.add(Pieza.nodo(p.simbolo, sustituir(p.hijos, reemplazos)));
+        }
+        return resultado.toArray(new Pieza[0]);
+    }
+
+    // --- Reconstrucción de árboles de la gramática original ---
+
+    /**
+     * Aplica la producción FNC número {@code regla} dados los subárboles (ya
+     * traducidos) de sus símbolos derechos y devuelve los nodos resultantes de la
+     * gramática original: uno solo si el lado izquierdo es original, o la
+     * secuencia de hijos si es auxiliar.
+     */
+    List<GLC.NodoArbol> expandir(int regla, List<List<GLC.NodoArbol>> hijos) {
+        List<GLC.NodoArbol> nodos = new ArrayList<>();
+        instanciar(piezas[regla], hijos, nodos);
+        int a = izquierda[regla];
+        if (auxiliar[a]) return nodos;
+        return Collections.singletonList(crearNodo(a, nodos));
+    }
+
+    /** Nodos del árbol original para la derivación S0 ⇒* ε. */
+    List<GLC.NodoArbol> expandirVacia() {
+        List<GLC.NodoArbol> nodos = new ArrayList<>();
+        instanciar(piezasVacia, Collections.emptyList(), nodos);
+        return nodos;
+    }
+
+    /** Hoja de un terminal (índice 0..numTerminales-1). */
+    GLC.NodoArbol hojaTerminal(int t) {
+        return new GLC.NodoArbol(original.nombres[original.numNoTerminales + t]);
+    }
+
+    private void instanciar(Pieza[] lista, List<List<GLC.NodoArbol>> hijos, List<GLC.NodoArbol> destino) {
+        for (Pieza p : lista) {
+            if (p.hueco >= 0) {
+                destino.addAll(hijos.get(p.hueco));
+            } else {
+                List<GLC.NodoArbol> nietos = new ArrayList<>();
+                instanciar(p.hijos, hijos, nietos);
+                destino.add(crearNodo(p.simbolo, nietos));
+            }
+        }
+    }
+
+    private GLC.NodoArbol crearNodo(int simbolo, List<GLC.NodoArbol> hijos) {
+        GLC.NodoArbol nodo = new GLC.NodoArbol(original.nombres[simbolo]);
+        if (hijos.isEmpty()) nodo.agregarHijo(new GLC.NodoArbol("ε"));
+        for (GLC.NodoArbol h : hijos) nodo.agregarHijo(h);
+        return nodo;
+    }
+
+    // --- La FNC como GLC ---
+
+    /**
+     * Devuelve la FNC como una GLC independiente. Los no terminales originales
+     * conservan su nombre; S0 y los auxiliares reciben un carácter libre (primero
+     * las mayúsculas sin usar y luego letras Unicode a partir de U+0100).
+     */
+    public GLC getGramatica() {
+        if (gramatica != null) return gramatica;
+        String[] nombres = nombresFNC();
+        GLC resultado = new GLC();
+        resultado.setSimboloInicial(nombres[inicial]);
+        resultado.agregarNoTerminal(nombres[inicial]);
+        for (int a = 0; a < numNoTerminales; a++) resultado.agregarNoTerminal(nombres[a]);
+        for (int t = 0; t < numTerminales; t++) {
+            resultado.agregarTerminal(original.nombres[original.numNoTerminales + t].charAt(0));
+        }
+        if (inicialAnulable) resultado.agregarProduccion(nombres[inicial], "ε");
+        for (int p = 0; p < izquierda.length; p++) {
+            resultado.agregarProduccion(nombres[izquierda[p]], ladoDerecho(p));
+        }
+        // Los no terminales sin producciones (inútiles tras la conversión) no se muestran.
+        resultado.getProducciones().values().removeIf(List::isEmpty);
+        gramatica = resultado;
+        return gramatica;
+    }
+
+    String[] nombresFNC() {
+        if (nombresFNC != null) return nombresFNC;
+        NombresLibres libres = new NombresLibres(original.nombres);
+        String[] nombres = new String[numNoTerminales];
+        for (int a = 0; a < numNoTerminales; a++) {
+            nombres[a] = auxiliar[a] ? libres.nuevo() : original.nombres[a];
+        }
+        nombresFNC = nombres;
+        return nombresFNC;
+    }
+
+    private String ladoDerecho(int p) {
+        StringBuilder sb = new StringBuilder();
+        for (int s : derecha[p]) {
+            sb.append(s >= 0 ? nombresFNC()[s] : original.nombres[original.numNoTerminales + ~s]);
+        }
+        return sb.toString();
+    }
+
+    /** Número de producciones de la FNC (sin contar S0 → ε). */
+    public int getNumProducciones() { return izquierda.length; }
+
+    /**
+     * Correspondencia de cada producción de la FNC con la producción original de
+     * la que proviene, p. ej. "A → BC" ↦ "A → aBc". Las producciones puramente
+     * auxiliares (S0 → ..., T_a → a) se asocian con null.
+     */
+    public Map<String, String> getCorrespondencia() {
+        String[] nombres = nombresFNC();
+        Map<String, String> mapa = new LinkedHashMap<>();
+        if (inicialAnulable) mapa.put(nombres[inicial] + " → ε", null);
+        for (int p = 0; p < izquierda.length; p++) {
+            String clave = nombres[izquierda[p]] + " → " + ladoDerecho(p);
+            mapa.put(clave, origen[p] < 0 ? null : textoOriginal(origen[p]));
+        }
+        return mapa;
+    }
+
+    private String textoOriginal(int p) {
+        StringBuilder sb = new StringBuilder(original.nombres[original.izquierda[p]]).append(" → ");
+        if (original.derecha[p].length == 0) sb.append("ε");
+        for (int s : original.derecha[p]) sb.append(original.nombres[s]);
+        return sb.toString();
+    }
+
+    /**
+     * Traduce un árbol sintáctico de {@link #getGramatica()} al árbol
+     * equivalente de la gramática original: deshace la binarización, reinserta
+     * los subárboles ε eliminados y restituye las cadenas de producciones
+     * unitarias. Se recorre con una pila explícita (post-orden).
+     * @throws IllegalArgumentException si el árbol no corresponde a la FNC.
+     */
+    public GLC.NodoArbol desbinarizar(GLC.NodoArbol arbolFNC) {
+        String[] nombres = nombresFNC();
+        if (!arbolFNC.getSimbolo().equals(nombres[inicial])) {
+            throw new IllegalArgumentException("La raíz debe ser el símbolo inicial " + nombres[inicial]);
+        }
+        List<GLC.NodoArbol> hijosRaiz = arbolFNC.getHijos();
+        if (hijosRaiz.size() == 1 && hijosRaiz.get(0).getSimbolo().equals("ε")) {
+            if (!inicialAnulable) throw new IllegalArgumentException("La FNC no tiene la producción " + nombres[inicial] + " → ε");
+            return expandirVacia().get(0);
+        }
+
+        Map<GLC.NodoArbol, List<GLC.NodoArbol>> traducidos = new IdentityHashMap<>();
+        Deque<GLC.NodoArbol> pila = new ArrayDeque<>();
+        pila.push(arbolFNC);
+        while (!pila.isEmpty()) {
+            GLC.NodoArbol nodo = pila.peek();
+            List<GLC.NodoArbol> hijos = nodo.getHijos();
+            boolean listos = true;
+            for (GLC.NodoArbol h : hijos) {
+                if (!h.getHijos().isEmpty() && !traducidos.containsKey(h)) {
+                    pila.push(h);
+                    listos = false;
+                }
+            }
+            if (!listos) continue;
+            pila.pop();
+
+            int regla = buscarRegla(nodo);
+            List<List<GLC.NodoArbol>> traduccion = new ArrayList<>(hijos.size());
+            for (int k = 0; k < hijos.size(); k++) {
+                GLC.NodoArbol h = hijos.get(k);
+                traduccion.add(derecha[regla][k] < 0
+                        ? Collections.singletonList(hojaTerminal(~derecha[regla][k]))
+                        : traducidos.remove(h));
+            }
+            traducidos.put(nodo, expandir(regla, traduccion));
+        }
+        return traducidos.get(arbolFNC).get(0);
+    }
+
+    private int buscarRegla(GLC.NodoArbol nodo) {
+        if (reglaPorClave == null) {
+            String[] nombres = nombresFNC();
+            reglaPorClave = new HashMap<>();
+            for (int p = 0; p < izquierda.length; p++) {
+                reglaPorClave.put(nombres[izquierda[p]] + " → " + ladoDerecho(p), p);
+            }
+        }
+        StringBuilder clave = new StringBuilder(nodo.getSimbolo()).append(" → ");
+        for (GLC.NodoArbol h : nodo.getHijos()) clave.append(h.getSimbolo());
+        Integer regla = reglaPorClave.get(clave.toString());
+        if (regla == null) throw new IllegalArgumentException("Producción que no está en la FNC: " + clave);
+        return regla;
+    }
+}
@@ -0,0 +1,254 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Conversión de una {@link GLC} a Forma Normal de Greibach (FNG): toda producción
+ * es de la forma A → a B1 ... Bk (k ≥ 0), más S → ε si ε pertenece al lenguaje.
+ *
+ * Se parte de la {@link FormaNormalChomsky} (sin producciones ε ni unitarias) y se
+ * aplica la transformación de esquina izquierda (Rosenkrantz): B es esquina
+ * izquierda de A si A ⇒* B γ usando solo el primer símbolo de cada B → C D, y el
+ * no terminal nuevo [A/B] deriva lo que le falta a A después de B. Con las
+ * producciones de la FNC B → C D y E → a:
+ *  - S → a [S/E] para cada esquina E de S con E → a (y S → a si S → a);
+ *  - [A/C] → a [D/E] [A/B] para cada B → C D con B esquina de A y E → a con E
+ *    esquina de D. Si B = A se agrega también la versión sin [A/B], y si E = D
+ *    la versión sin [D/E] (así se eliminan las producciones [A/A] → ε).
+ * Todas empiezan con un terminal, la recursión izquierda desaparece y el tamaño
+ * es polinomial: a lo sumo n² no terminales nuevos, en lugar del crecimiento
+ * exponencial de la sustitución clásica A1 ... An. Los [A/B] se crean solo al
+ * usarlos por primera vez, desde el símbolo inicial, y [A/B] se usa solo si
+ * tiene alguna producción.
+ *
+ * En la gramática resultante cada paso de una derivación por la izquierda
+ * agrega un terminal, así que w se deriva en exactamente |w| pasos. La
+ * conversión solo muestra la gramática: las derivaciones de la GLC no la usan.
+ * Aun siendo polinomial la gramática puede ser grande, por eso hay un límite de
+ * producciones.
+ */
+public final class FormaNormalGreibach {
+
+    /** Máximo de producciones que se permiten durante la conversión. */
+    public static final int MAX_PRODUCCIONES = 200_000;
+
+    private final FormaNormalChomsky fnc;
+    private final List<List<int[]>> reglas = new ArrayList<>();  // reglas[A] = lados derechos; terminal t = ~t
+    private final List<String> nombres = new ArrayList<>();
+    private final NombresLibres libres;
+    private final int inicial;
+    private final List<List<Integer>> porEsquina = new ArrayList<>();    // porEsquina[C] = producciones B → C D
+    private final List<List<Integer>> terminalesDe = new ArrayList<>();  // terminalesDe[E] = ~a de cada E → a
+    private final BitSet[] esquinas;                                     // esquinas[A] = esquinas izquierdas de A (incluye A)
+    private final Map<Long, Integer> pares = new HashMap<>();            // (A, B) → [A/B]
+    private final Deque<int[]> pendientes = new ArrayDeque<>();          // {[A/B], A, B} sin producciones todavía
+    private final List<List<int[]>> cabezas = new ArrayList<>();         // Inicios a [D/E] de cada D, o null
+    private int total;                 // Producciones creadas (para el límite)
+    private int nuevos;                // No terminales [A/B] creados
+    private GLC gramatica;
+
+    public FormaNormalGreibach(GLC glc) {
+        this(glc.getFormaNormalChomsky());
+    }
+
+    FormaNormalGreibach(FormaNormalChomsky fnc) {
+        this.fnc = fnc;
+        this.inicial = fnc.inicial;
+        String[] nombresFNC = fnc.nombresFNC();
+        List<String> ocupados = new ArrayList<>(Arrays.asList(nombresFNC));
+        ocupados.addAll(Arrays.asList(fnc.original.nombres));
+        this.libres = new NombresLibres(ocupados);
+
+        int n = fnc.numNoTerminales;
+        for (int a = 0; a < n; a++) {
+            reglas.add(new ArrayList<>());
+            nombres.add(nombresFNC[a]);
+            porEsquina.add(new ArrayList<>());
+            terminalesDe.add(new ArrayList<>());
+            cabezas.add(null);
+        }
+        for (int p = 0; p < fnc.izquierda.length; p++) {
+            int[] der = fnc.derecha[p];
+            if (der[0] < 0) terminalesDe.get(fnc.izquierda[p]).add(der[0]);
+            else porEsquina.get(der[0]).add(p);
+        }
+        esquinas = cerrarEsquinas(n);
+
+        List<int[]> deInicial = sinDuplicados(cabezasDe(inicial));
+        reglas.set(inicial, deInicial);
+        total += deInicial.size();
+        while (!pendientes.isEmpty()) {
+            int[] par = pendientes.poll();
+            List<int[]> producciones = sinDuplicados(produccionesDePar(par[1], par[2]));
+            reglas.set(par[0], producciones);
+            total += producciones.size();
+            verificarLimite();
+        }
+    }
+
+    // Cierre reflexivo y transitivo de la relación A → C para cada A → C D.
+    private BitSet[] cerrarEsquinas(int n) {
+        List<List<Integer>> primeros = new ArrayList<>();
+        for (int a = 0; a < n; a++) primeros.add(new ArrayList<>());
+        for (int c = 0; c < n; c++) {
+            for (int p : porEsquina.get(c)) primeros.get(fnc.izquierda[p]).add(c);
+        }
+        BitSet[] cierre = new BitSet[n];
+        for (int a = 0; a < n; a++) {
+            BitSet visto = new BitSet(n);
+            Deque<Integer> cola = new ArrayDeque<>();
+            visto.set(a);
+            cola.add(a);
+            while (!cola.isEmpty()) {
+                for (int c : primeros.get(cola.poll())) {
+                    if (!visto.get(c)) {
+                        visto.set(c);
+                        cola.add(c);
+                    }
+                }
+            }
+            cierre[a] = visto;
+        }
+        return cierre;
+    }
+
+    // [A/B] tiene producciones si alguna B' → B D tiene a B' como esquina de A.
+    private boolean tieneProducciones(int a, int b) {
+        for (int p : porEsquina.get(b)) {
+            if (esquinas[a].get(fnc.izquierda[p])) return true;
+        }
+        return false;
+    }
+
+    // No terminal [A/B]; al crearlo queda pendiente calcular sus producciones.
+    private int par(int a, int b) {
+        long clave = (long) a * fnc.numNoTerminales + b;
+        Integer id = pares.get(clave);
+        if (id == null) {
+            id = nuevoNoTerminal();
+            pares.put(clave, id);
+            pendientes.add(new int[]{id, a, b});
+        }
+        return id;
+    }
+
+    /** Lados derechos de D en FNG: a [D/E] por cada esquina E → a de D, y a solo si E = D. */
+    private List<int[]> cabezasDe(int d) {
+        if (cabezas.get(d) != null) return cabezas.get(d);
+        List<int[]> resultado = new ArrayList<>();
+        BitSet deD = esquinas[d];
+        for (int e = deD.nextSetBit(0); e >= 0; e = deD.nextSetBit(e + 1)) {
+            for (int a : terminalesDe.get(e)) {
+                if (tieneProducciones(d, e)) resultado.add(new int[]{a, par(d, e)});
+                if (e == d) resultado.add(new int[]{a});
+            }
+        }
+        cabezas.set(d, resultado);
+        return resultado;
+    }
+
+    /** Producciones de [A/C]: por cada B → C D con B esquina de A, las cabezas de D seguidas de [A/B]. */
+    private List<int[]> produccionesDePar(int a, int c) {
+        List<int[]> resultado = new ArrayList<>();
+        for (int p : porEsquina.get(c)) {
+            int b = fnc.izquierda[p];
+            if (!esquinas[a].get(b)) continue;
+            List<int[]> colas = new ArrayList<>(2);
+            if (tieneProducciones(a, b)) colas.add(new int[]{par(a, b)});
+            if (b == a) colas.add(new int[0]);
+            for (int[] cabeza : cabezasDe(fnc.derecha[p][1])) {
+                for (int[] cola : colas) resultado.add(concatenar(cabeza, cola, 0));
+            }
+            if (total + resultado.size() > MAX_PRODUCCIONES) break;
+        }
+        return resultado;
+    }
+
+    private int nuevoNoTerminal() {
+        reglas.add(new ArrayList<>());
+        nombres.add(libres.nuevo());
+        nuevos++;
+        return reglas.size() - 1;
+    }
+
+    private void verificarLimite() {
+        if (total > MAX_PRODUCCIONES) {
+            throw new IllegalArgumentException("La Forma Normal de Greibach supera " + MAX_PRODUCCIONES + " producciones");
+        }
+    }
+
+    // prefijo seguido de der[desde..]
+    private static int[] concatenar(int[] prefijo, int[] der, int desde) {
+        int[] r = Arrays.copyOf(prefijo, prefijo.length + der.length - desde);
+        System.arraycopy(der, desde, r, prefijo.length, der.length - desde);
+        return r;
+    }
+
+    private List<int[]> sinDuplicados(List<int[]> lista) {
+        Set<List<Integer>> vistas = new HashSet<>();
+        List<int[]> resultado = new ArrayList<>(lista.size());
+        for (int[] der : lista) {
+            List<Integer> clave = new ArrayList<>(der.length);
+            for (int s : der) clave.add(s);
+            if (vistas.add(clave)) resultado.add(der);
+        }
+        return resultado;
+    }
+
+    // --- Resultado ---
+
+    /**
+     * Devuelve la FNG como una GLC independiente. Solo se incluyen los no
+     * terminales alcanzables desde el símbolo inicial.
+     */
+    public GLC getGramatica() {
+        if (gramatica != null) return gramatica;
+        GLC resultado = new GLC();
+        resultado.setSimboloInicial(nombres.get(inicial));
+        for (int t = 0; t < fnc.numTerminales; t++) resultado.agregarTerminal(nombreTerminal(t).charAt(0));
+
+        boolean[] alcanzable = new boolean[reglas.size()];
+        Deque<Integer> cola = new ArrayDeque<>();
+        alcanzable[inicial] = true;
+        cola.add(inicial);
+        List<Integer> orden = new ArrayList<>();
+        while (!cola.isEmpty()) {
+            int a = cola.poll();
+            orden.add(a);
+            for (int[] der : reglas.get(a)) {
+                for (int s : der) {
+                    if (s >= 0 && !alcanzable[s]) {
+                        alcanzable[s] = true;
+                        cola.add(s);
+                    }
+                }
+            }
+        }
+
+        for (int a : orden) resultado.agregarNoTerminal(nombres.get(a));
+        if (fnc.inicialAnulable) resultado.agregarProduccion(nombres.get(inicial), "ε");
+        for (int a : orden) {
+            for (int[] der : reglas.get(a)) {
+                StringBuilder sb = new StringBuilder();
+                for (int s : der) sb.append(s >= 0 ? nombres.get(s) : nombreTerminal(~s));
+                resultado.agregarProduccion(nombres.get(a), sb.toString());
+            }
+        }
+        gramatica = resultado;
+        return gramatica;
+    }
+
+    private String nombreTerminal(int t) {
+        return fnc.original.nombres[fnc.original.numNoTerminales + t];
+    }
+
+    /** Número de no terminales nuevos [A/B] de la transformación de esquina izquierda. */
+    public int getNoTerminalesNuevos() { return nuevos; }
+
+    /** Número de producciones de la FNG (sin contar S → ε), antes de descartar las inalcanzables. */
+    public int getNumProducciones() {
+        int n = 0;
+        for (List<int[]> lista : reglas) n += lista.size();
+        return n;
+    }
+}
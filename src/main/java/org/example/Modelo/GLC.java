@@ -1,6 +1,7 @@
 package org.example.Modelo;
 
 import java.util.*;
+import java.util.logging.Logger;
 
 /**
  * Representa una Gramática Libre de Contexto (GLC) con soporte para:
@@ -10,11 +11,56 @@ import java.util.*;
  */
 public class GLC {
 
+    /** Subproblemas que abre como máximo la búsqueda con memo del árbol, si no se indica otro límite. */
+    public static final long PASOS_BUSQUEDA = 20_000_000;
+    /** Marcos que puede tener la pila de esa búsqueda, si no se indica otro límite. */
+    public static final long MEMORIA_BUSQUEDA = 10_000_000;
+
+    private static final Logger LOG = Logger.getLogger(GLC.class.getName());
+
     private Set<String> noTerminales;       // Conjunto de símbolos no terminales.
     private Set<Character> terminales;      // Conjunto de símbolos terminales.
     private String simboloInicial;          // Símbolo inicial de la gramática.
     private Map<String, List<String>> producciones; // Producciones de cada no terminal.
 
+    // Versión de la gramática: aumenta con cada modificación para invalidar las estructuras derivadas.
+    private int version = 0;
+    private GramaticaCompilada compilada;
+    private int versionCompilada = -1;
+    private GramaticaCompilada util;
+    private int versionUtil = -1;
+    private AnalisisGramatica analisisUtil;
+    private int versionAnalisisUtil = -1;
+    private FormaNormalChomsky fnc;
+    private int versionFNC = -1;
+    private AnalisisGramatica analisis;
+    private int versionAnalisis = -1;
+    private AnalizadorLL1 ll1;
+    private int versionLL1 = -1;
+    private AnalizadorLALR lalr;
+    private int versionLALR = -1;
+    private AnalizadorGLL gll;
+    private int versionGLL = -1;
+    private FormaNormalGreibach fng;
+    private int versionFNG = -1;
+    private ReconocedorCYK cyk;
+    private int versionCYK = -1;
+    private AnalizadorEarley earley;
+    private int versionEarley = -1;
+    private GeneradorOraciones generador;
+    private int versionGenerador = -1;
+    private ClasificadorGLC clasificador;
+    private int versionClasificador = -1;
+
+    private long maxPasosBusqueda = PASOS_BUSQUEDA;
+    private long maxMemoriaBusqueda = MEMORIA_BUSQUEDA;
+    private boolean busquedaAgotada;
+    private long subproblemasArbol;
+    private long aciertosMemoArbol;
+    private ClasificadorGLC.Motor motorArbol;
+    private ClasificadorGLC.Motor ultimoMotor;
+    private long ultimaDuracion;
+
     public GLC() {
         this.noTerminales = new HashSet<>();
         this.terminales = new HashSet<>();
@@ -25,17 +71,20 @@ public class GLC {
     public void setSimboloInicial(String simbolo) {
         this.simboloInicial = simbolo;
         this.noTerminales.add(simbolo);
+        version++;
     }
 
     // Registra un nuevo No Terminal y crea su lista de producciones.
     public void agregarNoTerminal(String nt) {
         noTerminales.add(nt);
         producciones.putIfAbsent(nt, new ArrayList<>());
+        version++;
     }
 
     // Agrega un símbolo terminal al alfabeto.
     public void agregarTerminal(char t) {
         terminales.add(t);
+        version++;
     }
 
     // Añade una producción A → α al No Terminal correspondiente.
@@ -44,6 +93,7 @@ public class GLC {
             throw new IllegalArgumentException("No terminal no existe: " + noTerminal);
         }
         producciones.get(noTerminal).add(produccion);
+        version++;
     }
 
     /**
@@ -71,279 +121,389 @@ public class GLC {
         }
     }
 
-    // Determina si la cadena puede derivarse desde el símbolo inicial usando derivación izquierda.
+    /**
+     * Determina si la cadena pertenece al lenguaje con el motor más rápido que
+     * admite la gramática (ver {@link ClasificadorGLC}).
+     */
     public boolean pertenece(String cadena) {
         if (simboloInicial == null) return false;
-
-        if (cadena.isEmpty() && producciones.getOrDefault(simboloInicial, Collections.emptyList()).contains("")) {
-            return true;
+        ClasificadorGLC.Motor motor = getClasificador().getMotor();
+        long inicio = System.nanoTime();
+        boolean resultado;
+        switch (motor) {
+            case AFN: resultado = getClasificador().reconoceAfn(cadena); break;
+            case LL1: resultado = getAnalizadorLL1().reconoce(cadena); break;
+            case LALR1: resultado = getAnalizadorLALR().reconoce(cadena); break;
+            default: resultado = getAnalizadorEarley().reconoce(cadena);
         }
-
-        List<String> derivaciones = derivarIzquierda(cadena);
-        return !derivaciones.isEmpty() && derivaciones.get(derivaciones.size() - 1).equals(cadena);
+        registrarMotor("pertenece", motor, inicio);
+        return resultado;
     }
 
-    // Devuelve la lista de pasos aplicados en una derivación izquierda.
-    public List<String> derivarIzquierda(String objetivo) {
-        List<String> derivaciones = new ArrayList<>();
-        derivaciones.add(simboloInicial);
-
-        Set<String> visitados = new HashSet<>();
-
-        if (derivarIzquierdaRec(simboloInicial, objetivo, derivaciones, 0, visitados)) {
-            return derivaciones;
+    /**
+     * Devuelve la forma compilada (símbolos enteros) de la versión actual de la gramática.
+     * Se reconstruye solo cuando la gramática cambió desde la última llamada.
+     */
+    public GramaticaCompilada compilar() {
+        if (compilada == null || versionCompilada != version) {
+            compilada = GramaticaCompilada.de(this);
+            versionCompilada = version;
         }
+        return compilada;
+    }
 
-        return Arrays.asList("No se pudo derivar la cadena");
+    /**
+     * Gramática compilada sin las producciones inútiles (no generadoras o
+     * inalcanzables), con los mismos símbolos que {@link #compilar()}. Earley, GLL,
+     * CYK, la detección de ambigüedad y las búsquedas de derivaciones y árboles
+     * trabajan sobre ella: esas producciones nunca aparecen en una derivación
+     * completa y solo harían crecer la búsqueda.
+     */
+    GramaticaCompilada getGramaticaUtil() {
+        if (util == null || versionUtil != version) {
+            GramaticaCompilada g = compilar();
+            boolean[] conservar = SimplificacionGLC.utiles(g);
+            boolean todas = true;
+            for (boolean c : conservar) todas &= c;
+            util = todas ? g : g.restringir(conservar);
+            versionUtil = version;
+        }
+        return util;
     }
 
-    // Búsqueda recursiva con poda, límites de profundidad y detección de ciclos.
-    private boolean derivarIzquierdaRec(String actual, String objetivo, List<String> derivaciones, int profundidad, Set<String> visitados) {
-        // 🚨 Límite de longitud: Si la cadena de derivación se hace mucho más larga que el objetivo, aborta.
-        if (actual.length() > objetivo.length() * 2 + 5 && contieneNoTerminal(actual)) {
-            return false;
+    // Tablas de análisis de la gramática sin producciones inútiles.
+    AnalisisGramatica getAnalisisUtil() {
+        if (analisisUtil == null || versionAnalisisUtil != version) {
+            GramaticaCompilada g = getGramaticaUtil();
+            analisisUtil = g == compilar() ? getAnalisis() : new AnalisisGramatica(g);
+            versionAnalisisUtil = version;
         }
+        return analisisUtil;
+    }
 
-        if (profundidad > 500) return false;
+    /**
+     * Simplifica la gramática (ver {@link SimplificacionGLC}); los símbolos inútiles
+     * se quitan siempre. La gramática actual no se modifica.
+     */
+    public SimplificacionGLC simplificar(boolean eliminarUnitarias, boolean eliminarEpsilon) {
+        return new SimplificacionGLC(this, eliminarUnitarias, eliminarEpsilon);
+    }
 
-        // Detección de buclos: Rompe ciclos exactos de cadena.
-        if (visitados.contains(actual)) {
-            return false;
+    // Forma Normal de Chomsky de la versión actual de la gramática (con la correspondencia a las producciones originales).
+    public FormaNormalChomsky getFormaNormalChomsky() {
+        if (fnc == null || versionFNC != version) {
+            fnc = new FormaNormalChomsky(this);
+            versionFNC = version;
         }
+        return fnc;
+    }
 
-        if (actual.equals(objetivo)) {
-            return true;
+    // Forma Normal de Greibach de la versión actual de la gramática (sin recursión izquierda).
+    public FormaNormalGreibach getFormaNormalGreibach() {
+        if (fng == null || versionFNG != version) {
+            fng = new FormaNormalGreibach(this);
+            versionFNG = version;
         }
+        return fng;
+    }
 
-        if (!contieneNoTerminal(actual)) {
-            return false;
+    // Reconocedor CYK de la versión actual de la gramática (la conversión a FNC se hace una vez por versión).
+    public ReconocedorCYK getReconocedorCYK() {
+        if (cyk == null || versionCYK != version) {
+            cyk = new ReconocedorCYK(this);
+            versionCYK = version;
         }
+        return cyk;
+    }
 
-        // Busca el NO TERMINAL más a la izquierda
-        int pos = -1;
-        String noTerminal = null;
-        for (int i = 0; i < actual.length(); i++) {
-            String simbolo = String.valueOf(actual.charAt(i));
-            if (noTerminales.contains(simbolo)) {
-                pos = i;
-                noTerminal = simbolo;
-                break;
-            }
+    // Generador de oraciones aleatorias de la versión actual (las cuentas por longitud se conservan entre llamadas).
+    public GeneradorOraciones getGeneradorOraciones() {
+        if (generador == null || versionGenerador != version) {
+            generador = new GeneradorOraciones(this);
+            versionGenerador = version;
         }
+        return generador;
+    }
 
-        if (noTerminal == null) return false;
-
-        List<String> prods = producciones.get(noTerminal);
-        if (prods == null) return false;
-
-        // Marcar el estado actual como visitado
-        visitados.add(actual);
+    // Clasificación de la versión actual de la gramática y motor elegido para analizar cadenas.
+    public ClasificadorGLC getClasificador() {
+        if (clasificador == null || versionClasificador != version) {
+            clasificador = new ClasificadorGLC(this);
+            versionClasificador = version;
+        }
+        return clasificador;
+    }
 
-        for (String prod : prods) {
-            String nuevaCadena = actual.substring(0, pos) + prod + actual.substring(pos + 1);
+    /** Motor que usó la última llamada a pertenece o a una derivación, o null si no hubo ninguna. */
+    public ClasificadorGLC.Motor getUltimoMotor() { return ultimoMotor; }
 
-            // Optimización: Salta si la nueva cadena excede el límite.
-            if (nuevaCadena.length() > objetivo.length() * 2 + 5 && contieneNoTerminal(nuevaCadena)) {
-                continue;
-            }
+    /** Duración en nanosegundos de la última llamada a pertenece o a una derivación. */
+    public long getUltimaDuracion() { return ultimaDuracion; }
 
-            derivaciones.add(nuevaCadena);
+    private void registrarMotor(String operacion, ClasificadorGLC.Motor motor, long inicio) {
+        ultimoMotor = motor;
+        ultimaDuracion = System.nanoTime() - inicio;
+        LOG.fine(() -> String.format("%s: motor %s, %.3f ms", operacion, motor, ultimaDuracion / 1e6));
+    }
 
-            if (derivarIzquierdaRec(nuevaCadena, objetivo, derivaciones, profundidad + 1, visitados)) {
-                return true;
-            }
+    // Devuelve la lista de pasos aplicados en una derivación izquierda.
+    public List<String> derivarIzquierda(String objetivo) {
+        return derivar(objetivo, true);
+    }
 
-            // Backtracking
-            derivaciones.remove(derivaciones.size() - 1);
-        }
+    // Misma búsqueda que la derivación izquierda, pero expandiendo el No Terminal más a la derecha.
+    public List<String> derivarDerecha(String objetivo) {
+        return derivar(objetivo, false);
+    }
 
-        // Desmarcar el estado actual
-        visitados.remove(actual);
+    // Derivación izquierda con el menor número de pasos (búsqueda A*, ver BusquedaDerivacion).
+    public List<String> derivarIzquierdaMinima(String objetivo) {
+        return derivarMinima(objetivo, true);
+    }
 
-        return false;
+    // Derivación derecha con el menor número de pasos (búsqueda A*, ver BusquedaDerivacion).
+    public List<String> derivarDerechaMinima(String objetivo) {
+        return derivarMinima(objetivo, false);
     }
 
-    // Misma estructura que la derivación izquierda, pero expandiendo el No Terminal más a la derecha.
-    public List<String> derivarDerecha(String objetivo) {
-        List<String> derivaciones = new ArrayList<>();
-        derivaciones.add(simboloInicial);
+    private List<String> derivarMinima(String objetivo, boolean izquierda) {
+        List<String> pasos = new BusquedaDerivacion(this).derivar(objetivo, izquierda);
+        return pasos.isEmpty() ? Arrays.asList("No se pudo derivar la cadena") : pasos;
+    }
 
-        Set<String> visitados = new HashSet<>();
+    /**
+     * Obtiene el árbol con el motor de {@link #getClasificador()} (el analizador
+     * LL(1) o LALR(1) si la gramática lo admite, Earley si no) y lee en él la
+     * derivación pedida.
+     */
+    private List<String> derivar(String objetivo, boolean izquierda) {
+        if (simboloInicial == null) return Arrays.asList("No se pudo derivar la cadena");
+        long inicio = System.nanoTime();
+        NodoArbol raiz = arbolClasificado(objetivo);
+        List<String> pasos = raiz == null ? Arrays.asList("No se pudo derivar la cadena") : derivacionDesdeArbol(raiz, izquierda);
+        registrarMotor(izquierda ? "derivarIzquierda" : "derivarDerecha", motorArbol, inicio);
+        return pasos;
+    }
 
-        if (derivarDerechaRec(simboloInicial, objetivo, derivaciones, 0, visitados)) {
-            return derivaciones;
+    // Árbol con el motor de getClasificador(); el AFN no da el árbol, así que en su lugar se usa Earley.
+    private NodoArbol arbolClasificado(String cadena) {
+        ClasificadorGLC.Motor motor = getClasificador().getMotor();
+        if (motor == ClasificadorGLC.Motor.AFN) motor = ClasificadorGLC.Motor.EARLEY;
+        motorArbol = motor;
+        switch (motor) {
+            case LL1: return getAnalizadorLL1().arbol(cadena);
+            case LALR1: return getAnalizadorLALR().arbol(cadena);
+            default:
+                BosqueSPPF bosque = getAnalizadorEarley().analizar(cadena);
+                return bosque == null ? null : bosque.arbol();
         }
-
-        return Arrays.asList("No se pudo derivar la cadena");
     }
 
-    private boolean derivarDerechaRec(String actual, String objetivo, List<String> derivaciones, int profundidad, Set<String> visitados) {
-        //  Límite de longitud
-        if (actual.length() > objetivo.length() * 2 + 5 && contieneNoTerminal(actual)) {
-            return false;
+    /**
+     * Fija el presupuesto de la búsqueda con memo del árbol sintáctico
+     * ({@link #generarArbolSintactico(String)}); al agotarlo la búsqueda se
+     * abandona y {@link #isBusquedaAgotada()} lo indica.
+     * @param maxPasos subproblemas que abre la búsqueda como máximo.
+     * @param maxMemoria marcos que puede tener a la vez su pila explícita.
+     * @throws IllegalArgumentException si algún límite no es positivo.
+     */
+    public void setPresupuestoBusqueda(long maxPasos, long maxMemoria) {
+        if (maxPasos <= 0 || maxMemoria <= 0) {
+            throw new IllegalArgumentException("Los límites de la búsqueda deben ser positivos");
         }
+        this.maxPasosBusqueda = maxPasos;
+        this.maxMemoriaBusqueda = maxMemoria;
+    }
 
-        if (profundidad > 500) return false;
+    public long getMaxPasosBusqueda() { return maxPasosBusqueda; }
+    public long getMaxMemoriaBusqueda() { return maxMemoriaBusqueda; }
 
-        // Detección de bucles
-        if (visitados.contains(actual)) {
-            return false;
-        }
+    /** Indica si el último árbol de la búsqueda con memo se abandonó por agotar el presupuesto. */
+    public boolean isBusquedaAgotada() { return busquedaAgotada; }
 
-        if (actual.equals(objetivo)) {
-            return true;
-        }
+    /** Subproblemas (símbolo o ranura, inicio, fin) que resolvió el último árbol de la búsqueda con memo. */
+    public long getSubproblemasArbol() { return subproblemasArbol; }
 
-        if (!contieneNoTerminal(actual)) {
-            return false;
-        }
+    /** Veces que el último árbol de la búsqueda con memo reutilizó un resultado de la memo. */
+    public long getAciertosMemoArbol() { return aciertosMemoArbol; }
 
-        // Busca el NO TERMINAL más a la derecha
-        int pos = -1;
-        String noTerminal = null;
-        for (int i = actual.length() - 1; i >= 0; i--) {
-            String simbolo = String.valueOf(actual.charAt(i));
-            if (noTerminales.contains(simbolo)) {
-                pos = i;
-                noTerminal = simbolo;
-                break;
-            }
+    // Analizador de Earley de la versión actual de la gramática (sin transformar, salvo quitar las producciones inútiles).
+    public AnalizadorEarley getAnalizadorEarley() {
+        if (earley == null || versionEarley != version) {
+            earley = new AnalizadorEarley(this);
+            versionEarley = version;
         }
+        return earley;
+    }
 
-        if (noTerminal == null) return false;
-
-        List<String> prods = producciones.get(noTerminal);
-        if (prods == null) return false;
+    /**
+     * Analiza la cadena con Earley y devuelve el bosque compartido de todos sus
+     * árboles sintácticos, o null si la cadena no pertenece al lenguaje.
+     */
+    public BosqueSPPF analizarEarley(String cadena) {
+        if (simboloInicial == null) return null;
+        return getAnalizadorEarley().analizar(cadena);
+    }
 
-        // Marcar el estado actual como visitado
-        visitados.add(actual);
+    // Analizador GLL de la versión actual de la gramática (cualquier GLC, todos los árboles).
+    public AnalizadorGLL getAnalizadorGLL() {
+        if (gll == null || versionGLL != version) {
+            gll = new AnalizadorGLL(this);
+            versionGLL = version;
+        }
+        return gll;
+    }
 
-        for (String prod : prods) {
-            String nuevaCadena = actual.substring(0, pos) + prod + actual.substring(pos + 1);
+    /**
+     * Analiza la cadena con GLL y devuelve el bosque compartido de todos sus
+     * árboles sintácticos, o null si la cadena no pertenece al lenguaje.
+     */
+    public BosqueSPPF analizarGLL(String cadena) {
+        if (simboloInicial == null) return null;
+        return getAnalizadorGLL().analizar(cadena);
+    }
 
-            // Optimización: Salta si la nueva cadena excede el límite.
-            if (nuevaCadena.length() > objetivo.length() * 2 + 5 && contieneNoTerminal(nuevaCadena)) {
-                continue;
+    /**
+     * Reconstruye la derivación (izquierda o derecha) que corresponde a un árbol
+     * sintáctico: en cada paso se sustituye el nodo interno más a la izquierda
+     * (o más a la derecha) por sus hijos.
+     */
+    public static List<String> derivacionDesdeArbol(NodoArbol raiz, boolean izquierda) {
+        List<String> pasos = new ArrayList<>();
+        if (raiz == null) return pasos;
+
+        List<NodoArbol> forma = new ArrayList<>();
+        forma.add(raiz);
+        pasos.add(textoForma(forma));
+        while (true) {
+            int pos = -1;
+            if (izquierda) {
+                for (int i = 0; i < forma.size() && pos < 0; i++) {
+                    if (!forma.get(i).getHijos().isEmpty()) pos = i;
+                }
+            } else {
+                for (int i = forma.size() - 1; i >= 0 && pos < 0; i--) {
+                    if (!forma.get(i).getHijos().isEmpty()) pos = i;
+                }
             }
+            if (pos < 0) break;
 
-            derivaciones.add(nuevaCadena);
-
-            if (derivarDerechaRec(nuevaCadena, objetivo, derivaciones, profundidad + 1, visitados)) {
-                return true;
+            NodoArbol nodo = forma.remove(pos);
+            List<NodoArbol> hijos = new ArrayList<>();
+            for (NodoArbol h : nodo.getHijos()) {
+                if (!(h.getHijos().isEmpty() && h.getSimbolo().equals("ε"))) hijos.add(h);
             }
-
-            // Backtracking
-            derivaciones.remove(derivaciones.size() - 1);
+            forma.addAll(pos, hijos);
+            pasos.add(textoForma(forma));
         }
+        return pasos;
+    }
 
-        // Desmarcar el estado actual
-        visitados.remove(actual);
-
-        return false;
+    private static String textoForma(List<NodoArbol> forma) {
+        if (forma.isEmpty()) return "ε";
+        StringBuilder sb = new StringBuilder();
+        for (NodoArbol n : forma) sb.append(n.getSimbolo());
+        return sb.toString();
     }
 
     // --- Lógica del Árbol Sintáctico ---
 
-    public NodoArbol generarArbolSintactico(String cadena) {
-        if (simboloInicial == null) return null;
-        NodoArbol raiz = new NodoArbol(simboloInicial);
-        // El árbol solo necesita el objetivo final (la cadena) y la profundidad.
-        if (construirArbolRec(raiz, cadena, 0)) {
-            return raiz;
-        }
-        return null;
-    }
+    /** Motor con que se genera el árbol sintáctico. */
+    public enum MotorArbol {
+        /** El analizador que elige {@link #getClasificador()}: LL(1), LALR(1) o Earley. */
+        AUTOMATICO("Automático (LL(1), LALR(1) o Earley)"),
+        /** La búsqueda por particiones con memo de {@link #generarArbolSintactico(String)}. */
+        MEMO("Búsqueda con memo"),
+        /** La tabla CYK: Θ(n³) en tiempo y n² celdas en memoria, aun si la gramática es lineal. */
+        CYK("CYK");
 
-    private boolean construirArbolRec(NodoArbol nodo, String objetivo, int profundidad) {
-        // Límite de profundidad estricto para evitar congelamiento en árbol
-        if (profundidad > 100) return false;
+        private final String nombre;
 
-        String simbolo = nodo.getSimbolo();
+        MotorArbol(String nombre) { this.nombre = nombre; }
 
-        if (terminales.contains(simbolo.charAt(0))) {
-            return objetivo.startsWith(simbolo);
-        }
+        @Override public String toString() { return nombre; }
+    }
 
-        if (simbolo.equals("ε")) {
-            return true;
+    /**
+     * Genera el árbol sintáctico con el motor indicado.
+     * @return la raíz, o null si la cadena no pertenece al lenguaje (o, con
+     *         {@link MotorArbol#MEMO}, si se agotó el presupuesto).
+     */
+    public NodoArbol generarArbolSintactico(String cadena, MotorArbol motor) {
+        if (simboloInicial == null) return null;
+        switch (motor) {
+            case MEMO: return generarArbolSintactico(cadena);
+            case CYK: return getReconocedorCYK().arbol(cadena);
+            default: return arbolClasificado(cadena);
         }
+    }
 
-        if (noTerminales.contains(simbolo)) {
-            List<String> prods = producciones.get(simbolo);
-            if (prods == null) return false;
-
-            for (String prod : prods) {
-                nodo.getHijos().clear();
-
-                if (prod.equals("ε")) {
-                    if (objetivo.isEmpty()) {
-                        nodo.agregarHijo(new NodoArbol("ε"));
-                        return true;
-                    }
-                    continue;
-                }
-
-                List<NodoArbol> nuevosHijos = new ArrayList<>();
-                for (char c : prod.toCharArray()) {
-                    nuevosHijos.add(new NodoArbol(String.valueOf(c)));
-                }
-
-                // Llamada a la función de coincidencia con las correcciones de partición
-                if (intentarCoincidencia(nuevosHijos, objetivo, profundidad + 1)) {
-                    nodo.getHijos().addAll(nuevosHijos);
-                    return true;
+    /**
+     * Construye en el hilo que llama las tablas que usa el motor del árbol. Las
+     * cachés de la gramática no son seguras entre hilos: después de preparar, y
+     * mientras la gramática no cambie, {@link #generarArbolSintactico(String, MotorArbol)}
+     * se puede llamar desde otro hilo sin construir nada.
+     */
+    public void prepararArbol(MotorArbol motor) {
+        if (simboloInicial == null) return;
+        switch (motor) {
+            case MEMO:
+                getAnalisisUtil();
+                break;
+            case CYK:
+                getReconocedorCYK();
+                break;
+            default:
+                switch (getClasificador().getMotor()) {
+                    case LL1: getAnalizadorLL1(); break;
+                    case LALR1: getAnalizadorLALR(); break;
+                    default: getAnalizadorEarley();
                 }
-            }
         }
-        return false;
     }
 
-    private boolean intentarCoincidencia(List<NodoArbol> nodos, String objetivo, int profundidad) {
-        if (nodos.isEmpty()) {
-            return objetivo.isEmpty();
-        }
+    /** Motor que usó el último árbol automático o la última derivación. */
+    public ClasificadorGLC.Motor getMotorArbol() { return motorArbol; }
 
-        NodoArbol cabeza = nodos.get(0);
-        List<NodoArbol> cola = nodos.subList(1, nodos.size());
+    public NodoArbol generarArbolSintactico(String cadena) {
+        GramaticaCompilada g = getGramaticaUtil();
+        int[] objetivo = g.codificar(cadena);
+        busquedaAgotada = false;
+        if (g.inicial < 0 || objetivo == null) return null;
+        NodoArbol raiz = new NodoArbol(g.nombres[g.inicial]);
+        ConstructorArbol constructor = new ConstructorArbol(getAnalisisUtil(), maxPasosBusqueda, maxMemoriaBusqueda);
+        boolean encontrado = constructor.construir(raiz, objetivo);
+        busquedaAgotada = constructor.esAgotada();
+        subproblemasArbol = constructor.getPasos();
+        aciertosMemoArbol = constructor.getAciertos();
+        return encontrado ? raiz : null;
+    }
 
-        if (terminales.contains(cabeza.getSimbolo().charAt(0))) {
-            if (objetivo.startsWith(cabeza.getSimbolo())) {
-                String nuevoObjetivo = objetivo.substring(cabeza.getSimbolo().length());
-                return intentarCoincidencia(cola, nuevoObjetivo, profundidad);
-            }
-            return false;
-        } else { // Es No Terminal
-
-            // Corrección de Partición (Split): Limita las pruebas de división
-            for (int i = 0; i <= objetivo.length(); i++) {
-                String subObjetivo = objetivo.substring(0, i);
-                String restoObjetivo = objetivo.substring(i);
-
-                // Evitar ciclos de recursividad vacía: Si la subcadena es vacía (i=0)
-                // y el resto de la cadena no es vacía, saltamos para evitar que un NT
-                // se expanda a epsilon o a otro NT recursivo sin consumir nada.
-                if (i == 0 && !restoObjetivo.isEmpty() && cabeza.getSimbolo().equals(simboloInicial)) {
-                    // Esto es una heurística para detener la recursión por la izquierda en el árbol.
-                    continue;
-                }
+    // Tablas de anulables, PRIMEROS, SIGUIENTES y longitudes mínimas de la versión actual de la gramática.
+    public AnalisisGramatica getAnalisis() {
+        if (analisis == null || versionAnalisis != version) {
+            analisis = new AnalisisGramatica(compilar());
+            versionAnalisis = version;
+        }
+        return analisis;
+    }
 
-                if (construirArbolRec(cabeza, subObjetivo, profundidad)) {
-                    if (intentarCoincidencia(cola, restoObjetivo, profundidad)) {
-                        return true;
-                    }
-                }
-            }
-            return false;
+    // Analizador LL(1) de la versión actual de la gramática (la tabla indica si hay conflictos).
+    public AnalizadorLL1 getAnalizadorLL1() {
+        if (ll1 == null || versionLL1 != version) {
+            ll1 = new AnalizadorLL1(this);
+            versionLL1 = version;
         }
+        return ll1;
     }
 
-    private boolean contieneNoTerminal(String cadena) {
-        for (char c : cadena.toCharArray()) {
-            if (noTerminales.contains(String.valueOf(c))) {
-                return true;
-            }
+    // Analizador LALR(1) de la versión actual de la gramática (la tabla indica si hay conflictos).
+    public AnalizadorLALR getAnalizadorLALR() {
+        if (lalr == null || versionLALR != version) {
+            lalr = new AnalizadorLALR(this);
+            versionLALR = version;
         }
-        return false;
+        return lalr;
     }
 
     // --- Métodos de Visualización y Acceso (Getters) ---
@@ -351,21 +511,34 @@ public class GLC {
     public String visualizarArbol(NodoArbol raiz) {
         if (raiz == null) return "No se pudo generar el árbol";
 
+        // Recorrido en preorden con pila explícita: los árboles de cadenas largas
+        // pueden tener decenas de miles de niveles.
         StringBuilder sb = new StringBuilder();
-        visualizarArbolRec(raiz, "", true, sb);
-        return sb.toString();
-    }
-
-    private void visualizarArbolRec(NodoArbol nodo, String prefijo, boolean esUltimo, StringBuilder sb) {
-        sb.append(prefijo);
-        sb.append(esUltimo ? "└── " : "├── ");
-        sb.append(nodo.getSimbolo()).append("\n");
-
-        List<NodoArbol> hijos = nodo.getHijos();
-        for (int i = 0; i < hijos.size(); i++) {
-            boolean ultimo = (i == hijos.size() - 1);
-            visualizarArbolRec(hijos.get(i), prefijo + (esUltimo ? "    " : "│   "), ultimo, sb);
+        StringBuilder prefijo = new StringBuilder();   // Sangría de los ancestros del nodo actual
+        Deque<NodoArbol> pila = new ArrayDeque<>();
+        Deque<Integer> niveles = new ArrayDeque<>();
+        Deque<Boolean> ultimos = new ArrayDeque<>();
+        pila.push(raiz);
+        niveles.push(0);
+        ultimos.push(true);
+        while (!pila.isEmpty()) {
+            NodoArbol nodo = pila.pop();
+            int nivel = niveles.pop();
+            boolean esUltimo = ultimos.pop();
+            prefijo.setLength(4 * nivel);
+            sb.append(prefijo);
+            sb.append(esUltimo ? "└── " : "├── ");
+            sb.append(nodo.getSimbolo()).append("\n");
+            prefijo.append(esUltimo ? "    " : "│   ");
+
+            List<NodoArbol> hijos = nodo.getHijos();
+            for (int i = hijos.size() - 1; i >= 0; i--) {
+                pila.push(hijos.get(i));
+                niveles.push(nivel + 1);
+                ultimos.push(i == hijos.size() - 1);
+            }
         }
+        return sb.toString();
     }
 
     public String getProduccionesTexto() {
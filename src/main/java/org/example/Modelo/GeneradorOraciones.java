@@ -0,0 +1,284 @@
+package org.example.Modelo;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generador de oraciones aleatorias de una longitud exacta, para armar corpus de
+ * prueba de los analizadores.
+ *
+ * Trabaja sobre la Forma Normal de Chomsky: cuentas[l][A] es el número de árboles
+ * con raíz A y l hojas (A → t cuenta 1 para l = 1; A → B C suma cuentas[k][B] ·
+ * cuentas[l-k][C] para cada corte k). Las cuentas son BigInteger, así que son
+ * exactas aunque crezcan exponencialmente, y se calculan una vez hasta la mayor
+ * longitud pedida. Para muestrear, cada nodo (A, l) elige su producción y su
+ * corte con probabilidad proporcional a la cantidad de árboles que empiezan así,
+ * de modo que cada árbol de la FNC sale con la misma probabilidad. Esas
+ * proporciones se calculan en doble precisión a partir de las cuentas exactas
+ * guardadas como mantisa y exponente (cuentas de miles de bits no caben en un
+ * double), lo que evita multiplicar BigInteger en cada corte; el error relativo
+ * de cada probabilidad es del orden de 2^-52.
+ * Si la gramática no es ambigua cada cadena tiene un solo árbol y el muestreo es
+ * uniforme sobre las cadenas del lenguaje de esa longitud; si lo es, las cadenas
+ * con más árboles salen proporcionalmente más.
+ *
+ * Las oraciones se generan por lotes en paralelo, cada uno con su propio
+ * {@link SplittableRandom} obtenido de la semilla con {@code split()} en orden,
+ * de modo que el resultado depende solo de la semilla y no del número de hilos.
+ */
+public final class GeneradorOraciones {
+
+    /** Oraciones que genera cada tarea paralela con su propio flujo aleatorio. */
+    public static final int LOTE = 1024;
+
+    private final FormaNormalChomsky fnc;
+    private final int[][] binariasDe;      // binariasDe[A] = producciones A → B C
+    private final int[][] terminalesDe;    // terminalesDe[A] = terminales t con A → t
+
+    /** Cuentas hasta una longitud: exactas y como mantisa · 2^exponente para el muestreo. */
+    private static final class Tabla {
+        final BigInteger[][] exactas;    // exactas[l][A]
+        final double[][] mantisas;       // 0 si la cuenta es 0
+        final int[][] exponentes;
+
+        Tabla(BigInteger[][] exactas, double[][] mantisas, int[][] exponentes) {
+            this.exactas = exactas;
+            this.mantisas = mantisas;
+            this.exponentes = exponentes;
+        }
+    }
+
+    // Se reemplaza por una tabla más larga cuando se pide una longitud mayor.
+    private volatile Tabla cuentas;
+
+    public GeneradorOraciones(GLC glc) {
+        this(glc.getFormaNormalChomsky());
+    }
+
+    GeneradorOraciones(FormaNormalChomsky fnc) {
+        this.fnc = fnc;
+        int m = fnc.numNoTerminales;
+        List<List<Integer>> binarias = new ArrayList<>();
+        List<List<Integer>> terminales = new ArrayList<>();
+        for (int a = 0; a < m; a++) {
+            binarias.add(new ArrayList<>());
+            terminales.add(new ArrayList<>());
+        }
+        for (int p = 0; p < fnc.izquierda.length; p++) {
+            int[] der = fnc.derecha[p];
+            if (der.length == 2) binarias.get(fnc.izquierda[p]).add(p);
+            else terminales.get(fnc.izquierda[p]).add(~der[0]);
+        }
+        binariasDe = new int[m][];
+        terminalesDe = new int[m][];
+        for (int a = 0; a < m; a++) {
+            binariasDe[a] = binarias.get(a).stream().mapToInt(Integer::intValue).toArray();
+            terminalesDe[a] = terminales.get(a).stream().mapToInt(Integer::intValue).toArray();
+        }
+        BigInteger[] vacia = new BigInteger[m];
+        Arrays.fill(vacia, BigInteger.ZERO);
+        if (fnc.inicialAnulable) vacia[fnc.inicial] = BigInteger.ONE;
+        cuentas = new Tabla(new BigInteger[][]{vacia}, new double[1][m], new int[1][m]);
+    }
+
+    /**
+     * Número de árboles de la FNC que producen cadenas de esa longitud (el número
+     * de cadenas de esa longitud si la gramática no es ambigua).
+     * @throws IllegalArgumentException si la longitud es negativa.
+     */
+    public BigInteger contar(int longitud) {
+        validarLongitud(longitud);
+        return tabla(longitud).exactas[longitud][fnc.inicial];
+    }
+
+    /**
+     * Una oración aleatoria de la longitud dada.
+     * @return la oración, o null si el lenguaje no tiene cadenas de esa longitud.
+     * @throws IllegalArgumentException si la longitud es negativa.
+     */
+    public String generar(int longitud, SplittableRandom aleatorio) {
+        validarLongitud(longitud);
+        Tabla c = tabla(longitud);
+        if (c.exactas[longitud][fnc.inicial].signum() == 0) return null;
+        return muestrear(c, longitud, aleatorio);
+    }
+
+    /**
+     * Genera {@code cantidad} oraciones de la longitud dada en paralelo.
+     * @return las oraciones (vacía si el lenguaje no tiene cadenas de esa longitud).
+     * @throws IllegalArgumentException si la longitud o la cantidad son negativas.
+     */
+    public List<String> generar(int longitud, int cantidad, long semilla) {
+        List<String> resultado = new ArrayList<>();
+        try {
+            escribir(longitud, cantidad, semilla, lote -> resultado.addAll(lote));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);   // La lista en memoria no produce errores de E/S
+        }
+        return resultado;
+    }
+
+    /**
+     * Genera {@code cantidad} oraciones de la longitud dada y las escribe, una por
+     * línea, a medida que se completan los lotes: en memoria solo hay unos pocos
+     * lotes por hilo a la vez, así que el corpus puede ser mucho mayor que la memoria.
+     * @return las oraciones escritas (0 si el lenguaje no tiene cadenas de esa longitud).
+     * @throws IllegalArgumentException si la longitud o la cantidad son negativas.
+     */
+    public long escribir(Writer destino, int longitud, long cantidad, long semilla) throws IOException {
+        return escribir(longitud, cantidad, semilla, lote -> {
+            for (String oracion : lote) {
+                destino.write(oracion);
+                destino.write('\n');
+            }
+        });
+    }
+
+    /** Recibe los lotes generados, en orden. */
+    private interface Destino {
+        void aceptar(List<String> lote) throws IOException;
+    }
+
+    private long escribir(int longitud, long cantidad, long semilla, Destino destino) throws IOException {
+        validarLongitud(longitud);
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa: " + cantidad);
+        }
+        Tabla c = tabla(longitud);
+        if (c.exactas[longitud][fnc.inicial].signum() == 0) return 0;
+
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        long lotes = (cantidad + LOTE - 1) / LOTE;
+        int ventana = 4 * Runtime.getRuntime().availableProcessors();
+        for (long primero = 0; primero < lotes; primero += ventana) {
+            int enVentana = (int) Math.min(ventana, lotes - primero);
+            // Los flujos se separan en orden, antes de repartir los lotes entre los hilos.
+            List<SplittableRandom> flujos = new ArrayList<>(enVentana);
+            List<Integer> tamanios = new ArrayList<>(enVentana);
+            for (int i = 0; i < enVentana; i++) {
+                flujos.add(raiz.split());
+                tamanios.add((int) Math.min(LOTE, cantidad - (primero + i) * LOTE));
+            }
+            List<List<String>> generados = IntStream.range(0, enVentana).parallel()
+                    .mapToObj(i -> {
+                        List<String> lote = new ArrayList<>(tamanios.get(i));
+                        for (int k = 0; k < tamanios.get(i); k++) lote.add(muestrear(c, longitud, flujos.get(i)));
+                        return lote;
+                    })
+                    .collect(Collectors.toList());
+            for (List<String> lote : generados) destino.aceptar(lote);
+        }
+        return cantidad;
+    }
+
+    // --- Cuentas ---
+
+    private static void validarLongitud(int longitud) {
+        if (longitud < 0) {
+            throw new IllegalArgumentException("La longitud no puede ser negativa: " + longitud);
+        }
+    }
+
+    /** Tabla de cuentas hasta al menos la longitud dada. */
+    private Tabla tabla(int longitud) {
+        Tabla c = cuentas;
+        if (longitud < c.exactas.length) return c;
+        synchronized (this) {
+            c = cuentas;
+            int desde = c.exactas.length;
+            if (longitud < desde) return c;
+            int m = fnc.numNoTerminales;
+            BigInteger[][] nueva = Arrays.copyOf(c.exactas, longitud + 1);
+            double[][] mantisas = Arrays.copyOf(c.mantisas, longitud + 1);
+            int[][] exponentes = Arrays.copyOf(c.exponentes, longitud + 1);
+            for (int l = desde; l <= longitud; l++) {
+                BigInteger[] fila = new BigInteger[m];
+                for (int a = 0; a < m; a++) {
+                    BigInteger total = l == 1 ? BigInteger.valueOf(terminalesDe[a].length) : BigInteger.ZERO;
+                    for (int p : binariasDe[a]) {
+                        int b = fnc.derecha[p][0];
+                        int d = fnc.derecha[p][1];
+                        for (int k = 1; k < l; k++) {
+                            BigInteger izq = nueva[k][b];
+                            if (izq.signum() == 0) continue;
+                            BigInteger der = nueva[l - k][d];
+                            if (der.signum() != 0) total = total.add(izq.multiply(der));
+                        }
+                    }
+                    fila[a] = total;
+                }
+                nueva[l] = fila;
+                mantisas[l] = new double[m];
+                exponentes[l] = new int[m];
+                for (int a = 0; a < m; a++) {
+                    int corrimiento = Math.max(0, fila[a].bitLength() - 62);
+                    mantisas[l][a] = fila[a].shiftRight(corrimiento).doubleValue();
+                    exponentes[l][a] = corrimiento;
+                }
+            }
+            cuentas = new Tabla(nueva, mantisas, exponentes);
+            return cuentas;
+        }
+    }
+
+    // --- Muestreo ---
+
+    /**
+     * Árbol uniforme con raíz en el inicial y la longitud dada, construido con una
+     * pila explícita (inicio de la subcadena, no terminal, longitud); solo se
+     * guardan las hojas.
+     */
+    private String muestrear(Tabla c, int longitud, SplittableRandom aleatorio) {
+        if (longitud == 0) return "";
+        int n = fnc.original.numNoTerminales;
+        char[] hojas = new char[longitud];
+        int[] pila = new int[48];
+        int tope = 0;
+        pila[tope++] = 0;
+        pila[tope++] = fnc.inicial;
+        pila[tope++] = longitud;
+        while (tope > 0) {
+            int l = pila[--tope];
+            int a = pila[--tope];
+            int inicio = pila[--tope];
+            if (l == 1) {
+                int[] ts = terminalesDe[a];
+                hojas[inicio] = fnc.original.nombres[n + ts[aleatorio.nextInt(ts.length)]].charAt(0);
+                continue;
+            }
+            // Se resta la probabilidad de cada (producción, corte) hasta pasar r; por
+            // redondeo r puede sobrar al final, y entonces vale el último candidato.
+            double r = aleatorio.nextDouble();
+            double total = c.mantisas[l][a];
+            int exponente = c.exponentes[l][a];
+            int elegida = -1;
+            int corte = -1;
+            elegir:
+            for (int p : binariasDe[a]) {
+                int b = fnc.derecha[p][0];
+                int d = fnc.derecha[p][1];
+                for (int k = 1; k < l; k++) {
+                    double izq = c.mantisas[k][b];
+                    double der = c.mantisas[l - k][d];
+                    if (izq == 0 || der == 0) continue;
+                    elegida = p;
+                    corte = k;
+                    r -= Math.scalb(izq * der / total, c.exponentes[k][b] + c.exponentes[l - k][d] - exponente);
+                    if (r < 0) break elegir;
+                }
+            }
+            if (tope + 6 > pila.length) pila = Arrays.copyOf(pila, pila.length * 2);
+            pila[tope++] = inicio;
+            pila[tope++] = fnc.derecha[elegida][0];
+            pila[tope++] = corte;
+            pila[tope++] = inicio + corte;
+            pila[tope++] = fnc.derecha[elegida][1];
+            pila[tope++] = l - corte;
+        }
+        return new String(hojas);
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Forma compacta de una {@link GLC} para los algoritmos de análisis sintáctico.
+ *
+ * Los símbolos se numeran con enteros: los no terminales ocupan el rango
+ * [0, numNoTerminales) y los terminales el rango [numNoTerminales, numSimbolos),
+ * así que saber si un símbolo es no terminal es una comparación. Cada producción
+ * se guarda como un arreglo de enteros, de modo que los algoritmos no construyen
+ * cadenas ni consultan conjuntos de String.
+ *
+ * Los nombres de no terminales pueden tener varios caracteres ("Expr", "S0"):
+ * los lados derechos se separan en símbolos tomando en cada posición el nombre de
+ * no terminal más largo que empieza ahí; si ninguno empieza ahí, el carácter es
+ * un terminal.
+ */
+public final class GramaticaCompilada {
+
+    final int numNoTerminales;
+    final int numSimbolos;
+    final String[] nombres;          // Nombre de cada símbolo (no terminal o terminal).
+    final int inicial;               // Símbolo inicial, -1 si no está definido.
+
+    final int[] izquierda;           // izquierda[p] = no terminal de la producción p
+    final int[][] derecha;           // derecha[p]   = símbolos del lado derecho (vacío = ε)
+    final int[] indiceOriginal;      // Posición de p dentro de la lista de su no terminal en la GLC
+    final int[][] produccionesDe;    // produccionesDe[A] = producciones de A
+
+    private final Map<Character, Integer> terminalPorCaracter = new HashMap<>();
+    private final Map<Character, Integer> ntPorCaracter = new HashMap<>();
+    // Primer carácter → no terminales de varios caracteres que empiezan con él, del más largo al más corto.
+    private final Map<Character, List<String>> ntLargos = new HashMap<>();
+    private final Map<String, Integer> indiceNoTerminal = new HashMap<>();
+
+    private GramaticaCompilada(GLC g) {
+        // Orden de los no terminales: inicial, luego el orden de las producciones, luego el resto.
+        LinkedHashSet<String> nts = new LinkedHashSet<>();
+        if (g.getSimboloInicial() != null) nts.add(g.getSimboloInicial());
+        nts.addAll(g.getProducciones().keySet());
+        nts.addAll(new TreeSet<>(g.getNoTerminales()));
+
+        List<String> listaNombres = new ArrayList<>(nts);
+        for (int i = 0; i < listaNombres.size(); i++) {
+            String nt = listaNombres.get(i);
+            indiceNoTerminal.put(nt, i);
+            if (nt.length() == 1) ntPorCaracter.put(nt.charAt(0), i);
+            else if (nt.length() > 1) ntLargos.computeIfAbsent(nt.charAt(0), k -> new ArrayList<>()).add(nt);
+        }
+        for (List<String> largos : ntLargos.values()) largos.sort(Comparator.comparingInt(String::length).reversed());
+        numNoTerminales = listaNombres.size();
+
+        // Lados derechos separados en símbolos; los terminales quedan como ~carácter hasta numerarlos.
+        List<int[]> separados = new ArrayList<>();
+        for (List<String> prods : g.getProducciones().values()) {
+            for (String prod : prods) separados.add(separar(prod));
+        }
+
+        // Terminales: los declarados y cualquier otro carácter que aparezca en un lado derecho.
+        TreeSet<Character> terminales = new TreeSet<>(g.getTerminales());
+        for (int[] simbolos : separados) {
+            for (int s : simbolos) if (s < 0) terminales.add((char) ~s);
+        }
+        for (char t : terminales) {
+            if (ntPorCaracter.containsKey(t)) continue;
+            terminalPorCaracter.put(t, listaNombres.size());
+            listaNombres.add(String.valueOf(t));
+        }
+        numSimbolos = listaNombres.size();
+        nombres = listaNombres.toArray(new String[0]);
+        inicial = g.getSimboloInicial() == null ? -1 : 0;
+
+        List<Integer> lhs = new ArrayList<>();
+        List<int[]> rhs = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        List<List<Integer>> porNoTerminal = new ArrayList<>();
+        for (int i = 0; i < numNoTerminales; i++) porNoTerminal.add(new ArrayList<>());
+
+        int siguiente = 0;
+        for (Map.Entry<String, List<String>> e : g.getProducciones().entrySet()) {
+            int a = indiceNoTerminal.get(e.getKey());
+            List<String> prods = e.getValue();
+            for (int k = 0; k < prods.size(); k++) {
+                int[] simbolos = separados.get(siguiente++);
+                for (int i = 0; i < simbolos.length; i++) {
+                    if (simbolos[i] < 0) simbolos[i] = terminalPorCaracter.get((char) ~simbolos[i]);
+                }
+                porNoTerminal.get(a).add(lhs.size());
+                lhs.add(a);
+                rhs.add(simbolos);
+                indices.add(k);
+            }
+        }
+
+        izquierda = lhs.stream().mapToInt(Integer::intValue).toArray();
+        derecha = rhs.toArray(new int[0][]);
+        indiceOriginal = indices.stream().mapToInt(Integer::intValue).toArray();
+        produccionesDe = new int[numNoTerminales][];
+        for (int i = 0; i < numNoTerminales; i++) {
+            produccionesDe[i] = porNoTerminal.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Separa el texto en símbolos: índice del no terminal (el nombre más largo que
+     * empieza en cada posición) o ~c para cualquier otro carácter c. Se omite ε.
+     */
+    private int[] separar(String texto) {
+        int[] simbolos = new int[texto.length()];
+        int n = 0;
+        int i = 0;
+        while (i < texto.length()) {
+            char c = texto.charAt(i);
+            String largo = null;
+            List<String> candidatos = ntLargos.get(c);
+            if (candidatos != null) {
+                for (String nt : candidatos) {
+                    if (texto.startsWith(nt, i)) {
+                        largo = nt;
+                        break;
+                    }
+                }
+            }
+            if (largo != null) {
+                simbolos[n++] = indiceNoTerminal.get(largo);
+                i += largo.length();
+                continue;
+            }
+            i++;
+            if (c == 'ε') continue;
+            Integer s = ntPorCaracter.get(c);
+            simbolos[n++] = s != null ? s : ~c;
+        }
+        return Arrays.copyOf(simbolos, n);
+    }
+
+    // Copia con los mismos símbolos y solo las producciones marcadas en conservar.
+    private GramaticaCompilada(GramaticaCompilada base, boolean[] conservar) {
+        numNoTerminales = base.numNoTerminales;
+        numSimbolos = base.numSimbolos;
+        nombres = base.nombres;
+        inicial = base.inicial;
+        terminalPorCaracter.putAll(base.terminalPorCaracter);
+        ntPorCaracter.putAll(base.ntPorCaracter);
+        ntLargos.putAll(base.ntLargos);
+        indiceNoTerminal.putAll(base.indiceNoTerminal);
+
+        int total = 0;
+        for (boolean c : conservar) if (c) total++;
+        izquierda = new int[total];
+        derecha = new int[total][];
+        indiceOriginal = new int[total];
+        int[] cuantas = new int[numNoTerminales];
+        int q = 0;
+        for (int p = 0; p < base.numProducciones(); p++) {
+            if (!conservar[p]) continue;
+            izquierda[q] = base.izquierda[p];
+            derecha[q] = base.derecha[p];
+            indiceOriginal[q] = base.indiceOriginal[p];
+            cuantas[izquierda[q]]++;
+            q++;
+        }
+        produccionesDe = new int[numNoTerminales][];
+        for (int a = 0; a < numNoTerminales; a++) produccionesDe[a] = new int[cuantas[a]];
+        Arrays.fill(cuantas, 0);
+        for (int p = 0; p < total; p++) produccionesDe[izquierda[p]][cuantas[izquierda[p]]++] = p;
+    }
+
+    static GramaticaCompilada de(GLC g) {
+        return new GramaticaCompilada(g);
+    }
+
+    /**
+     * Gramática con los mismos símbolos (y los mismos índices) pero solo con las
+     * producciones marcadas; se usa para quitar las producciones inútiles antes de
+     * los análisis costosos sin cambiar la numeración que ven los demás.
+     */
+    GramaticaCompilada restringir(boolean[] conservar) {
+        return new GramaticaCompilada(this, conservar);
+    }
+
+    /** Indica si el símbolo es un no terminal (los no terminales son los primeros índices). */
+    public boolean esNoTerminal(int simbolo) {
+        return simbolo < numNoTerminales;
+    }
+
+    public int getNumNoTerminales() { return numNoTerminales; }
+
+    public int getNumSimbolos() { return numSimbolos; }
+
+    /** Símbolo inicial, o -1 si la gramática no tiene. */
+    public int getSimboloInicial() { return inicial; }
+
+    /** Nombre del símbolo: el del no terminal o el carácter del terminal. */
+    public String getNombre(int simbolo) { return nombres[simbolo]; }
+
+    public int getIzquierda(int produccion) { return izquierda[produccion]; }
+
+    /** Copia del lado derecho de la producción (vacío para ε). */
+    public int[] getDerecha(int produccion) { return derecha[produccion].clone(); }
+
+    /** Índices de las producciones del no terminal, en el orden de la GLC. */
+    public int[] getProduccionesDe(int noTerminal) { return produccionesDe[noTerminal].clone(); }
+
+    public int numProducciones() {
+        return izquierda.length;
+    }
+
+    public int numTerminales() {
+        return numSimbolos - numNoTerminales;
+    }
+
+    /** Símbolo (no terminal o terminal) que representa el carácter, o -1 si no pertenece a la gramática. */
+    public int simboloDe(char c) {
+        Integer s = ntPorCaracter.get(c);
+        if (s == null) s = terminalPorCaracter.get(c);
+        return s == null ? -1 : s;
+    }
+
+    /** Índice del no terminal con ese nombre, o -1 si no existe. */
+    public int noTerminalDe(String nombre) {
+        Integer a = indiceNoTerminal.get(nombre);
+        return a == null ? -1 : a;
+    }
+
+    /**
+     * Codifica la cadena como una secuencia de símbolos terminales.
+     * @return los símbolos, o null si algún carácter no es terminal de la gramática.
+     */
+    public int[] codificar(String cadena) {
+        int[] simbolos = new int[cadena.length()];
+        for (int i = 0; i < cadena.length(); i++) {
+            Integer t = terminalPorCaracter.get(cadena.charAt(i));
+            if (t == null) return null;
+            simbolos[i] = t;
+        }
+        return simbolos;
+    }
+
+    /**
+     * Codifica una forma sentencial (terminales y no terminales, con la misma
+     * separación que los lados derechos).
+     * @return los símbolos, o null si algún carácter no pertenece a la gramática.
+     */
+    public int[] codificarForma(String forma) {
+        int[] simbolos = separar(forma);
+        for (int i = 0; i < simbolos.length; i++) {
+            if (simbolos[i] >= 0) continue;
+            Integer t = terminalPorCaracter.get((char) ~simbolos[i]);
+            if (t == null) return null;
+            simbolos[i] = t;
+        }
+        return simbolos;
+    }
+
+    /** Texto de una forma sentencial: los nombres concatenados, o ε si está vacía. */
+    public String texto(int[] forma) {
+        if (forma.length == 0) return "ε";
+        StringBuilder sb = new StringBuilder();
+        for (int s : forma) sb.append(nombres[s]);
+        return sb.toString();
+    }
+}
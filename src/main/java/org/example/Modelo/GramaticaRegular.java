@@ -246,6 +246,36 @@ public class GramaticaRegular {
         return afd;
     }
 
+    /**
+     * Determina si L(this) ⊆ L(otra) sin determinizar ninguna de las dos gramáticas.
+     * @see InclusionAntichain
+     */
+    public boolean estaIncluidaEn(GramaticaRegular otra) {
+        return InclusionAntichain.contraejemploInclusion(this, otra) == null;
+    }
+
+    /**
+     * Devuelve la palabra más corta generada por esta gramática y no por la otra.
+     * @return el contraejemplo ("" si es ε), o null si L(this) ⊆ L(otra).
+     */
+    public String contraejemploInclusion(GramaticaRegular otra) {
+        return InclusionAntichain.contraejemploInclusion(this, otra);
+    }
+
+    /**
+     * Determina si la gramática genera Σ*, con Σ el conjunto de sus terminales.
+     */
+    public boolean esUniversal() {
+        return InclusionAntichain.contraejemploUniversalidad(this) == null;
+    }
+
+    /**
+     * Devuelve la palabra más corta de Σ* que la gramática no genera, o null si es universal.
+     */
+    public String contraejemploUniversalidad() {
+        return InclusionAntichain.contraejemploUniversalidad(this);
+    }
+
     //  Getters
 
 
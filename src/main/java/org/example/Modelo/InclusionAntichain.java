@@ -0,0 +1,246 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Pruebas de inclusión L(A) ⊆ L(B) y universalidad L(B) = Σ* entre gramáticas
+ * regulares, trabajando directamente sobre el AFN que define cada gramática.
+ *
+ * En lugar de determinizar B (exponencial), se exploran pares (p, S) donde p es
+ * un estado de A y S el conjunto de estados de B alcanzados con la misma palabra.
+ * Un par (p, S) queda subsumido por otro (p, S') con S' ⊆ S: todo lo que rechaza
+ * S también lo rechaza S', así que basta conservar los conjuntos minimales
+ * (una antichain) por cada estado de A.
+ *
+ * La exploración es por anchura, de modo que el contraejemplo devuelto es una
+ * palabra de longitud mínima. Para no perder esa garantía, un par nuevo solo
+ * descarta a los que tienen su misma profundidad (o mayor): uno menos profundo
+ * que aún espera en la cola podría llegar antes a un contraejemplo, así que se
+ * conserva aunque su conjunto contenga al nuevo.
+ */
+public class InclusionAntichain {
+
+    private InclusionAntichain() {
+    }
+
+    /**
+     * Representación compacta del AFN de una gramática lineal por la derecha:
+     * un estado por no terminal más un estado final extra para A → a.
+     */
+    static class AFN {
+        final int numEstados;
+        final BitSet inicial = new BitSet();
+        final BitSet finales = new BitSet();
+        // transiciones.get(símbolo)[estado] = estados destino (null si no hay)
+        final Map<Character, int[][]> transiciones = new HashMap<>();
+        // Movimientos ε (producciones unitarias A → B)
+        final int[][] epsilon;
+
+        AFN(GramaticaRegular g) {
+            Map<String, Integer> indice = new HashMap<>();
+            indice.put(g.getSimboloInicial(), 0);
+            for (String nt : g.getNoTerminales()) indice.putIfAbsent(nt, indice.size());
+            for (String nt : g.getProducciones().keySet()) indice.putIfAbsent(nt, indice.size());
+            for (List<GramaticaRegular.Produccion> prods : g.getProducciones().values()) {
+                for (GramaticaRegular.Produccion p : prods) {
+                    if (p.getNoTerminal() != null) indice.putIfAbsent(p.getNoTerminal(), indice.size());
+                }
+            }
+            int estadoFinal = indice.size();
+            numEstados = estadoFinal + 1;
+            finales.set(estadoFinal);
+
+            Map<Character, List<List<Integer>>> temporal = new HashMap<>();
+            List<List<Integer>> eps = new ArrayList<>();
+            for (int i = 0; i < numEstados; i++) eps.add(new ArrayList<>());
+
+            for (Map.Entry<String, List<GramaticaRegular.Produccion>> e : g.getProducciones().entrySet()) {
+                int origen = indice.get(e.getKey());
+                for (GramaticaRegular.Produccion p : e.getValue()) {
+                    if (p.esEpsilon()) {
+                        finales.set(origen);
+                        continue;
+                    }
+                    int destino = p.getNoTerminal() == null ? estadoFinal : indice.get(p.getNoTerminal());
+                    if (p.getTerminal() == null) {
+                        eps.get(origen).add(destino);
+                        continue;
+                    }
+                    List<List<Integer>> porEstado = temporal.computeIfAbsent(p.getTerminal(), k -> {
+                        List<List<Integer>> l = new ArrayList<>();
+                        for (int i = 0; i < numEstados; i++) l.add(new ArrayList<>());
+                        return l;
+                    });
+                    porEstado.get(origen).add(destino);
+                }
+            }
+            for (Map.Entry<Character, List<List<Integer>>> e : temporal.entrySet()) {
+                transiciones.put(e.getKey(), aMatriz(e.getValue()));
+            }
+            epsilon = aMatriz(eps);
+            inicial.set(0);
+            cerrar(inicial);
+        }
+
+        /** AFN de un solo estado que acepta Σ* sobre el alfabeto dado. */
+        AFN(Set<Character> alfabeto) {
+            numEstados = 1;
+            inicial.set(0);
+            finales.set(0);
+            epsilon = new int[1][];
+            for (char a : alfabeto) transiciones.put(a, new int[][]{{0}});
+        }
+
+        private static int[][] aMatriz(List<List<Integer>> listas) {
+            int[][] m = new int[listas.size()][];
+            for (int i = 0; i < listas.size(); i++) {
+                if (listas.get(i).isEmpty()) continue;
+                m[i] = listas.get(i).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return m;
+        }
+
+        /** Aplica la cerradura ε sobre el conjunto (in situ). */
+        void cerrar(BitSet conjunto) {
+            Deque<Integer> pendientes = new ArrayDeque<>();
+            for (int s = conjunto.nextSetBit(0); s >= 0; s = conjunto.nextSetBit(s + 1)) pendientes.push(s);
+            while (!pendientes.isEmpty()) {
+                int[] destinos = epsilon[pendientes.pop()];
+                if (destinos == null) continue;
+                for (int d : destinos) {
+                    if (!conjunto.get(d)) {
+                        conjunto.set(d);
+                        pendientes.push(d);
+                    }
+                }
+            }
+        }
+
+        /** post_a(S): estados alcanzables desde S leyendo a (con cerradura ε). */
+        BitSet post(BitSet conjunto, char a) {
+            BitSet resultado = new BitSet(numEstados);
+            int[][] trans = transiciones.get(a);
+            if (trans == null) return resultado;
+            for (int s = conjunto.nextSetBit(0); s >= 0; s = conjunto.nextSetBit(s + 1)) {
+                if (trans[s] == null) continue;
+                for (int d : trans[s]) resultado.set(d);
+            }
+            cerrar(resultado);
+            return resultado;
+        }
+    }
+
+    /** Nodo de la búsqueda: par (estado de A, conjunto de B) y su palabra de llegada. */
+    private static class Par {
+        final int estadoA;
+        final BitSet conjuntoB;
+        final Par padre;
+        final char simbolo;
+        final int profundidad;      // Longitud de la palabra de llegada
+        boolean subsumido = false;
+
+        Par(int estadoA, BitSet conjuntoB, Par padre, char simbolo) {
+            this.estadoA = estadoA;
+            this.conjuntoB = conjuntoB;
+            this.padre = padre;
+            this.simbolo = simbolo;
+            this.profundidad = padre == null ? 0 : padre.profundidad + 1;
+        }
+
+        String palabra() {
+            StringBuilder sb = new StringBuilder();
+            for (Par p = this; p.padre != null; p = p.padre) sb.append(p.simbolo);
+            return sb.reverse().toString();
+        }
+    }
+
+    /**
+     * Busca una palabra de L(a) que no esté en L(b).
+     * @return el contraejemplo más corto ("" si es la palabra vacía), o null si L(a) ⊆ L(b).
+     */
+    public static String contraejemploInclusion(GramaticaRegular a, GramaticaRegular b) {
+        return buscar(new AFN(a), new AFN(b));
+    }
+
+    /**
+     * Busca una palabra de Σ* que no genere la gramática, con Σ = sus terminales.
+     * @return el contraejemplo más corto, o null si la gramática es universal.
+     */
+    public static String contraejemploUniversalidad(GramaticaRegular g) {
+        Set<Character> alfabeto = new TreeSet<>(g.getTerminales());
+        for (List<GramaticaRegular.Produccion> prods : g.getProducciones().values()) {
+            for (GramaticaRegular.Produccion p : prods) {
+                if (p.getTerminal() != null) alfabeto.add(p.getTerminal());
+            }
+        }
+        return buscar(new AFN(alfabeto), new AFN(g));
+    }
+
+    private static String buscar(AFN a, AFN b) {
+        Set<Character> alfabeto = new TreeSet<>(a.transiciones.keySet());
+
+        // antichain[p] = conjuntos minimales de B ya visitados junto con p
+        List<List<Par>> antichain = new ArrayList<>();
+        for (int i = 0; i < a.numEstados; i++) antichain.add(new ArrayList<>());
+
+        Deque<Par> cola = new ArrayDeque<>();
+        for (int p = a.inicial.nextSetBit(0); p >= 0; p = a.inicial.nextSetBit(p + 1)) {
+            Par inicial = new Par(p, b.inicial, null, '\0');
+            if (agregar(antichain, inicial)) cola.add(inicial);
+        }
+
+        while (!cola.isEmpty()) {
+            Par actual = cola.poll();
+            if (actual.subsumido) continue;
+
+            if (a.finales.get(actual.estadoA) && !actual.conjuntoB.intersects(b.finales)) {
+                return actual.palabra();
+            }
+
+            for (char c : alfabeto) {
+                int[] destinosA = a.transiciones.get(c)[actual.estadoA];
+                if (destinosA == null) continue;
+                BitSet siguienteB = b.post(actual.conjuntoB, c);
+                for (int q : destinosA) {
+                    BitSet destinos = new BitSet();
+                    destinos.set(q);
+                    a.cerrar(destinos);
+                    for (int q2 = destinos.nextSetBit(0); q2 >= 0; q2 = destinos.nextSetBit(q2 + 1)) {
+                        Par nuevo = new Par(q2, siguienteB, actual, c);
+                        if (agregar(antichain, nuevo)) cola.add(nuevo);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Inserta el par en la antichain de su estado si no está subsumido por uno
+     * existente; los pares de su misma profundidad o mayor que el nuevo subsume
+     * se marcan y se descartan.
+     */
+    private static boolean agregar(List<List<Par>> antichain, Par nuevo) {
+        List<Par> conjuntos = antichain.get(nuevo.estadoA);
+        for (Par existente : conjuntos) {
+            if (esSubconjunto(existente.conjuntoB, nuevo.conjuntoB)) return false;
+        }
+        Iterator<Par> it = conjuntos.iterator();
+        while (it.hasNext()) {
+            Par existente = it.next();
+            if (existente.profundidad >= nuevo.profundidad && esSubconjunto(nuevo.conjuntoB, existente.conjuntoB)) {
+                existente.subsumido = true;
+                it.remove();
+            }
+        }
+        conjuntos.add(nuevo);
+        return true;
+    }
+
+    private static boolean esSubconjunto(BitSet menor, BitSet mayor) {
+        for (int i = menor.nextSetBit(0); i >= 0; i = menor.nextSetBit(i + 1)) {
+            if (!mayor.get(i)) return false;
+        }
+        return true;
+    }
+}
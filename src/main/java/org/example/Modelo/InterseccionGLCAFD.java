@@ -0,0 +1,444 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Intersección de una {@link GLC} con un {@link AFD} (construcción de Bar-Hillel):
+ * decide si la gramática genera alguna cadena que el autómata acepta, devuelve
+ * la más corta y, si se pide, construye la GLC de la intersección sobre triples
+ * (p, A, q), "A deriva una cadena que lleva al autómata de p a q".
+ *
+ * En lugar de crear los |Q|² · |N| triples y todas las producciones posibles, se
+ * deducen solo los necesarios, como en Earley pero con estados del autómata en
+ * lugar de posiciones de la entrada. Un ítem (p, A → α·β, r) indica que α lleva
+ * de p a r; se predicen ítems solo para los pares (r, B) que algún ítem espera
+ * (se podan los triples inalcanzables) y un ítem avanza sobre B solo con triples
+ * (r, B, s) ya deducidos (se podan los improductivos). Los estados desde los que
+ * no se llega a uno final también se descartan, y la gramática se usa sin sus
+ * producciones inútiles ({@link GLC#getGramaticaUtil()}).
+ *
+ * Los hechos se procesan por longitud creciente de la cadena que representan
+ * (algoritmo de Knuth, una generalización de Dijkstra): el primer triple
+ * (q0, S, f) con f final que sale de la cola da el testigo más corto y la
+ * búsqueda se detiene ahí. Para la GLC de la intersección se continúa hasta
+ * agotar la cola. Como todo puede crecer con |Q|², la cantidad de hechos está
+ * acotada.
+ */
+public final class InterseccionGLCAFD {
+
+    /** Hechos (ítems y triples) que se procesan como máximo si no se indica otro límite. */
+    public static final long MAX_HECHOS = 5_000_000;
+
+    /** Longitud máxima del testigo que se reconstruye como texto. */
+    public static final long MAX_TESTIGO = 1_000_000;
+
+    private static final long INFINITA = Long.MAX_VALUE / 4;
+
+    private final GramaticaCompilada g;
+    private final String[] nombresEstados;
+    private final int numEstados;
+    private final int inicialAFD;
+    private final int[][] delta;           // delta[q][t - numNoTerminales], -1 si no hay transición
+    private final boolean[] finales;
+    private final boolean[] vivo;          // Desde el estado se llega a uno final
+    private final long maxHechos;
+
+    private final int[] baseRanura;
+    private final int[] produccionDeRanura;
+    private final int[] simboloTras;       // -1 si el ítem está completo
+
+    // Hecho → {longitud, orden en que se fijó (-1 mientras está en la cola)}
+    private final Map<Long, long[]> items = new HashMap<>();      // clave (ranura, p, r)
+    private final Map<Long, long[]> triples = new HashMap<>();    // clave (A, p, q)
+    private final Map<Long, List<Long>> esperando = new HashMap<>();     // (B, r) → ítems fijos que esperan B en r
+    private final Map<Long, List<Integer>> completos = new HashMap<>();  // (B, r) → s con (r, B, s) fijo
+    private final PriorityQueue<long[]> cola =                           // {longitud, tipo (0 ítem, 1 triple), clave}
+            new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    private long fijados;
+    private boolean agotada;
+    private long aceptado = -1;            // Clave del triple (q0, S, f) más corto, -1 si no hay
+
+    private GLC gramatica;
+    private Map<String, String> correspondencia;
+
+    public InterseccionGLCAFD(GLC glc, AFD afd) {
+        this(glc, afd, MAX_HECHOS);
+    }
+
+    /**
+     * @param maxHechos ítems y triples que se procesan como máximo.
+     * @throws IllegalArgumentException si la gramática o el autómata no tienen
+     *         símbolo o estado inicial, o si el límite no es positivo.
+     */
+    public InterseccionGLCAFD(GLC glc, AFD afd, long maxHechos) {
+        if (glc.getSimboloInicial() == null) {
+            throw new IllegalArgumentException("La gramática no tiene símbolo inicial");
+        }
+        if (afd.getEstadoInicial() == null) {
+            throw new IllegalArgumentException("El autómata no tiene estado inicial");
+        }
+        if (maxHechos <= 0) {
+            throw new IllegalArgumentException("El límite de hechos debe ser positivo");
+        }
+        this.g = glc.getGramaticaUtil();
+        this.maxHechos = maxHechos;
+
+        // Estados del autómata: el inicial primero y el resto en orden alfabético.
+        List<String> estados = new ArrayList<>();
+        estados.add(afd.getEstadoInicial());
+        for (String e : new TreeSet<>(afd.getEstados())) if (!e.equals(afd.getEstadoInicial())) estados.add(e);
+        numEstados = estados.size();
+        nombresEstados = estados.toArray(new String[0]);
+        Map<String, Integer> indice = new HashMap<>();
+        for (int i = 0; i < numEstados; i++) indice.put(nombresEstados[i], i);
+        inicialAFD = 0;
+
+        int n = g.numNoTerminales;
+        delta = new int[numEstados][g.numTerminales()];
+        finales = new boolean[numEstados];
+        List<List<Integer>> previos = new ArrayList<>();
+        for (int q = 0; q < numEstados; q++) previos.add(new ArrayList<>());
+        for (int q = 0; q < numEstados; q++) {
+            Arrays.fill(delta[q], -1);
+            finales[q] = afd.getEstadosFinales().contains(nombresEstados[q]);
+            Map<Character, String> trans = afd.getTransiciones().get(nombresEstados[q]);
+            if (trans == null) continue;
+            for (Map.Entry<Character, String> e : trans.entrySet()) {
+                int[] t = g.codificar(String.valueOf(e.getKey()));
+                Integer destino = indice.get(e.getValue());
+                if (t == null || destino == null) continue;   // Símbolos que la gramática no usa
+                delta[q][t[0] - n] = destino;
+                previos.get(destino).add(q);
+            }
+        }
+        // Estados vivos: recorrido hacia atrás desde los finales.
+        vivo = new boolean[numEstados];
+        Deque<Integer> pendientes = new ArrayDeque<>();
+        for (int q = 0; q < numEstados; q++) {
+            if (finales[q]) {
+                vivo[q] = true;
+                pendientes.add(q);
+            }
+        }
+        while (!pendientes.isEmpty()) {
+            for (int q : previos.get(pendientes.poll())) {
+                if (!vivo[q]) {
+                    vivo[q] = true;
+                    pendientes.add(q);
+                }
+            }
+        }
+
+        int total = 0;
+        baseRanura = new int[g.numProducciones()];
+        for (int p = 0; p < g.numProducciones(); p++) {
+            baseRanura[p] = total;
+            total += g.derecha[p].length + 1;
+        }
+        produccionDeRanura = new int[total];
+        simboloTras = new int[total];
+        for (int p = 0; p < g.numProducciones(); p++) {
+            int[] der = g.derecha[p];
+            for (int d = 0; d <= der.length; d++) {
+                produccionDeRanura[baseRanura[p] + d] = p;
+                simboloTras[baseRanura[p] + d] = d < der.length ? der[d] : -1;
+            }
+        }
+
+        if (vivo[inicialAFD]) predecir(g.inicial, inicialAFD);
+        deducir(true);
+    }
+
+    /** Indica si ninguna cadena de la gramática es aceptada por el autómata (ver {@link #esAgotada()}). */
+    public boolean esVacia() { return aceptado < 0; }
+
+    /** Indica si se alcanzó el límite de hechos antes de terminar: el resultado no es concluyente. */
+    public boolean esAgotada() { return agotada; }
+
+    /** Ítems y triples procesados hasta ahora. */
+    public long getHechos() { return fijados; }
+
+    /** Longitud de la cadena más corta de la intersección, o -1 si no hay. */
+    public long getLongitudTestigo() {
+        return aceptado < 0 ? -1 : triples.get(aceptado)[0];
+    }
+
+    /**
+     * La cadena más corta que la gramática genera y el autómata acepta, o null si
+     * no hay (o si supera {@link #MAX_TESTIGO} símbolos).
+     */
+    public String getTestigo() {
+        if (aceptado < 0 || getLongitudTestigo() > MAX_TESTIGO) return null;
+        return reconstruir(aceptado);
+    }
+
+    /**
+     * GLC de la intersección: un no terminal por cada triple (p, A, q) y por cada
+     * ítem intermedio (p, A → α·β, q) útiles, con nombres de un carácter (ver
+     * {@link #getCorrespondencia()}), y un inicial nuevo que deriva los triples
+     * (q0, S, f) con f final. Para construirla la deducción se completa.
+     * @return la gramática, o null si se alcanzó el límite de hechos.
+     */
+    public GLC getGramatica() {
+        if (gramatica != null) return gramatica;
+        deducir(false);
+        if (agotada) return null;
+        construirGramatica();
+        return gramatica;
+    }
+
+    /** Nombre de cada no terminal de {@link #getGramatica()} ↦ el triple o ítem que representa. */
+    public Map<String, String> getCorrespondencia() {
+        if (getGramatica() == null) return Collections.emptyMap();
+        return Collections.unmodifiableMap(correspondencia);
+    }
+
+    // --- Deducción ---
+
+    private long claveItem(int ranura, int p, int r) {
+        return ((long) ranura * numEstados + p) * numEstados + r;
+    }
+
+    private long claveTriple(int a, int p, int q) {
+        return ((long) a * numEstados + p) * numEstados + q;
+    }
+
+    private long clavePar(int b, int r) {
+        return (long) b * numEstados + r;
+    }
+
+    private static long sumar(long a, long b) {
+        return Math.min(a + b, INFINITA);
+    }
+
+    private void empujar(Map<Long, long[]> hechos, int tipo, long clave, long longitud) {
+        long[] v = hechos.get(clave);
+        if (v == null) {
+            hechos.put(clave, new long[]{longitud, -1});
+        } else if (v[1] < 0 && longitud < v[0]) {
+            v[0] = longitud;
+        } else {
+            return;
+        }
+        cola.add(new long[]{longitud, tipo, clave});
+    }
+
+    private void empujarItem(int ranura, int p, int r, long longitud) {
+        if (vivo[r]) empujar(items, 0, claveItem(ranura, p, r), longitud);
+    }
+
+    private void predecir(int b, int r) {
+        esperando.put(clavePar(b, r), new ArrayList<>());
+        for (int p : g.produccionesDe[b]) empujarItem(baseRanura[p], r, r, 0);
+    }
+
+    /**
+     * Procesa la cola por longitud creciente. Con {@code hastaAceptar} se detiene
+     * en el primer triple (q0, S, f) con f final.
+     */
+    private void deducir(boolean hastaAceptar) {
+        while (!cola.isEmpty() && !agotada) {
+            if (hastaAceptar && aceptado >= 0) return;
+            long[] e = cola.poll();
+            long longitud = e[0];
+            long clave = e[2];
+            long[] v = (e[1] == 0 ? items : triples).get(clave);
+            if (v[1] >= 0 || longitud > v[0]) continue;   // Ya fijado, o entrada vieja de la cola
+            if (fijados >= maxHechos) {
+                agotada = true;
+                return;
+            }
+            v[1] = fijados++;
+
+            if (e[1] == 0) {
+                int r = (int) (clave % numEstados);
+                int p = (int) (clave / numEstados % numEstados);
+                int ranura = (int) (clave / numEstados / numEstados);
+                int x = simboloTras[ranura];
+                if (x < 0) {
+                    empujar(triples, 1, claveTriple(g.izquierda[produccionDeRanura[ranura]], p, r), longitud);
+                } else if (!g.esNoTerminal(x)) {
+                    int s = delta[r][x - g.numNoTerminales];
+                    if (s >= 0) empujarItem(ranura + 1, p, s, sumar(longitud, 1));
+                } else {
+                    long par = clavePar(x, r);
+                    if (!esperando.containsKey(par)) predecir(x, r);
+                    esperando.get(par).add(clave);
+                    for (int s : completos.getOrDefault(par, Collections.emptyList())) {
+                        empujarItem(ranura + 1, p, s, sumar(longitud, triples.get(claveTriple(x, r, s))[0]));
+                    }
+                }
+            } else {
+                int q = (int) (clave % numEstados);
+                int p = (int) (clave / numEstados % numEstados);
+                int a = (int) (clave / numEstados / numEstados);
+                long par = clavePar(a, p);
+                completos.computeIfAbsent(par, k -> new ArrayList<>()).add(q);
+                for (long item : esperando.getOrDefault(par, Collections.emptyList())) {
+                    int ranura = (int) (item / numEstados / numEstados);
+                    int origen = (int) (item / numEstados % numEstados);
+                    empujarItem(ranura + 1, origen, q, sumar(items.get(item)[0], longitud));
+                }
+                if (a == g.inicial && p == inicialAFD && finales[q] && aceptado < 0) aceptado = clave;
+            }
+        }
+    }
+
+    // Valor fijo de un hecho, o null si no existe o no se fijó.
+    private static long[] fijo(Map<Long, long[]> hechos, long clave) {
+        long[] v = hechos.get(clave);
+        return v != null && v[1] >= 0 ? v : null;
+    }
+
+    /**
+     * Cadena de un triple fijo, con una pila explícita. Cada hecho se justifica
+     * con premisas que se fijaron antes que él y cuyas longitudes suman la suya;
+     * exigir un orden menor evita los ciclos de hechos de longitud 0.
+     */
+    private String reconstruir(long triple) {
+        StringBuilder sb = new StringBuilder();
+        Deque<long[]> pila = new ArrayDeque<>();   // {tipo (0 ítem, 1 triple, 2 terminal), clave}
+        pila.push(new long[]{1, triple});
+        while (!pila.isEmpty()) {
+            long[] tarea = pila.pop();
+            long clave = tarea[1];
+            if (tarea[0] == 2) {
+                sb.append(g.nombres[(int) clave]);
+            } else if (tarea[0] == 1) {
+                long[] v = triples.get(clave);
+                int q = (int) (clave % numEstados);
+                int p = (int) (clave / numEstados % numEstados);
+                int a = (int) (clave / numEstados / numEstados);
+                for (int prod : g.produccionesDe[a]) {
+                    long[] w = fijo(items, claveItem(baseRanura[prod] + g.derecha[prod].length, p, q));
+                    if (w != null && w[1] < v[1] && w[0] == v[0]) {
+                        pila.push(new long[]{0, claveItem(baseRanura[prod] + g.derecha[prod].length, p, q)});
+                        break;
+                    }
+                }
+            } else {
+                int ranura = (int) (clave / numEstados / numEstados);
+                int s = (int) (clave % numEstados);
+                int p = (int) (clave / numEstados % numEstados);
+                if (ranura == baseRanura[produccionDeRanura[ranura]]) continue;   // Punto al inicio: ε
+                long[] v = items.get(clave);
+                int x = simboloTras[ranura - 1];
+                for (int r = 0; r < numEstados; r++) {
+                    long[] previo = fijo(items, claveItem(ranura - 1, p, r));
+                    if (previo == null || previo[1] >= v[1]) continue;
+                    if (!g.esNoTerminal(x)) {
+                        if (delta[r][x - g.numNoTerminales] != s || sumar(previo[0], 1) != v[0]) continue;
+                        pila.push(new long[]{2, x});
+                    } else {
+                        long[] t = fijo(triples, claveTriple(x, r, s));
+                        if (t == null || t[1] >= v[1] || sumar(previo[0], t[0]) != v[0]) continue;
+                        pila.push(new long[]{1, claveTriple(x, r, s)});
+                    }
+                    pila.push(new long[]{0, claveItem(ranura - 1, p, r)});
+                    break;
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    // --- GLC de la intersección ---
+
+    private void construirGramatica() {
+        NombresLibres libres = new NombresLibres(Arrays.asList(g.nombres));
+        Map<Long, String> nombreTriple = new LinkedHashMap<>();
+        Map<Long, String> nombreItem = new LinkedHashMap<>();
+        Map<String, String> descripcion = new HashMap<>();
+        String inicio = libres.nuevo();
+        for (Map.Entry<Long, long[]> e : triples.entrySet()) {
+            if (e.getValue()[1] < 0) continue;
+            String nombre = libres.nuevo();
+            nombreTriple.put(e.getKey(), nombre);
+            long c = e.getKey();
+            descripcion.put(nombre, "(" + nombresEstados[(int) (c / numEstados % numEstados)] + ", "
+                    + g.nombres[(int) (c / numEstados / numEstados)] + ", " + nombresEstados[(int) (c % numEstados)] + ")");
+        }
+        for (Map.Entry<Long, long[]> e : items.entrySet()) {
+            long c = e.getKey();
+            int ranura = (int) (c / numEstados / numEstados);
+            int prod = produccionDeRanura[ranura];
+            int punto = ranura - baseRanura[prod];
+            if (e.getValue()[1] < 0 || punto == 0 || punto == g.derecha[prod].length) continue;
+            String nombre = libres.nuevo();
+            nombreItem.put(c, nombre);
+            int[] der = g.derecha[prod];
+            descripcion.put(nombre, "(" + nombresEstados[(int) (c / numEstados % numEstados)] + ", "
+                    + g.nombres[g.izquierda[prod]] + " → " + g.texto(Arrays.copyOf(der, punto)) + "·"
+                    + g.texto(Arrays.copyOfRange(der, punto, der.length)).replace("ε", "")
+                    + ", " + nombresEstados[(int) (c % numEstados)] + ")");
+        }
+
+        GLC resultado = new GLC();
+        resultado.setSimboloInicial(inicio);
+        resultado.agregarNoTerminal(inicio);
+        for (int t = g.numNoTerminales; t < g.numSimbolos; t++) resultado.agregarTerminal(g.nombres[t].charAt(0));
+        for (String nombre : nombreTriple.values()) resultado.agregarNoTerminal(nombre);
+        for (String nombre : nombreItem.values()) resultado.agregarNoTerminal(nombre);
+        for (int f = 0; f < numEstados; f++) {
+            String s = nombreTriple.get(claveTriple(g.inicial, inicialAFD, f));
+            if (finales[f] && s != null) resultado.agregarProduccion(inicio, s);
+        }
+        for (Map.Entry<Long, String> e : nombreTriple.entrySet()) {
+            long c = e.getKey();
+            int q = (int) (c % numEstados);
+            int p = (int) (c / numEstados % numEstados);
+            int a = (int) (c / numEstados / numEstados);
+            for (int prod : g.produccionesDe[a]) {
+                int fin = baseRanura[prod] + g.derecha[prod].length;
+                for (String cuerpo : cuerpos(fin, p, q, nombreTriple, nombreItem)) {
+                    resultado.agregarProduccion(e.getValue(), cuerpo);
+                }
+            }
+        }
+        for (Map.Entry<Long, String> e : nombreItem.entrySet()) {
+            long c = e.getKey();
+            for (String cuerpo : cuerpos((int) (c / numEstados / numEstados), (int) (c / numEstados % numEstados),
+                    (int) (c % numEstados), nombreTriple, nombreItem)) {
+                resultado.agregarProduccion(e.getValue(), cuerpo);
+            }
+        }
+
+        // Quedan triples e ítems deducidos que no llevan a la aceptación: se quitan.
+        gramatica = new SimplificacionGLC(resultado, false, false).getGramatica();
+        correspondencia = new LinkedHashMap<>();
+        correspondencia.put(inicio, "inicial");
+        for (String nt : gramatica.getProducciones().keySet()) {
+            if (descripcion.containsKey(nt)) correspondencia.put(nt, descripcion.get(nt));
+        }
+    }
+
+    /**
+     * Lados derechos del no terminal del ítem fijo (p, ranura, s): el ítem con el
+     * punto una posición antes (nada si queda al inicio) seguido del terminal o
+     * del triple con que se avanzó, para cada estado intermedio r.
+     */
+    private List<String> cuerpos(int ranura, int p, int s, Map<Long, String> nombreTriple, Map<Long, String> nombreItem) {
+        List<String> resultado = new ArrayList<>();
+        int prod = produccionDeRanura[ranura];
+        if (ranura == baseRanura[prod]) {
+            if (p == s) resultado.add("ε");
+            return resultado;
+        }
+        int x = simboloTras[ranura - 1];
+        boolean primero = ranura - 1 == baseRanura[prod];
+        for (int r = 0; r < numEstados; r++) {
+            if (primero ? r != p || fijo(items, claveItem(ranura - 1, p, r)) == null
+                    : !nombreItem.containsKey(claveItem(ranura - 1, p, r))) continue;
+            String avance;
+            if (!g.esNoTerminal(x)) {
+                if (delta[r][x - g.numNoTerminales] != s) continue;
+                avance = g.nombres[x];
+            } else {
+                avance = nombreTriple.get(claveTriple(x, r, s));
+                if (avance == null) continue;
+            }
+            resultado.add((primero ? "" : nombreItem.get(claveItem(ranura - 1, p, r))) + avance);
+        }
+        return resultado;
+    }
+}
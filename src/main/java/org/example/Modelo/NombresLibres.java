@@ -0,0 +1,38 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Genera nombres de un carácter para los no terminales nuevos que introducen las
+ * transformaciones de gramáticas (la GLC trata cada carácter como un símbolo).
+ * Primero se usan las mayúsculas libres y después letras Unicode a partir de U+0100.
+ */
+final class NombresLibres {
+
+    private final Set<Character> usados = new HashSet<>();
+    private char candidato = 'A';
+
+    NombresLibres(String... ocupados) {
+        this(Arrays.asList(ocupados));
+    }
+
+    NombresLibres(Iterable<String> ocupados) {
+        usados.add('ε');
+        for (String nombre : ocupados) {
+            if (nombre == null) continue;
+            for (char c : nombre.toCharArray()) usados.add(c);
+        }
+    }
+
+    /** Devuelve un carácter que no aparece en ningún nombre ocupado ni se entregó antes. */
+    String nuevo() {
+        while (usados.contains(candidato) || !Character.isLetter(candidato)) {
+            candidato = candidato == 'Z' ? 'Ā' : (char) (candidato + 1);
+            if (candidato == Character.MIN_SURROGATE) {
+                throw new IllegalArgumentException("No hay caracteres libres para los no terminales nuevos");
+            }
+        }
+        usados.add(candidato);
+        return String.valueOf(candidato);
+    }
+}
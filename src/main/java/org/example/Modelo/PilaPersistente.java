@@ -0,0 +1,113 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Pila inmutable de caracteres, como lista enlazada desde el tope: apilar crea
+ * un nodo que apunta a la pila anterior y desapilar devuelve el resto, así que
+ * las pilas que salen de una misma configuración comparten todo lo que tienen
+ * debajo y cada transición cuesta lo que apila, no lo que mide la pila.
+ *
+ * El tamaño y el hash se calculan al crear cada nodo a partir de los del resto,
+ * de modo que consultarlos es O(1). Comparar dos pilas recorre solo hasta el
+ * primer nodo que comparten.
+ */
+public final class PilaPersistente implements Iterable<Character> {
+
+    /** La pila vacía (única). */
+    public static final PilaPersistente VACIA = new PilaPersistente();
+
+    private final char tope;
+    private final PilaPersistente resto;   // null solo en VACIA
+    private final int tamanio;
+    private final int hash;
+
+    private PilaPersistente() {
+        tope = '\0';
+        resto = null;
+        tamanio = 0;
+        hash = 1;
+    }
+
+    private PilaPersistente(char tope, PilaPersistente resto) {
+        this.tope = tope;
+        this.resto = resto;
+        this.tamanio = resto.tamanio + 1;
+        this.hash = 31 * resto.hash + tope;
+    }
+
+    /** Pila con el carácter agregado en el tope. */
+    public PilaPersistente apilar(char c) {
+        return new PilaPersistente(c, this);
+    }
+
+    /** Pila con la cadena agregada de modo que su primer carácter queda en el tope. */
+    public PilaPersistente apilar(String cadena) {
+        PilaPersistente p = this;
+        for (int i = cadena.length() - 1; i >= 0; i--) p = new PilaPersistente(cadena.charAt(i), p);
+        return p;
+    }
+
+    /**
+     * Pila sin el tope.
+     * @throws IllegalArgumentException si la pila está vacía.
+     */
+    public PilaPersistente desapilar() {
+        if (resto == null) throw new IllegalArgumentException("La pila está vacía");
+        return resto;
+    }
+
+    /** Símbolo del tope, o null si la pila está vacía. */
+    public Character tope() {
+        return resto == null ? null : tope;
+    }
+
+    public boolean isEmpty() { return resto == null; }
+
+    public int size() { return tamanio; }
+
+    /** Recorre los símbolos desde el tope hasta el fondo. */
+    @Override
+    public Iterator<Character> iterator() {
+        return new Iterator<>() {
+            private PilaPersistente actual = PilaPersistente.this;
+
+            @Override public boolean hasNext() { return actual.resto != null; }
+
+            @Override public Character next() {
+                if (actual.resto == null) throw new NoSuchElementException();
+                char c = actual.tope;
+                actual = actual.resto;
+                return c;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PilaPersistente)) return false;
+        PilaPersistente a = this;
+        PilaPersistente b = (PilaPersistente) o;
+        if (a.tamanio != b.tamanio || a.hash != b.hash) return false;
+        // Del mismo tamaño, las dos llegan a la vez a un nodo compartido (a lo sumo VACIA).
+        while (a != b) {
+            if (a.tope != b.tope) return false;
+            a = a.resto;
+            b = b.resto;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() { return hash; }
+
+    /** Contenido con el tope a la izquierda, o "ε" si está vacía. */
+    @Override
+    public String toString() {
+        if (isEmpty()) return "ε";
+        StringBuilder sb = new StringBuilder(tamanio);
+        for (char c : this) sb.append(c);
+        return sb.toString();
+    }
+}
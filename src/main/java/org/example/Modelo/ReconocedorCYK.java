@@ -0,0 +1,203 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Reconocedor CYK (Cocke–Younger–Kasami) para una {@link GLC}.
+ *
+ * La gramática se convierte internamente a Forma Normal de Chomsky. Cada celda
+ * de la tabla (i, l) —subcadena que empieza en i y mide l— es un conjunto de bits
+ * sobre los no terminales de la FNC, empaquetado en palabras long. El costo en el
+ * peor caso es O(n³·|G|).
+ *
+ * El árbol sintáctico se extrae de la tabla y se traduce a la gramática original,
+ * de modo que puede sustituir a {@link GLC#generarArbolSintactico(String)}.
+ *
+ * La tabla ocupa n²·palabras longs aunque la gramática sea lineal; las entradas
+ * cuya tabla superaría {@link #MAX_PALABRAS_TABLA} se rechazan antes de reservarla.
+ */
+public class ReconocedorCYK {
+
+    /** Longs que puede ocupar la tabla de una entrada (256 MB). */
+    public static final long MAX_PALABRAS_TABLA = 1L << 25;
+
+    private final FormaNormalChomsky fnc;
+    private final int palabras;             // longs por celda
+
+    // Producciones A → B C agrupadas por B (para llenar la tabla)
+    private final int[][] binariasPorB;
+    // Producciones A → B C agrupadas por A (para extraer el árbol)
+    private final int[][] binariasPorA;
+    // porTerminal[t] = producciones A → t
+    private final int[][] porTerminal;
+
+    public ReconocedorCYK(GLC glc) {
+        this(glc.getFormaNormalChomsky());
+    }
+
+    ReconocedorCYK(FormaNormalChomsky fnc) {
+        this.fnc = fnc;
+        int m = fnc.numNoTerminales;
+        this.palabras = (m + 63) >>> 6;
+
+        List<List<Integer>> porB = new ArrayList<>();
+        List<List<Integer>> porA = new ArrayList<>();
+        for (int i = 0; i < m; i++) {
+            porB.add(new ArrayList<>());
+            porA.add(new ArrayList<>());
+        }
+        List<List<Integer>> porT = new ArrayList<>();
+        for (int t = 0; t < fnc.numTerminales; t++) porT.add(new ArrayList<>());
+
+        for (int p = 0; p < fnc.izquierda.length; p++) {
+            int[] der = fnc.derecha[p];
+            if (der.length == 2) {
+                porB.get(der[0]).add(p);
+                porA.get(fnc.izquierda[p]).add(p);
+            } else {
+                porT.get(~der[0]).add(p);
+            }
+        }
+        binariasPorB = aMatriz(porB);
+        binariasPorA = aMatriz(porA);
+        porTerminal = aMatriz(porT);
+    }
+
+    private static int[][] aMatriz(List<List<Integer>> listas) {
+        int[][] m = new int[listas.size()][];
+        for (int i = 0; i < m.length; i++) {
+            m[i] = listas.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return m;
+    }
+
+    /**
+     * Determina si la cadena pertenece al lenguaje de la gramática.
+     * @throws IllegalArgumentException si la cadena es demasiado larga para la tabla.
+     */
+    public boolean reconoce(String cadena) {
+        int[] simbolos = codificar(cadena);
+        if (simbolos == null) return false;
+        if (simbolos.length == 0) return fnc.inicialAnulable;
+        return contiene(llenarTabla(simbolos), simbolos.length, 0, simbolos.length, fnc.inicial);
+    }
+
+    // Símbolos como índices de terminal (0..numTerminales-1), o null si hay caracteres ajenos.
+    private int[] codificar(String cadena) {
+        int[] simbolos = fnc.original.codificar(cadena);
+        if (simbolos == null) return null;
+        for (int i = 0; i < simbolos.length; i++) simbolos[i] -= fnc.original.numNoTerminales;
+        return simbolos;
+    }
+
+    /**
+     * Llena la tabla CYK para una entrada no vacía. La tabla es local a cada
+     * llamada, así que un mismo reconocedor puede usarse desde varios hilos.
+     * @throws IllegalArgumentException si la tabla superaría {@link #MAX_PALABRAS_TABLA}.
+     */
+    private long[] llenarTabla(int[] simbolos) {
+        int n = simbolos.length;
+        if ((long) n * n * palabras > MAX_PALABRAS_TABLA) {
+            throw new IllegalArgumentException("La tabla CYK de una cadena de " + n + " símbolos ocuparía "
+                    + ((long) n * n * palabras * 8 >> 20) + " MB; use otro motor");
+        }
+        long[] tabla = new long[n * n * palabras];
+
+        // Subcadenas de longitud 1: A → a
+        for (int i = 0; i < n; i++) {
+            int base = celda(n, i, 1);
+            for (int p : porTerminal[simbolos[i]]) {
+                int a = fnc.izquierda[p];
+                tabla[base + (a >>> 6)] |= 1L << a;
+            }
+        }
+
+        // Subcadenas de longitud l ≥ 2: A → B C con B en (i, k) y C en (i+k, l-k)
+        for (int l = 2; l <= n; l++) {
+            for (int i = 0; i + l <= n; i++) {
+                int destino = celda(n, i, l);
+                for (int k = 1; k < l; k++) {
+                    int izq = celda(n, i, k);
+                    int der = celda(n, i + k, l - k);
+                    for (int w = 0; w < palabras; w++) {
+                        long bits = tabla[izq + w];
+                        while (bits != 0) {
+                            int b = (w << 6) + Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1;
+                            for (int p : binariasPorB[b]) {
+                                int c = fnc.derecha[p][1];
+                                if ((tabla[der + (c >>> 6)] & (1L << c)) != 0) {
+                                    int a = fnc.izquierda[p];
+                                    tabla[destino + (a >>> 6)] |= 1L << a;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return tabla;
+    }
+
+    /**
+     * Genera el árbol sintáctico de la cadena en términos de la gramática original.
+     * @return la raíz del árbol, o null si la cadena no pertenece al lenguaje.
+     * @throws IllegalArgumentException si la cadena es demasiado larga para la tabla.
+     */
+    public GLC.NodoArbol arbol(String cadena) {
+        int[] entrada = codificar(cadena);
+        if (entrada == null) return null;
+        List<GLC.NodoArbol> raiz;
+        if (entrada.length == 0) {
+            if (!fnc.inicialAnulable) return null;
+            raiz = fnc.expandirVacia();
+        } else {
+            long[] tabla = llenarTabla(entrada);
+            if (!contiene(tabla, entrada.length, 0, entrada.length, fnc.inicial)) return null;
+            raiz = extraer(tabla, entrada, fnc.inicial, 0, entrada.length);
+        }
+        return raiz.isEmpty() ? null : raiz.get(0);
+    }
+
+    // Reconstruye el subárbol del no terminal A sobre la subcadena (i, l).
+    private List<GLC.NodoArbol> extraer(long[] tabla, int[] entrada, int a, int i, int l) {
+        int n = entrada.length;
+        if (l == 1) {
+            for (int p : porTerminal[entrada[i]]) {
+                if (fnc.izquierda[p] == a) {
+                    return fnc.expandir(p, Collections.singletonList(
+                            Collections.singletonList(fnc.hojaTerminal(entrada[i]))));
+                }
+            }
+            return Collections.emptyList();
+        }
+        // En FNC no hay producciones unitarias ni ε, así que cualquier partición válida termina.
+        for (int k = 1; k < l; k++) {
+            for (int p : binariasPorA[a]) {
+                int b = fnc.derecha[p][0];
+                int c = fnc.derecha[p][1];
+                if (contiene(tabla, n, i, k, b) && contiene(tabla, n, i + k, l - k, c)) {
+                    return fnc.expandir(p, Arrays.asList(
+                            extraer(tabla, entrada, b, i, k),
+                            extraer(tabla, entrada, c, i + k, l - k)));
+                }
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    // Posición de la celda (i, l) para una entrada de longitud n.
+    private int celda(int n, int i, int l) {
+        return ((l - 1) * n + i) * palabras;
+    }
+
+    private boolean contiene(long[] tabla, int n, int i, int l, int a) {
+        return (tabla[celda(n, i, l) + (a >>> 6)] & (1L << a)) != 0;
+    }
+
+    /** Número de no terminales de la gramática en FNC (incluye auxiliares). */
+    public int getNoTerminalesFNC() { return fnc.numNoTerminales; }
+
+    /** Número de producciones de la gramática en FNC. */
+    public int getProduccionesFNC() { return fnc.izquierda.length; }
+}
@@ -0,0 +1,169 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Reconocedor perezoso de expresiones regulares basado en derivadas de Brzozowski.
+ *
+ * Cada estado del AFD equivalente es una {@link ExpresionRegular} (hash-consed),
+ * y las transiciones se calculan y memorizan solo cuando la entrada las recorre.
+ * Para patrones que se usan pocas veces esto evita construir el AFD completo.
+ *
+ * Si el patrón se vuelve "caliente" (se usa al menos {@code umbralCaliente} veces),
+ * el reconocedor materializa el AFD completo en una tabla de transiciones y lo
+ * usa a partir de ese momento. El AFD también puede obtenerse con {@link #aAFD()}.
+ */
+public class ReconocedorDerivadas {
+
+    /** Número de usos por defecto a partir del cual se materializa el AFD. */
+    public static final int UMBRAL_CALIENTE_POR_DEFECTO = 64;
+
+    private final ExpresionRegular.Fabrica fabrica;
+    private final ExpresionRegular inicial;
+    private final String patron;
+
+    // Alfabeto del AFD: símbolos del patrón más los agregados explícitamente.
+    private final Set<Character> alfabeto = new TreeSet<>();
+
+    private int umbralCaliente = UMBRAL_CALIENTE_POR_DEFECTO;
+    private int usos = 0;
+
+    // --- AFD materializado (solo cuando el patrón es caliente) ---
+    private Map<Character, Integer> indiceSimbolo;
+    private int[][] tabla;          // tabla[estado][símbolo] = destino, -1 = sin transición
+    private boolean[] aceptacion;
+
+    /**
+     * Crea un reconocedor para el patrón dado.
+     * @param patron expresión regular en la sintaxis de {@link ExpresionRegular}.
+     */
+    public ReconocedorDerivadas(String patron) {
+        this.patron = patron;
+        this.fabrica = new ExpresionRegular.Fabrica();
+        this.inicial = fabrica.parsear(patron);
+        inicial.recolectarSimbolos(alfabeto);
+    }
+
+    /** Agrega símbolos al alfabeto del AFD (por ejemplo, el Σ de otro autómata). */
+    public void agregarSimbolos(Collection<Character> simbolos) {
+        if (alfabeto.addAll(simbolos)) {
+            tabla = null; // El AFD materializado ya no cubre el alfabeto completo.
+        }
+    }
+
+    public void setUmbralCaliente(int umbral) { this.umbralCaliente = umbral; }
+
+    /**
+     * Determina si la cadena pertenece al lenguaje del patrón.
+     * Recorre el AFD implícito derivando símbolo por símbolo; se detiene en
+     * cuanto llega al estado ∅ (ninguna continuación puede aceptar).
+     */
+    public boolean acepta(String cadena) {
+        usos++;
+        if (tabla == null && usos >= umbralCaliente) {
+            materializar();
+        }
+        if (tabla != null) {
+            return aceptaConTabla(cadena);
+        }
+
+        ExpresionRegular estado = inicial;
+        for (int i = 0; i < cadena.length(); i++) {
+            estado = estado.derivar(cadena.charAt(i));
+            if (estado.esVacia()) return false;
+        }
+        return estado.esAnulable();
+    }
+
+    private boolean aceptaConTabla(String cadena) {
+        int estado = 0;
+        for (int i = 0; i < cadena.length(); i++) {
+            Integer s = indiceSimbolo.get(cadena.charAt(i));
+            if (s == null) return false;
+            estado = tabla[estado][s];
+            if (estado < 0) return false;
+        }
+        return aceptacion[estado];
+    }
+
+    /**
+     * Explora por anchura todas las derivadas alcanzables y construye la tabla
+     * de transiciones. El estado ∅ se omite: una transición ausente rechaza.
+     */
+    private void materializar() {
+        List<ExpresionRegular> estados = explorarEstados();
+        Map<ExpresionRegular, Integer> numero = new IdentityHashMap<>();
+        for (int i = 0; i < estados.size(); i++) numero.put(estados.get(i), i);
+
+        indiceSimbolo = new HashMap<>();
+        List<Character> simbolos = new ArrayList<>(alfabeto);
+        for (int s = 0; s < simbolos.size(); s++) indiceSimbolo.put(simbolos.get(s), s);
+
+        tabla = new int[estados.size()][simbolos.size()];
+        aceptacion = new boolean[estados.size()];
+        for (int i = 0; i < estados.size(); i++) {
+            ExpresionRegular e = estados.get(i);
+            aceptacion[i] = e.esAnulable();
+            for (int s = 0; s < simbolos.size(); s++) {
+                Integer destino = numero.get(e.derivar(simbolos.get(s)));
+                tabla[i][s] = destino == null ? -1 : destino;
+            }
+        }
+    }
+
+    // Estados alcanzables desde la expresión inicial, en orden de descubrimiento.
+    private List<ExpresionRegular> explorarEstados() {
+        List<ExpresionRegular> estados = new ArrayList<>();
+        Set<ExpresionRegular> vistos = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (inicial.esVacia()) {
+            estados.add(inicial);
+            return estados;
+        }
+        estados.add(inicial);
+        vistos.add(inicial);
+        for (int i = 0; i < estados.size(); i++) {
+            for (char a : alfabeto) {
+                ExpresionRegular d = estados.get(i).derivar(a);
+                if (!d.esVacia() && vistos.add(d)) estados.add(d);
+            }
+        }
+        return estados;
+    }
+
+    /**
+     * Construye un {@link AFD} equivalente al patrón. Los estados se nombran
+     * q0, q1, ... en orden de descubrimiento (q0 es el inicial).
+     */
+    public AFD aAFD() {
+        List<ExpresionRegular> estados = explorarEstados();
+        Map<ExpresionRegular, String> nombre = new IdentityHashMap<>();
+
+        AFD afd = new AFD();
+        for (int i = 0; i < estados.size(); i++) {
+            nombre.put(estados.get(i), "q" + i);
+            afd.agregarEstado("q" + i);
+        }
+        for (char a : alfabeto) afd.agregarSimbolo(a);
+        afd.setEstadoInicial("q0");
+
+        for (ExpresionRegular e : estados) {
+            if (e.esAnulable()) afd.agregarEstadoFinal(nombre.get(e));
+            if (e.esVacia()) continue;
+            for (char a : alfabeto) {
+                String destino = nombre.get(e.derivar(a));
+                if (destino != null) afd.agregarTransicion(nombre.get(e), a, destino);
+            }
+        }
+        return afd;
+    }
+
+    /** Indica si el patrón ya superó el umbral de usos y trabaja con la tabla del AFD. */
+    public boolean esCaliente() { return tabla != null; }
+
+    public int getUsos() { return usos; }
+    public String getPatron() { return patron; }
+    public Set<Character> getAlfabeto() { return alfabeto; }
+
+    /** Número de expresiones distintas creadas hasta ahora (estados construidos de forma perezosa). */
+    public int getEstadosConstruidos() { return fabrica.tamano(); }
+}
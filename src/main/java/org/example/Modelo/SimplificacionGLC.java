@@ -0,0 +1,403 @@
+package org.example.Modelo;
+
+import java.util.*;
+
+/**
+ * Simplificación de una {@link GLC}: elimina los símbolos inútiles, las
+ * producciones unitarias y (si se pide) las producciones ε, e informa lo que se
+ * quitó en cada paso. La GLC original no se modifica.
+ *
+ * Todos los pasos trabajan sobre los símbolos enteros de la gramática compilada
+ * con listas de trabajo:
+ * - Generadores: cada producción lleva un contador de no terminales del lado
+ *   derecho que aún no se sabe que generen; al confirmar un no terminal se
+ *   descuentan sus apariciones, y la producción que llega a 0 hace generador a su
+ *   lado izquierdo. Cada aparición se visita una vez, así que es lineal en el
+ *   tamaño de la gramática. Los anulables se calculan igual.
+ * - Alcanzables: recorrido en anchura desde el inicial por las producciones útiles.
+ * - Unitarias: para cada no terminal A, recorrido en anchura por las producciones
+ *   A → B; A recibe las producciones no unitarias de todo lo alcanzado.
+ * - ε: cada producción se expande en las variantes que omiten sus apariciones de
+ *   anulables. Esto puede multiplicar las producciones, por eso es opcional y está
+ *   acotado por {@link #MAX_VARIANTES}.
+ *
+ * Los pasos se aplican en el orden ε, unitarias, inútiles (después de quitar los
+ * inútiles una primera vez), que es el que garantiza que el resultado no tenga
+ * símbolos inútiles.
+ */
+public final class SimplificacionGLC {
+
+    /** Variantes sin anulables que puede generar una sola producción al eliminar ε. */
+    public static final int MAX_VARIANTES = 1 << 16;
+
+    // Gramática de trabajo: no terminales 0..m-1, terminal t de la compilada como ~t.
+    private final GramaticaCompilada g;
+    private final List<String> nombresNT = new ArrayList<>();
+    private final List<List<int[]>> reglas = new ArrayList<>();
+    private int inicio;
+
+    private final List<String> reporte = new ArrayList<>();
+    private final Set<Integer> descartados = new HashSet<>();   // No terminales ya informados como inútiles
+    private final int produccionesAntes;
+    private final GLC gramatica;
+
+    /** Símbolos útiles de una gramática: generadores, alcanzables y las producciones que los usan. */
+    static final class Utiles {
+        final boolean[] generador;
+        final boolean[] alcanzable;
+        final boolean[] conservar;    // Por producción
+
+        private Utiles(boolean[] generador, boolean[] alcanzable, boolean[] conservar) {
+            this.generador = generador;
+            this.alcanzable = alcanzable;
+            this.conservar = conservar;
+        }
+    }
+
+    /**
+     * Simplifica la gramática. Los símbolos inútiles se eliminan siempre.
+     * @param eliminarUnitarias quitar las producciones A → B.
+     * @param eliminarEpsilon quitar las producciones ε (si ε está en el lenguaje,
+     *        solo el inicial conserva A → ε y no aparece en ningún lado derecho).
+     * @throws IllegalArgumentException si la gramática no tiene símbolo inicial o
+     *         una producción supera {@link #MAX_VARIANTES} al eliminar ε.
+     */
+    public SimplificacionGLC(GLC glc, boolean eliminarUnitarias, boolean eliminarEpsilon) {
+        if (glc.getSimboloInicial() == null) {
+            throw new IllegalArgumentException("La gramática no tiene símbolo inicial");
+        }
+        this.g = glc.compilar();
+        int n = g.numNoTerminales;
+        for (int a = 0; a < n; a++) {
+            nombresNT.add(g.nombres[a]);
+            List<int[]> lista = new ArrayList<>();
+            for (int p : g.produccionesDe[a]) {
+                int[] der = g.derecha[p].clone();
+                for (int i = 0; i < der.length; i++) if (!g.esNoTerminal(der[i])) der[i] = ~der[i];
+                lista.add(der);
+            }
+            reglas.add(lista);
+        }
+        inicio = g.inicial;
+        produccionesAntes = g.numProducciones();
+
+        quitarInutiles();
+        if (eliminarEpsilon) quitarEpsilon();
+        if (eliminarUnitarias) quitarUnitarias();
+        if (eliminarEpsilon || eliminarUnitarias) quitarInutiles();
+        gramatica = construir();
+    }
+
+    /** La gramática simplificada. */
+    public GLC getGramatica() { return gramatica; }
+
+    /** Descripción de lo que se quitó o agregó en cada paso, en orden. */
+    public List<String> getReporte() { return Collections.unmodifiableList(reporte); }
+
+    public int getProduccionesAntes() { return produccionesAntes; }
+
+    public int getProduccionesDespues() {
+        int total = 0;
+        for (List<int[]> lista : reglas) total += lista.size();
+        return total;
+    }
+
+    /**
+     * Producciones útiles de la gramática compilada (las que aparecen en alguna
+     * derivación completa desde el inicial). Los motores costosos trabajan sobre
+     * la gramática restringida a ellas ({@link GLC#getGramaticaUtil()}).
+     */
+    static boolean[] utiles(GramaticaCompilada g) {
+        return utiles(g.numNoTerminales, g.inicial, g.izquierda, g.derecha).conservar;
+    }
+
+    /**
+     * Generadores, alcanzables y producciones útiles. Los no terminales son los
+     * símbolos de [0, numNT); cualquier otro valor es un terminal.
+     */
+    static Utiles utiles(int numNT, int inicial, int[] izquierda, int[][] derecha) {
+        int total = izquierda.length;
+        int[] pendientes = new int[total];
+        int[] cuantas = new int[numNT];
+        for (int p = 0; p < total; p++) {
+            for (int s : derecha[p]) {
+                if (s >= 0 && s < numNT) {
+                    pendientes[p]++;
+                    cuantas[s]++;
+                }
+            }
+        }
+        // apariciones[s] = producciones en cuyo lado derecho aparece s (con repetición)
+        int[][] apariciones = new int[numNT][];
+        for (int a = 0; a < numNT; a++) apariciones[a] = new int[cuantas[a]];
+        Arrays.fill(cuantas, 0);
+        for (int p = 0; p < total; p++) {
+            for (int s : derecha[p]) if (s >= 0 && s < numNT) apariciones[s][cuantas[s]++] = p;
+        }
+
+        boolean[] generador = new boolean[numNT];
+        int[] cola = new int[numNT];
+        int fin = 0;
+        for (int p = 0; p < total; p++) {
+            if (pendientes[p] == 0 && !generador[izquierda[p]]) {
+                generador[izquierda[p]] = true;
+                cola[fin++] = izquierda[p];
+            }
+        }
+        for (int i = 0; i < fin; i++) {
+            for (int p : apariciones[cola[i]]) {
+                if (--pendientes[p] == 0 && !generador[izquierda[p]]) {
+                    generador[izquierda[p]] = true;
+                    cola[fin++] = izquierda[p];
+                }
+            }
+        }
+
+        // Una producción es útil si todos sus no terminales generan; se alcanza por ellas.
+        boolean[] completa = new boolean[total];
+        int[][] porNT = new int[numNT][];
+        Arrays.fill(cuantas, 0);
+        for (int p = 0; p < total; p++) {
+            completa[p] = pendientes[p] == 0;
+            cuantas[izquierda[p]]++;
+        }
+        for (int a = 0; a < numNT; a++) porNT[a] = new int[cuantas[a]];
+        Arrays.fill(cuantas, 0);
+        for (int p = 0; p < total; p++) porNT[izquierda[p]][cuantas[izquierda[p]]++] = p;
+
+        boolean[] alcanzable = new boolean[numNT];
+        fin = 0;
+        if (inicial >= 0 && generador[inicial]) {
+            alcanzable[inicial] = true;
+            cola[fin++] = inicial;
+        }
+        for (int i = 0; i < fin; i++) {
+            for (int p : porNT[cola[i]]) {
+                if (!completa[p]) continue;
+                for (int s : derecha[p]) {
+                    if (s >= 0 && s < numNT && !alcanzable[s]) {
+                        alcanzable[s] = true;
+                        cola[fin++] = s;
+                    }
+                }
+            }
+        }
+
+        boolean[] conservar = new boolean[total];
+        for (int p = 0; p < total; p++) conservar[p] = completa[p] && alcanzable[izquierda[p]];
+        return new Utiles(generador, alcanzable, conservar);
+    }
+
+    // --- Pasos ---
+
+    private void quitarInutiles() {
+        int m = nombresNT.size();
+        List<Integer> lhs = new ArrayList<>();
+        List<int[]> rhs = new ArrayList<>();
+        for (int a = 0; a < m; a++) {
+            for (int[] der : reglas.get(a)) {
+                lhs.add(a);
+                rhs.add(der);
+            }
+        }
+        int[] izquierda = lhs.stream().mapToInt(Integer::intValue).toArray();
+        Utiles u = utiles(m, inicio, izquierda, rhs.toArray(new int[0][]));
+
+        List<String> noGeneradores = new ArrayList<>();
+        List<String> inalcanzables = new ArrayList<>();
+        for (int a = 0; a < m; a++) {
+            if (u.alcanzable[a] || !descartados.add(a)) continue;
+            if (!u.generador[a]) noGeneradores.add(nombresNT.get(a));
+            else inalcanzables.add(nombresNT.get(a));
+        }
+        int quitadas = 0;
+        int p = 0;
+        for (int a = 0; a < m; a++) {
+            List<int[]> nuevas = new ArrayList<>();
+            for (int[] der : reglas.get(a)) {
+                if (u.conservar[p++]) nuevas.add(der);
+                else quitadas++;
+            }
+            reglas.set(a, nuevas);
+        }
+
+        if (!u.generador[inicio]) reporte.add("El símbolo inicial no genera ninguna cadena: el lenguaje es vacío");
+        if (!noGeneradores.isEmpty()) reporte.add("No generadores eliminados: " + String.join(", ", noGeneradores));
+        if (!inalcanzables.isEmpty()) reporte.add("Inalcanzables eliminados: " + String.join(", ", inalcanzables));
+        if (quitadas > 0) reporte.add("Producciones inútiles eliminadas: " + quitadas);
+    }
+
+    private void quitarEpsilon() {
+        int m = nombresNT.size();
+        boolean[] anulable = anulables();
+
+        List<String> quitadas = new ArrayList<>();
+        for (int a = 0; a < m; a++) {
+            LinkedHashMap<List<Integer>, int[]> nuevas = new LinkedHashMap<>();
+            for (int[] der : reglas.get(a)) {
+                if (der.length == 0) {
+                    quitadas.add(nombresNT.get(a) + " → ε");
+                    continue;
+                }
+                for (int[] variante : variantes(a, der, anulable)) nuevas.putIfAbsent(clave(variante), variante);
+            }
+            reglas.set(a, new ArrayList<>(nuevas.values()));
+        }
+        if (!quitadas.isEmpty()) reporte.add("Producciones ε eliminadas: " + String.join(", ", quitadas));
+
+        if (anulable[inicio]) {
+            boolean enLadoDerecho = false;
+            for (List<int[]> lista : reglas) {
+                for (int[] der : lista) for (int s : der) enLadoDerecho |= s == inicio;
+            }
+            if (enLadoDerecho) {
+                // Inicial nuevo que no aparece a la derecha: S' → S | ε.
+                // Se reservan también los terminales: un no terminal con el nombre de
+                // un terminal haría que este se leyera como no terminal.
+                List<String> ocupados = new ArrayList<>(nombresNT);
+                ocupados.addAll(Arrays.asList(g.nombres));
+                String nombre = new NombresLibres(ocupados).nuevo();
+                List<int[]> lista = new ArrayList<>();
+                lista.add(new int[]{inicio});
+                lista.add(new int[0]);
+                nombresNT.add(nombre);
+                reglas.add(lista);
+                reporte.add("ε pertenece al lenguaje: nuevo inicial " + nombre + " → " + nombresNT.get(inicio) + " | ε");
+                inicio = m;
+            } else {
+                reglas.get(inicio).add(new int[0]);
+                reporte.add("ε pertenece al lenguaje: se conserva " + nombresNT.get(inicio) + " → ε");
+            }
+        }
+        int total = 0;
+        for (List<int[]> lista : reglas) total += lista.size();
+        reporte.add("Producciones tras eliminar ε: " + total);
+    }
+
+    // Anulables con un contador por producción (símbolos del lado derecho aún no anulables).
+    private boolean[] anulables() {
+        int m = nombresNT.size();
+        List<Integer> lhs = new ArrayList<>();
+        List<Integer> pendientes = new ArrayList<>();
+        List<List<Integer>> apariciones = new ArrayList<>();
+        for (int a = 0; a < m; a++) apariciones.add(new ArrayList<>());
+        for (int a = 0; a < m; a++) {
+            for (int[] der : reglas.get(a)) {
+                boolean conTerminal = false;
+                for (int s : der) conTerminal |= s < 0;
+                if (conTerminal) continue;
+                for (int s : der) apariciones.get(s).add(lhs.size());
+                lhs.add(a);
+                pendientes.add(der.length);
+            }
+        }
+        boolean[] anulable = new boolean[m];
+        Deque<Integer> cola = new ArrayDeque<>();
+        for (int p = 0; p < lhs.size(); p++) {
+            if (pendientes.get(p) == 0 && !anulable[lhs.get(p)]) {
+                anulable[lhs.get(p)] = true;
+                cola.add(lhs.get(p));
+            }
+        }
+        while (!cola.isEmpty()) {
+            for (int p : apariciones.get(cola.poll())) {
+                int resto = pendientes.get(p) - 1;
+                pendientes.set(p, resto);
+                if (resto == 0 && !anulable[lhs.get(p)]) {
+                    anulable[lhs.get(p)] = true;
+                    cola.add(lhs.get(p));
+                }
+            }
+        }
+        return anulable;
+    }
+
+    // Variantes no vacías de la producción que omiten algunas apariciones de anulables.
+    private List<int[]> variantes(int a, int[] der, boolean[] anulable) {
+        int k = 0;
+        for (int s : der) if (s >= 0 && anulable[s]) k++;
+        if (k >= 31 || (1 << k) > MAX_VARIANTES) {
+            throw new IllegalArgumentException("La producción " + nombresNT.get(a) + " → " + texto(der)
+                    + " tiene demasiados anulables para eliminar ε");
+        }
+        List<int[]> resultado = new ArrayList<>();
+        for (int mascara = 0; mascara < (1 << k); mascara++) {
+            int[] variante = new int[der.length];
+            int largo = 0;
+            int bit = 0;
+            for (int s : der) {
+                if (s >= 0 && anulable[s] && (mascara >> bit++ & 1) != 0) continue;
+                variante[largo++] = s;
+            }
+            if (largo > 0) resultado.add(Arrays.copyOf(variante, largo));
+        }
+        return resultado;
+    }
+
+    private void quitarUnitarias() {
+        int m = nombresNT.size();
+        List<String> quitadas = new ArrayList<>();
+        List<List<int[]>> nuevas = new ArrayList<>();
+        boolean[] visto = new boolean[m];
+        int[] cola = new int[m];
+        for (int a = 0; a < m; a++) {
+            for (int[] der : reglas.get(a)) {
+                if (esUnitaria(der)) quitadas.add(nombresNT.get(a) + " → " + nombresNT.get(der[0]));
+            }
+            // Pares unitarios (a, b): a ⇒* b usando solo producciones unitarias.
+            Arrays.fill(visto, false);
+            visto[a] = true;
+            cola[0] = a;
+            int fin = 1;
+            LinkedHashMap<List<Integer>, int[]> propias = new LinkedHashMap<>();
+            for (int i = 0; i < fin; i++) {
+                for (int[] der : reglas.get(cola[i])) {
+                    if (!esUnitaria(der)) {
+                        propias.putIfAbsent(clave(der), der);
+                    } else if (!visto[der[0]]) {
+                        visto[der[0]] = true;
+                        cola[fin++] = der[0];
+                    }
+                }
+            }
+            nuevas.add(new ArrayList<>(propias.values()));
+        }
+        for (int a = 0; a < m; a++) reglas.set(a, nuevas.get(a));
+        if (!quitadas.isEmpty()) reporte.add("Producciones unitarias eliminadas: " + String.join(", ", quitadas));
+    }
+
+    private static boolean esUnitaria(int[] der) {
+        return der.length == 1 && der[0] >= 0;
+    }
+
+    // --- Resultado ---
+
+    private GLC construir() {
+        GLC resultado = new GLC();
+        resultado.setSimboloInicial(nombresNT.get(inicio));
+        for (int t = g.numNoTerminales; t < g.numSimbolos; t++) resultado.agregarTerminal(g.nombres[t].charAt(0));
+        List<Integer> orden = new ArrayList<>();
+        orden.add(inicio);
+        for (int a = 0; a < nombresNT.size(); a++) {
+            if (a != inicio && !reglas.get(a).isEmpty()) orden.add(a);
+        }
+        for (int a : orden) {
+            resultado.agregarNoTerminal(nombresNT.get(a));
+            for (int[] der : reglas.get(a)) resultado.agregarProduccion(nombresNT.get(a), texto(der));
+        }
+        return resultado;
+    }
+
+    private String texto(int[] der) {
+        if (der.length == 0) return "ε";
+        StringBuilder sb = new StringBuilder();
+        for (int s : der) sb.append(s >= 0 ? nombresNT.get(s) : g.nombres[~s]);
+        return sb.toString();
+    }
+
+    private static List<Integer> clave(int[] der) {
+        List<Integer> c = new ArrayList<>(der.length);
+        for (int s : der) c.add(s);
+        return c;
+    }
+}
@@ -2,6 +2,7 @@ package org.example.Ui;
 
 import javafx.scene.shape.Rectangle;
 import org.example.Modelo.AutomataDePila;
+import org.example.Modelo.PilaPersistente;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -38,7 +39,7 @@ public class APPanel extends BorderPane {
 
     // Campos de entrada para la definición del AP (componentes formales).
     private TextField estadosField, alfabetoEntradaField, alfabetoPilaField,
-            estadoInicialField, estadosFinalesField, cadenaField;
+            estadoInicialField, estadosFinalesField, cadenaField, alturaPilaField;
 
     // Área de texto para introducir las transiciones.
     private TextArea transicionesArea;
@@ -145,6 +146,10 @@ public class APPanel extends BorderPane {
         Button procesarBtn = new Button("Procesar");
         procesarBtn.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white;");
         procesarBtn.setOnAction(e -> procesarCadena());
+        alturaPilaField = new TextField(String.valueOf(AutomataDePila.ALTURA_MAXIMA_PILA));
+        alturaPilaField.setPrefWidth(80);
+        HBox alturaBox = new HBox(8, new Label("Altura máx. pila"), alturaPilaField, procesarBtn);
+        alturaBox.setAlignment(Pos.CENTER_LEFT);
 
         // Creación y configuración de la tabla de transiciones.
         transicionTable = new TableView<>();
@@ -168,7 +173,7 @@ public class APPanel extends BorderPane {
 
         panel.getChildren().addAll(new Label("Visualización"), pilaScroll,
                 new Label("Tabla de transiciones"), transicionTable,
-                new Label("Probar cadena"), cadenaField, procesarBtn);
+                new Label("Probar cadena"), cadenaField, alturaBox);
         return panel;
     }
 
@@ -276,6 +281,16 @@ public class APPanel extends BorderPane {
         String cadena = cadenaField.getText();
         if (cadena.isEmpty()) return;
 
+        try {
+            ap.setAlturaMaximaPila(Integer.parseInt(alturaPilaField.getText().trim()));
+        } catch (NumberFormatException ex) {
+            outputArea.setText("La altura máxima de la pila debe ser un número entero");
+            return;
+        } catch (IllegalArgumentException ex) {
+            outputArea.setText(ex.getMessage());
+            return;
+        }
+
         boolean aceptada = ap.procesar(cadena);
         outputArea.clear();
 
@@ -295,7 +310,15 @@ public class APPanel extends BorderPane {
             outputArea.appendText("Motivo: " + motivo + "\n\n");
         }
 
-        // Muestra el historial de configuraciones.
+        outputArea.appendText("Configuraciones visitadas: " + ap.getConfiguracionesVisitadas() + "\n");
+        if (ap.getNumCiclosEpsilon() > 0) {
+            outputArea.appendText("Ciclos ε detectados: " + ap.getNumCiclosEpsilon() + "\n");
+            for (String ciclo : ap.getCiclosEpsilon()) outputArea.appendText("  • " + ciclo + "\n");
+        }
+        outputArea.appendText(aceptada ? "\nCamino hasta la aceptación:\n"
+                : "\nCamino hasta la configuración que más entrada consumió:\n");
+
+        // Muestra el camino de configuraciones.
         List<AutomataDePila.ConfiguracionAP> hist = ap.getHistorial();
         List<String> trApl = ap.getTransicionesAplicadas();
         for (int i = 0; i < hist.size(); i++) {
@@ -323,9 +346,9 @@ public class APPanel extends BorderPane {
 
     /**
      * Dibuja el estado actual de la pila en el 'pilaPane'.
-     * @param pila El stack de caracteres a dibujar.
+     * @param pila La pila de caracteres a dibujar.
      */
-    private void mostrarPila(Stack<Character> pila) {
+    private void mostrarPila(PilaPersistente pila) {
         pilaPane.getChildren().clear();
 
         final double ANCHO_RECT  = 100;
@@ -353,9 +376,9 @@ public class APPanel extends BorderPane {
             return;
         }
 
-        // Preparación para dibujar: Invertir el stack para dibujar el tope arriba.
-        List<Character> elems = new ArrayList<>(pila);
-        Collections.reverse(elems);
+        // Preparación para dibujar: la pila se recorre desde el tope, que queda arriba.
+        List<Character> elems = new ArrayList<>(pila.size());
+        for (char c : pila) elems.add(c);
 
         // Ajusta la altura del panel para que el scroll funcione correctamente.
         double alturaTotal = MARGEN_SUP + 20 + elems.size() * (ALTO_RECT + SEP_VERT);
@@ -366,7 +389,7 @@ public class APPanel extends BorderPane {
         for (int i = 0; i < elems.size(); i++) {
             double y = MARGEN_SUP + 20 + i * (ALTO_RECT + SEP_VERT);
             Rectangle r = new Rectangle(150, y, ANCHO_RECT, ALTO_RECT);
-            // El tope de la pila (primer elemento en la lista invertida, i=0) tiene color diferente.
+            // El tope de la pila (primer elemento de la lista, i=0) tiene color diferente.
             r.setFill(i == 0 ? Color.LIGHTCORAL : Color.LIGHTGREEN);
             r.setStroke(Color.GRAY);
             Text txt = new Text(150 + ANCHO_RECT / 2 - 5, y + ALTO_RECT / 2 + 5,
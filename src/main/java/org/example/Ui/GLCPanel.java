@@ -1,13 +1,44 @@
 package org.example.Ui;
 
+import org.example.Modelo.AFD;
+import org.example.Modelo.AnalisisGramatica;
+import org.example.Modelo.ArbolCompartido;
+import org.example.Modelo.AutomataDePila;
+import org.example.Modelo.AnalizadorEarley;
+import org.example.Modelo.AnalizadorLALR;
+import org.example.Modelo.BosqueSPPF;
+import org.example.Modelo.ClasificadorGLC;
+import org.example.Modelo.ComparativaMotores;
+import org.example.Modelo.ConversionAPGLC;
+import org.example.Modelo.ConversionGLCAP;
+import org.example.Modelo.DetectorAmbiguedad;
+import org.example.Modelo.DisposicionArbol;
+import org.example.Modelo.AnalizadorLL1;
+import org.example.Modelo.FormaNormalChomsky;
+import org.example.Modelo.FormaNormalGreibach;
 import org.example.Modelo.GLC;
+import org.example.Modelo.GeneradorOraciones;
+import org.example.Modelo.InterseccionGLCAFD;
+import org.example.Modelo.ReconocedorDerivadas;
+import org.example.Modelo.SimplificacionGLC;
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.FileChooser;
+import javafx.util.Duration;
 import java.io.*;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Panel de interfaz para Gramáticas Libres de Contexto (GLC).
@@ -15,10 +46,22 @@ import java.util.List;
  */
 public class GLCPanel extends BorderPane {
 
+    // Longitud máxima de las oraciones que revisa la búsqueda de ambigüedad.
+    private static final int LONGITUD_BUSQUEDA_AMBIGUEDAD = 8;
+    // Pausa al escribir antes de verificar la cadena en vivo.
+    private static final Duration PAUSA_VERIFICACION = Duration.millis(250);
+    // Nodos hasta los que el árbol sintáctico también se muestra como texto.
+    private static final long MAX_NODOS_TEXTO = 5_000;
+    // Entradas que se usan como máximo al comparar motores.
+    private static final int MAX_ENTRADAS_COMPARATIVA = 2_000;
+
     // Objeto principal que almacena la lógica de la Gramática Libre de Contexto.
     private GLC glc;
     // Área de texto para mostrar resultados, derivaciones y mensajes.
     private TextArea outputArea;
+    private TabPane resultadosTabs;
+    private Tab arbolTab;
+    private VisorArbol visorArbol;
 
     // Campos de entrada para definir la 4-tupla de la GLC (V, Σ, P, S).
     private TextField simboloInicialField;
@@ -28,6 +71,36 @@ public class GLCPanel extends BorderPane {
     private TextArea produccionesArea;
     // Campo de entrada para la cadena a analizar.
     private TextField cadenaField;
+    // Motor con que se genera el árbol sintáctico.
+    private ComboBox<GLC.MotorArbol> motorArbolCombo;
+    // Si está marcado, las derivaciones se buscan con A* y tienen el mínimo de pasos.
+    private CheckBox derivacionMinimaCheck;
+    // Si está marcado, la simplificación también elimina las producciones ε.
+    private CheckBox eliminarEpsilonCheck;
+    // Longitud y cantidad de las oraciones del corpus aleatorio.
+    private TextField longitudCorpusField;
+    private TextField cantidadCorpusField;
+    // Expresión regular con la que se interseca la gramática.
+    private TextField expresionInterseccionField;
+    // Resultado de la verificación en vivo de la cadena.
+    private Label estadoCadenaLabel;
+    // Se deshabilitan mientras una tarea de fondo usa la gramática actual.
+    private Button construirBtn;
+    private Button arbolBtn;
+    private Button comparativaBtn;
+    private Button lenguajeBtn;
+    private Button ambiguedadBtn;
+    private int tareasEnCurso;
+
+    // Verificación en vivo: Earley incremental de la gramática actual en un hilo de fondo.
+    private final ExecutorService verificadorVivo = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "verificacion-glc");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private AnalizadorEarley analizadorVivo;
+    private AnalizadorEarley.Incremental reconocedorVivo;
+    private long pedidoVivo;            // Solo se muestra el resultado del último pedido
 
     /**
      * Constructor. Inicializa el objeto GLC y la interfaz.
@@ -97,7 +170,7 @@ public class GLCPanel extends BorderPane {
         ejemploLabel.setStyle("-fx-font-size: 10px; -fx-text-fill: #888; " +
                 "-fx-background-color: #ffffcc; -fx-padding: 5;");
 
-        Button construirBtn = new Button("Construir Gramática");
+        construirBtn = new Button("Construir Gramática");
         construirBtn.setMaxWidth(Double.MAX_VALUE);
         construirBtn.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white;");
         // Acción principal: construye el modelo GLC a partir de los campos.
@@ -159,6 +232,12 @@ public class GLCPanel extends BorderPane {
         cadenaField.setPromptText("Ingrese la cadena");
         cadenaField.setPrefWidth(300);
 
+        // Mientras se escribe, la cadena se verifica tras una pausa sin bloquear la interfaz.
+        estadoCadenaLabel = new Label();
+        PauseTransition pausa = new PauseTransition(PAUSA_VERIFICACION);
+        pausa.setOnFinished(e -> verificarEnVivo());
+        cadenaField.textProperty().addListener((obs, anterior, actual) -> pausa.playFromStart());
+
         // Distribución de botones de análisis
         GridPane buttonGrid = new GridPane();
         buttonGrid.setHgap(10);
@@ -193,7 +272,7 @@ public class GLCPanel extends BorderPane {
         });
 
         // Botón para generar el Árbol Sintáctico (Parsing Tree).
-        Button arbolBtn = new Button("Árbol Sintáctico");
+        arbolBtn = new Button("Árbol Sintáctico");
         arbolBtn.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white;");
         arbolBtn.setPrefWidth(150);
         arbolBtn.setOnAction(e -> {
@@ -201,13 +280,135 @@ public class GLCPanel extends BorderPane {
             gramaticaView.setText(glc.getProduccionesTexto());
         });
 
-        // Distribución de botones en la cuadrícula (2x2)
+        // Botón para convertir la gramática a Forma Normal de Chomsky.
+        Button fncBtn = new Button("Forma Normal Chomsky");
+        fncBtn.setStyle("-fx-background-color: #9C27B0; -fx-text-fill: white;");
+        fncBtn.setPrefWidth(150);
+        fncBtn.setOnAction(e -> mostrarFormaNormalChomsky());
+
+        // Botón para convertir la gramática a Forma Normal de Greibach.
+        Button fngBtn = new Button("Forma Normal Greibach");
+        fngBtn.setStyle("-fx-background-color: #673AB7; -fx-text-fill: white;");
+        fngBtn.setPrefWidth(150);
+        fngBtn.setOnAction(e -> mostrarFormaNormalGreibach());
+
+        // Botón para el análisis predictivo LL(1) (tabla, conflictos y análisis de la cadena).
+        Button ll1Btn = new Button("Análisis LL(1)");
+        ll1Btn.setStyle("-fx-background-color: #009688; -fx-text-fill: white;");
+        ll1Btn.setPrefWidth(150);
+        ll1Btn.setOnAction(e -> {
+            analizarLL1();
+            gramaticaView.setText(glc.getProduccionesTexto());
+        });
+
+        // Botón para el análisis ascendente LALR(1) (conflictos y derivación por la derecha).
+        Button lalrBtn = new Button("Análisis LALR(1)");
+        lalrBtn.setStyle("-fx-background-color: #00796B; -fx-text-fill: white;");
+        lalrBtn.setPrefWidth(150);
+        lalrBtn.setOnAction(e -> {
+            analizarLALR();
+            gramaticaView.setText(glc.getProduccionesTexto());
+        });
+
+        // Botón para el análisis generalizado GLL (cualquier gramática, bosque con todos los árboles).
+        Button gllBtn = new Button("Análisis GLL");
+        gllBtn.setStyle("-fx-background-color: #5D4037; -fx-text-fill: white;");
+        gllBtn.setPrefWidth(150);
+        gllBtn.setOnAction(e -> {
+            analizarGLL();
+            gramaticaView.setText(glc.getProduccionesTexto());
+        });
+
+        // Botón para contar los árboles de la cadena y buscar oraciones ambiguas cortas.
+        ambiguedadBtn = new Button("Ambigüedad");
+        ambiguedadBtn.setStyle("-fx-background-color: #C62828; -fx-text-fill: white;");
+        ambiguedadBtn.setPrefWidth(150);
+        ambiguedadBtn.setOnAction(e -> {
+            analizarAmbiguedad();
+            gramaticaView.setText(glc.getProduccionesTexto());
+        });
+
+        // Botón para quitar símbolos inútiles y producciones unitarias (y ε, si se marca).
+        Button simplificarBtn = new Button("Simplificar Gramática");
+        simplificarBtn.setStyle("-fx-background-color: #455A64; -fx-text-fill: white;");
+        simplificarBtn.setPrefWidth(150);
+        simplificarBtn.setOnAction(e -> mostrarSimplificacion());
+
+        // Botón para escribir a un archivo oraciones aleatorias de una longitud exacta.
+        Button corpusBtn = new Button("Generar Corpus");
+        corpusBtn.setStyle("-fx-background-color: #6D4C41; -fx-text-fill: white;");
+        corpusBtn.setPrefWidth(150);
+        corpusBtn.setOnAction(e -> generarCorpus());
+
+        // Botón para intersecar la gramática con el AFD de una expresión regular.
+        Button interseccionBtn = new Button("Intersección con ER");
+        interseccionBtn.setStyle("-fx-background-color: #00838F; -fx-text-fill: white;");
+        interseccionBtn.setPrefWidth(150);
+        interseccionBtn.setOnAction(e -> mostrarInterseccion());
+
+        // Botón para ver si el lenguaje es vacío o finito y la cadena más corta de cada no terminal.
+        lenguajeBtn = new Button("Propiedades Lenguaje");
+        lenguajeBtn.setStyle("-fx-background-color: #5D4037; -fx-text-fill: white;");
+        lenguajeBtn.setPrefWidth(150);
+        lenguajeBtn.setOnAction(e -> mostrarPropiedadesLenguaje());
+
+        // Botón para convertir la gramática a un autómata de pila y de vuelta a una GLC.
+        Button automataBtn = new Button("Autómata de Pila");
+        automataBtn.setStyle("-fx-background-color: #283593; -fx-text-fill: white;");
+        automataBtn.setPrefWidth(150);
+        automataBtn.setOnAction(e -> mostrarAutomataDePila());
+
+        // Botón para medir todos los motores con las mismas entradas.
+        comparativaBtn = new Button("Comparar Motores");
+        comparativaBtn.setStyle("-fx-background-color: #AD1457; -fx-text-fill: white;");
+        comparativaBtn.setPrefWidth(150);
+        comparativaBtn.setOnAction(e -> compararMotores());
+
+        // Distribución de botones en la cuadrícula
         buttonGrid.add(verificarBtn, 0, 0);
         buttonGrid.add(derivarIzqBtn, 1, 0);
         buttonGrid.add(derivarDerBtn, 0, 1);
         buttonGrid.add(arbolBtn, 1, 1);
-
-        testBox.getChildren().addAll(testLabel, cadenaField, buttonGrid);
+        buttonGrid.add(fncBtn, 0, 2);
+        buttonGrid.add(fngBtn, 1, 2);
+        buttonGrid.add(ll1Btn, 0, 3);
+        buttonGrid.add(lalrBtn, 1, 3);
+        buttonGrid.add(gllBtn, 0, 4);
+        buttonGrid.add(ambiguedadBtn, 1, 4);
+        buttonGrid.add(simplificarBtn, 0, 5);
+        buttonGrid.add(corpusBtn, 1, 5);
+        buttonGrid.add(interseccionBtn, 0, 6);
+        buttonGrid.add(lenguajeBtn, 1, 6);
+        buttonGrid.add(automataBtn, 0, 7);
+        buttonGrid.add(comparativaBtn, 1, 7);
+
+        // Por omisión el árbol sale del analizador que elige el clasificador; CYK es Θ(n³) aun con gramáticas lineales.
+        motorArbolCombo = new ComboBox<>();
+        motorArbolCombo.getItems().addAll(GLC.MotorArbol.values());
+        motorArbolCombo.setValue(GLC.MotorArbol.AUTOMATICO);
+        HBox motorArbolBox = new HBox(8, new Label("Árbol con:"), motorArbolCombo);
+        motorArbolBox.setAlignment(Pos.CENTER);
+
+        derivacionMinimaCheck = new CheckBox("Derivación con menos pasos (A*)");
+
+        eliminarEpsilonCheck = new CheckBox("Simplificar también las producciones ε");
+
+        longitudCorpusField = new TextField("10");
+        longitudCorpusField.setPrefWidth(60);
+        cantidadCorpusField = new TextField("100000");
+        cantidadCorpusField.setPrefWidth(90);
+        HBox corpusBox = new HBox(8, new Label("Corpus: longitud"), longitudCorpusField,
+                new Label("cantidad"), cantidadCorpusField);
+        corpusBox.setAlignment(Pos.CENTER);
+
+        expresionInterseccionField = new TextField();
+        expresionInterseccionField.setPromptText("(a|b)*ab");
+        expresionInterseccionField.setPrefWidth(200);
+        HBox interseccionBox = new HBox(8, new Label("Intersección: ER"), expresionInterseccionField);
+        interseccionBox.setAlignment(Pos.CENTER);
+
+        testBox.getChildren().addAll(testLabel, cadenaField, estadoCadenaLabel, buttonGrid, motorArbolBox, derivacionMinimaCheck,
+                eliminarEpsilonCheck, corpusBox, interseccionBox);
 
         panel.getChildren().addAll(titleLabel, gramaticaView, testBox);
         return panel;
@@ -232,11 +433,23 @@ public class GLCPanel extends BorderPane {
         outputArea.setWrapText(true);
         outputArea.setStyle("-fx-font-family: 'Courier New'; -fx-font-size: 11px;");
 
+        // Pestaña con el árbol sintáctico dibujado (para árboles grandes).
+        visorArbol = new VisorArbol();
+        visorArbol.setPrefHeight(450);
+        Tab textoTab = new Tab("Texto", outputArea);
+        arbolTab = new Tab("Árbol", visorArbol);
+        resultadosTabs = new TabPane(textoTab, arbolTab);
+        resultadosTabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        VBox.setVgrow(resultadosTabs, Priority.ALWAYS);
+
         Button limpiarBtn = new Button("Limpiar");
         limpiarBtn.setMaxWidth(Double.MAX_VALUE);
-        limpiarBtn.setOnAction(e -> outputArea.clear());
+        limpiarBtn.setOnAction(e -> {
+            outputArea.clear();
+            visorArbol.setDisposicion(null);
+        });
 
-        panel.getChildren().addAll(titleLabel, new Separator(), outputArea, limpiarBtn);
+        panel.getChildren().addAll(titleLabel, new Separator(), resultadosTabs, limpiarBtn);
         return panel;
     }
 
@@ -289,6 +502,7 @@ public class GLCPanel extends BorderPane {
                     "No terminales: " + glc.getNoTerminales() + "\n" +
                     "Terminales: " + glc.getTerminales() + "\n" +
                     "Símbolo inicial: " + glc.getSimboloInicial());
+            verificarEnVivo();
 
         } catch (Exception e) {
             mostrarError("Error al construir gramática: " + e.getMessage());
@@ -307,7 +521,7 @@ public class GLCPanel extends BorderPane {
             return;
         }
 
-        // Se llama a la función de pertenencia del modelo (probablemente usando un algoritmo de parsing como CYK o LALR).
+        // El clasificador elige el motor más barato que sirve: AFN, LL(1), LALR(1) o Earley.
         boolean pertenece = glc.pertenece(cadena);
 
         StringBuilder resultado = new StringBuilder();
@@ -318,14 +532,81 @@ public class GLCPanel extends BorderPane {
         resultado.append("Gramática:\n").append(glc.getProduccionesTexto()).append("\n");
 
         if (pertenece) {
-            resultado.append("✓ La cadena **PERTENECE** al lenguaje (se pudo derivar)");
+            resultado.append("✓ La cadena **PERTENECE** al lenguaje");
         } else {
-            resultado.append("✗ La cadena **NO PERTENECE** al lenguaje (falló la derivación)");
+            resultado.append("✗ La cadena **NO PERTENECE** al lenguaje");
         }
+        resultado.append("\n\n").append(textoMotor());
 
         outputArea.setText(resultado.toString());
     }
 
+    // Motor elegido por el clasificador para la última verificación o derivación, y su duración.
+    private String textoMotor() {
+        if (glc.getUltimoMotor() == null) return "";
+        String nombre;
+        switch (glc.getUltimoMotor()) {
+            case AFN: nombre = "AFN (gramática lineal por la derecha)"; break;
+            case LL1: nombre = "analizador LL(1)"; break;
+            case LALR1: nombre = "analizador LALR(1)"; break;
+            default: nombre = "Earley";
+        }
+        return String.format("Motor: %s, %.3f ms", nombre, glc.getUltimaDuracion() / 1e6);
+    }
+
+    /**
+     * Verifica la cadena con el reconocedor incremental de Earley en un hilo de
+     * fondo: al editar, solo se recalculan los conjuntos desde la posición que
+     * cambió. Si se escribe de nuevo antes de terminar, el resultado se descarta.
+     */
+    private void verificarEnVivo() {
+        if (glc.getSimboloInicial() == null || glc.getProducciones().isEmpty()) {
+            estadoCadenaLabel.setText("");
+            return;
+        }
+        // El analizador se obtiene en el hilo de la interfaz; cambia cuando cambia la gramática.
+        AnalizadorEarley analizador = glc.getAnalizadorEarley();
+        if (analizador != analizadorVivo) {
+            analizadorVivo = analizador;
+            reconocedorVivo = analizador.incremental();
+        }
+        AnalizadorEarley.Incremental reconocedor = reconocedorVivo;
+        boolean lenguajeVacio = glc.getAnalisis().esVacio();
+        String cadena = cadenaField.getText().trim();
+        long pedido = ++pedidoVivo;
+
+        Task<Boolean> tarea = new Task<>() {
+            @Override
+            protected Boolean call() {
+                long inicio = System.nanoTime();
+                boolean acepta = reconocedor.reconocer(cadena);
+                double ms = (System.nanoTime() - inicio) / 1e6;
+                String detalle = String.format(" (%d conjuntos recalculados, %d reutilizados, %.1f ms)",
+                        reconocedor.getConjuntosCalculados(), reconocedor.getConjuntosReutilizados(), ms);
+                if (acepta) {
+                    updateMessage("✓ Pertenece al lenguaje" + detalle);
+                } else if (lenguajeVacio) {
+                    updateMessage("✗ No pertenece: el lenguaje es vacío" + detalle);
+                } else if (reconocedor.getPrefijoViable() < cadena.length()) {
+                    updateMessage("✗ No pertenece: ninguna cadena del lenguaje empieza con los primeros "
+                            + (reconocedor.getPrefijoViable() + 1) + " símbolos" + detalle);
+                } else {
+                    updateMessage("… No pertenece, pero se puede completar" + detalle);
+                }
+                return acepta;
+            }
+        };
+        tarea.setOnSucceeded(e -> {
+            if (pedido != pedidoVivo) return;
+            estadoCadenaLabel.setText(tarea.getMessage());
+            estadoCadenaLabel.setStyle(tarea.getValue() ? "-fx-text-fill: #2E7D32;" : "-fx-text-fill: #C62828;");
+        });
+        tarea.setOnFailed(e -> {
+            if (pedido == pedidoVivo) estadoCadenaLabel.setText("Error: " + tarea.getException().getMessage());
+        });
+        verificadorVivo.execute(tarea);
+    }
+
     /**
      * Intenta encontrar y mostrar la derivación más a la izquierda para la cadena.
      */
@@ -338,7 +619,9 @@ public class GLCPanel extends BorderPane {
         }
 
         // Obtiene la lista de pasos de la derivación por la izquierda.
-        List<String> derivaciones = glc.derivarIzquierda(cadena);
+        List<String> derivaciones = derivacionMinimaCheck.isSelected()
+                ? glc.derivarIzquierdaMinima(cadena)
+                : glc.derivarIzquierda(cadena);
 
         StringBuilder resultado = new StringBuilder();
         resultado.append("═══════════════════════════════\n");
@@ -360,6 +643,7 @@ public class GLCPanel extends BorderPane {
         } else {
             resultado.append("✗ No se pudo encontrar una derivación por la izquierda.");
         }
+        if (!derivacionMinimaCheck.isSelected()) resultado.append("\n\n").append(textoMotor());
 
         outputArea.setText(resultado.toString());
     }
@@ -376,7 +660,9 @@ public class GLCPanel extends BorderPane {
         }
 
         // Obtiene la lista de pasos de la derivación por la derecha.
-        List<String> derivaciones = glc.derivarDerecha(cadena);
+        List<String> derivaciones = derivacionMinimaCheck.isSelected()
+                ? glc.derivarDerechaMinima(cadena)
+                : glc.derivarDerecha(cadena);
 
         StringBuilder resultado = new StringBuilder();
         resultado.append("═══════════════════════════════\n");
@@ -395,12 +681,15 @@ public class GLCPanel extends BorderPane {
         } else {
             resultado.append("✗ No se pudo encontrar una derivación por la derecha.");
         }
+        if (!derivacionMinimaCheck.isSelected()) resultado.append("\n\n").append(textoMotor());
 
         outputArea.setText(resultado.toString());
     }
 
     /**
-     * Intenta generar el árbol sintáctico (parsing tree) para la cadena.
+     * Genera el árbol sintáctico de la cadena en un hilo de fondo, con el motor
+     * elegido. Las tablas del motor se construyen antes, en el hilo de la
+     * interfaz; mientras tanto no se puede reconstruir la gramática.
      */
     private void generarArbolSintactico() {
         String cadena = cadenaField.getText().trim();
@@ -410,38 +699,805 @@ public class GLCPanel extends BorderPane {
             return;
         }
 
-        GLC.NodoArbol arbol = null;
+        GLC g = glc;
+        GLC.MotorArbol motor = motorArbolCombo.getValue();
+        g.prepararArbol(motor);
+        outputArea.setText("Generando el árbol sintáctico (" + motor + ")...");
+
+        Task<VistaArbol> tarea = new Task<>() {
+            @Override
+            protected VistaArbol call() {
+                GLC.NodoArbol arbol = g.generarArbolSintactico(cadena, motor);
+                return arbol == null ? null : prepararVista(g, arbol);
+            }
+        };
+        empezarTarea(arbolBtn);
+        tarea.setOnSucceeded(e -> {
+            terminarTarea(arbolBtn);
+            VistaArbol vista = tarea.getValue();
+
+            StringBuilder resultado = new StringBuilder();
+            resultado.append("═══════════════════════════════\n");
+            resultado.append("ÁRBOL SINTÁCTICO\n");
+            resultado.append("Cadena: \"").append(cadena).append("\"\n");
+            resultado.append("═══════════════════════════════\n\n");
+
+            if (vista != null) {
+                if (motor == GLC.MotorArbol.MEMO) {
+                    resultado.append("Subproblemas resueltos: ").append(g.getSubproblemasArbol())
+                            .append("  ·  reutilizados de la memo: ").append(g.getAciertosMemoArbol()).append("\n\n");
+                } else if (motor == GLC.MotorArbol.AUTOMATICO) {
+                    resultado.append("Motor: ").append(g.getMotorArbol()).append("\n\n");
+                }
+                resultado.append("Árbol de derivación:\n\n");
+                resultado.append(mostrarVista(vista));
+            } else {
+                resultado.append("✗ No se pudo generar el árbol sintáctico\n");
+                if (motor == GLC.MotorArbol.MEMO && g.isBusquedaAgotada()) {
+                    resultado.append("Se agotó el presupuesto de la búsqueda (").append(g.getMaxPasosBusqueda())
+                            .append(" pasos); pruebe con otro motor.");
+                } else {
+                    resultado.append("La cadena no pertenece al lenguaje.");
+                }
+            }
+
+            outputArea.setText(resultado.toString());
+        });
+        tarea.setOnFailed(e -> {
+            terminarTarea(arbolBtn);
+            Throwable error = tarea.getException();
+            mostrarError(error instanceof OutOfMemoryError
+                    ? "No hay memoria suficiente para el árbol con " + motor + "; pruebe con otro motor"
+                    : "Error al generar el árbol: " + error.getMessage());
+        });
+        Thread hilo = new Thread(tarea, "arbol-glc");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    // Mientras haya tareas de fondo con la gramática actual no se puede reconstruir; el botón de la tarea también se deshabilita.
+    private void empezarTarea(Button boton) {
+        tareasEnCurso++;
+        construirBtn.setDisable(true);
+        boton.setDisable(true);
+    }
+
+    private void terminarTarea(Button boton) {
+        tareasEnCurso--;
+        construirBtn.setDisable(tareasEnCurso > 0);
+        boton.setDisable(false);
+    }
+
+    /** Árbol ya preparado para mostrar: su disposición para el visor y el texto para el área de resultados. */
+    private static final class VistaArbol {
+        final DisposicionArbol disposicion;
+        final String texto;
+        final boolean grande;      // Demasiado grande para el texto: se muestra la pestaña del visor
+
+        VistaArbol(DisposicionArbol disposicion, String texto, boolean grande) {
+            this.disposicion = disposicion;
+            this.texto = texto;
+            this.grande = grande;
+        }
+    }
+
+    /**
+     * Dibuja el árbol en la pestaña del visor y devuelve su texto para el área de
+     * resultados.
+     */
+    private String mostrarArbol(GLC.NodoArbol arbol) {
+        if (arbol == null) return glc.visualizarArbol(null);
+        return mostrarVista(prepararVista(glc, arbol));
+    }
+
+    /**
+     * Comparte los subárboles repetidos, los dispone y, si no es grande, arma el
+     * texto del árbol: el texto con sangrías crece con los nodos por la
+     * profundidad, así que los árboles grandes solo se dibujan. No toca la
+     * interfaz, así que puede ir en un hilo de fondo.
+     */
+    private static VistaArbol prepararVista(GLC g, GLC.NodoArbol arbol) {
+        ArbolCompartido compartido = new ArbolCompartido(arbol);
+        String resumen = compartido.getNumNodos() + " nodos, " + compartido.getNumUnicos()
+                + " subárboles distintos (" + compartido.getNumCompartidos() + " repetidos); ver la pestaña Árbol.\n\n";
+        DisposicionArbol disposicion = null;
         try {
-            // Intenta generar el árbol.
-            arbol = glc.generarArbolSintactico(cadena);
-        } catch (StackOverflowError e) {
-            // Manejo de error común en procesos recursivos de parsing.
-            mostrarError("Error: Desbordamiento de pila. La cadena podría ser muy larga o la gramática ambigua/recursiva.");
-            e.printStackTrace();
+            disposicion = new DisposicionArbol(compartido);
+        } catch (IllegalArgumentException e) {
+            resumen = e.getMessage() + "\n\n";
+        }
+        if (compartido.getNumNodos() > MAX_NODOS_TEXTO) {
+            return new VistaArbol(disposicion, resumen + "(El árbol es demasiado grande para mostrarlo como texto.)\n", true);
+        }
+        return new VistaArbol(disposicion, resumen + g.visualizarArbol(arbol), false);
+    }
+
+    private String mostrarVista(VistaArbol vista) {
+        visorArbol.setDisposicion(vista.disposicion);
+        if (vista.grande) resultadosTabs.getSelectionModel().select(arbolTab);
+        return vista.texto;
+    }
+
+    /**
+     * Convierte la gramática a Forma Normal de Chomsky y muestra la gramática
+     * resultante junto con la producción original de cada regla.
+     */
+    private void mostrarFormaNormalChomsky() {
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        FormaNormalChomsky fnc = glc.getFormaNormalChomsky();
+        GLC gramaticaFNC = fnc.getGramatica();
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        StringBuilder resultado = new StringBuilder();
+        resultado.append("═══════════════════════════════\n");
+        resultado.append("FORMA NORMAL DE CHOMSKY\n");
+        resultado.append("═══════════════════════════════\n\n");
+        resultado.append("Símbolo inicial: ").append(gramaticaFNC.getSimboloInicial()).append("\n");
+        resultado.append(gramaticaFNC.getProduccionesTexto()).append("\n");
+        resultado.append("Producciones: ").append(fnc.getNumProducciones())
+                .append(" (").append(ms).append(" ms)\n\n");
+
+        resultado.append("Origen de cada producción:\n");
+        for (Map.Entry<String, String> e : fnc.getCorrespondencia().entrySet()) {
+            resultado.append(e.getKey()).append("   ⇐ ")
+                    .append(e.getValue() == null ? "(auxiliar)" : e.getValue()).append("\n");
+        }
+
+        outputArea.setText(resultado.toString());
+    }
+
+    /**
+     * Convierte la gramática a Forma Normal de Greibach (con la transformación de
+     * esquina izquierda, que elimina la recursión izquierda) y muestra la
+     * gramática resultante.
+     */
+    private void mostrarFormaNormalGreibach() {
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        FormaNormalGreibach fng;
+        try {
+            fng = glc.getFormaNormalGreibach();
+        } catch (IllegalArgumentException e) {
+            mostrarError(e.getMessage());
+            return;
+        }
+        GLC gramaticaFNG = fng.getGramatica();
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        StringBuilder resultado = new StringBuilder();
+        resultado.append("═══════════════════════════════\n");
+        resultado.append("FORMA NORMAL DE GREIBACH\n");
+        resultado.append("═══════════════════════════════\n\n");
+        resultado.append("Símbolo inicial: ").append(gramaticaFNG.getSimboloInicial()).append("\n");
+        resultado.append(gramaticaFNG.getProduccionesTexto()).append("\n");
+        resultado.append("No terminales nuevos [A/B] (esquina izquierda): ").append(fng.getNoTerminalesNuevos()).append("\n");
+        resultado.append("Producciones: ").append(fng.getNumProducciones())
+                .append(" (").append(ms).append(" ms)\n\n");
+        resultado.append("Cada paso de una derivación por la izquierda consume un terminal,\n");
+        resultado.append("así que una cadena de longitud n se deriva en exactamente n pasos.");
+
+        outputArea.setText(resultado.toString());
+    }
+
+    /**
+     * Elimina los símbolos inútiles y las producciones unitarias (y las ε si está
+     * marcado) y muestra qué se quitó y la gramática resultante.
+     */
+    private void mostrarSimplificacion() {
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        SimplificacionGLC simplificacion;
+        try {
+            simplificacion = glc.simplificar(true, eliminarEpsilonCheck.isSelected());
+        } catch (IllegalArgumentException e) {
+            mostrarError(e.getMessage());
+            return;
+        }
+        GLC simplificada = simplificacion.getGramatica();
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        StringBuilder resultado = new StringBuilder();
+        resultado.append("═══════════════════════════════\n");
+        resultado.append("GRAMÁTICA SIMPLIFICADA\n");
+        resultado.append("═══════════════════════════════\n\n");
+        if (simplificacion.getReporte().isEmpty()) {
+            resultado.append("No había nada que eliminar.\n");
+        }
+        for (String linea : simplificacion.getReporte()) resultado.append("• ").append(linea).append("\n");
+        resultado.append("\nSímbolo inicial: ").append(simplificada.getSimboloInicial()).append("\n");
+        resultado.append(simplificada.getProduccionesTexto()).append("\n");
+        resultado.append("Producciones: ").append(simplificacion.getProduccionesAntes()).append(" → ")
+                .append(simplificacion.getProduccionesDespues())
+                .append(" (").append(ms).append(" ms)\n\n");
+        resultado.append("Los símbolos inútiles se quitan automáticamente antes de\n");
+        resultado.append("Earley, GLL, CYK y las búsquedas de derivaciones y árboles.");
+
+        outputArea.setText(resultado.toString());
+    }
+
+    /**
+     * Muestra si el lenguaje es vacío o finito, su clase y, para cada no terminal,
+     * la longitud de la cadena más corta que deriva y una cadena de esa longitud.
+     * Si para la clase hay que buscar ambigüedad, la búsqueda va en un hilo de
+     * fondo y mientras tanto se muestra el resto.
+     */
+    private void mostrarPropiedadesLenguaje() {
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        AnalisisGramatica analisis = glc.getAnalisis();
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        StringBuilder resultado = new StringBuilder();
+        resultado.append("═══════════════════════════════\n");
+        resultado.append("PROPIEDADES DEL LENGUAJE\n");
+        resultado.append("═══════════════════════════════\n\n");
+        if (analisis.esVacio()) {
+            resultado.append("✗ El lenguaje es vacío: el símbolo inicial no deriva ninguna cadena.\n");
+        } else {
+            resultado.append("✓ El lenguaje no es vacío.\n");
+            resultado.append(analisis.esFinito() ? "• El lenguaje es finito.\n" : "• El lenguaje es infinito.\n");
+        }
+        String encabezado = resultado.toString();
+        resultado.setLength(0);
+        resultado.append("\nCadena más corta de cada no terminal:\n");
+        for (String nt : glc.getProducciones().keySet()) {
+            int longitud = analisis.getLongitudMinima(nt);
+            resultado.append("  ").append(nt).append(": ");
+            if (longitud < 0) {
+                resultado.append("no deriva ninguna cadena\n");
+                continue;
+            }
+            String testigo = analisis.getTestigo(nt);
+            resultado.append(testigo == null ? "(demasiado larga para mostrarla)" : testigo.isEmpty() ? "ε" : testigo)
+                    .append("  (longitud ").append(longitud).append(")\n");
+        }
+        resultado.append("\n(").append(ms).append(" ms)");
+        String resto = resultado.toString();
+
+        ClasificadorGLC clasificador = glc.getClasificador();
+        if (clasificador.claseConocida()) {
+            outputArea.setText(encabezado + textoClase(clasificador) + resto);
+            return;
+        }
+        outputArea.setText(encabezado + "• Clase: buscando oraciones ambiguas de longitud ≤ "
+                + ClasificadorGLC.LONGITUD_AMBIGUEDAD + "...\n" + resto);
+        Task<String> tarea = new Task<>() {
+            @Override
+            protected String call() {
+                return textoClase(clasificador);
+            }
+        };
+        empezarTarea(lenguajeBtn);
+        tarea.setOnSucceeded(e -> {
+            terminarTarea(lenguajeBtn);
+            outputArea.setText(encabezado + tarea.getValue() + resto);
+        });
+        tarea.setOnFailed(e -> {
+            terminarTarea(lenguajeBtn);
+            mostrarError("Error al clasificar la gramática: " + tarea.getException().getMessage());
+        });
+        Thread hilo = new Thread(tarea, "clase-glc");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    // Línea de la clase; si hace falta, busca ambigüedad (se puede llamar desde un hilo de fondo).
+    private static String textoClase(ClasificadorGLC clasificador) {
+        StringBuilder texto = new StringBuilder("• Clase: ").append(textoClase(clasificador.getClase()));
+        if (clasificador.getCadenaAmbigua() != null) {
+            texto.append(" (\"").append(clasificador.getCadenaAmbigua()).append("\" tiene dos árboles)");
+        }
+        return texto.append("\n").toString();
+    }
+
+    private static String textoClase(ClasificadorGLC.Clase clase) {
+        switch (clase) {
+            case REGULAR: return "regular (lineal por la derecha)";
+            case LL1: return "LL(1)";
+            case LALR1: return "LALR(1)";
+            case AMBIGUA: return "ambigua";
+            default: return "desconocida (no es LL(1) ni LALR(1) y no se encontró ambigüedad hasta longitud "
+                    + ClasificadorGLC.LONGITUD_AMBIGUEDAD + ")";
+        }
+    }
+
+    /**
+     * Interseca la gramática con el AFD de la expresión regular: indica si alguna
+     * cadena está en ambos lenguajes, la más corta, y la GLC de la intersección.
+     */
+    private void mostrarInterseccion() {
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+        String patron = expresionInterseccionField.getText().trim();
+        if (patron.isEmpty()) {
+            mostrarError("Ingrese una expresión regular");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        InterseccionGLCAFD interseccion;
+        AFD afd;
+        try {
+            ReconocedorDerivadas reconocedor = new ReconocedorDerivadas(patron);
+            reconocedor.agregarSimbolos(glc.getTerminales());
+            afd = reconocedor.aAFD();
+            interseccion = new InterseccionGLCAFD(glc, afd);
+        } catch (IllegalArgumentException e) {
+            mostrarError(e.getMessage());
+            return;
+        }
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        StringBuilder resultado = new StringBuilder();
+        resultado.append("═══════════════════════════════\n");
+        resultado.append("INTERSECCIÓN CON ").append(patron).append("\n");
+        resultado.append("═══════════════════════════════\n\n");
+        resultado.append("AFD: ").append(afd.getEstados().size()).append(" estados\n");
+        if (interseccion.esAgotada()) {
+            resultado.append("⚠ Se alcanzó el límite de ").append(interseccion.getHechos())
+                    .append(" hechos sin encontrar una cadena común: el resultado no es concluyente.\n");
+        } else if (interseccion.esVacia()) {
+            resultado.append("✗ Ninguna cadena de la gramática es aceptada por la expresión regular.\n");
+        } else {
+            String testigo = interseccion.getTestigo();
+            resultado.append("✓ La intersección no es vacía.\n");
+            resultado.append("Cadena más corta (").append(interseccion.getLongitudTestigo()).append(" símbolos): ")
+                    .append(testigo == null ? "(demasiado larga para mostrarla)" : testigo.isEmpty() ? "ε" : testigo)
+                    .append("\n");
+        }
+        resultado.append("Hechos deducidos: ").append(interseccion.getHechos())
+                .append(" (").append(ms).append(" ms)\n\n");
+
+        if (!interseccion.esAgotada()) {
+            try {
+                GLC producto = interseccion.getGramatica();
+                if (producto == null) {
+                    resultado.append("La gramática de la intersección supera el límite de hechos.");
+                } else if (!interseccion.esVacia()) {
+                    resultado.append("Gramática de la intersección:\n");
+                    resultado.append(producto.getProduccionesTexto()).append("\n");
+                    for (Map.Entry<String, String> e : interseccion.getCorrespondencia().entrySet()) {
+                        resultado.append("  ").append(e.getKey()).append(" = ").append(e.getValue()).append("\n");
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                resultado.append("No se pudo construir la gramática de la intersección: ").append(e.getMessage());
+            }
+        }
+
+        outputArea.setText(resultado.toString());
+    }
+
+    /**
+     * Genera oraciones aleatorias de la longitud indicada (uniformes sobre los
+     * árboles de la FNC) y las escribe en un archivo, en un hilo de fondo.
+     */
+    private void generarCorpus() {
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+        int longitud;
+        long cantidad;
+        try {
+            longitud = Integer.parseInt(longitudCorpusField.getText().trim());
+            cantidad = Long.parseLong(cantidadCorpusField.getText().trim());
+        } catch (NumberFormatException e) {
+            mostrarError("La longitud y la cantidad deben ser números enteros");
+            return;
+        }
+        if (longitud < 0 || cantidad < 0) {
+            mostrarError("La longitud y la cantidad no pueden ser negativas");
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Guardar corpus");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Archivos de texto", "*.txt")
+        );
+        File file = fileChooser.showSaveDialog(getScene().getWindow());
+        if (file == null) return;
+
+        GeneradorOraciones generador = glc.getGeneradorOraciones();
+        long semilla = System.nanoTime();
+        outputArea.setText("Generando " + cantidad + " oraciones de longitud " + longitud + "...");
+
+        Task<Long> tarea = new Task<>() {
+            @Override
+            protected Long call() throws IOException {
+                try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+                    return generador.escribir(writer, longitud, cantidad, semilla);
+                }
+            }
+        };
+        long inicio = System.nanoTime();
+        tarea.setOnSucceeded(e -> {
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            StringBuilder resultado = new StringBuilder();
+            resultado.append("═══════════════════════════════\n");
+            resultado.append("CORPUS ALEATORIO\n");
+            resultado.append("═══════════════════════════════\n\n");
+            resultado.append("Árboles de longitud ").append(longitud).append(": ")
+                    .append(generador.contar(longitud)).append("\n");
+            if (tarea.getValue() == 0) {
+                resultado.append("✗ El lenguaje no tiene cadenas de esa longitud; el archivo quedó vacío.");
+            } else {
+                resultado.append("✓ ").append(tarea.getValue()).append(" oraciones escritas en ")
+                        .append(file.getName()).append(" (").append(ms).append(" ms, semilla ")
+                        .append(semilla).append(")\n\nPrimeras oraciones:\n");
+                for (String oracion : generador.generar(longitud, (int) Math.min(5, cantidad), semilla)) {
+                    resultado.append("  ").append(oracion.isEmpty() ? "ε" : oracion).append("\n");
+                }
+                resultado.append("\nCada árbol de la FNC tiene la misma probabilidad: si la gramática\n");
+                resultado.append("no es ambigua, cada cadena de esa longitud también.");
+            }
+            outputArea.setText(resultado.toString());
+        });
+        tarea.setOnFailed(e -> mostrarError("Error al generar el corpus: " + tarea.getException().getMessage()));
+        Thread hilo = new Thread(tarea, "corpus-glc");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Convierte la gramática al autómata de pila de un estado que expande y
+     * empareja, y ese autómata de vuelta a una GLC con la construcción de triples.
+     */
+    private void mostrarAutomataDePila() {
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        ConversionGLCAP conversion;
+        ConversionAPGLC vuelta;
+        try {
+            conversion = new ConversionGLCAP(glc);
+            vuelta = new ConversionAPGLC(conversion.getAutomata());
+        } catch (IllegalArgumentException e) {
+            mostrarError(e.getMessage());
+            return;
+        }
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+        AutomataDePila ap = conversion.getAutomata();
+
+        StringBuilder resultado = new StringBuilder();
+        resultado.append("═══════════════════════════════\n");
+        resultado.append("AUTÓMATA DE PILA\n");
+        resultado.append("═══════════════════════════════\n\n");
+        resultado.append("Estados: ").append(ConversionGLCAP.ESTADO_INICIAL).append(" (inicial), ")
+                .append(ConversionGLCAP.ESTADO_CICLO).append(", ").append(ConversionGLCAP.ESTADO_FINAL)
+                .append(" (final); fondo de pila ").append(conversion.getFondo()).append("\n");
+        for (Map.Entry<Character, String> e : conversion.getCorrespondencia().entrySet()) {
+            if (!e.getValue().equals(String.valueOf(e.getKey()))) {
+                resultado.append("  ").append(e.getKey()).append(" = ").append(e.getValue()).append("\n");
+            }
+        }
+        resultado.append("\nTransiciones:\n");
+        List<String> transiciones = new ArrayList<>();
+        for (Map.Entry<AutomataDePila.TransicionKey, List<AutomataDePila.TransicionValor>> e
+                : ap.getTransiciones().entrySet()) {
+            for (AutomataDePila.TransicionValor v : e.getValue()) transiciones.add(e.getKey() + " → " + v);
+        }
+        Collections.sort(transiciones);
+        for (String t : transiciones) resultado.append("  ").append(t).append("\n");
+
+        GLC triples = vuelta.getGramatica();
+        resultado.append("\nGLC de vuelta (construcción de triples, ")
+                .append(triples.getNoTerminales().size()).append(" no terminales útiles):\n");
+        resultado.append(triples.getProduccionesTexto()).append("\n");
+        for (Map.Entry<String, String> e : vuelta.getCorrespondencia().entrySet()) {
+            resultado.append("  ").append(e.getKey()).append(" = ").append(e.getValue()).append("\n");
+        }
+        resultado.append("\n(").append(ms).append(" ms)");
+
+        outputArea.setText(resultado.toString());
+    }
+
+    /**
+     * Mide los analizadores de la gramática, el autómata de pila y la GLC de
+     * triples con las mismas entradas (mitad oraciones de la gramática y mitad
+     * cadenas aleatorias de la longitud del corpus), en un hilo de fondo.
+     */
+    private void compararMotores() {
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+        int longitud;
+        int cantidad;
+        try {
+            longitud = Integer.parseInt(longitudCorpusField.getText().trim());
+            cantidad = (int) Math.min(MAX_ENTRADAS_COMPARATIVA, Long.parseLong(cantidadCorpusField.getText().trim()));
+        } catch (NumberFormatException e) {
+            mostrarError("La longitud y la cantidad deben ser números enteros");
+            return;
+        }
+        if (longitud < 0 || cantidad <= 0) {
+            mostrarError("La longitud debe ser no negativa y la cantidad positiva");
+            return;
+        }
+
+        // Los motores (y sus tablas) se obtienen aquí, en el hilo de la interfaz: las
+        // cachés de la GLC no son seguras entre hilos. La tarea solo usa esos objetos.
+        GLC g = glc;
+        ComparativaMotores comparativa;
+        try {
+            comparativa = new ComparativaMotores(g);
+        } catch (IllegalArgumentException e) {
+            mostrarError(e.getMessage());
+            return;
+        }
+        GeneradorOraciones generador = g.getGeneradorOraciones();
+        Set<Character> terminales = new TreeSet<>(g.getTerminales());
+        long semilla = System.nanoTime();
+
+        outputArea.setText("Comparando motores con " + cantidad + " cadenas de longitud " + longitud + "...");
+        Task<ComparativaMotores> tarea = new Task<>() {
+            @Override
+            protected ComparativaMotores call() {
+                comparativa.ejecutar(ComparativaMotores.entradas(generador, terminales, longitud, cantidad, semilla));
+                return comparativa;
+            }
+        };
+        // Mientras corre no se puede reconstruir la gramática ni lanzar otra comparativa.
+        empezarTarea(comparativaBtn);
+        tarea.setOnSucceeded(e -> {
+            terminarTarea(comparativaBtn);
+            StringBuilder resultado = new StringBuilder();
+            resultado.append("═══════════════════════════════\n");
+            resultado.append("COMPARATIVA DE MOTORES\n");
+            resultado.append("═══════════════════════════════\n\n");
+            resultado.append(comparativa.getNumEntradas()).append(" cadenas de longitud ").append(longitud)
+                    .append(" (referencia: Earley)\n\n");
+            resultado.append(String.format("%-30s %10s %10s %14s %8s%n", "Motor", "Cadenas", "Aceptadas",
+                    "Cadenas/s", "Difieren"));
+            for (ComparativaMotores.Resultado r : comparativa.getResultados()) {
+                if (r.getProcesadas() == 0) {
+                    resultado.append(String.format("%-30s %s%n", r.getMotor(), r.getNota()));
+                    continue;
+                }
+                resultado.append(String.format("%-30s %10d %10d %14.0f %8d%n", r.getMotor(), r.getProcesadas(),
+                        r.getAceptadas(), r.getCadenasPorSegundo(), r.getDiscrepancias()));
+                if (r.getNota() != null) resultado.append("  ⚠ ").append(r.getNota()).append("\n");
+            }
+            outputArea.setText(resultado.toString());
+        });
+        tarea.setOnFailed(e -> {
+            terminarTarea(comparativaBtn);
+            mostrarError("Error al comparar los motores: " + tarea.getException().getMessage());
+        });
+        Thread hilo = new Thread(tarea, "comparativa-glc");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Construye la tabla LL(1). Si no hay conflictos analiza la cadena con el
+     * analizador predictivo y muestra la derivación por la izquierda y el árbol.
+     */
+    private void analizarLL1() {
+        String cadena = cadenaField.getText().trim();
+
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
             return;
         }
 
+        AnalizadorLL1 ll1 = glc.getAnalizadorLL1();
 
         StringBuilder resultado = new StringBuilder();
         resultado.append("═══════════════════════════════\n");
-        resultado.append("ÁRBOL SINTÁCTICO\n");
+        resultado.append("ANÁLISIS LL(1)\n");
         resultado.append("Cadena: \"").append(cadena).append("\"\n");
         resultado.append("═══════════════════════════════\n\n");
+        resultado.append("PRIMEROS / SIGUIENTES:\n").append(ll1.getAnalisis().getTexto()).append("\n");
+
+        if (!ll1.esLL1()) {
+            resultado.append("✗ La gramática NO es LL(1). Conflictos:\n");
+            for (String conflicto : ll1.getConflictos()) resultado.append("  ").append(conflicto).append("\n");
+            outputArea.setText(resultado.toString());
+            return;
+        }
+
+        resultado.append("Tabla de análisis:\n").append(ll1.getTextoTabla()).append("\n");
+
+        long inicio = System.nanoTime();
+        GLC.NodoArbol arbol = ll1.arbol(cadena);
+        long us = (System.nanoTime() - inicio) / 1000;
+        if (arbol == null) {
+            resultado.append("✗ La cadena **NO PERTENECE** al lenguaje (error de sintaxis)");
+        } else {
+            resultado.append("✓ La cadena **PERTENECE** al lenguaje (").append(us).append(" µs)\n\n");
+            resultado.append("Derivación por la izquierda:\n");
+            List<String> pasos = GLC.derivacionDesdeArbol(arbol, true);
+            for (int i = 0; i < pasos.size(); i++) {
+                resultado.append(String.format("%2d. %s\n", i, pasos.get(i)));
+            }
+            resultado.append("\nÁrbol sintáctico:\n\n").append(mostrarArbol(arbol));
+        }
+
+        outputArea.setText(resultado.toString());
+    }
+
+    private void analizarLALR() {
+        String cadena = cadenaField.getText().trim();
+
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        AnalizadorLALR lalr = glc.getAnalizadorLALR();
+        long msTabla = (System.nanoTime() - inicio) / 1_000_000;
+
+        StringBuilder resultado = new StringBuilder();
+        resultado.append("═══════════════════════════════\n");
+        resultado.append("ANÁLISIS LALR(1)\n");
+        resultado.append("Cadena: \"").append(cadena).append("\"\n");
+        resultado.append("═══════════════════════════════\n\n");
+        resultado.append("Estados LR(0): ").append(lalr.getNumEstados())
+                .append(" (tabla construida en ").append(msTabla).append(" ms)\n\n");
+
+        if (!lalr.esLALR1()) {
+            resultado.append("✗ La gramática NO es LALR(1). Conflictos:\n");
+            for (String conflicto : lalr.getConflictos()) resultado.append("  ").append(conflicto).append("\n");
+            outputArea.setText(resultado.toString());
+            return;
+        }
 
-        if (arbol != null) {
-            resultado.append("Árbol de derivación:\n\n");
-            // Llama al método del modelo para obtener la representación textual del árbol.
-            resultado.append(glc.visualizarArbol(arbol));
-            // Muestra un diagrama del concepto.
-            //
+        inicio = System.nanoTime();
+        GLC.NodoArbol arbol = lalr.arbol(cadena);
+        long us = (System.nanoTime() - inicio) / 1000;
+        if (arbol == null) {
+            resultado.append("✗ La cadena **NO PERTENECE** al lenguaje (error de sintaxis)");
         } else {
-            resultado.append("✗ No se pudo generar el árbol sintáctico\n");
-            resultado.append("La cadena podría no pertenecer al lenguaje o la lógica de parsing falló.");
+            resultado.append("✓ La cadena **PERTENECE** al lenguaje (").append(us).append(" µs)\n\n");
+            resultado.append("Derivación por la derecha:\n");
+            List<String> pasos = GLC.derivacionDesdeArbol(arbol, false);
+            for (int i = 0; i < pasos.size(); i++) {
+                resultado.append(String.format("%2d. %s\n", i, pasos.get(i)));
+            }
+            resultado.append("\nÁrbol sintáctico:\n\n").append(mostrarArbol(arbol));
         }
 
         outputArea.setText(resultado.toString());
     }
 
+    private void analizarGLL() {
+        String cadena = cadenaField.getText().trim();
+
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        BosqueSPPF bosque = glc.analizarGLL(cadena);
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        StringBuilder resultado = new StringBuilder();
+        resultado.append("═══════════════════════════════\n");
+        resultado.append("ANÁLISIS GLL\n");
+        resultado.append("Cadena: \"").append(cadena).append("\"\n");
+        resultado.append("═══════════════════════════════\n\n");
+
+        if (bosque == null) {
+            resultado.append("✗ La cadena **NO PERTENECE** al lenguaje (").append(ms).append(" ms)");
+            outputArea.setText(resultado.toString());
+            return;
+        }
+
+        resultado.append("✓ La cadena **PERTENECE** al lenguaje (").append(ms).append(" ms)\n\n");
+        resultado.append("Bosque compartido: ").append(bosque.getNumNodos()).append(" nodos, ")
+                .append(bosque.getNumAlternativas()).append(" alternativas\n");
+        resultado.append(bosque.esAmbiguo()
+                ? "⚠ La cadena es AMBIGUA (tiene más de un árbol sintáctico)\n\n"
+                : "La cadena tiene un único árbol sintáctico\n\n");
+        resultado.append("Derivación por la izquierda:\n");
+        List<String> pasos = bosque.derivacionIzquierda();
+        for (int i = 0; i < pasos.size(); i++) {
+            resultado.append(String.format("%2d. %s\n", i, pasos.get(i)));
+        }
+        resultado.append("\nÁrbol sintáctico:\n\n").append(mostrarArbol(bosque.arbol()));
+
+        outputArea.setText(resultado.toString());
+    }
+
+    /**
+     * Cuenta los árboles de la cadena y busca la oración ambigua más corta. La
+     * búsqueda puede revisar millones de prefijos, así que va en un hilo de fondo.
+     */
+    private void analizarAmbiguedad() {
+        String cadena = cadenaField.getText().trim();
+
+        if (glc.getNoTerminales().isEmpty()) {
+            mostrarError("Primero debe construir la gramática");
+            return;
+        }
+
+        // El detector toma la gramática compilada aquí, en el hilo de la interfaz.
+        GLC g = glc;
+        DetectorAmbiguedad detector = new DetectorAmbiguedad(g);
+        outputArea.setText("Buscando oraciones ambiguas de longitud ≤ " + LONGITUD_BUSQUEDA_AMBIGUEDAD + "...");
+
+        Task<String> tarea = new Task<>() {
+            @Override
+            protected String call() {
+                StringBuilder resultado = new StringBuilder();
+                resultado.append("═══════════════════════════════\n");
+                resultado.append("ANÁLISIS DE AMBIGÜEDAD\n");
+                resultado.append("Cadena: \"").append(cadena).append("\"\n");
+                resultado.append("═══════════════════════════════\n\n");
+
+                BigInteger arboles = detector.contarArboles(cadena);
+                if (arboles.signum() == 0) {
+                    resultado.append("La cadena no pertenece al lenguaje (0 árboles)\n\n");
+                } else if (arboles.equals(BosqueSPPF.INFINITOS)) {
+                    resultado.append("⚠ La cadena tiene INFINITOS árboles (la gramática tiene ciclos A ⇒+ A)\n\n");
+                } else {
+                    resultado.append("Árboles sintácticos de la cadena: ").append(arboles).append("\n\n");
+                }
+
+                long inicio = System.nanoTime();
+                DetectorAmbiguedad.Resultado busqueda = detector.buscar(LONGITUD_BUSQUEDA_AMBIGUEDAD);
+                long ms = (System.nanoTime() - inicio) / 1_000_000;
+                resultado.append("Búsqueda de oraciones ambiguas (longitud ≤ ").append(LONGITUD_BUSQUEDA_AMBIGUEDAD)
+                        .append(", ").append(busqueda.getCandidatos()).append(" prefijos, ").append(ms).append(" ms):\n");
+                if (!busqueda.esAmbigua()) {
+                    resultado.append(busqueda.esCompleta()
+                            ? "No hay oraciones ambiguas de longitud ≤ " + busqueda.getLongitudRevisada() + "\n"
+                            : "Búsqueda interrumpida; sin ambigüedad hasta la longitud " + busqueda.getLongitudRevisada() + "\n");
+                } else {
+                    String ambigua = busqueda.getCadena().isEmpty() ? "ε" : busqueda.getCadena();
+                    BigInteger total = busqueda.getNumArboles();
+                    resultado.append("⚠ La gramática es AMBIGUA. Oración más corta: \"").append(ambigua).append("\" (")
+                            .append(total.equals(BosqueSPPF.INFINITOS) ? "infinitos" : total.toString()).append(" árboles)\n");
+                    List<GLC.NodoArbol> dos = busqueda.getArboles();
+                    for (int i = 0; i < dos.size(); i++) {
+                        resultado.append("\nÁrbol ").append(i + 1).append(":\n\n").append(g.visualizarArbol(dos.get(i)));
+                    }
+                }
+                return resultado.toString();
+            }
+        };
+        // Mientras corre no se puede reconstruir la gramática ni lanzar otra búsqueda.
+        empezarTarea(ambiguedadBtn);
+        tarea.setOnSucceeded(e -> {
+            terminarTarea(ambiguedadBtn);
+            outputArea.setText(tarea.getValue());
+        });
+        tarea.setOnFailed(e -> {
+            terminarTarea(ambiguedadBtn);
+            mostrarError("Error al buscar ambigüedad: " + tarea.getException().getMessage());
+        });
+        Thread hilo = new Thread(tarea, "ambiguedad-glc");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
     // Métodos cargarDesdeArchivo, guardarEnArchivo, mostrarError (sin cambios)
     /**
      * Carga la definición de la GLC desde un archivo de texto.
@@ -0,0 +1,183 @@
+package org.example.Ui;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import org.example.Modelo.ArbolCompartido;
+import org.example.Modelo.DisposicionArbol;
+
+/**
+ * Visor gráfico de un árbol sintáctico dispuesto con {@link DisposicionArbol}.
+ *
+ * El lienzo mide lo mismo que la ventana visible y en cada cuadro solo se dibuja
+ * lo que cae dentro: por cada nivel visible se buscan con búsqueda binaria el
+ * primer y el último nodo de la ventana. Con poco zoom, varios nodos caen en el
+ * mismo píxel: se dibuja uno y se salta con otra búsqueda binaria al primero del
+ * píxel siguiente (y lo mismo con los niveles), así que el costo de un cuadro
+ * depende del tamaño de la ventana y no del árbol.
+ *
+ * Se navega arrastrando con el mouse, se acerca o aleja con la rueda y con doble
+ * clic se vuelve a ver el árbol completo. Los subárboles que aparecen más de una
+ * vez (compartidos en el {@link ArbolCompartido}) se pintan de otro color.
+ */
+public class VisorArbol extends Pane {
+
+    // Alto de un nivel y de un nodo, en unidades de carácter.
+    private static final double ALTO_NIVEL = 3;
+    private static final double ALTO_NODO = 1.6;
+    // Escala (píxeles por carácter) desde la que se dibujan las etiquetas.
+    private static final double ESCALA_ETIQUETAS = 5;
+
+    private static final Color COLOR_NO_TERMINAL = Color.web("#BBDEFB");
+    private static final Color COLOR_TERMINAL = Color.web("#C8E6C9");
+    private static final Color COLOR_COMPARTIDO = Color.web("#FFE0B2");
+    private static final Color COLOR_ARISTA = Color.web("#90A4AE");
+
+    private final Canvas lienzo = new Canvas();
+    private DisposicionArbol disposicion;
+    private double escala = 10;          // Píxeles por carácter
+    private double origenX;              // Posición en pantalla del x = 0 del árbol
+    private double origenY;
+    private double arrastreX, arrastreY;
+
+    public VisorArbol() {
+        getChildren().add(lienzo);
+        setStyle("-fx-background-color: white; -fx-border-color: #ccc;");
+        setMinSize(100, 100);
+
+        widthProperty().addListener((obs, a, b) -> redimensionar());
+        heightProperty().addListener((obs, a, b) -> redimensionar());
+
+        setOnMousePressed(e -> {
+            arrastreX = e.getX();
+            arrastreY = e.getY();
+        });
+        setOnMouseDragged(e -> {
+            origenX += e.getX() - arrastreX;
+            origenY += e.getY() - arrastreY;
+            arrastreX = e.getX();
+            arrastreY = e.getY();
+            dibujar();
+        });
+        setOnScroll(e -> {
+            double factor = e.getDeltaY() > 0 ? 1.25 : 1 / 1.25;
+            double nueva = Math.max(1e-4, Math.min(80, escala * factor));
+            // El punto bajo el cursor queda fijo.
+            origenX = e.getX() - (e.getX() - origenX) * nueva / escala;
+            origenY = e.getY() - (e.getY() - origenY) * nueva / escala;
+            escala = nueva;
+            dibujar();
+        });
+        setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) ajustar();
+        });
+    }
+
+    /** Muestra el árbol completo (o limpia el visor si es null). */
+    public void setDisposicion(DisposicionArbol disposicion) {
+        this.disposicion = disposicion;
+        ajustar();
+    }
+
+    public DisposicionArbol getDisposicion() { return disposicion; }
+
+    /** Ajusta el zoom para que el árbol entero quepa en la ventana. */
+    public void ajustar() {
+        if (disposicion != null) {
+            double ancho = Math.max(1, disposicion.getMaximo() - disposicion.getMinimo());
+            double alto = disposicion.getNumNiveles() * ALTO_NIVEL;
+            double w = Math.max(1, getWidth() - 20);
+            double h = Math.max(1, getHeight() - 30);
+            escala = Math.max(1e-4, Math.min(14, Math.min(w / ancho, h / alto)));
+            origenX = 10 + (w - ancho * escala) / 2 - disposicion.getMinimo() * escala;
+            origenY = 24;
+        }
+        dibujar();
+    }
+
+    private void redimensionar() {
+        lienzo.setWidth(getWidth());
+        lienzo.setHeight(getHeight());
+        dibujar();
+    }
+
+    private void dibujar() {
+        GraphicsContext gc = lienzo.getGraphicsContext2D();
+        double ancho = lienzo.getWidth();
+        double alto = lienzo.getHeight();
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, ancho, alto);
+        if (disposicion == null) return;
+
+        DisposicionArbol d = disposicion;
+        ArbolCompartido arbol = d.getArbol();
+        double altoNivel = ALTO_NIVEL * escala;
+        double altoNodo = Math.max(1, ALTO_NODO * escala);
+        int primerNivel = Math.max(0, (int) Math.floor((-origenY - altoNodo) / altoNivel));
+        int ultimoNivel = Math.min(d.getNumNiveles() - 1, (int) Math.ceil((alto - origenY) / altoNivel));
+        // Con menos de un píxel por nivel se dibuja uno por fila de píxeles.
+        int pasoNivel = Math.max(1, (int) Math.ceil(1 / altoNivel));
+        double pixel = 1 / escala;                       // Un píxel, en unidades del árbol
+        double desde = -origenX / escala;
+        double hasta = (ancho - origenX) / escala;
+        boolean etiquetas = escala >= ESCALA_ETIQUETAS;
+
+        gc.setStroke(COLOR_ARISTA);
+        gc.setLineWidth(1);
+        gc.setFont(Font.font("Monospaced", Math.min(14, escala * 1.1)));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        long dibujados = 0;
+        for (int nivel = primerNivel - primerNivel % pasoNivel; nivel <= ultimoNivel; nivel += pasoNivel) {
+            if (nivel < primerNivel) continue;
+            double y = origenY + nivel * altoNivel;
+            int fin = d.finNivel(nivel);
+
+            // Aristas hacia los padres: también las de nodos fuera de la ventana cuyo padre cae dentro.
+            if (nivel > 0 && pasoNivel == 1) {
+                int primero = d.primeroDesde(nivel, desde);
+                while (primero > d.inicioNivel(nivel) && d.getX(d.getPadre(primero - 1)) >= desde) primero--;
+                for (int v = primero; v < fin; ) {
+                    int p = d.getPadre(v);
+                    if (d.getX(v) > hasta && d.getX(p) > hasta) break;
+                    double xv = origenX + d.getX(v) * escala;
+                    gc.strokeLine(origenX + d.getX(p) * escala, y - altoNivel + altoNodo / 2, xv, y - altoNodo / 2);
+                    v = siguiente(d, nivel, v, pixel);
+                }
+            }
+
+            for (int v = d.primeroDesde(nivel, desde - 40); v < fin && d.getX(v) <= hasta + 40; ) {
+                double xv = origenX + d.getX(v) * escala;
+                double w = Math.max(1, d.ancho(v) * escala - escala * 0.4);
+                int c = d.getCompartido(v);
+                gc.setFill(arbol.getNumHijos(c) == 0 ? COLOR_TERMINAL
+                        : arbol.getUsos(c) > 1 ? COLOR_COMPARTIDO : COLOR_NO_TERMINAL);
+                gc.fillRect(xv - w / 2, y - altoNodo / 2, w, altoNodo);
+                if (etiquetas) {
+                    gc.setFill(Color.BLACK);
+                    gc.fillText(d.getEtiqueta(v), xv, y);
+                }
+                dibujados++;
+                v = siguiente(d, nivel, v, pixel);
+            }
+        }
+
+        gc.setFill(Color.web("#37474F"));
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.setTextBaseline(VPos.TOP);
+        gc.setFont(Font.font("System", 11));
+        gc.fillText(String.format("%d nodos · %d distintos · %d niveles · zoom %.3g · %d dibujados",
+                d.getNumNodos(), arbol.getNumUnicos(), d.getNumNiveles(), escala, dibujados), 6, 4);
+    }
+
+    // Siguiente nodo del nivel que cae al menos un píxel más a la derecha.
+    private static int siguiente(DisposicionArbol d, int nivel, int v, double pixel) {
+        int s = v + 1;
+        if (s < d.finNivel(nivel) && d.getX(s) < d.getX(v) + pixel) s = d.primeroDesde(nivel, d.getX(v) + pixel);
+        return s;
+    }
+}